@@ -30,6 +30,46 @@ import lombok.NoArgsConstructor;
  * EAGER Collections (@OneToMany) are always LAZY.
  *
  * generateDto If true, DTOs and MapStruct mappers will also be generated.
+ *
+ * sequenceIncrement Target INCREMENT BY / allocationSize for PK sequences. 0
+ * keeps the value read from the catalog; a larger value raises the generated
+ * allocationSize and emits an ALTER SEQUENCE migration.
+ *
+ * generateCaching If true (and services are generated), services get
+ * read-through caching (@Cacheable/@CachePut/@CacheEvict) backed by a
+ * generated Caffeine CacheConfig; sizes/TTLs come from the naming YAML.
+ *
+ * lookupTableMaxRows Tables whose catalog row-count estimate is at most this
+ * value are treated as lookup tables and get Hibernate second-level caching
+ * (@Cacheable + @Cache). 0 disables the detection.
+ *
+ * includeViews If true, views and materialized views are generated too, as
+ * read-only @Immutable entities with query-only repositories/services/controllers.
+ *
+ * generateReadReplica If true (and services are generated), a ReadReplicaConfig
+ * is generated that sends @Transactional(readOnly = true) work to a replica pool
+ * configured under sword.datasource.replica.
+ *
+ * target Persistence and web stack: JPA + Spring MVC (default), R2DBC +
+ * WebFlux or Spring Data JDBC + Spring MVC (see GenerationTarget).
+ *
+ * primitiveTypes If true, NOT NULL numeric/boolean columns become int, long,
+ * boolean, ... in entities, DTOs, resources and finders. PK columns (and FK
+ * columns in RELATION mode) stay boxed.
+ *
+ * targetConcurrency Concurrent requests the generated (blocking) application is
+ * sized for. 0 disables the bootstrap; a positive value enables virtual threads,
+ * sizes the Hikari pool from it, tunes fetch sizes and driver statement caching,
+ * writes an application.yml when none exists and a smoke load test.
+ *
+ * directResourceMapping If true (JPA and JDBC targets, services and controllers
+ * generated), paged GETs map entities straight to resources with a generated
+ * <Entity>EntityResourceMapper instead of going through the DTO. Entities with
+ * a read-through cache keep the DTO path.
+ *
+ * recordCarriers If true, DTOs, resources, PageDto and PageResource are Java
+ * records (immutable, no Lombok, canonical constructors used by MapStruct and
+ * Jackson) instead of Lombok @Data/@Builder classes.
  */
 @Data
 @Builder
@@ -50,6 +90,9 @@ public class ConnectionConfig {
 //	private String basePackage;
 	private Path outputPath;
 
+	@Builder.Default
+	private GenerationTarget target = GenerationTarget.JPA;
+
 	@Builder.Default
 	private FkMode fkMode = FkMode.SCALAR;
 
@@ -67,6 +110,33 @@ public class ConnectionConfig {
 	
 	@Builder.Default
 	private boolean generateControllers = false;
+
+	@Builder.Default
+	private int sequenceIncrement = 0;
+
+	@Builder.Default
+	private boolean generateCaching = false;
+
+	@Builder.Default
+	private long lookupTableMaxRows = 0;
+
+	@Builder.Default
+	private boolean includeViews = false;
+
+	@Builder.Default
+	private boolean generateReadReplica = false;
+
+	@Builder.Default
+	private boolean primitiveTypes = false;
+
+	@Builder.Default
+	private int targetConcurrency = 0;
+
+	@Builder.Default
+	private boolean directResourceMapping = false;
+
+	@Builder.Default
+	private boolean recordCarriers = false;
 	
 
 }
\ No newline at end of file
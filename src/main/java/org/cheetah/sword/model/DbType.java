@@ -1,7 +1,7 @@
 package org.cheetah.sword.model;
 
 public enum DbType {
-    POSTGRES("PostgreSQL", "org.postgresql.Driver", 5432) {
+    POSTGRES("PostgreSQL", "org.postgresql.Driver", 5432, "org.postgresql:r2dbc-postgresql") {
         @Override public String buildJdbcUrl(String host, int port, String dbName) {
             String db = (dbName == null || dbName.isBlank()) ? "postgres" : dbName;
             return "jdbc:postgresql://" + host + ":" + port + "/" + db;
@@ -10,7 +10,7 @@ public enum DbType {
         @Override public boolean usesCatalog() { return false; }
         @Override public String defaultDatabase() { return "postgres"; }
     },
-    MARIADB("MariaDB", "org.mariadb.jdbc.Driver", 3306) {
+    MARIADB("MariaDB", "org.mariadb.jdbc.Driver", 3306, "org.mariadb:r2dbc-mariadb") {
         @Override public String buildJdbcUrl(String host, int port, String dbName) {
             if (dbName == null || dbName.isBlank()) {
                 return "jdbc:mariadb://" + host + ":" + port + "/";
@@ -21,7 +21,7 @@ public enum DbType {
         @Override public boolean usesCatalog() { return true; } // il database è il catalog
         @Override public String defaultDatabase() { return ""; } // opzionale (si possono listare i catalog)
     },
-    MYSQL("MySQL", "com.mysql.cj.jdbc.Driver", 3306) {
+    MYSQL("MySQL", "com.mysql.cj.jdbc.Driver", 3306, "io.asyncer:r2dbc-mysql") {
         @Override public String buildJdbcUrl(String host, int port, String dbName) {
             if (dbName == null || dbName.isBlank()) {
                 return "jdbc:mysql://" + host + ":" + port + "/";
@@ -32,25 +32,36 @@ public enum DbType {
         @Override public boolean usesCatalog() { return true; } // il database è il catalog
         @Override public String defaultDatabase() { return ""; }
     },
-    MSSQL("MS SQL Server", "com.microsoft.sqlserver.jdbc.SQLServerDriver", 1433) {
+    MSSQL("MS SQL Server", "com.microsoft.sqlserver.jdbc.SQLServerDriver", 1433, "io.r2dbc:r2dbc-mssql") {
         @Override public String buildJdbcUrl(String host, int port, String dbName) {
             String db = (dbName == null || dbName.isBlank()) ? "master" : dbName;
             return "jdbc:sqlserver://" + host + ":" + port + ";encrypt=false;databaseName=" + db;
         }
+        @Override public String buildR2dbcUrl(String host, int port, String dbName) {
+            String db = (dbName == null || dbName.isBlank()) ? "master" : dbName;
+            return "r2dbc:mssql://" + host + ":" + port + "/" + db;
+        }
         @Override public boolean usesSchema() { return true; }   // es. dbo
         @Override public boolean usesCatalog() { return true; }  // il database è il catalog
         @Override public String defaultDatabase() { return "master"; }
     },
-    H2("H2", "org.h2.Driver", 9092) {
+    H2("H2", "org.h2.Driver", 9092, "io.r2dbc:r2dbc-h2") {
         @Override public String buildJdbcUrl(String host, int port, String dbName) {
             String db = (dbName == null || dbName.isBlank()) ? "~/test" : dbName;
             return "jdbc:h2:tcp://" + host + ":" + port + "/" + db;
         }
+        @Override public String buildR2dbcUrl(String host, int port, String dbName) {
+            // r2dbc-h2 only parses mem/file URLs: a server database goes in the url option
+            String db = (dbName == null || dbName.isBlank()) ? "~/test" : dbName;
+            String url = "tcp://" + host + ":" + port + "/" + db;
+            return "r2dbc:h2://" + host + ":" + port + "/" + db + "?url="
+                    + java.net.URLEncoder.encode(url, java.nio.charset.StandardCharsets.UTF_8);
+        }
         @Override public boolean usesSchema() { return true; }   // es. PUBLIC
         @Override public boolean usesCatalog() { return false; }
         @Override public String defaultDatabase() { return "~/test"; }
     },
-    DB2("IBM DB2", "com.ibm.db2.jcc.DB2Driver", 50000) {
+    DB2("IBM DB2", "com.ibm.db2.jcc.DB2Driver", 50000, "com.ibm.db2:db2-r2dbc") {
         @Override public String buildJdbcUrl(String host, int port, String dbName) {
             String db = (dbName == null || dbName.isBlank()) ? "SAMPLE" : dbName;
             return "jdbc:db2://" + host + ":" + port + "/" + db;
@@ -63,17 +74,33 @@ public enum DbType {
     private final String display;
     private final String driver;
     private final int defaultPort;
+    private final String r2dbcDriver;
 
-    DbType(String display, String driver, int defaultPort) {
+    DbType(String display, String driver, int defaultPort, String r2dbcDriver) {
         this.display = display;
         this.driver = driver;
         this.defaultPort = defaultPort;
+        this.r2dbcDriver = r2dbcDriver;
     }
 
     public String displayName() { return display; }
     public String driverClass() { return driver; }
     public int defaultPort() { return defaultPort; }
 
+    /** Maven coordinates (groupId:artifactId) of the R2DBC driver of the vendor. */
+    public String r2dbcDriver() { return r2dbcDriver; }
+
+    /** R2DBC URL of the same database: the JDBC URL with the r2dbc scheme (SQL Server and H2 have their own syntax). */
+    public String buildR2dbcUrl(String host, int port, String dbName) {
+        return "r2dbc:" + buildJdbcUrl(host, port, dbName).substring("jdbc:".length());
+    }
+
+    /** Quotes an identifier for native SQL: backticks on MySQL/MariaDB, double quotes elsewhere. */
+    public String quote(String identifier) {
+        String q = (this == MYSQL || this == MARIADB) ? "`" : "\"";
+        return q + identifier.replace(q, q + q) + q;
+    }
+
     /** Costruisce l'URL JDBC completo includendo il database quando richiesto dal dialect. */
     public abstract String buildJdbcUrl(String host, int port, String dbName);
     public abstract boolean usesSchema();
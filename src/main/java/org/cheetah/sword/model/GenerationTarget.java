@@ -0,0 +1,16 @@
+package org.cheetah.sword.model;
+
+/**
+ * Persistence and web stack of the generated code.
+ *
+ * JPA   -> JPA entities, Spring Data JPA repositories, blocking services, Spring MVC controllers
+ * R2DBC -> Spring Data R2DBC entities and ReactiveCrudRepository interfaces, services returning
+ *          Mono/Flux, WebFlux controllers (scalar FKs, single-column keys)
+ * JDBC  -> Spring Data JDBC aggregates and repositories, blocking services, Spring MVC
+ *          controllers (scalar FKs, single-column keys)
+ */
+public enum GenerationTarget {
+    JPA,
+    R2DBC,
+    JDBC
+}
@@ -0,0 +1,279 @@
+package org.cheetah.sword.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.cheetah.sword.model.ConnectionConfig;
+import org.cheetah.sword.model.DbType;
+import org.cheetah.sword.model.GenerationTarget;
+import org.springframework.stereotype.Component;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.Yaml;
+
+/**
+ * Generates application-sword.yml, the Spring Boot configuration the generated
+ * layers rely on. It is a profile file, so it never overwrites the application's own
+ * application.yml: activate it with spring.profiles.include=sword or
+ * spring.config.import=classpath:application-sword.yml.
+ *
+ * Settings:
+ * - Hibernate JDBC batching (batch_size, order_inserts, order_updates), used by the
+ *   bulk endpoints and by pooled-lo sequence generators.
+ * - hibernate.id.optimizer.pooled.preferred=pooled-lo: the @SequenceGenerator of a
+ *   sequence with INCREMENT BY above 1 uses the pooled-lo optimizer.
+ * - sword.bulk.chunk-size: rows flushed/cleared per chunk in XService bulk methods.
+ * - sword.batch-get.in-chunk-size: bind parameters per IN list of XService.findAllById,
+ *   below the vendor limit (SQL Server 2100 parameters, 1000 elsewhere as on Oracle).
+ * - sword.web.if-match-required: PUT/PATCH of versioned resources without If-Match answer
+ *   428 instead of overwriting the row when the body carries no version (false).
+ * - with caching: Actuator exposure of the metrics and caches endpoints, so cache
+ *   hit ratios (cache.gets{result=hit|miss}) can be watched and caches cleared.
+ * - with lookup tables: Hibernate second-level cache on JCache/Caffeine, regions
+ *   configured in sword-l2cache.conf (see SecondLevelCacheWriter).
+ *
+ * With a target concurrency (ConnectionConfig.targetConcurrency, JPA and JDBC targets)
+ * the file also bootstraps the blocking application for it:
+ * - spring.threads.virtual.enabled: Tomcat and @Async run on virtual threads (Java 21),
+ *   so concurrent requests are no longer capped by the 200 platform worker threads;
+ * - a fixed-size Hikari pool (poolSize): the connection pool, not the thread pool,
+ *   becomes the limit on concurrent database work;
+ * - JDBC fetch size (hibernate.jdbc.fetch_size or spring.jdbc.template.fetch-size)
+ *   and, for JPA, spring.jpa.open-in-view=false, so a connection is only held inside
+ *   the service transaction and not while the response is being written;
+ * - driver statement caching for the DbType (statementCacheProperties).
+ * An application.yml pointing at the database and including the profile is written
+ * next to it when the application has none yet (writeBootstrapConfig).
+ *
+ * With the R2DBC target (GenerationTarget.R2DBC) the file instead carries the reactive
+ * connection: spring.r2dbc.url/username for the selected DbType (the driver artifact
+ * is named in a header comment, the password is left to the environment) and
+ * spring.main.web-application-type=reactive, so WebFlux is used even when Spring MVC
+ * is also on the classpath.
+ *
+ * The file goes to the resources root next to the sources (src/main/java ->
+ * src/main/resources) or, for any other output layout, into the output root itself.
+ */
+@Component
+public class ApplicationConfigWriter {
+
+	static final String CONFIG_FILE = "application-sword.yml";
+
+	static final String BULK_CHUNK_SIZE_KEY = "sword.bulk.chunk-size";
+	static final int DEFAULT_BULK_CHUNK_SIZE = 500;
+	static final int JDBC_BATCH_SIZE = 50;
+
+	static final String IN_CHUNK_SIZE_KEY = "sword.batch-get.in-chunk-size";
+	static final int DEFAULT_IN_CHUNK_SIZE = 1000;
+
+	static final String IF_MATCH_REQUIRED_KEY = "sword.web.if-match-required";
+
+	static final String BOOTSTRAP_FILE = "application.yml";
+	static final int JDBC_FETCH_SIZE = 100;
+
+	public void writeApplicationConfig(Path rootPath, ConnectionConfig cfg, boolean secondLevelCache)
+			throws IOException {
+		if (cfg.getTarget() == GenerationTarget.R2DBC) {
+			writeReactiveApplicationConfig(rootPath, cfg);
+			return;
+		}
+		Map<String, Object> root = new LinkedHashMap<>();
+		boolean bootstrap = cfg.getTargetConcurrency() > 0;
+		String header = "";
+		if (bootstrap) {
+			putBootstrap(root, cfg);
+			header = "# Sized for " + cfg.getTargetConcurrency() + " concurrent requests (virtual threads need Java 21)\n";
+		}
+		if (cfg.getTarget() == GenerationTarget.JDBC) {
+			if (bootstrap) {
+				put(root, "spring.jdbc.template.fetch-size", JDBC_FETCH_SIZE);
+			}
+			write(rootPath, root, header);
+			return;
+		}
+		if (bootstrap) {
+			put(root, "spring.jpa.open-in-view", false);
+		}
+
+		Map<String, Object> hibernate = new LinkedHashMap<>();
+		Map<String, Object> jdbc = new LinkedHashMap<>();
+		jdbc.put("batch_size", JDBC_BATCH_SIZE);
+		jdbc.put("batch_versioned_data", true);
+		if (bootstrap) {
+			jdbc.put("fetch_size", JDBC_FETCH_SIZE);
+		}
+		hibernate.put("jdbc", jdbc);
+		hibernate.put("order_inserts", true);
+		hibernate.put("order_updates", true);
+		hibernate.put("id.optimizer.pooled.preferred", "pooled-lo");
+		if (secondLevelCache) {
+			Map<String, Object> cache = new LinkedHashMap<>();
+			cache.put("use_second_level_cache", true);
+			cache.put("region.factory_class", "jcache");
+			cache.put("missing_cache_strategy", "create");
+			hibernate.put("cache", cache);
+			Map<String, Object> jcache = new LinkedHashMap<>();
+			jcache.put("provider", "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider");
+			// a plain resource name: Hibernate looks the URI up as a class loader resource and has no classpath: scheme
+			jcache.put("uri", SecondLevelCacheWriter.REGION_CONFIG_FILE);
+			hibernate.put("javax.cache", jcache);
+		}
+		put(root, "spring.jpa.properties.hibernate", hibernate);
+
+		put(root, BULK_CHUNK_SIZE_KEY, DEFAULT_BULK_CHUNK_SIZE);
+		put(root, IN_CHUNK_SIZE_KEY, inChunkSize(cfg.getDbType()));
+		put(root, IF_MATCH_REQUIRED_KEY, false);
+
+		if (cfg.isGenerateCaching()) {
+			put(root, "management.endpoints.web.exposure.include", "health,metrics,caches");
+		}
+
+		write(rootPath, root, header);
+	}
+
+	/**
+	 * Writes application.yml (datasource of the generation run, sword profile included)
+	 * unless the application already has an application.yml or application.properties:
+	 * that file belongs to the application.
+	 */
+	public void writeBootstrapConfig(Path rootPath, ConnectionConfig cfg) throws IOException {
+		Path out = resourcesRoot(rootPath).resolve(BOOTSTRAP_FILE);
+		Path properties = out.resolveSibling("application.properties");
+		if (Files.exists(out) || Files.exists(properties)) {
+			System.out.printf("   Kept existing      : %s%n", (Files.exists(out) ? out : properties).toAbsolutePath());
+			return;
+		}
+		DbType dbType = cfg.getDbType();
+		Map<String, Object> root = new LinkedHashMap<>();
+		put(root, "spring.profiles.include", "sword");
+		put(root, "spring.datasource.url", dbType.buildJdbcUrl(cfg.getHost(), cfg.getPort(), cfg.getDbName()));
+		put(root, "spring.datasource.username", cfg.getUsername());
+		writeYaml(out, root, "# Application bootstrap (written once, yours to edit)\n"
+				+ "# JDBC driver: " + dbType.driverClass() + " (password: SPRING_DATASOURCE_PASSWORD)\n");
+	}
+
+	private static void putBootstrap(Map<String, Object> root, ConnectionConfig cfg) {
+		put(root, "spring.threads.virtual.enabled", true);
+		int poolSize = poolSize(cfg.getTargetConcurrency());
+		put(root, "spring.datasource.hikari.maximum-pool-size", poolSize);
+		put(root, "spring.datasource.hikari.minimum-idle", poolSize);
+		Map<String, Object> statementCache = statementCacheProperties(cfg.getDbType());
+		if (!statementCache.isEmpty()) {
+			put(root, "spring.datasource.hikari.data-source-properties", statementCache);
+		}
+	}
+
+	/**
+	 * Connections for a target concurrency. With open-in-view disabled a CRUD request
+	 * holds its connection for roughly a quarter of its time (the service transaction;
+	 * JSON mapping and the network are the rest), so a quarter of the concurrent
+	 * requests, at least Hikari's default 10 and at most 100: past that most databases
+	 * lose throughput to lock and CPU contention rather than gain it.
+	 */
+	static int poolSize(int targetConcurrency) {
+		return Math.max(10, Math.min(100, (targetConcurrency + 3) / 4));
+	}
+
+	/**
+	 * Driver properties keeping prepared statements per connection, so the generated
+	 * repositories' few distinct statements are parsed once per connection:
+	 * - PostgreSQL: larger client cache (server-side prepare after prepareThreshold uses);
+	 * - MySQL: server-side prepared statements with a client cache, multi-row batch inserts;
+	 * - MariaDB: server-side prepared statements with a client cache;
+	 * - SQL Server: statement pooling (off by default in mssql-jdbc);
+	 * - DB2: JCC statement cache (maxStatements);
+	 * - H2: nothing, the engine caches parsed statements per session.
+	 */
+	static Map<String, Object> statementCacheProperties(DbType dbType) {
+		Map<String, Object> props = new LinkedHashMap<>();
+		switch (dbType) {
+		case POSTGRES -> {
+			props.put("preparedStatementCacheQueries", 512);
+			props.put("preparedStatementCacheSizeMiB", 16);
+		}
+		case MYSQL -> {
+			props.put("cachePrepStmts", true);
+			props.put("prepStmtCacheSize", 250);
+			props.put("prepStmtCacheSqlLimit", 2048);
+			props.put("useServerPrepStmts", true);
+			props.put("rewriteBatchedStatements", true);
+		}
+		case MARIADB -> {
+			props.put("cachePrepStmts", true);
+			props.put("prepStmtCacheSize", 250);
+			props.put("useServerPrepStmts", true);
+		}
+		case MSSQL -> {
+			props.put("disableStatementPooling", false);
+			props.put("statementPoolingCacheSize", 256);
+		}
+		case DB2 -> props.put("maxStatements", 256);
+		case H2 -> {
+		}
+		}
+		return props;
+	}
+
+	private void writeReactiveApplicationConfig(Path rootPath, ConnectionConfig cfg) throws IOException {
+		DbType dbType = cfg.getDbType();
+		Map<String, Object> root = new LinkedHashMap<>();
+		put(root, "spring.main.web-application-type", "reactive");
+		put(root, "spring.r2dbc.url", dbType.buildR2dbcUrl(cfg.getHost(), cfg.getPort(), cfg.getDbName()));
+		put(root, "spring.r2dbc.username", cfg.getUsername());
+		write(rootPath, root, "# R2DBC driver: " + dbType.r2dbcDriver() + " (password: SPRING_R2DBC_PASSWORD)\n");
+	}
+
+	private void write(Path rootPath, Map<String, Object> root, String header) throws IOException {
+		writeYaml(resourcesRoot(rootPath).resolve(CONFIG_FILE), root,
+				"# Activate with spring.profiles.include=sword\n" + header);
+	}
+
+	private void writeYaml(Path out, Map<String, Object> root, String header) throws IOException {
+		DumperOptions options = new DumperOptions();
+		options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+		options.setIndent(2);
+		String yaml = "# Generated by S.W.O.R.D. on " + OffsetDateTime.now() + "\n" + header
+				+ new Yaml(options).dump(root);
+
+		Files.createDirectories(out.getParent());
+		Files.writeString(out, yaml, StandardCharsets.UTF_8);
+		System.out.printf("   Application config : %s%n", out.toAbsolutePath());
+	}
+
+	/**
+	 * IN-list bind parameters per query: SQL Server refuses more than 2100 parameters per
+	 * statement, the other vendors get the conservative Oracle-style 1000.
+	 */
+	static int inChunkSize(DbType dbType) {
+		return dbType == DbType.MSSQL ? 2000 : DEFAULT_IN_CHUNK_SIZE;
+	}
+
+	/**
+	 * Resources root for non-Java output: "src/main/resources" when the output root is
+	 * a Maven/Gradle "src/main/java" folder, the output root itself otherwise.
+	 */
+	static Path resourcesRoot(Path rootPath) {
+		Path abs = rootPath.toAbsolutePath().normalize();
+		if (abs.getFileName() != null && "java".equals(abs.getFileName().toString()) && abs.getParent() != null) {
+			return abs.getParent().resolve("resources");
+		}
+		return abs;
+	}
+
+	/**
+	 * Puts a value at a dotted path ("spring.jpa.properties"), creating the nested maps.
+	 */
+	@SuppressWarnings("unchecked")
+	private static void put(Map<String, Object> root, String dottedPath, Object value) {
+		String[] keys = dottedPath.split("\\.");
+		Map<String, Object> current = root;
+		for (int i = 0; i < keys.length - 1; i++) {
+			current = (Map<String, Object>) current.computeIfAbsent(keys[i], k -> new LinkedHashMap<String, Object>());
+		}
+		current.put(keys[keys.length - 1], value);
+	}
+}
@@ -0,0 +1,115 @@
+package org.cheetah.sword.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import javax.lang.model.element.Modifier;
+
+import org.cheetah.sword.service.records.CacheSettings;
+import org.cheetah.sword.service.records.EntityModel;
+import org.cheetah.sword.wizard.SwordWizard;
+import org.springframework.stereotype.Component;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeSpec;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Generates the CacheConfig class backing the read-through caching of the
+ * generated services (see ServiceWriter): a Caffeine cache manager with one
+ * bounded, expiring cache pair per entity.
+ *
+ * @Configuration
+ * @EnableCaching
+ * public class CacheConfig {
+ *     @Bean
+ *     public CacheManager cacheManager() {
+ *         CaffeineCacheManager manager = new CaffeineCacheManager();
+ *         manager.registerCustomCache("User.byId", Caffeine.newBuilder()
+ *                 .maximumSize(10000).expireAfterWrite(Duration.ofSeconds(600)).recordStats().build());
+ *         ...
+ *         return manager;
+ *     }
+ *
+ *     @Bean
+ *     public KeyGenerator queryKeyGenerator() {
+ *         return (target, method, params) -> new SimpleKey(method.getName(), SimpleKeyGenerator.generateKey(params));
+ *     }
+ * }
+ *
+ * Sizes and TTLs come from the naming YAML (NamingConfigService#resolveCacheSettings);
+ * recordStats() exposes hit/miss ratios as cache.* metrics through Actuator.
+ * queryKeyGenerator keys the "<Entity>.queries" entries by service method too: all the
+ * finders of an entity share that cache, and findByFirstName("Lee", 0, 20) must not hit
+ * the page of findByLastName("Lee", 0, 20).
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheConfigWriter {
+
+	static final String CACHE_CONFIG = "CacheConfig";
+	static final String QUERY_KEY_GENERATOR = "queryKeyGenerator";
+
+	private final NamingConfigService namingConfigService;
+
+	static String byIdCache(String entitySimpleName) {
+		return entitySimpleName + ".byId";
+	}
+
+	static String queriesCache(String entitySimpleName) {
+		return entitySimpleName + ".queries";
+	}
+
+	public void writeCacheConfig(Path rootPath, List<EntityModel> models) throws IOException {
+		ClassName cacheManagerClass = ClassName.get("org.springframework.cache", "CacheManager");
+		ClassName caffeineManagerClass = ClassName.get("org.springframework.cache.caffeine", "CaffeineCacheManager");
+		ClassName caffeineClass = ClassName.get("com.github.benmanes.caffeine.cache", "Caffeine");
+		ClassName durationClass = ClassName.get("java.time", "Duration");
+
+		MethodSpec.Builder cacheManager = MethodSpec.methodBuilder("cacheManager").addModifiers(Modifier.PUBLIC)
+				.addAnnotation(ClassName.get("org.springframework.context.annotation", "Bean"))
+				.returns(cacheManagerClass)
+				.addStatement("$T manager = new $T()", caffeineManagerClass, caffeineManagerClass);
+
+		for (EntityModel model : models) {
+			CacheSettings settings = namingConfigService.resolveCacheSettings(model.table());
+			if (!settings.enabled()) {
+				continue;
+			}
+			String entitySimpleName = namingConfigService.resolveEntityName(model.table());
+			for (String cacheName : List.of(byIdCache(entitySimpleName), queriesCache(entitySimpleName))) {
+				cacheManager.addStatement(
+						"manager.registerCustomCache($S, $T.newBuilder().maximumSize($LL)"
+								+ ".expireAfterWrite($T.ofSeconds($LL)).recordStats().build())",
+						cacheName, caffeineClass, settings.maximumSize(), durationClass, settings.ttlSeconds());
+			}
+		}
+		cacheManager.addStatement("return manager");
+
+		ClassName simpleKeyClass = ClassName.get("org.springframework.cache.interceptor", "SimpleKey");
+		MethodSpec queryKeyGenerator = MethodSpec.methodBuilder(QUERY_KEY_GENERATOR).addModifiers(Modifier.PUBLIC)
+				.addJavadoc("Key of the .queries caches: service method name and arguments.\n")
+				.addAnnotation(ClassName.get("org.springframework.context.annotation", "Bean"))
+				.returns(ClassName.get("org.springframework.cache.interceptor", "KeyGenerator"))
+				.addStatement("return (target, method, params) -> new $T(method.getName(), $T.generateKey(params))",
+						simpleKeyClass, ClassName.get("org.springframework.cache.interceptor", "SimpleKeyGenerator"))
+				.build();
+
+		AnnotationSpec generatedAnn = AnnotationSpec.builder(ClassName.get("jakarta.annotation", "Generated"))
+				.addMember("value", "$S", "S.W.O.R.D.").addMember("date", "$S", OffsetDateTime.now().toString())
+				.build();
+
+		TypeSpec config = TypeSpec.classBuilder(CACHE_CONFIG).addModifiers(Modifier.PUBLIC)
+				.addAnnotation(ClassName.get("org.springframework.context.annotation", "Configuration"))
+				.addAnnotation(ClassName.get("org.springframework.cache.annotation", "EnableCaching"))
+				.addAnnotation(generatedAnn).addMethod(cacheManager.build()).addMethod(queryKeyGenerator).build();
+
+		JavaFile.builder(SwordWizard.CONFIG_PKG, config).build().writeTo(rootPath);
+	}
+}
@@ -2,7 +2,9 @@ package org.cheetah.sword.service;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.lang.model.element.Modifier;
 
@@ -13,12 +15,14 @@ import org.springframework.stereotype.Component;
 
 import com.squareup.javapoet.AnnotationSpec;
 import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterSpec;
 import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.TypeVariableName;
 
 /**
  * Generates the REST controller that exposes Resource payloads.
@@ -26,10 +30,42 @@ import com.squareup.javapoet.TypeSpec;
  * - HTTP exposure only (no business logic).
  * - Delegates to Service (DTO-level) and converts via Resource<->DTO mapper.
  * - Emits CRUD endpoints and a "findBy<Field>" endpoint for each scalar field.
+ * - GET ?ids=1,2,3 (simple ids) and POST /_batch-get (any id, composite ones as JSON objects) return
+ *   many resources in request order from chunked IN queries instead of one GET /{id} per row.
+ * - Indexed temporal/numeric fields get GET /by-<field>/range?from=&to= (inclusive, paged, ordered by
+ *   the field) and GET /by-<field>/scan?from=&to=&after=&afterId=&limit= (keyset scan, no count query).
+ * - GET /search combines equality/IN, range and prefix filters on any columns, plus sort,
+ *   in one query (see SpecificationWriter); malformed filters answer 400.
+ * - PUT /upsert inserts or updates a list of resources by primary key with the database's native
+ *   upsert (tables with client-assigned keys only, see UpsertWriter), no entity loaded.
+ * - HEAD /{id} answers 200/404 from an existence query; DELETE /{id} answers 404 when nothing was deleted.
+ * - Indexed finder fields of entities without inverse relations get DELETE /by-<field>?<field>=v, one bulk
+ *   DELETE answering the deleted row count.
+ * - PATCH /{id} applies only the properties present in the body (partial update).
+ * - Versioned entities (@Version) send the version as ETag and honour If-Match on PUT/PATCH (412).
+ * - Direct resource mapping: the paged list and findBy<Field> endpoints read resources straight from
+ *   the entities (<Entity>EntityResourceMapper passed to the service as a projection), no DTO per row.
+ * - Resource properties renamed in the naming YAML are used by the CSV columns and translated back
+ *   to DTO properties for PATCH.
+ * - GET endpoints are conditional: ETag (version, else a hash of the columns) and Last-Modified
+ *   (audit timestamp column) are checked against If-None-Match / If-Modified-Since before the
+ *   resource is mapped and serialized (304), and every answer carries the entity's Cache-Control.
+ *   List ETags fold the id and version of each row (the columns without a version) with the page
+ *   position: no JSON is written to compute them.
+ * - Read-only entities (views, read-only reference data) only get the GET endpoints
+ *   (list, by id, finders, export).
+ * - Each LOB field is streamed as application/octet-stream by GET/PUT /{id}/<field>
+ *   (PUT only for writable entities), never buffered in heap.
  */
 @Component
 public class ControllerWriter {
 
+    /** Most ids accepted by one batch get (400 above). */
+    static final int MAX_BATCH_IDS = 5000;
+
+    /** Upper bound of the limit parameter of the keyset scan endpoints. */
+    static final int MAX_SCAN_LIMIT = 1000;
+
     /**
      * Writes the REST controller source for the given entity.
      *
@@ -40,15 +76,35 @@ public class ControllerWriter {
      * @param rootPath           Root output path for sources.
      * @param entitySimpleName   Simple entity name (e.g. "Incident").
      * @param idType             JavaPoet TypeName for the id path variable.
+     * @param idFieldName        DTO property of a single-column id; null for composite ids.
      * @param scalarFieldInfos   Scalar fields of the entity (name + TypeName).
+     * @param lobFieldInfos      LOB fields of the entity, exposed by streaming endpoints only.
+     * @param versionField       @Version field, sent as ETag and checked against If-Match; null if none.
+     * @param lastModifiedField  Audit timestamp field sent as Last-Modified by getById; null if none.
+     * @param cacheControl       Cache-Control value of the GET endpoints.
      * @param generatedAnn       @Generated annotation to apply on the type.
+     * @param directDelete       true when the service has deleteBy<Field> for indexed finder fields.
+     * @param upsert             true when the service has a native upsertAll (PUT /upsert).
+     * @param readOnly           true for views/read-only entities: no write endpoints.
+     * @param directResources    true when paged reads map entities to resources with the EntityResourceMapper.
+     * @param records            true when DTOs, resources and page objects are records (accessors, no setters).
      */
     public void writeController(
                                 Path rootPath,
                                 String entitySimpleName,
                                 TypeName idType,
+                                String idFieldName,
                                 List<ScalarFieldInfo> scalarFieldInfos,
-                                AnnotationSpec generatedAnn) throws IOException {
+                                List<ScalarFieldInfo> lobFieldInfos,
+                                ScalarFieldInfo versionField,
+                                ScalarFieldInfo lastModifiedField,
+                                String cacheControl,
+                                AnnotationSpec generatedAnn,
+                                boolean directDelete,
+                                boolean upsert,
+                                boolean readOnly,
+                                boolean directResources,
+                                boolean records) throws IOException {
 
         // Naming policy: <Entity>Resource as controller name (package distinguishes it from the Resource POJO).
         String controllerSimpleName     = NamingUtils.pluralizeSimpleName(entitySimpleName) + "Controller";
@@ -75,6 +131,7 @@ public class ControllerWriter {
         TypeName resourceListType               = ParameterizedTypeName.get(listRawClass, resourceClass);
         TypeName pageResourceOfResourceType     = ParameterizedTypeName.get(pageResourceRawClass, resourceClass);
         TypeName pageDtoOfDtoType               = ParameterizedTypeName.get(pageDtoClass, dtoClass);
+        TypeName pageDtoOfResourceType          = ParameterizedTypeName.get(pageDtoClass, resourceClass);
         TypeName responseEntityOfResourceList   = ParameterizedTypeName.get(responseEntityClass, resourceListType);
         TypeName responseEntityOfPageResource   = ParameterizedTypeName.get(responseEntityClass, pageResourceOfResourceType);
         TypeName responseEntityOfResource       = ParameterizedTypeName.get(responseEntityClass, resourceClass);
@@ -94,15 +151,41 @@ public class ControllerWriter {
             com.squareup.javapoet.FieldSpec.builder(serviceClass, "service", Modifier.PRIVATE, Modifier.FINAL).build();
         com.squareup.javapoet.FieldSpec mapperFieldSpec  =
             com.squareup.javapoet.FieldSpec.builder(resourceMapperClass, "mapper",  Modifier.PRIVATE, Modifier.FINAL).build();
+        ClassName objectMapperClass = ClassName.get("com.fasterxml.jackson.databind", "ObjectMapper");
+        com.squareup.javapoet.FieldSpec objectMapperFieldSpec =
+            com.squareup.javapoet.FieldSpec.builder(objectMapperClass, "objectMapper", Modifier.PRIVATE, Modifier.FINAL).build();
+        com.squareup.javapoet.FieldSpec cacheControlFieldSpec =
+            com.squareup.javapoet.FieldSpec.builder(String.class, "CACHE_CONTROL", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer("$S", cacheControl).build();
+
+        ClassName entityMapperClass = ClassName.get(SwordWizard.RESOURCE_MAPPERS_PKG,
+            ResourceMapperWriter.entityResourceMapperName(entitySimpleName));
+        com.squareup.javapoet.FieldSpec entityMapperFieldSpec =
+            com.squareup.javapoet.FieldSpec.builder(entityMapperClass, "entityMapper", Modifier.PRIVATE, Modifier.FINAL).build();
 
         // Ctor
-        MethodSpec constructor = MethodSpec.constructorBuilder()
+        MethodSpec.Builder constructorBuilder = MethodSpec.constructorBuilder()
             .addModifiers(Modifier.PUBLIC)
             .addParameter(serviceClass, "service")
             .addParameter(resourceMapperClass,  "mapper")
+            .addParameter(objectMapperClass, "objectMapper")
             .addStatement("this.service = service")
             .addStatement("this.mapper = mapper")
-            .build();
+            .addStatement("this.objectMapper = objectMapper");
+        if (directResources) {
+            constructorBuilder.addParameter(entityMapperClass, "entityMapper")
+                .addStatement("this.entityMapper = entityMapper");
+        }
+        com.squareup.javapoet.FieldSpec ifMatchRequiredFieldSpec =
+            com.squareup.javapoet.FieldSpec.builder(TypeName.BOOLEAN, "ifMatchRequired", Modifier.PRIVATE, Modifier.FINAL).build();
+        if (versionField != null) {
+            constructorBuilder.addParameter(ParameterSpec.builder(TypeName.BOOLEAN, "ifMatchRequired")
+                    .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.beans.factory.annotation", "Value"))
+                        .addMember("value", "$S", "${" + ApplicationConfigWriter.IF_MATCH_REQUIRED_KEY + ":false}").build())
+                    .build())
+                .addStatement("this.ifMatchRequired = ifMatchRequired");
+        }
+        MethodSpec constructor = constructorBuilder.build();
 
         // --- Parameters (annotated) ---
         ParameterSpec idPathVariableParam = ParameterSpec.builder(idType, "id")
@@ -123,9 +206,15 @@ public class ControllerWriter {
 
         ParameterSpec pageDtoParamSpec = ParameterSpec.builder(pageDtoOfDtoType, "pageDto").build();
 
+        ParameterSpec webRequestParam = ParameterSpec.builder(
+                ClassName.get("org.springframework.web.context.request", "WebRequest"), "request")
+                .build();
+
+        ClassName httpHeadersClass = ClassName.get("org.springframework.http", "HttpHeaders");
+
         // --- CRUD endpoints ---
 
-        MethodSpec getAll = MethodSpec.methodBuilder("getAll")
+        MethodSpec.Builder getAllBuilder = MethodSpec.methodBuilder("getAll")
             .addJavadoc("Returns the full list of resources.\n")
             .addModifiers(Modifier.PUBLIC)
             .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "GetMapping"))
@@ -133,18 +222,31 @@ public class ControllerWriter {
             .returns(responseEntityOfPageResource)
             .addParameter(pageNumberRequestParam)
             .addParameter(pageSizeRequestParam)
-            .addStatement("$T pageDto = service.findAll(pageNumber,pageSize)", pageDtoOfDtoType)
-            .addStatement("$T pageResource = toPageResource(pageDto)", pageResourceOfResourceType)
-            .addStatement("return $T.ok(pageResource)", responseEntityClass)
-            .build();
+            .addParameter(webRequestParam);
+        ClassName controllerClass = ClassName.get(SwordWizard.CONTROLLER_PKG, controllerSimpleName);
+        getAllBuilder.addStatement("return $L", directResources
+            ? directPage(CodeBlock.of("service.findAll(pageNumber, pageSize, entityMapper::toResource)"), controllerClass)
+            : dtoPage(CodeBlock.of("service.findAll(pageNumber, pageSize)"), controllerClass));
+        MethodSpec getAll = getAllBuilder.build();
 
         MethodSpec toPageResourceMethod = MethodSpec.methodBuilder("toPageResource")
                 .addJavadoc("Transforms a PageDto in a PageResource")
                 .addModifiers(Modifier.PRIVATE)
                 .returns(pageResourceOfResourceType)
                 .addParameter(pageDtoParamSpec)
-                .addStatement("$T content = pageDto.getContent().stream().map(mapper::toResource).toList()", resourceListType)
-                .addStatement("return $T.<$T>builder().content(content).pageNumber(pageDto.getPageNumber()).pageSize(pageDto.getPageSize()).totalElements(pageDto.getTotalElements()).totalPages(pageDto.getTotalPages()).build()", pageResourceClass, resourceClass)
+                .addStatement("$T content = pageDto.$L().stream().map(mapper::toResource).toList()", resourceListType,
+                    PageObjectWriter.contentAccessor(records))
+                .addStatement("return $L", PageObjectWriter.fromPageObject(pageResourceClass, resourceClass, "content", "pageDto", records))
+                .build();
+
+        // direct resource mapping: the service already returns resources, only the page wrapper changes
+        MethodSpec asPageResourceMethod = MethodSpec.methodBuilder("asPageResource")
+                .addJavadoc("Wraps a page of resources read by the service in a PageResource")
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .returns(pageResourceOfResourceType)
+                .addParameter(pageDtoOfResourceType, "page")
+                .addStatement("return $L", PageObjectWriter.fromPageObject(pageResourceClass, resourceClass,
+                    "page." + PageObjectWriter.contentAccessor(records) + "()", "page", records))
                 .build();
 
         /*
@@ -154,15 +256,237 @@ public class ControllerWriter {
          *     return PageDto.<AddressDto>builder().content(dtoList).pageNumber(page.getNumber()).pageSize(page.getSize()).totalElements(page.getTotalElements()).totalPages(page.getTotalPages()).build();
          *
          */
+        /*
+         * Conditional GET: the validators come from the DTO, so a 304 costs the query only.
+         *
+         *     UserDto dto = service.findById(id);
+         *     if (dto == null) return ResponseEntity.notFound().build();
+         *     if (request.checkNotModified(eTag(dto), lastModified(dto))) return notModified();
+         *     return ResponseEntity.ok().header(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL).body(mapper.toResource(dto));
+         *
+         * checkNotModified also writes the ETag / Last-Modified headers of the 200.
+         */
+        TypeVariableName typeVariable = TypeVariableName.get("T");
+        ClassName objectsClass = ClassName.get("java.util", "Objects");
+
+        // row tag columns: (accessor, type) of the DTO / resource; id + version when both are known
+        Map<String, TypeName> dtoColumns = new LinkedHashMap<>();
+        Map<String, TypeName> resourceColumns = new LinkedHashMap<>();
+        if (idFieldName != null) {
+            dtoColumns.put(NamingUtils.accessorName(idFieldName, idType, records), idType);
+        }
+        resourceColumns.put(NamingUtils.accessorName("id", idType, records), idType);
+        for (ScalarFieldInfo fieldInfo : scalarFieldInfos) {
+            dtoColumns.put(NamingUtils.accessorName(fieldInfo.javaFieldName(), fieldInfo.javaType(), records),
+                fieldInfo.javaType());
+            resourceColumns.put(NamingUtils.accessorName(fieldInfo.resourceFieldName(), fieldInfo.javaType(), records),
+                fieldInfo.javaType());
+        }
+        Map<String, TypeName> dtoTagColumns = dtoColumns;
+        Map<String, TypeName> resourceTagColumns = resourceColumns;
+        String rowTagDoc = "ETag key of one row: a hash of its columns.\n";
+        if (versionField != null && idFieldName != null) {
+            dtoTagColumns = new LinkedHashMap<>();
+            dtoTagColumns.put(NamingUtils.accessorName(idFieldName, idType, records), idType);
+            dtoTagColumns.put(NamingUtils.accessorName(versionField.javaFieldName(), versionField.javaType(), records),
+                versionField.javaType());
+            resourceTagColumns = new LinkedHashMap<>();
+            resourceTagColumns.put(NamingUtils.accessorName("id", idType, records), idType);
+            resourceTagColumns.put(NamingUtils.accessorName(versionField.resourceFieldName(), versionField.javaType(),
+                records), versionField.javaType());
+            rowTagDoc = "ETag key of one row: its id and version.\n";
+        }
+
+        MethodSpec notModified = MethodSpec.methodBuilder("notModified")
+            .addJavadoc("304 with the Cache-Control of this resource (validators are set by checkNotModified).\n")
+            .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+            .addTypeVariable(typeVariable)
+            .returns(ParameterizedTypeName.get(responseEntityClass, typeVariable))
+            .addStatement("return $T.status($T.NOT_MODIFIED).header($T.CACHE_CONTROL, CACHE_CONTROL).build()",
+                responseEntityClass, ClassName.get("org.springframework.http", "HttpStatus"), httpHeadersClass)
+            .build();
+
+        MethodSpec hashETag = MethodSpec.methodBuilder("hashETag")
+            .addJavadoc("Weak ETag of a DTO without version: hash of its columns.\n")
+            .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+            .returns(String.class)
+            .addParameter(dtoClass, "dto")
+            .addStatement("return $S + $T.toHexString($T.hash($L)) + $S", "W/\"", Integer.class, objectsClass,
+                columnHashArgs(dtoColumns, "dto"), "\"")
+            .build();
+
+        /*
+         * List ETags: one int per row, folded in order with the page position, so a 304 costs the
+         * query only (hashing the JSON of the page would serialize it twice).
+         *
+         *     private static int rowTag(UserDto dto) { return Objects.hash(dto.getId(), dto.getVersion()); }
+         *
+         *     private static <T> String listETag(List<T> rows, ToIntFunction<T> rowTag, long... position) {
+         *         long hash = rows.size();
+         *         for (long p : position) hash = 31 * hash + p;
+         *         for (T row : rows) hash = 31 * hash + rowTag.applyAsInt(row);
+         *         return "W/\"" + Long.toHexString(hash) + "\"";
+         *     }
+         *
+         * Without version (or with a composite id) the row tag hashes every column.
+         */
+        MethodSpec rowTag = MethodSpec.methodBuilder("rowTag")
+            .addJavadoc(rowTagDoc)
+            .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+            .returns(TypeName.INT)
+            .addParameter(dtoClass, "dto")
+            .addStatement("return $T.hash($L)", objectsClass, columnHashArgs(dtoTagColumns, "dto"))
+            .build();
+
+        MethodSpec resourceTag = MethodSpec.methodBuilder("resourceTag")
+            .addJavadoc(rowTagDoc)
+            .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+            .returns(TypeName.INT)
+            .addParameter(resourceClass, "r")
+            .addStatement("return $T.hash($L)", objectsClass, columnHashArgs(resourceTagColumns, "r"))
+            .build();
+
+        TypeVariableName rowVariable = TypeVariableName.get("T");
+        TypeName rowTagType = ParameterizedTypeName.get(ClassName.get("java.util.function", "ToIntFunction"), rowVariable);
+        MethodSpec listETag = MethodSpec.methodBuilder("listETag")
+            .addJavadoc("Weak ETag of a list: the tags of its rows in order, plus the page position.\n")
+            .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+            .addTypeVariable(rowVariable)
+            .returns(String.class)
+            .addParameter(ParameterizedTypeName.get(listRawClass, rowVariable), "rows")
+            .addParameter(rowTagType, "rowTag")
+            .addParameter(com.squareup.javapoet.ArrayTypeName.of(TypeName.LONG), "position")
+            .varargs()
+            .addStatement("long hash = rows.size()")
+            .beginControlFlow("for (long p : position)")
+            .addStatement("hash = 31 * hash + p")
+            .endControlFlow()
+            .beginControlFlow("for ($T row : rows)", rowVariable)
+            .addStatement("hash = 31 * hash + rowTag.applyAsInt(row)")
+            .endControlFlow()
+            .addStatement("return $S + $T.toHexString(hash) + $S", "W/\"", Long.class, "\"")
+            .build();
+
+        TypeName pageOfRows = ParameterizedTypeName.get(pageDtoClass, rowVariable);
+        MethodSpec pageResponse = MethodSpec.methodBuilder("pageResponse")
+            .addJavadoc("200 with the page, 304 when the client copy is current (see listETag).\n")
+            .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+            .addTypeVariable(rowVariable)
+            .returns(responseEntityOfPageResource)
+            .addParameter(webRequestParam.type, "request")
+            .addParameter(pageOfRows, "page")
+            .addParameter(rowTagType, "rowTag")
+            .addParameter(ParameterizedTypeName.get(ClassName.get("java.util.function", "Function"), pageOfRows,
+                pageResourceOfResourceType), "toPageResource")
+            .beginControlFlow("if (request.checkNotModified(listETag(page.$L(), rowTag, page.$L(), page.$L(), page.$L())))",
+                PageObjectWriter.contentAccessor(records), PageObjectWriter.accessor("pageNumber", records),
+                PageObjectWriter.accessor("pageSize", records), PageObjectWriter.accessor("totalElements", records))
+            .addStatement("return notModified()")
+            .endControlFlow()
+            .addStatement("return $T.ok().header($T.CACHE_CONTROL, CACHE_CONTROL).body(toPageResource.apply(page))",
+                responseEntityClass, httpHeadersClass)
+            .build();
+
+        // Last-Modified in epoch millis from the audit column type; other types are not sent
+        String lastModifiedExpr = null;
+        if (lastModifiedField != null) {
+            lastModifiedExpr = switch (lastModifiedField.javaType().toString()) {
+                case "java.time.OffsetDateTime", "java.time.ZonedDateTime" -> ".toInstant().toEpochMilli()";
+                case "java.time.Instant" -> ".toEpochMilli()";
+                case "java.time.LocalDateTime" -> ".atZone($T.systemDefault()).toInstant().toEpochMilli()";
+                case "java.util.Date", "java.sql.Timestamp" -> ".getTime()";
+                default -> null;
+            };
+        }
+        MethodSpec lastModified = null;
+        if (lastModifiedExpr != null) {
+            String getter = NamingUtils.accessorName(lastModifiedField.javaFieldName(), lastModifiedField.javaType(), records);
+            lastModified = MethodSpec.methodBuilder("lastModified")
+                .addJavadoc("Last-Modified of a DTO in epoch millis, -1 when unknown.\n")
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .returns(TypeName.LONG)
+                .addParameter(dtoClass, "dto")
+                .addCode(CodeBlock.builder()
+                    .add("return dto.$L() == null ? -1 : dto.$L()", getter, getter)
+                    .add(lastModifiedExpr.contains("$T") ? CodeBlock.of(lastModifiedExpr, ClassName.get("java.time", "ZoneId"))
+                        : CodeBlock.of(lastModifiedExpr))
+                    .add(";\n")
+                    .build())
+                .build();
+        }
+
         MethodSpec getById = MethodSpec.methodBuilder("getById")
-            .addJavadoc("Returns one resource by id.\n")
+            .addJavadoc("Returns one resource by id; 404 when the id does not exist, 304 when the client copy is current.\n")
             .addModifiers(Modifier.PUBLIC)
             .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "GetMapping"))
                 .addMember("value", "$S", "/{id}")
                 .addMember("produces", "$T.APPLICATION_JSON_VALUE", mediaTypeClass).build())
             .addParameter(idPathVariableParam)
+            .addParameter(webRequestParam)
             .returns(responseEntityOfResource)
-            .addStatement("return $T.ok(mapper.toResource(service.findById(id)))", responseEntityClass)
+            .addStatement("$T dto = service.findById(id)", dtoClass)
+            .beginControlFlow("if (dto == null)")
+            .addStatement("return $T.notFound().build()", responseEntityClass)
+            .endControlFlow()
+            .beginControlFlow(lastModified != null
+                ? "if (request.checkNotModified($L(dto), lastModified(dto)))"
+                : "if (request.checkNotModified($L(dto)))", versionField != null ? "eTag" : "hashETag")
+            .addStatement("return notModified()")
+            .endControlFlow()
+            .addStatement("return $T.ok().header($T.CACHE_CONTROL, CACHE_CONTROL).body(mapper.toResource(dto))",
+                responseEntityClass, httpHeadersClass)
+            .build();
+
+        /*
+         * Batch get: one chunked IN query instead of a GET /{id} per row.
+         *
+         * GET ?ids=3,1,2           (simple ids, takes precedence over the paged list)
+         * POST /_batch-get [3,1,2] (any id type; composite ids as JSON objects)
+         *
+         *     if (ids.size() > MAX_BATCH_IDS) return ResponseEntity.badRequest().build();
+         *     List<UserDto> dtos = service.findAllById(ids);
+         *     if (request.checkNotModified(listETag(dtos, UsersController::rowTag))) return notModified();
+         *     return ResponseEntity.ok().header(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL)
+         *         .body(dtos.stream().map(mapper::toResource).toList());
+         */
+        TypeName idListType = ParameterizedTypeName.get(listRawClass, idType.box());
+        TypeName dtoListType = ParameterizedTypeName.get(listRawClass, dtoClass);
+        MethodSpec getByIds = MethodSpec.methodBuilder("getByIds")
+            .addJavadoc("Returns the resources with the given ids, in request order; unknown ids are skipped.\n")
+            .addModifiers(Modifier.PUBLIC)
+            .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "GetMapping"))
+                .addMember("params", "$S", "ids")
+                .addMember("produces", "$T.APPLICATION_JSON_VALUE", mediaTypeClass).build())
+            .addParameter(ParameterSpec.builder(idListType, "ids")
+                .addAnnotation(ClassName.get("org.springframework.web.bind.annotation", "RequestParam")).build())
+            .addParameter(webRequestParam)
+            .returns(responseEntityOfResourceList)
+            .beginControlFlow("if (ids.size() > $L)", MAX_BATCH_IDS)
+            .addStatement("return $T.badRequest().build()", responseEntityClass)
+            .endControlFlow()
+            .addStatement("$T dtos = service.findAllById(ids)", dtoListType)
+            .beginControlFlow("if (request.checkNotModified(listETag(dtos, $T::rowTag)))", controllerClass)
+            .addStatement("return notModified()")
+            .endControlFlow()
+            .addStatement("return $T.ok().header($T.CACHE_CONTROL, CACHE_CONTROL).body(dtos.stream().map(mapper::toResource).toList())",
+                responseEntityClass, httpHeadersClass)
+            .build();
+
+        MethodSpec batchGet = MethodSpec.methodBuilder("batchGet")
+            .addJavadoc("Returns the resources with the ids in the body, in request order; unknown ids are skipped.\n")
+            .addModifiers(Modifier.PUBLIC)
+            .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "PostMapping"))
+                .addMember("value", "$S", "/_batch-get")
+                .addMember("consumes", "$T.APPLICATION_JSON_VALUE", mediaTypeClass)
+                .addMember("produces", "$T.APPLICATION_JSON_VALUE", mediaTypeClass).build())
+            .addParameter(ParameterSpec.builder(idListType, "ids")
+                .addAnnotation(ClassName.get("org.springframework.web.bind.annotation", "RequestBody")).build())
+            .returns(responseEntityOfResourceList)
+            .beginControlFlow("if (ids.size() > $L)", MAX_BATCH_IDS)
+            .addStatement("return $T.badRequest().build()", responseEntityClass)
+            .endControlFlow()
+            .addStatement("return $T.ok(service.findAllById(ids).stream().map(mapper::toResource).toList())",
+                responseEntityClass)
             .build();
 
         MethodSpec create = MethodSpec.methodBuilder("create")
@@ -189,17 +513,489 @@ public class ControllerWriter {
             .addStatement("return $T.ok(mapper.toResource(service.update(id, mapper.toDto(body))))", responseEntityClass)
             .build();
 
+        /*
+         * PATCH: only the properties present in the body are written (an explicit null clears
+         * the column); the body is read as a tree to know which ones were sent.
+         *
+         *     Set<String> fields = new HashSet<>();
+         *     body.fieldNames().forEachRemaining(fields::add);
+         *     (renamed resource properties: f -> fields.add(DTO_FIELDS.getOrDefault(f, f)))
+         *     UserDto dto = service.patch(id, mapper.toDto(objectMapper.convertValue(body, UserResource.class)), fields);
+         */
+        // resource property -> DTO property, for the properties renamed in the naming YAML
+        com.squareup.javapoet.FieldSpec dtoFieldsFieldSpec = null;
+        String collectFields = "fields::add";
+        List<ScalarFieldInfo> renamed = scalarFieldInfos.stream().filter(ScalarFieldInfo::renamedInResource).toList();
+        if (!renamed.isEmpty()) {
+            CodeBlock.Builder entries = CodeBlock.builder();
+            for (int i = 0; i < renamed.size(); i++) {
+                entries.add(i == 0 ? "$T.entry($S, $S)" : ", $T.entry($S, $S)", ClassName.get("java.util", "Map"),
+                    renamed.get(i).resourceFieldName(), renamed.get(i).javaFieldName());
+            }
+            dtoFieldsFieldSpec = com.squareup.javapoet.FieldSpec.builder(
+                    ParameterizedTypeName.get(ClassName.get("java.util", "Map"), ClassName.get(String.class), ClassName.get(String.class)),
+                    "DTO_FIELDS", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer("$T.ofEntries($L)", ClassName.get("java.util", "Map"), entries.build())
+                .build();
+            collectFields = "f -> fields.add(DTO_FIELDS.getOrDefault(f, f))";
+        }
+
+        MethodSpec patch = MethodSpec.methodBuilder("patch")
+            .addJavadoc("Updates only the properties present in the body; 404 when the id does not exist.\n")
+            .addModifiers(Modifier.PUBLIC)
+            .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "PatchMapping"))
+                .addMember("value", "$S", "/{id}")
+                .addMember("consumes", "$T.APPLICATION_JSON_VALUE", mediaTypeClass)
+                .addMember("produces", "$T.APPLICATION_JSON_VALUE", mediaTypeClass).build())
+            .addParameter(idPathVariableParam)
+            .addParameter(ParameterSpec.builder(ClassName.get("com.fasterxml.jackson.databind.node", "ObjectNode"), "body")
+                .addAnnotation(ClassName.get("org.springframework.web.bind.annotation", "RequestBody"))
+                .build())
+            .returns(responseEntityOfResource)
+            .addStatement("$T<$T> fields = new $T<>()", ClassName.get("java.util", "Set"), String.class,
+                ClassName.get("java.util", "HashSet"))
+            .addStatement("body.fieldNames().forEachRemaining($L)", collectFields)
+            .addStatement("$T dto = service.patch(id, mapper.toDto(objectMapper.convertValue(body, $T.class)), fields)",
+                dtoClass, resourceClass)
+            .beginControlFlow("if (dto == null)")
+            .addStatement("return $T.notFound().build()", responseEntityClass)
+            .endControlFlow()
+            .addStatement("return $T.ok(mapper.toResource(dto))", responseEntityClass)
+            .build();
+
+        /*
+         * Optimistic locking (versioned entities): the version is the ETag of getById, update and
+         * patch; update/patch take If-Match as the expected version and answer 412 when the row
+         * has moved on (or no listed tag is a strong version tag of this entity, RFC 9110 strong
+         * comparison). Without If-Match the version of the body is checked; a body without version
+         * overwrites the current row (last writer wins) unless sword.web.if-match-required is set,
+         * which answers 428 instead.
+         *
+         *     if (ifMatchRequired && (ifMatch == null || ifMatch.isBlank())) return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+         *     CustomerResource resource = applyIfMatch(id, ifMatch, body);
+         *     if (resource == null) return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+         *     try {
+         *         return withETag(service.update(id, mapper.toDto(resource)));
+         *     } catch (OptimisticLockingFailureException e) {
+         *         return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+         *     }
+         */
+        List<MethodSpec> versionHelpers = new java.util.ArrayList<>();
+        if (versionField != null) {
+            ClassName httpStatusClass = ClassName.get("org.springframework.http", "HttpStatus");
+            ClassName lockFailureClass = ClassName.get("org.springframework.dao", "OptimisticLockingFailureException");
+            String versionGetter = NamingUtils.accessorName(versionField.javaFieldName(), versionField.javaType(), records);
+            String versionSetter = "set" + NamingUtils.upperFirst(versionField.resourceFieldName());
+            ParameterSpec ifMatchParam = ParameterSpec.builder(String.class, "ifMatch")
+                .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "RequestHeader"))
+                    .addMember("value", "$S", "If-Match")
+                    .addMember("required", "$L", false).build())
+                .build();
+
+            update = MethodSpec.methodBuilder("update")
+                .addJavadoc("Updates and returns the resource; If-Match must list the current version (412 otherwise).\n")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotations(update.annotations)
+                .addParameter(idPathVariableParam)
+                .addParameter(ifMatchParam)
+                .addParameter(resourceRequestBodyParam)
+                .returns(responseEntityOfResource)
+                .beginControlFlow("if (ifMatchRequired && (ifMatch == null || ifMatch.isBlank()))")
+                .addStatement("return $T.status($T.PRECONDITION_REQUIRED).build()", responseEntityClass, httpStatusClass)
+                .endControlFlow()
+                .addStatement("$T resource = applyIfMatch(id, ifMatch, body)", resourceClass)
+                .beginControlFlow("if (resource == null)")
+                .addStatement("return $T.status($T.PRECONDITION_FAILED).build()", responseEntityClass, httpStatusClass)
+                .endControlFlow()
+                .beginControlFlow("try")
+                .addStatement("return withETag(service.update(id, mapper.toDto(resource)))")
+                .nextControlFlow("catch ($T e)", lockFailureClass)
+                .addStatement("return $T.status($T.PRECONDITION_FAILED).build()", responseEntityClass, httpStatusClass)
+                .endControlFlow()
+                .build();
+
+            patch = MethodSpec.methodBuilder("patch")
+                .addJavadoc(patch.javadoc)
+                .addJavadoc("If-Match must list the current version (412 otherwise).\n")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotations(patch.annotations)
+                .addParameter(idPathVariableParam)
+                .addParameter(ifMatchParam)
+                .addParameter(patch.parameters.get(1))
+                .returns(responseEntityOfResource)
+                .addStatement("$T<$T> fields = new $T<>()", ClassName.get("java.util", "Set"), String.class,
+                    ClassName.get("java.util", "HashSet"))
+                .addStatement("body.fieldNames().forEachRemaining($L)", collectFields)
+                .beginControlFlow("if (ifMatchRequired && (ifMatch == null || ifMatch.isBlank()))")
+                .addStatement("return $T.status($T.PRECONDITION_REQUIRED).build()", responseEntityClass, httpStatusClass)
+                .endControlFlow()
+                .addStatement("$T resource = applyIfMatch(id, ifMatch, objectMapper.convertValue(body, $T.class))",
+                    resourceClass, resourceClass)
+                .beginControlFlow("if (resource == null)")
+                .addStatement("return $T.status($T.PRECONDITION_FAILED).build()", responseEntityClass, httpStatusClass)
+                .endControlFlow()
+                .beginControlFlow("try")
+                .addStatement("$T dto = service.patch(id, mapper.toDto(resource), fields)", dtoClass)
+                .addStatement("return dto == null ? $T.notFound().build() : withETag(dto)", responseEntityClass)
+                .nextControlFlow("catch ($T e)", lockFailureClass)
+                .addStatement("return $T.status($T.PRECONDITION_FAILED).build()", responseEntityClass, httpStatusClass)
+                .endControlFlow()
+                .build();
+
+            // ETag text: byte[] versions (rowversion) in Base64, the others as their string form
+            boolean binaryVersion = versionField.javaType().toString().equals("byte[]");
+            ClassName base64Class = ClassName.get("java.util", "Base64");
+
+            MethodSpec.Builder eTag = MethodSpec.methodBuilder("eTag")
+                .addJavadoc("ETag of a DTO: its version, or a content hash while it has none.\n")
+                .addModifiers(Modifier.PRIVATE)
+                .returns(String.class)
+                .addParameter(dtoClass, "dto")
+                .beginControlFlow("if (dto.$L() == null)", versionGetter)
+                .addStatement("return hashETag(dto)")
+                .endControlFlow();
+            if (binaryVersion) {
+                eTag.addStatement("return $S + $T.getEncoder().encodeToString(dto.$L()) + $S", "\"", base64Class,
+                    versionGetter, "\"");
+            } else {
+                eTag.addStatement("return $S + dto.$L() + $S", "\"", versionGetter, "\"");
+            }
+
+            MethodSpec withETag = MethodSpec.methodBuilder("withETag")
+                .addJavadoc("200 with the resource and its ETag.\n")
+                .addModifiers(Modifier.PRIVATE)
+                .returns(responseEntityOfResource)
+                .addParameter(dtoClass, "dto")
+                .addStatement("return $T.ok().eTag(eTag(dto)).body(mapper.toResource(dto))", responseEntityClass)
+                .build();
+
+            // If-Match value back to the version type; * or no header means "any version"
+            TypeName versionType = versionField.javaType();
+            String parse = binaryVersion ? "$T.getDecoder().decode(tag)"
+                : versionType instanceof ClassName cn && cn.packageName().equals("java.time") ? "$T.parse(tag)"
+                : "$T.valueOf(tag)";
+            ClassName eTagClass = ClassName.get("org.springframework.http", "ETag");
+            // record resources are immutable: the resource mapper copies them with the version
+            MethodSpec.Builder applyIfMatchBuilder = MethodSpec.methodBuilder("applyIfMatch")
+                .addJavadoc("The resource with the If-Match version; null when no listed tag is a strong version tag,\n"
+                    + "or, for several tags, none is the current version. Weak tags never match (RFC 9110 strong\n"
+                    + "comparison).\n")
+                .addModifiers(Modifier.PRIVATE)
+                .returns(resourceClass)
+                .addParameter(idType, "id")
+                .addParameter(String.class, "ifMatch")
+                .addParameter(resourceClass, "resource")
+                .beginControlFlow("if (ifMatch == null || ifMatch.isBlank())")
+                .addStatement("return resource")
+                .endControlFlow()
+                .addStatement("$T<$T> tags = $T.parse(ifMatch)", listRawClass, eTagClass, eTagClass)
+                .beginControlFlow("if (tags.stream().anyMatch($T::isWildcard))", eTagClass)
+                .addStatement("return resource")
+                .endControlFlow()
+                .addStatement("$T<$T> strong = tags.stream().filter(t -> !t.weak()).map($T::tag).toList()", listRawClass,
+                    String.class, eTagClass)
+                .addStatement("$T tag", String.class)
+                .beginControlFlow("if (strong.size() == 1)")
+                .addStatement("tag = strong.get(0)")
+                .nextControlFlow("else if (strong.isEmpty())")
+                .addStatement("return null")
+                .nextControlFlow("else")
+                .addComment("several candidates: the request goes on with the one that is the current version")
+                .addStatement("$T current = service.findById(id)", dtoClass)
+                .beginControlFlow("if (current == null)")
+                .addStatement("return null")
+                .endControlFlow()
+                .addStatement("$T currentTag = eTag(current)", String.class)
+                .addStatement("tag = strong.stream().filter(t -> currentTag.equals($S + t + $S)).findFirst().orElse(null)",
+                    "\"", "\"")
+                .beginControlFlow("if (tag == null)")
+                .addStatement("return null")
+                .endControlFlow()
+                .endControlFlow()
+                .beginControlFlow("try");
+            if (records) {
+                applyIfMatchBuilder.addStatement("return mapper.$L(resource, " + parse + ")",
+                    ResourceMapperWriter.withVersionName(versionField), binaryVersion ? base64Class : versionType);
+            } else {
+                applyIfMatchBuilder
+                    .addStatement("resource.$L(" + parse + ")", versionSetter, binaryVersion ? base64Class : versionType)
+                    .addStatement("return resource");
+            }
+            MethodSpec applyIfMatch = applyIfMatchBuilder
+                .nextControlFlow("catch ($T e)", RuntimeException.class)
+                .addStatement("return null")
+                .endControlFlow()
+                .build();
+
+            versionHelpers.add(eTag.build());
+            versionHelpers.add(withETag);
+            versionHelpers.add(applyIfMatch);
+        }
+
         MethodSpec delete = MethodSpec.methodBuilder("delete")
-            .addJavadoc("Deletes the resource by id.\n")
+            .addJavadoc("Deletes the resource by id (404 when it does not exist).\n")
             .addModifiers(Modifier.PUBLIC)
             .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "DeleteMapping"))
                 .addMember("value", "$S", "/{id}").build())
             .addParameter(idPathVariableParam)
             .returns(responseEntityOfVoid)
-            .addStatement("service.delete(id)")
+            .addStatement("return service.delete(id) ? $T.noContent().build() : $T.notFound().build()",
+                responseEntityClass, responseEntityClass)
+            .build();
+
+        /*
+         * HEAD /{id}: 200 or 404 from an existence query, no entity loaded or serialized
+         * (an explicit HEAD mapping wins over the implicit HEAD of GET /{id}).
+         */
+        ClassName requestMethodClass = ClassName.get("org.springframework.web.bind.annotation", "RequestMethod");
+        MethodSpec exists = MethodSpec.methodBuilder("exists")
+            .addJavadoc("Tells whether a resource with the id exists (200) or not (404), without a body.\n")
+            .addModifiers(Modifier.PUBLIC)
+            .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "RequestMapping"))
+                .addMember("value", "$S", "/{id}")
+                .addMember("method", "$T.HEAD", requestMethodClass).build())
+            .addParameter(idPathVariableParam)
+            .returns(responseEntityOfVoid)
+            .addStatement("return service.existsById(id) ? $T.ok().build() : $T.notFound().build()",
+                responseEntityClass, responseEntityClass)
+            .build();
+
+        // --- Bulk endpoints (one transaction, chunked + JDBC batched in the service) ---
+
+        ParameterSpec resourceListRequestBodyParam = ParameterSpec.builder(resourceListType, "body")
+            .addAnnotation(ClassName.get("org.springframework.web.bind.annotation", "RequestBody"))
+            .build();
+
+        ParameterSpec idListRequestBodyParam = ParameterSpec.builder(idListType, "ids")
+            .addAnnotation(ClassName.get("org.springframework.web.bind.annotation", "RequestBody"))
+            .build();
+
+        MethodSpec createBulk = MethodSpec.methodBuilder("createBulk")
+            .addJavadoc("Creates all the given resources in one transaction.\n")
+            .addModifiers(Modifier.PUBLIC)
+            .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "PostMapping"))
+                .addMember("value", "$S", "/bulk")
+                .addMember("consumes", "$T.APPLICATION_JSON_VALUE", mediaTypeClass)
+                .addMember("produces", "$T.APPLICATION_JSON_VALUE", mediaTypeClass).build())
+            .addParameter(resourceListRequestBodyParam)
+            .returns(responseEntityOfResourceList)
+            .addStatement("return $T.ok(mapper.toResourceList(service.saveAll(mapper.toDtoList(body))))", responseEntityClass)
+            .build();
+
+        MethodSpec updateBulk = MethodSpec.methodBuilder("updateBulk")
+            .addJavadoc("Updates all the given resources in one transaction.\n")
+            .addModifiers(Modifier.PUBLIC)
+            .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "PutMapping"))
+                .addMember("value", "$S", "/bulk")
+                .addMember("consumes", "$T.APPLICATION_JSON_VALUE", mediaTypeClass)
+                .addMember("produces", "$T.APPLICATION_JSON_VALUE", mediaTypeClass).build())
+            .addParameter(resourceListRequestBodyParam)
+            .returns(responseEntityOfResourceList)
+            .addStatement("return $T.ok(mapper.toResourceList(service.updateAll(mapper.toDtoList(body))))", responseEntityClass)
+            .build();
+
+        MethodSpec deleteBulk = MethodSpec.methodBuilder("deleteBulk")
+            .addJavadoc("Deletes all the resources with the given ids in one transaction.\n")
+            .addModifiers(Modifier.PUBLIC)
+            .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "DeleteMapping"))
+                .addMember("value", "$S", "/bulk")
+                .addMember("consumes", "$T.APPLICATION_JSON_VALUE", mediaTypeClass).build())
+            .addParameter(idListRequestBodyParam)
+            .returns(responseEntityOfVoid)
+            .addStatement("service.deleteAll(ids)")
             .addStatement("return $T.noContent().build()", responseEntityClass)
             .build();
 
+        /*
+         * PUT /upsert
+         *
+         * Inserts or updates each resource by primary key with the native upsert of the
+         * database (ON CONFLICT / ON DUPLICATE KEY / MERGE), sent as JDBC batches.
+         * A resource without its primary key answers 400.
+         */
+        MethodSpec upsertBulk = MethodSpec.methodBuilder("upsertBulk")
+            .addJavadoc("Inserts or updates all the given resources by primary key in one transaction.\n")
+            .addModifiers(Modifier.PUBLIC)
+            .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "PutMapping"))
+                .addMember("value", "$S", "/upsert")
+                .addMember("consumes", "$T.APPLICATION_JSON_VALUE", mediaTypeClass).build())
+            .addParameter(resourceListRequestBodyParam)
+            .returns(responseEntityOfVoid)
+            .beginControlFlow("try")
+            .addStatement("service.upsertAll(mapper.toDtoList(body))")
+            .nextControlFlow("catch ($T e)", IllegalArgumentException.class)
+            .addStatement("return $T.badRequest().build()", responseEntityClass)
+            .endControlFlow()
+            .addStatement("return $T.noContent().build()", responseEntityClass)
+            .build();
+
+        // --- Streaming export (NDJSON or CSV), constant heap ---
+
+        /*
+         * GET /export?format=ndjson|csv
+         *
+         * The body is a StreamingResponseBody: the service streams rows from a
+         * read-only cursor and each row is written as soon as it is mapped.
+         */
+        ClassName streamingBodyClass = ClassName.get("org.springframework.web.servlet.mvc.method.annotation", "StreamingResponseBody");
+        ClassName csvSupportClass    = ClassName.get(SwordWizard.RESOURCES_PKG, CsvSupportWriter.CSV_SUPPORT);
+        ClassName writerClass        = ClassName.get("java.io", "Writer");
+        ClassName sequenceWriterClass = ClassName.get("com.fasterxml.jackson.databind", "SequenceWriter");
+
+        List<String> csvColumns = new java.util.ArrayList<>();
+        List<String> csvGetters = new java.util.ArrayList<>();
+        csvColumns.add("id");
+        csvGetters.add(NamingUtils.accessorName("id", idType, records));
+        for (ScalarFieldInfo fieldInfo : scalarFieldInfos) {
+            csvColumns.add(fieldInfo.resourceFieldName());
+            csvGetters.add(NamingUtils.accessorName(fieldInfo.resourceFieldName(), fieldInfo.javaType(), records));
+        }
+
+        com.squareup.javapoet.FieldSpec csvHeaderFieldSpec =
+            com.squareup.javapoet.FieldSpec.builder(String.class, "CSV_HEADER", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer("$S", String.join(",", csvColumns))
+                .build();
+
+        com.squareup.javapoet.CodeBlock.Builder csvArgs = com.squareup.javapoet.CodeBlock.builder();
+        for (int i = 0; i < csvColumns.size(); i++) {
+            if (i > 0) csvArgs.add(", ");
+            if (i > 0 && isJsonCell(scalarFieldInfos.get(i - 1).javaType())) {
+                csvArgs.add("$T.json(objectMapper, r.$L())", csvSupportClass, csvGetters.get(i));
+            } else {
+                csvArgs.add("r.$L()", csvGetters.get(i));
+            }
+        }
+
+        MethodSpec toCsvLine = MethodSpec.methodBuilder("toCsvLine")
+            .addJavadoc("Formats one resource as a CSV record, columns as in CSV_HEADER; arrays and JSON documents\n"
+                + "are written as JSON text.\n")
+            .addModifiers(Modifier.PRIVATE)
+            .returns(String.class)
+            .addParameter(resourceClass, "r")
+            .addStatement("return $T.line($L)", csvSupportClass, csvArgs.build())
+            .build();
+
+        ParameterSpec formatRequestParam = ParameterSpec.builder(String.class, "format")
+            .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "RequestParam"))
+                .addMember("defaultValue", "$S", "ndjson").build())
+            .build();
+
+        MethodSpec export = MethodSpec.methodBuilder("export")
+            .addJavadoc("Streams every resource as NDJSON (default) or CSV.\n")
+            .addModifiers(Modifier.PUBLIC)
+            .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "GetMapping"))
+                .addMember("value", "$S", "/export").build())
+            .addParameter(formatRequestParam)
+            .returns(ParameterizedTypeName.get(responseEntityClass, streamingBodyClass))
+            .addStatement("boolean csv = $S.equalsIgnoreCase(format)", "csv")
+            .beginControlFlow("$T body = out ->", streamingBodyClass)
+            .addStatement("$T writer = new $T(new $T(out, $T.UTF_8))", writerClass,
+                ClassName.get("java.io", "BufferedWriter"), ClassName.get("java.io", "OutputStreamWriter"),
+                ClassName.get("java.nio.charset", "StandardCharsets"))
+            .beginControlFlow("if (csv)")
+            .addStatement("writer.write(CSV_HEADER)")
+            .addStatement("writer.write('\\n')")
+            .addStatement("service.exportAll(dto -> writeLine(writer, toCsvLine(mapper.toResource(dto))))")
+            .nextControlFlow("else")
+            .addStatement("$T json = objectMapper.writer().withRootValueSeparator($S).writeValues(writer)",
+                sequenceWriterClass, "\n")
+            .addStatement("service.exportAll(dto -> writeJson(json, mapper.toResource(dto)))")
+            .addStatement("json.flush()")
+            .endControlFlow()
+            .addStatement("writer.flush()")
+            .addCode("$<};\n")
+            .addStatement("$T contentType = csv ? $T.parseMediaType($S) : $T.APPLICATION_NDJSON", mediaTypeClass,
+                mediaTypeClass, "text/csv", mediaTypeClass)
+            .addStatement("return $T.ok().contentType(contentType).body(body)", responseEntityClass)
+            .build();
+
+        MethodSpec writeLine = MethodSpec.methodBuilder("writeLine")
+            .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+            .addParameter(writerClass, "writer")
+            .addParameter(String.class, "line")
+            .beginControlFlow("try")
+            .addStatement("writer.write(line)")
+            .addStatement("writer.write('\\n')")
+            .nextControlFlow("catch ($T e)", ClassName.get("java.io", "IOException"))
+            .addStatement("throw new $T(e)", ClassName.get("java.io", "UncheckedIOException"))
+            .endControlFlow()
+            .build();
+
+        MethodSpec writeJson = MethodSpec.methodBuilder("writeJson")
+            .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+            .addParameter(sequenceWriterClass, "json")
+            .addParameter(resourceClass, "resource")
+            .beginControlFlow("try")
+            .addStatement("json.write(resource)")
+            .nextControlFlow("catch ($T e)", ClassName.get("java.io", "IOException"))
+            .addStatement("throw new $T(e)", ClassName.get("java.io", "UncheckedIOException"))
+            .endControlFlow()
+            .build();
+
+        // --- Streaming import (NDJSON or CSV), chunked commits in the service ---
+
+        /*
+         * POST /import   Content-Type: application/x-ndjson | text/csv
+         *
+         * The request body is parsed lazily (Jackson MappingIterator for NDJSON,
+         * CsvSupport.records for CSV), each row goes Resource -> DTO and the service
+         * commits it chunk by chunk, returning an ImportReport.
+         */
+        ClassName importReportClass = ClassName.get(SwordWizard.DTO_PKG, ImportReportWriter.IMPORT_REPORT);
+        ClassName streamClass       = ClassName.get("java.util.stream", "Stream");
+        TypeName streamOfResource   = ParameterizedTypeName.get(streamClass, resourceClass);
+
+        ParameterSpec contentTypeHeaderParam = ParameterSpec.builder(String.class, "contentType")
+            .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "RequestHeader"))
+                .addMember("value", "$T.CONTENT_TYPE", ClassName.get("org.springframework.http", "HttpHeaders")).build())
+            .build();
+
+        MethodSpec importData = MethodSpec.methodBuilder("importData")
+            .addJavadoc("Imports NDJSON or CSV rows from the request body, committing them in chunks.\n")
+            .addModifiers(Modifier.PUBLIC)
+            .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "PostMapping"))
+                .addMember("value", "$S", "/import")
+                .addMember("consumes", "{ $T.APPLICATION_NDJSON_VALUE, $S }", mediaTypeClass, "text/csv")
+                .addMember("produces", "$T.APPLICATION_JSON_VALUE", mediaTypeClass).build())
+            .addParameter(ClassName.get("java.io", "InputStream"), "body")
+            .addParameter(contentTypeHeaderParam)
+            .addException(ClassName.get("java.io", "IOException"))
+            .returns(ParameterizedTypeName.get(responseEntityClass, importReportClass))
+            .addStatement("$T rows", streamOfResource)
+            .beginControlFlow("if (contentType.toLowerCase($T.ROOT).startsWith($S))", java.util.Locale.class, "text/csv")
+            .addStatement("$T reader = new $T(new $T(body, $T.UTF_8))", ClassName.get("java.io", "BufferedReader"),
+                ClassName.get("java.io", "BufferedReader"), ClassName.get("java.io", "InputStreamReader"),
+                ClassName.get("java.nio.charset", "StandardCharsets"))
+            .addStatement("rows = $T.records(reader).map(this::fromCsvRow)", csvSupportClass)
+            .nextControlFlow("else")
+            .addStatement("$T<$T> it = objectMapper.readerFor($T.class).readValues(body)",
+                ClassName.get("com.fasterxml.jackson.databind", "MappingIterator"), resourceClass, resourceClass)
+            .addStatement("rows = $T.stream($T.spliteratorUnknownSize(it, $T.ORDERED), false)",
+                ClassName.get("java.util.stream", "StreamSupport"), ClassName.get("java.util", "Spliterators"),
+                ClassName.get("java.util", "Spliterator"))
+            .endControlFlow()
+            .addStatement("return $T.ok(service.importAll(rows.map(mapper::toDto).iterator()))", responseEntityClass)
+            .build();
+
+        /*
+         * CSV record -> resource; array and JSON cells hold JSON text (see toCsvLine):
+         *
+         *     return objectMapper.convertValue(CsvSupport.withJson(objectMapper, row, "tags", "doc"), UserResource.class);
+         */
+        List<String> jsonCsvColumns = scalarFieldInfos.stream().filter(f -> isJsonCell(f.javaType()))
+            .map(ScalarFieldInfo::resourceFieldName).toList();
+        CodeBlock csvCells = jsonCsvColumns.isEmpty() ? CodeBlock.of("row")
+            : CodeBlock.of("$T.withJson(objectMapper, row, $L)", csvSupportClass,
+                jsonCsvColumns.stream().map(c -> CodeBlock.of("$S", c)).collect(CodeBlock.joining(", ")));
+        MethodSpec fromCsvRow = MethodSpec.methodBuilder("fromCsvRow")
+            .addJavadoc("Reads one CSV record (header name -> cell) as a resource, JSON cells parsed first.\n")
+            .addModifiers(Modifier.PRIVATE)
+            .returns(resourceClass)
+            .addParameter(ParameterizedTypeName.get(ClassName.get("java.util", "Map"), ClassName.get(String.class),
+                ClassName.get(String.class)), "row")
+            .addStatement("return objectMapper.convertValue($L, $T.class)", csvCells, resourceClass)
+            .build();
+
         // --- Controller type builder ---
         TypeSpec.Builder controllerTypeBuilder = TypeSpec.classBuilder(controllerSimpleName)
             .addModifiers(Modifier.PUBLIC)
@@ -208,18 +1004,176 @@ public class ControllerWriter {
             .addAnnotation(generatedAnn)
             .addField(serviceFieldSpec)
             .addField(mapperFieldSpec)
+            .addField(objectMapperFieldSpec)
+            .addField(cacheControlFieldSpec)
+            .addField(csvHeaderFieldSpec);
+        if (directResources) {
+            controllerTypeBuilder.addField(entityMapperFieldSpec);
+        }
+        if (versionField != null) {
+            controllerTypeBuilder.addField(ifMatchRequiredFieldSpec);
+        }
+        if (dtoFieldsFieldSpec != null && !readOnly) {
+            controllerTypeBuilder.addField(dtoFieldsFieldSpec);
+        }
+        controllerTypeBuilder
             .addMethod(constructor)
             .addMethod(getAll)
             .addMethod(getById)
-            .addMethod(create)
-            .addMethod(update)
-            .addMethod(delete)
-            .addMethod(toPageResourceMethod);
+            .addMethod(exists);
+        if (SpecificationWriter.parser(idType) != null) {
+            controllerTypeBuilder.addMethod(getByIds);
+        }
+        controllerTypeBuilder.addMethod(batchGet);
+
+        if (!readOnly) {
+            controllerTypeBuilder
+                .addMethod(create)
+                .addMethod(update)
+                .addMethod(patch)
+                .addMethod(delete)
+                .addMethod(createBulk)
+                .addMethod(updateBulk)
+                .addMethod(deleteBulk);
+            if (upsert) {
+                controllerTypeBuilder.addMethod(upsertBulk);
+            }
+        }
+
+        controllerTypeBuilder.addMethod(export);
+        if (!readOnly) {
+            controllerTypeBuilder.addMethod(importData);
+        }
+
+        controllerTypeBuilder.addMethods(versionHelpers);
+        controllerTypeBuilder
+            .addMethod(notModified)
+            .addMethod(hashETag)
+            .addMethod(rowTag);
+        if (directResources) {
+            controllerTypeBuilder.addMethod(resourceTag);
+        }
+        controllerTypeBuilder
+            .addMethod(listETag)
+            .addMethod(pageResponse);
+        if (lastModified != null) {
+            controllerTypeBuilder.addMethod(lastModified);
+        }
+
+        controllerTypeBuilder.addMethod(toPageResourceMethod);
+        if (directResources) {
+            controllerTypeBuilder.addMethod(asPageResourceMethod);
+        }
+        controllerTypeBuilder
+            .addMethod(toCsvLine)
+            .addMethod(fromCsvRow)
+            .addMethod(writeLine)
+            .addMethod(writeJson);
+
+        // --- LOB streaming endpoints ---
+
+        /*
+         * GET /{id}/content   -> service.readContent(id, response.getOutputStream())
+         * PUT /{id}/content   -> service.writeContent(id, request.getInputStream(), Content-Length)
+         *
+         * The body goes straight between the servlet streams and the JDBC Blob; uploads
+         * need a Content-Length (411 otherwise), a missing row or LOB answers 404.
+         */
+        ClassName httpStatusClass = ClassName.get("org.springframework.http", "HttpStatus");
+        for (ScalarFieldInfo lob : lobFieldInfos) {
+            String fieldName = lob.javaFieldName();
+            String capitalizedFieldName = NamingUtils.upperFirst(fieldName);
+
+            MethodSpec download = MethodSpec.methodBuilder("download" + capitalizedFieldName)
+                .addJavadoc("Streams the {@code $L} content of one resource.\n", fieldName)
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "GetMapping"))
+                    .addMember("value", "$S", "/{id}/" + fieldName)
+                    .addMember("produces", "$T.APPLICATION_OCTET_STREAM_VALUE", mediaTypeClass).build())
+                .addParameter(idPathVariableParam)
+                .addParameter(ClassName.get("jakarta.servlet.http", "HttpServletResponse"), "response")
+                .addException(ClassName.get("java.io", "IOException"))
+                .addStatement("response.setContentType($T.APPLICATION_OCTET_STREAM_VALUE)", mediaTypeClass)
+                .beginControlFlow("if (!service.read$L(id, response.getOutputStream()))", capitalizedFieldName)
+                .addStatement("response.setStatus($T.NOT_FOUND.value())", httpStatusClass)
+                .endControlFlow()
+                .build();
+            controllerTypeBuilder.addMethod(download);
+
+            if (readOnly) continue;
+
+            MethodSpec upload = MethodSpec.methodBuilder("upload" + capitalizedFieldName)
+                .addJavadoc("Replaces the {@code $L} content of one resource with the request body.\n", fieldName)
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "PutMapping"))
+                    .addMember("value", "$S", "/{id}/" + fieldName)
+                    .addMember("consumes", "$T.APPLICATION_OCTET_STREAM_VALUE", mediaTypeClass).build())
+                .addParameter(idPathVariableParam)
+                .addParameter(ClassName.get("jakarta.servlet.http", "HttpServletRequest"), "request")
+                .addException(ClassName.get("java.io", "IOException"))
+                .returns(responseEntityOfVoid)
+                .addStatement("long length = request.getContentLengthLong()")
+                .beginControlFlow("if (length < 0)")
+                .addStatement("return $T.status($T.LENGTH_REQUIRED).build()", responseEntityClass, httpStatusClass)
+                .endControlFlow()
+                .addStatement("return service.write$L(id, request.getInputStream(), length) ? $T.noContent().build() : $T.notFound().build()",
+                    capitalizedFieldName, responseEntityClass, responseEntityClass)
+                .build();
+            controllerTypeBuilder.addMethod(upload);
+        }
+
+        // --- multi-column search ---
+
+        /*
+         * GET /search?status=NEW&status=PAID&amount.gte=10&sort=-orderedAt&pageNumber=0&pageSize=20
+         *
+         *     MultiValueMap<String, String> filter = new LinkedMultiValueMap<>(params);
+         *     filter.remove("pageNumber"); filter.remove("pageSize"); filter.remove("sort");
+         *     PageDto<UserDto> pageDto;
+         *     try {
+         *         pageDto = service.search(filter, sort, pageNumber, pageSize);
+         *     } catch (IllegalArgumentException e) {
+         *         return ResponseEntity.badRequest().build();
+         *     }
+         */
+        ClassName requestParamAnn = ClassName.get("org.springframework.web.bind.annotation", "RequestParam");
+        TypeName multiValueMapOfString = ParameterizedTypeName.get(ClassName.get("org.springframework.util", "MultiValueMap"),
+            ClassName.get(String.class), ClassName.get(String.class));
+        MethodSpec search = MethodSpec.methodBuilder("search")
+            .addJavadoc("Returns resources matching all filter parameters ({@code <field>}, {@code <field>.gt|gte|lt|lte},\n"
+                + "{@code <field>.prefix}), sorted by {@code sort} ({@code -} prefix for descending); 400 when malformed.\n")
+            .addModifiers(Modifier.PUBLIC)
+            .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "GetMapping"))
+                .addMember("value", "$S", "/search")
+                .addMember("produces", "$T.APPLICATION_JSON_VALUE", mediaTypeClass).build())
+            .addParameter(ParameterSpec.builder(multiValueMapOfString, "params").addAnnotation(requestParamAnn).build())
+            .addParameter(pageNumberRequestParam)
+            .addParameter(pageSizeRequestParam)
+            .addParameter(ParameterSpec.builder(ParameterizedTypeName.get(listRawClass, ClassName.get(String.class)), "sort")
+                .addAnnotation(AnnotationSpec.builder(requestParamAnn).addMember("required", "$L", false).build())
+                .build())
+            .addParameter(webRequestParam)
+            .returns(responseEntityOfPageResource)
+            .addStatement("$T filter = new $T<>(params)", multiValueMapOfString,
+                ClassName.get("org.springframework.util", "LinkedMultiValueMap"))
+            .addStatement("filter.remove($S)", "pageNumber")
+            .addStatement("filter.remove($S)", "pageSize")
+            .addStatement("filter.remove($S)", "sort")
+            .addStatement("$T pageDto", pageDtoOfDtoType)
+            .beginControlFlow("try")
+            .addStatement("pageDto = service.search(filter, sort, pageNumber, pageSize)")
+            .nextControlFlow("catch ($T e)", IllegalArgumentException.class)
+            .addStatement("return $T.badRequest().build()", responseEntityClass)
+            .endControlFlow()
+            .addStatement("return $L", dtoPage(CodeBlock.of("pageDto"), controllerClass))
+            .build();
+        controllerTypeBuilder.addMethod(search);
 
         // --- findBy<Field> endpoints for each scalar field ---
         for (ScalarFieldInfo fieldInfo : scalarFieldInfos) {
             // Skip id because it's already exposed by the "/{id}" endpoint
             if ("id".equals(fieldInfo.javaFieldName())) continue;
+            if (!fieldInfo.finder()) continue;
 
             String fieldName = fieldInfo.javaFieldName();
             String capitalizedFieldName = Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
@@ -238,15 +1192,157 @@ public class ControllerWriter {
                 .addParameter(requestParamForField)
                 .addParameter(pageNumberRequestParam)
                 .addParameter(pageSizeRequestParam)
+                .addParameter(webRequestParam)
                 .returns(responseEntityOfPageResource)
-                .addStatement("$T pageDto = service.findBy$L($L, pageNumber,pageSize)", pageDtoOfDtoType,capitalizedFieldName, fieldName)
-                .addStatement("$T pageResource = toPageResource(pageDto)", pageResourceOfResourceType)
-                .addStatement("return $T.ok(pageResource)", responseEntityClass)
+                .addStatement("return $L", directResources
+                    ? directPage(CodeBlock.of("service.findBy$L($L, pageNumber, pageSize, entityMapper::toResource)",
+                        capitalizedFieldName, fieldName), controllerClass)
+                    : dtoPage(CodeBlock.of("service.findBy$L($L, pageNumber, pageSize)", capitalizedFieldName, fieldName),
+                        controllerClass))
                 .build();
 
             controllerTypeBuilder.addMethod(findByMethodSpec);
         }
 
+        // --- bulk delete by indexed field: DELETE /by-<field>?<field>=v, body = deleted row count ---
+        for (ScalarFieldInfo fieldInfo : scalarFieldInfos) {
+            if (readOnly || !directDelete || !fieldInfo.indexed()) continue;
+
+            String fieldName = fieldInfo.javaFieldName();
+            String capitalizedFieldName = NamingUtils.upperFirst(fieldName);
+
+            MethodSpec deleteByMethodSpec = MethodSpec.methodBuilder("deleteBy" + capitalizedFieldName)
+                .addJavadoc("Deletes every resource whose {@code $L} equals the value; returns how many were deleted.\n",
+                    fieldName)
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "DeleteMapping"))
+                    .addMember("value", "$S", "/by-" + fieldName).build())
+                .addParameter(ParameterSpec.builder(fieldInfo.javaType(), fieldName)
+                    .addAnnotation(ClassName.get("org.springframework.web.bind.annotation", "RequestParam")).build())
+                .returns(ParameterizedTypeName.get(responseEntityClass, ClassName.get(Integer.class)))
+                .addStatement("return $T.ok(service.deleteBy$L($L))", responseEntityClass, capitalizedFieldName, fieldName)
+                .build();
+
+            controllerTypeBuilder.addMethod(deleteByMethodSpec);
+        }
+
+        // --- range endpoints for indexed temporal/numeric fields ---
+
+        /*
+         * GET /by-orderedAt/range?from=&to=&pageNumber=&pageSize=   at least one bound (400 otherwise)
+         * GET /by-orderedAt/scan?from=&to=&after=&afterId=&limit=   same bounds; next window: after and afterId
+         *                                                           of the last row (both or neither, 400 otherwise)
+         *
+         *     return ResponseEntity.ok(service.scanByOrderedAt(from, to, after, afterId, limit).stream()
+         *         .map(mapper::toResource).toList());
+         */
+        boolean keyset = SpecificationWriter.parser(idType) != null;
+        ClassName requestParam = ClassName.get("org.springframework.web.bind.annotation", "RequestParam");
+        AnnotationSpec optionalParam = AnnotationSpec.builder(requestParam).addMember("required", "$L", false).build();
+        for (ScalarFieldInfo fieldInfo : scalarFieldInfos) {
+            if (!fieldInfo.range()) continue;
+
+            String fieldName = fieldInfo.javaFieldName();
+            String capitalizedFieldName = NamingUtils.upperFirst(fieldName);
+            TypeName boundType = fieldInfo.javaType().isPrimitive() ? fieldInfo.javaType().box() : fieldInfo.javaType();
+
+            MethodSpec range = MethodSpec.methodBuilder("findBy" + capitalizedFieldName + "Range")
+                .addJavadoc("Returns resources whose {@code $L} is within [from, to] (either bound optional), ordered by it.\n",
+                    fieldName)
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "GetMapping"))
+                    .addMember("value", "$S", "/by-" + fieldName + "/range")
+                    .addMember("produces", "$T.APPLICATION_JSON_VALUE", mediaTypeClass).build())
+                .addParameter(ParameterSpec.builder(boundType, "from").addAnnotation(optionalParam).build())
+                .addParameter(ParameterSpec.builder(boundType, "to").addAnnotation(optionalParam).build())
+                .addParameter(pageNumberRequestParam)
+                .addParameter(pageSizeRequestParam)
+                .addParameter(webRequestParam)
+                .returns(responseEntityOfPageResource)
+                .beginControlFlow("if (from == null && to == null)")
+                .addStatement("return $T.badRequest().build()", responseEntityClass)
+                .endControlFlow()
+                .addStatement("return $L", dtoPage(CodeBlock.of("service.findBy$LRange(from, to, pageNumber, pageSize)",
+                    capitalizedFieldName), controllerClass))
+                .build();
+            controllerTypeBuilder.addMethod(range);
+
+            if (!keyset) continue;
+
+            MethodSpec scan = MethodSpec.methodBuilder("scanBy" + capitalizedFieldName)
+                .addJavadoc("Returns up to {@code limit} resources with {@code $L} in [from, to] (either bound optional),\n"
+                    + "ordered by ($L, id), starting after the ({@code after}, {@code afterId}) row, both or neither\n"
+                    + "given; no count query.\n", fieldName, fieldName)
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "GetMapping"))
+                    .addMember("value", "$S", "/by-" + fieldName + "/scan")
+                    .addMember("produces", "$T.APPLICATION_JSON_VALUE", mediaTypeClass).build())
+                .addParameter(ParameterSpec.builder(boundType, "from").addAnnotation(optionalParam).build())
+                .addParameter(ParameterSpec.builder(boundType, "to").addAnnotation(optionalParam).build())
+                .addParameter(ParameterSpec.builder(boundType, "after").addAnnotation(optionalParam).build())
+                .addParameter(ParameterSpec.builder(idType, "afterId").addAnnotation(optionalParam).build())
+                .addParameter(ParameterSpec.builder(TypeName.INT, "limit")
+                    .addAnnotation(AnnotationSpec.builder(requestParam).addMember("defaultValue", "$S", "100").build())
+                    .build())
+                .returns(responseEntityOfResourceList)
+                .beginControlFlow("if (from == null && to == null || (after == null) != (afterId == null) || limit < 1 || limit > $L)",
+                    MAX_SCAN_LIMIT)
+                .addStatement("return $T.badRequest().build()", responseEntityClass)
+                .endControlFlow()
+                .addStatement("return $T.ok(service.scanBy$L(from, to, after, afterId, limit).stream().map(mapper::toResource).toList())",
+                    responseEntityClass, capitalizedFieldName)
+                .build();
+            controllerTypeBuilder.addMethod(scan);
+        }
+
         JavaFile.builder(SwordWizard.CONTROLLER_PKG, controllerTypeBuilder.build()).build().writeTo(rootPath);
     }
+
+    /**
+     * Resource properties written to a CSV cell as JSON text: arrays (except Base64 byte[]),
+     * collections and maps, Jackson JsonNode and the typed classes of JSON columns.
+     */
+    static boolean isJsonCell(TypeName type) {
+        if (type instanceof com.squareup.javapoet.ArrayTypeName array) {
+            return !TypeName.BYTE.equals(array.componentType);
+        }
+        if (type instanceof ParameterizedTypeName) {
+            return true;
+        }
+        return type instanceof ClassName className && (className.packageName().equals(SwordWizard.JSON_PKG)
+            || className.canonicalName().equals("com.fasterxml.jackson.databind.JsonNode"));
+    }
+
+    /*
+     * Paged read through the DTOs:
+     *
+     *     return pageResponse(request, service.findAll(pageNumber, pageSize), UsersController::rowTag,
+     *         this::toPageResource);
+     */
+    private static CodeBlock dtoPage(CodeBlock page, ClassName controllerClass) {
+        return CodeBlock.of("pageResponse(request, $L, $T::rowTag, this::toPageResource)", page, controllerClass);
+    }
+
+    /*
+     * Paged read with direct resource mapping (the service already returns resources):
+     *
+     *     return pageResponse(request, service.findAll(pageNumber, pageSize, entityMapper::toResource),
+     *         UsersController::resourceTag, UsersController::asPageResource);
+     */
+    private static CodeBlock directPage(CodeBlock page, ClassName controllerClass) {
+        return CodeBlock.of("pageResponse(request, $L, $T::resourceTag, $T::asPageResource)", page, controllerClass,
+            controllerClass);
+    }
+
+    /**
+     * Arguments of Objects.hash over the given accessors of a DTO/resource variable; arrays are
+     * hashed by content (Arrays.hashCode), records would hash them by identity.
+     */
+    private static CodeBlock columnHashArgs(Map<String, TypeName> columns, String variable) {
+        return columns.entrySet().stream()
+            .map(c -> c.getValue() instanceof com.squareup.javapoet.ArrayTypeName
+                ? CodeBlock.of("$T.hashCode($L.$L())", ClassName.get("java.util", "Arrays"), variable, c.getKey())
+                : CodeBlock.of("$L.$L()", variable, c.getKey()))
+            .collect(CodeBlock.joining(", "));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,191 @@
+package org.cheetah.sword.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import javax.lang.model.element.Modifier;
+
+import org.cheetah.sword.wizard.SwordWizard;
+import org.springframework.stereotype.Component;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+/**
+ * Generates the shared CsvSupport helper used by the CSV export and import endpoints.
+ * Written once, next to PageResource.
+ *
+ * CSV dialect (RFC 4180): comma separated, values containing a comma, quote or line
+ * break are quoted and quotes doubled; null is an empty cell; byte[] is Base64.
+ * Arrays, collections, maps and JSON documents are written as their JSON text with
+ * json(mapper, value), the same text the NDJSON export writes for them, and parsed back
+ * by withJson(mapper, row, columns) before the row is converted to a resource.
+ */
+@Component
+public class CsvSupportWriter {
+
+	static final String CSV_SUPPORT = "CsvSupport";
+
+	public void writeCsvSupportOnce(Path rootPath, AnnotationSpec generatedAnn) throws IOException {
+		ClassName stringClass = ClassName.get(String.class);
+
+		/*
+		 * public static String line(Object... values) { StringBuilder sb = new
+		 * StringBuilder(); for (int i = 0; i < values.length; i++) { if (i > 0)
+		 * sb.append(','); sb.append(format(values[i])); } return sb.toString(); }
+		 */
+		MethodSpec line = MethodSpec.methodBuilder("line").addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.addJavadoc("Formats one CSV record (without line terminator).\n").varargs(true)
+				.returns(stringClass).addParameter(ArrayTypeName.of(TypeName.OBJECT), "values")
+				.addStatement("$T sb = new $T()", StringBuilder.class, StringBuilder.class)
+				.beginControlFlow("for (int i = 0; i < values.length; i++)")
+				.beginControlFlow("if (i > 0)").addStatement("sb.append(',')").endControlFlow()
+				.addStatement("sb.append(format(values[i]))")
+				.endControlFlow()
+				.addStatement("return sb.toString()").build();
+
+		MethodSpec format = MethodSpec.methodBuilder("format").addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.addJavadoc("Formats and, when needed, quotes a single CSV cell.\n")
+				.returns(stringClass).addParameter(TypeName.OBJECT, "value")
+				.beginControlFlow("if (value == null)").addStatement("return $S", "").endControlFlow()
+				.addStatement("$T s = value instanceof byte[] bytes ? $T.getEncoder().encodeToString(bytes) : value.toString()",
+						stringClass, ClassName.get("java.util", "Base64"))
+				.beginControlFlow("if (s.indexOf(',') >= 0 || s.indexOf('\"') >= 0 || s.indexOf('\\n') >= 0 || s.indexOf('\\r') >= 0)")
+				.addStatement("return '\"' + s.replace($S, $S) + '\"'", "\"", "\"\"")
+				.endControlFlow()
+				.addStatement("return s").build();
+
+		ClassName objectMapperClass = ClassName.get("com.fasterxml.jackson.databind", "ObjectMapper");
+		MethodSpec json = MethodSpec.methodBuilder("json").addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.addJavadoc("JSON text of an array, collection, map or JSON document cell (null stays null).\n")
+				.returns(stringClass).addParameter(objectMapperClass, "mapper").addParameter(TypeName.OBJECT, "value")
+				.beginControlFlow("if (value == null)").addStatement("return null").endControlFlow()
+				.beginControlFlow("try")
+				.addStatement("return mapper.writeValueAsString(value)")
+				.nextControlFlow("catch ($T e)", ClassName.get("com.fasterxml.jackson.core", "JsonProcessingException"))
+				.addStatement("throw new $T(e)", ClassName.get("java.io", "UncheckedIOException"))
+				.endControlFlow().build();
+
+		TypeName cellsType = ParameterizedTypeName.get(ClassName.get("java.util", "Map"), stringClass, TypeName.OBJECT);
+		MethodSpec withJson = MethodSpec.methodBuilder("withJson").addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.addJavadoc("Copy of a CSV record whose JSON columns hold parsed documents instead of their text.\n")
+				.returns(cellsType).varargs(true)
+				.addParameter(objectMapperClass, "mapper")
+				.addParameter(ParameterizedTypeName.get(ClassName.get("java.util", "Map"), stringClass, stringClass), "row")
+				.addParameter(ArrayTypeName.of(stringClass), "columns")
+				.addStatement("$T cells = new $T<>(row)", cellsType, ClassName.get("java.util", "HashMap"))
+				.beginControlFlow("for (String column : columns)")
+				.addStatement("String text = row.get(column)")
+				.beginControlFlow("if (text != null)")
+				.beginControlFlow("try")
+				.addStatement("cells.put(column, mapper.readTree(text))")
+				.nextControlFlow("catch ($T e)", ClassName.get("com.fasterxml.jackson.core", "JsonProcessingException"))
+				.addStatement("throw new $T(column + $S + e.getOriginalMessage(), e)", IllegalArgumentException.class,
+						": not a JSON value: ")
+				.endControlFlow()
+				.endControlFlow()
+				.endControlFlow()
+				.addStatement("return cells").build();
+
+		/*
+		 * Reading: a character-level parser, so quoted cells may contain commas, quotes
+		 * and line breaks. records(reader) reads the header and then returns a lazy
+		 * Stream of header -> cell maps (empty cells become null): only one record is
+		 * held in memory at a time.
+		 */
+		ClassName bufferedReaderClass = ClassName.get("java.io", "BufferedReader");
+		ClassName ioExceptionClass = ClassName.get("java.io", "IOException");
+		ClassName listClass = ClassName.get("java.util", "List");
+		TypeName listOfString = ParameterizedTypeName.get(listClass, stringClass);
+		TypeName rowType = ParameterizedTypeName.get(ClassName.get("java.util", "Map"), stringClass, stringClass);
+
+		MethodSpec readRecord = MethodSpec.methodBuilder("readRecord").addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.addJavadoc("Reads the next CSV record, or returns null at end of input.\n")
+				.returns(listOfString).addParameter(bufferedReaderClass, "in").addException(ioExceptionClass)
+				.addStatement("int c = in.read()")
+				.beginControlFlow("if (c == -1)").addStatement("return null").endControlFlow()
+				.addStatement("$T cells = new $T<>()", listOfString, ClassName.get("java.util", "ArrayList"))
+				.addStatement("$T cell = new $T()", StringBuilder.class, StringBuilder.class)
+				.addStatement("boolean quoted = false")
+				.beginControlFlow("while (c != -1)")
+				.beginControlFlow("if (quoted)")
+				.beginControlFlow("if (c == '\"')")
+				.addStatement("int next = in.read()")
+				.beginControlFlow("if (next != '\"')")
+				.addStatement("quoted = false")
+				.addStatement("c = next")
+				.addStatement("continue")
+				.endControlFlow()
+				.endControlFlow()
+				.addStatement("cell.append((char) c)")
+				.nextControlFlow("else if (c == '\"')")
+				.addStatement("quoted = true")
+				.nextControlFlow("else if (c == ',')")
+				.addStatement("cells.add(cell.toString())")
+				.addStatement("cell.setLength(0)")
+				.nextControlFlow("else if (c == '\\n')")
+				.addStatement("break")
+				.nextControlFlow("else if (c != '\\r')")
+				.addStatement("cell.append((char) c)")
+				.endControlFlow()
+				.addStatement("c = in.read()")
+				.endControlFlow()
+				.addStatement("cells.add(cell.toString())")
+				.addStatement("return cells").build();
+
+		MethodSpec nextNonBlank = MethodSpec.methodBuilder("nextNonBlank").addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.returns(listOfString).addParameter(bufferedReaderClass, "in")
+				.beginControlFlow("try")
+				.addStatement("$T record = readRecord(in)", listOfString)
+				.beginControlFlow("while (record != null && record.size() == 1 && record.get(0).isBlank())")
+				.addStatement("record = readRecord(in)")
+				.endControlFlow()
+				.addStatement("return record")
+				.nextControlFlow("catch ($T e)", ioExceptionClass)
+				.addStatement("throw new $T(e)", ClassName.get("java.io", "UncheckedIOException"))
+				.endControlFlow().build();
+
+		MethodSpec records = MethodSpec.methodBuilder("records").addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.addJavadoc("Lazily reads the records following the header line, keyed by header name.\n")
+				.returns(ParameterizedTypeName.get(ClassName.get("java.util.stream", "Stream"), rowType))
+				.addParameter(bufferedReaderClass, "in")
+				.addStatement("$T header = nextNonBlank(in)", listOfString)
+				.beginControlFlow("if (header == null)")
+				.addStatement("return $T.empty()", ClassName.get("java.util.stream", "Stream"))
+				.endControlFlow()
+				.addCode("$T<$T> rows = new $T<>() {\n$>", ClassName.get("java.util", "Iterator"), rowType,
+						ClassName.get("java.util", "Iterator"))
+				.addCode("private $T next = nextNonBlank(in);\n\n", listOfString)
+				.addCode("@$T\npublic boolean hasNext() {\n$>return next != null;\n$<}\n\n", Override.class)
+				.addCode("@$T\npublic $T next() {\n$>", Override.class, rowType)
+				.beginControlFlow("if (next == null)")
+				.addStatement("throw new $T()", ClassName.get("java.util", "NoSuchElementException"))
+				.endControlFlow()
+				.addStatement("$T row = new $T<>()", rowType, ClassName.get("java.util", "HashMap"))
+				.beginControlFlow("for (int i = 0; i < header.size() && i < next.size(); i++)")
+				.addStatement("String value = next.get(i)")
+				.addStatement("row.put(header.get(i), value.isEmpty() ? null : value)")
+				.endControlFlow()
+				.addStatement("next = nextNonBlank(in)")
+				.addStatement("return row")
+				.addCode("$<}\n$<};\n")
+				.addStatement("return $T.stream($T.spliteratorUnknownSize(rows, $T.ORDERED), false)",
+						ClassName.get("java.util.stream", "StreamSupport"), ClassName.get("java.util", "Spliterators"),
+						ClassName.get("java.util", "Spliterator"))
+				.build();
+
+		TypeSpec type = TypeSpec.classBuilder(CSV_SUPPORT).addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+				.addAnnotation(generatedAnn)
+				.addMethod(MethodSpec.constructorBuilder().addModifiers(Modifier.PRIVATE).build())
+				.addMethod(line).addMethod(format).addMethod(json).addMethod(withJson).addMethod(records).addMethod(readRecord).addMethod(nextNonBlank)
+				.build();
+
+		JavaFile.builder(SwordWizard.RESOURCES_PKG, type).build().writeTo(rootPath);
+	}
+}
@@ -5,6 +5,8 @@ import org.cheetah.sword.model.FkMode;
 import org.cheetah.sword.service.records.ColumnModel;
 import org.cheetah.sword.service.records.EntityModel;
 import org.cheetah.sword.service.records.SimpleFkModel;
+import org.cheetah.sword.util.JavaRecords;
+import org.cheetah.sword.util.NamingUtils;
 import org.cheetah.sword.util.SqlTypeMapper;
 import org.cheetah.sword.wizard.SwordWizard;
 import org.springframework.stereotype.Component;
@@ -26,12 +28,16 @@ import java.util.*;
  * - Columns that participate in a composite primary key are also included as independent scalar fields.
  * - Foreign key columns are included as scalar fields.
  * - Collections (OneToMany / ManyToMany) are not part of the DTO and are not generated.
+ * - LOB columns (ColumnModel.lob) are not part of the DTO: toEntity ignores them and they are
+ *   streamed by dedicated service/controller methods.
  *
  * Mapper generation rules:
  * - The mapper is generated as an interface with @Mapper(componentModel = "spring").
  * - Two abstract mapping methods are generated:
  *      <Entity>Dto toDto(<Entity> entity);
  *      <Entity>   toEntity(<Entity>Dto dto);
+ *   plus, unless the entity is read-only, a partial update for PATCH:
+ *      void patchEntity(<Entity>Dto dto, @MappingTarget <Entity> entity, @Context Set<String> fields);
  * - Each mapping method is annotated with @Mappings({...}) and one @Mapping per target field.
  *   Mapping cases:
  *      1. Simple scalar column:
@@ -91,8 +97,12 @@ public class DtoAndMapperWriter {
 
     private final NamingConfigService namingConfigService;
 
-    public DtoAndMapperWriter(NamingConfigService namingConfigService, ResourceMapperWriter resourceMapperWriter) {
+    private final JsonTypeWriter jsonTypeWriter;
+
+    public DtoAndMapperWriter(NamingConfigService namingConfigService, ResourceMapperWriter resourceMapperWriter,
+            JsonTypeWriter jsonTypeWriter) {
         this.namingConfigService = namingConfigService;
+        this.jsonTypeWriter = jsonTypeWriter;
         this.resourceMapperWriter = resourceMapperWriter;
     }
 
@@ -107,6 +117,8 @@ public class DtoAndMapperWriter {
      * @param fkMode foreign key generation mode (SCALAR or RELATION)
      * @param fkByLocalColumn map of local FK column name -> SimpleFkModel
      * @param embeddedPkColumns set of PK column names when the PK is composite; empty set otherwise
+     * @param primitiveTypes NOT NULL non-key columns use primitive types (same rule as the entity)
+     * @param records the DTO is a Java record (see JavaRecords) and the mapper reads it through accessors
      */
     public void writeDtoAndMapper(
             Path rootPath,
@@ -116,7 +128,9 @@ public class DtoAndMapperWriter {
             AnnotationSpec generatedAnn,
             FkMode fkMode,
             Map<String, SimpleFkModel> fkByLocalColumn,
-            Set<String> embeddedPkColumns
+            Set<String> embeddedPkColumns,
+            boolean primitiveTypes,
+            boolean records
     ) throws IOException {
 
         boolean compositePk = embeddedPkColumns.size() > 1;
@@ -128,7 +142,10 @@ public class DtoAndMapperWriter {
                 model,
                 dbProduct,
                 entitySimpleName,
-                generatedAnn
+                generatedAnn,
+                fkMode,
+                primitiveTypes,
+                records
         );
 
         JavaFile dtoFile = JavaFile.builder(SwordWizard.DTO_PKG, dtoType).build();
@@ -137,7 +154,11 @@ public class DtoAndMapperWriter {
                 .resolve(dtoType.name + ".java");
         Files.createDirectories(dtoOut.getParent());
         Files.deleteIfExists(dtoOut);
-        dtoFile.writeTo(rootPath);
+        if (records) {
+            JavaRecords.writeTo(SwordWizard.DTO_PKG, dtoType, rootPath);
+        } else {
+            dtoFile.writeTo(rootPath);
+        }
 
         // Generate Mapper interface
         TypeSpec mapperType = buildMapperInterface(
@@ -149,7 +170,8 @@ public class DtoAndMapperWriter {
                 embeddedPkColumns,
                 compositePk,
                 embeddedIdClassName,
-                embeddedIdFieldName
+                embeddedIdFieldName,
+                records
         );
 
         JavaFile mapperFile = JavaFile.builder(SwordWizard.MAPPER_PKG, mapperType).build();
@@ -166,18 +188,25 @@ public class DtoAndMapperWriter {
      *
      * For each database column:
      * - A private field is generated using the naming strategy (resolveColumnName).
-     * - The Java type is inferred via SqlTypeMapper.
+     * - The Java type is the YAML override (types, json) or inferred via SqlTypeMapper (primitive for NOT NULL non-key
+     *   columns when primitiveTypes is set, exactly as in the entity).
      * - Lombok annotations are added (Data, NoArgsConstructor, AllArgsConstructor, Builder,
      *   ToString(onlyExplicitlyIncluded=true), EqualsAndHashCode(onlyExplicitlyIncluded=true)).
      * - Each field is annotated with @ToString.Include and @EqualsAndHashCode.Include.
      *
+     * With records the fields are the record components and no Lombok annotation is added:
+     * the record equals/hashCode/toString cover every component.
+     *
      * No JPA annotations are generated for DTOs.
      */
     private TypeSpec buildDtoType(
             EntityModel model,
             String dbProduct,
             String entitySimpleName,
-            AnnotationSpec generatedAnn
+            AnnotationSpec generatedAnn,
+            FkMode fkMode,
+            boolean primitiveTypes,
+            boolean records
     ) {
 
         String dtoSimpleName = entitySimpleName + "Dto";
@@ -191,32 +220,33 @@ public class DtoAndMapperWriter {
                 .build();
 
         TypeSpec.Builder dto = TypeSpec.classBuilder(dtoSimpleName)
-                .addModifiers(Modifier.PUBLIC)
-                .addAnnotation(ClassName.get("lombok", "Data"))
-                .addAnnotation(ClassName.get("lombok", "NoArgsConstructor"))
-                .addAnnotation(ClassName.get("lombok", "AllArgsConstructor"))
-                .addAnnotation(ClassName.get("lombok", "Builder"))
-                .addAnnotation(toStringAnn)
-                .addAnnotation(eqHashAnn)
-                .addAnnotation(generatedAnn);
+                .addModifiers(Modifier.PUBLIC);
+        if (!records) {
+            dto.addAnnotation(ClassName.get("lombok", "Data"))
+                    .addAnnotation(ClassName.get("lombok", "NoArgsConstructor"))
+                    .addAnnotation(ClassName.get("lombok", "AllArgsConstructor"))
+                    .addAnnotation(ClassName.get("lombok", "Builder"))
+                    .addAnnotation(toStringAnn)
+                    .addAnnotation(eqHashAnn);
+        }
+        dto.addAnnotation(generatedAnn);
 
         for (ColumnModel col : model.columns().values()) {
+            if (col.lob()) {
+                continue;
+            }
             String physicalName = col.name();
             String fieldName = namingConfigService.resolveColumnName(model.table(), physicalName);
 
-            TypeName javaType = SqlTypeMapper.map(
-                    col.dataType(),
-                    col.typeName(),
-                    col.nullable(),
-                    dbProduct
-            );
+            TypeName javaType = resolveDtoType(model, col, dbProduct, fkMode, primitiveTypes);
 
-            FieldSpec field = FieldSpec.builder(javaType, fieldName, Modifier.PRIVATE)
-                    .addAnnotation(ClassName.get("lombok", "ToString").nestedClass("Include"))
-                    .addAnnotation(ClassName.get("lombok", "EqualsAndHashCode").nestedClass("Include"))
-                    .build();
+            FieldSpec.Builder field = FieldSpec.builder(javaType, fieldName, Modifier.PRIVATE);
+            if (!records) {
+                field.addAnnotation(ClassName.get("lombok", "ToString").nestedClass("Include"))
+                        .addAnnotation(ClassName.get("lombok", "EqualsAndHashCode").nestedClass("Include"));
+            }
 
-            dto.addField(field);
+            dto.addField(field.build());
         }
 
         return dto.build();
@@ -274,7 +304,8 @@ public class DtoAndMapperWriter {
             Set<String> embeddedPkColumns,
             boolean compositePk,
             String embeddedIdClassName,
-            String embeddedIdFieldName
+            String embeddedIdFieldName,
+            boolean records
     ) {
 
         String mapperSimpleName = entitySimpleName + "Mapper";
@@ -319,6 +350,9 @@ public class DtoAndMapperWriter {
         List<AnnotationSpec> toDtoFieldMappings = new ArrayList<>();
 
         for (String colName : model.columns().keySet()) {
+            if (model.columns().get(colName).lob()) {
+                continue;
+            }
             String logicalFieldName = namingConfigService.resolveColumnName(model.table(), colName);
             boolean isPkCol = embeddedPkColumns.contains(colName);
 
@@ -380,6 +414,15 @@ public class DtoAndMapperWriter {
                 continue;
             }
 
+            if (model.columns().get(colName).lob()) {
+                // LOBs are not in the DTO: written by the upload endpoint only
+                toEntityFieldMappings.add(AnnotationSpec.builder(mappingAnn)
+                        .addMember("target", "$S", logicalFieldName)
+                        .addMember("ignore", "$L", true)
+                        .build());
+                continue;
+            }
+
             AnnotationSpec m = AnnotationSpec.builder(mappingAnn)
                     .addMember("target", "$S", logicalFieldName)
                     .addMember("source", "$S", logicalFieldName)
@@ -451,6 +494,37 @@ public class DtoAndMapperWriter {
         mapper.addMethod(toDtoMethod);
         mapper.addMethod(toEntityMethod);
 
+        /*
+         * Partial update used by PATCH (not generated for read-only entities):
+         *
+         * @Mappings({ @Mapping(target="id", ignore=true), @Mapping(target="name", source="name"), ... })
+         * void patchEntity(UserDto dto, @MappingTarget User entity, @Context Set<String> fields);
+         *
+         * @Condition
+         * default boolean isPatched(@SourcePropertyName String property, @Context Set<String> fields) {
+         *     return fields.contains(property);
+         * }
+         *
+         * fields are the property names present in the request body: only those are copied
+         * (an explicit null clears the column, an absent property is left untouched, which a
+         * plain null check cannot tell apart for primitive fields), so with @DynamicUpdate the
+         * UPDATE only lists the columns sent. PK, LOB and version fields are ignored.
+         */
+        if (!model.readOnly()) {
+            mapper.addMethod(buildPatchMethod(model, fkMode, fkByLocalColumn, compositePk, embeddedIdFieldName,
+                    mappingAnn, mappingsAnn, entityType, dtoType));
+            mapper.addMethod(MethodSpec.methodBuilder("isPatched")
+                    .addModifiers(Modifier.PUBLIC, Modifier.DEFAULT)
+                    .addAnnotation(ClassName.get("org.mapstruct", "Condition"))
+                    .returns(TypeName.BOOLEAN)
+                    .addParameter(ParameterSpec.builder(String.class, "property")
+                            .addAnnotation(ClassName.get("org.mapstruct", "SourcePropertyName"))
+                            .build())
+                    .addParameter(patchFieldsParam())
+                    .addStatement("return fields.contains(property)")
+                    .build());
+        }
+
         /*
          * Helper default method for composite primary key reconstruction.
          *
@@ -509,7 +583,7 @@ public class DtoAndMapperWriter {
                         namingConfigService.resolveEntityName(fk.targetTable())
                 );
 
-                String dtoGetter = "get" + upperFirst(logicalFieldName);
+                String dtoGetter = records ? logicalFieldName : "get" + upperFirst(logicalFieldName);
                 String relSetterId = "setId";
 
                 MethodSpec helper = MethodSpec.methodBuilder(helperName)
@@ -531,6 +605,90 @@ public class DtoAndMapperWriter {
         return mapper.build();
     }
 
+    /**
+     * Builds patchEntity(dto, @MappingTarget entity, @Context fields): same targets as toEntity,
+     * except that key, LOB and version fields are ignored and only the given properties are copied.
+     */
+    private MethodSpec buildPatchMethod(
+            EntityModel model,
+            FkMode fkMode,
+            Map<String, SimpleFkModel> fkByLocalColumn,
+            boolean compositePk,
+            String embeddedIdFieldName,
+            ClassName mappingAnn,
+            ClassName mappingsAnn,
+            ClassName entityType,
+            ClassName dtoType
+    ) {
+        List<AnnotationSpec> patchFieldMappings = new ArrayList<>();
+
+        if (compositePk) {
+            patchFieldMappings.add(AnnotationSpec.builder(mappingAnn)
+                    .addMember("target", "$S", embeddedIdFieldName)
+                    .addMember("ignore", "$L", true)
+                    .build());
+        }
+
+        for (String colName : model.columns().keySet()) {
+            String logicalFieldName = namingConfigService.resolveColumnName(model.table(), colName);
+            boolean isPkCol = model.pkCols().contains(colName);
+
+            if (compositePk && isPkCol) {
+                continue;
+            }
+
+            // the version is checked by the service, never copied onto the managed entity
+            if (isPkCol || model.columns().get(colName).lob() || model.columns().get(colName).version()) {
+                patchFieldMappings.add(AnnotationSpec.builder(mappingAnn)
+                        .addMember("target", "$S", logicalFieldName)
+                        .addMember("ignore", "$L", true)
+                        .build());
+                continue;
+            }
+
+            if (fkMode == FkMode.RELATION && fkByLocalColumn.containsKey(colName)) {
+                // expressions bypass @Condition: keep the current reference explicitly
+                String getter = "get" + upperFirst(logicalFieldName);
+                String helperName = "build" + upperFirst(logicalFieldName) + "FromDto";
+                patchFieldMappings.add(AnnotationSpec.builder(mappingAnn)
+                        .addMember("target", "$S", logicalFieldName)
+                        .addMember("expression", "$S", "java(fields.contains(\"" + logicalFieldName + "\") ? "
+                                + helperName + "(dto) : entity." + getter + "())")
+                        .build());
+                continue;
+            }
+
+            patchFieldMappings.add(AnnotationSpec.builder(mappingAnn)
+                    .addMember("target", "$S", logicalFieldName)
+                    .addMember("source", "$S", logicalFieldName)
+                    .build());
+        }
+
+        return MethodSpec.methodBuilder("patchEntity")
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .addAnnotation(AnnotationSpec.builder(ClassName.get("org.mapstruct", "BeanMapping"))
+                        .addMember("nullValuePropertyMappingStrategy", "$T.IGNORE",
+                                ClassName.get("org.mapstruct", "NullValuePropertyMappingStrategy"))
+                        .build())
+                .addAnnotation(AnnotationSpec.builder(mappingsAnn)
+                        .addMember("value", buildArrayInitializer(mappingAnn, patchFieldMappings))
+                        .build())
+                .addParameter(ParameterSpec.builder(dtoType, "dto").build())
+                .addParameter(ParameterSpec.builder(entityType, "entity")
+                        .addAnnotation(ClassName.get("org.mapstruct", "MappingTarget"))
+                        .build())
+                .addParameter(patchFieldsParam())
+                .build();
+    }
+
+    /** @Context Set<String> fields: property names present in the PATCH body. */
+    private static ParameterSpec patchFieldsParam() {
+        return ParameterSpec.builder(
+                        ParameterizedTypeName.get(ClassName.get(Set.class), ClassName.get(String.class)), "fields")
+                .addAnnotation(ClassName.get("org.mapstruct", "Context"))
+                .build();
+    }
+
     /**
      * Builds the CodeBlock for @Mappings.value = { @Mapping(...), @Mapping(...), ... }.
      * If there are no mappings, an empty array literal "{}" is emitted.
@@ -560,4 +718,27 @@ public class DtoAndMapperWriter {
     private static String nowIso() {
         return OffsetDateTime.now().toString();
     }
-}
\ No newline at end of file
+
+    /**
+     * Java type of the DTO field of a column: the YAML override (types, json) or the type
+     * inferred via SqlTypeMapper, primitive for NOT NULL non-key columns when primitiveTypes
+     * is set (except booleans named is<Upper>, see NamingUtils#propertyType). Writers binding DTO values directly (native upsert, R2DBC entities) use it too.
+     */
+    public TypeName resolveDtoType(EntityModel model, ColumnModel col, String dbProduct, FkMode fkMode,
+            boolean primitiveTypes) {
+        TypeName forcedType = namingConfigService.resolveJavaType(model.table(), col.name(), col.typeName());
+        if (forcedType == null) {
+            forcedType = jsonTypeWriter.resolveJavaType(model, col);
+        }
+        return forcedType != null ? forcedType : NamingUtils.propertyType(
+                namingConfigService.resolveColumnName(model.table(), col.name()),
+                SqlTypeMapper.map(
+                        col.dataType(),
+                        col.typeName(),
+                        col.nullable(),
+                        dbProduct,
+                        primitiveTypes && !model.keepsBoxedType(col.name(), fkMode == FkMode.RELATION)
+                )
+        );
+    }
+}
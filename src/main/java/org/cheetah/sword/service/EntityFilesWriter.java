@@ -14,17 +14,20 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import javax.lang.model.element.Modifier;
 
+import org.cheetah.sword.model.ConnectionConfig;
 import org.cheetah.sword.model.FkMode;
 import org.cheetah.sword.model.RelationFetch;
+import org.cheetah.sword.service.records.CacheSettings;
 import org.cheetah.sword.service.records.ColumnModel;
 import org.cheetah.sword.service.records.EntityModel;
+import org.cheetah.sword.service.records.JsonMapping;
 import org.cheetah.sword.service.records.ScalarFieldInfo;
+import org.cheetah.sword.service.records.SequenceModel;
 import org.cheetah.sword.service.records.SimpleFkModel;
+import org.cheetah.sword.service.records.UpsertModel;
 import org.cheetah.sword.util.NamingUtils;
 import org.cheetah.sword.util.SqlTypeMapper;
 import org.cheetah.sword.wizard.SwordWizard;
@@ -56,13 +59,21 @@ public class EntityFilesWriter {
 	private final ControllerWriter controllerWriter;
 	private final ResourceMapperWriter resourceMapperWriter;
 	private final ResourceWriter resourceWriter;
+	private final CsvSupportWriter csvSupportWriter;
+	private final ImportReportWriter importReportWriter;
+	private final SecondLevelCacheWriter secondLevelCacheWriter;
+	private final JsonTypeWriter jsonTypeWriter;
+	private final SpecificationWriter specificationWriter;
+	private final UpsertWriter upsertWriter;
 
 
 	public void writeEntityFiles(Path rootPath, EntityModel model,
-			List<EntityModel> allModels, String dbProduct, FkMode fkMode, RelationFetch relationFetch,
-			boolean generateDto, boolean generateRepositories, boolean generateServices,boolean generateControllers, DatabaseMetaData md)
+			List<EntityModel> allModels, String dbProduct, ConnectionConfig cfg, DatabaseMetaData md)
 			throws IOException {
 
+		FkMode fkMode = cfg.getFkMode();
+		RelationFetch relationFetch = cfg.getRelationFetch();
+
 		String entitySimpleName = namingConfigService.resolveEntityName(model.table());
 
 		boolean compositePk = model.pkCols().size() > 1;
@@ -88,10 +99,35 @@ public class EntityFilesWriter {
 				.addAnnotation(ClassName.get("lombok", "Builder")).addAnnotation(toStringAnn).addAnnotation(eqHashAnn)
 				.addAnnotation(generatedAnn);
 
+		// view / read-only reference data -> no dirty checking, no snapshots, no writes
+		if (model.readOnly()) {
+			entity.addAnnotation(ClassName.get("org.hibernate.annotations", "Immutable"));
+		} else {
+			// UPDATE lists only the dirty columns (PATCH touches just the fields it sends)
+			entity.addAnnotation(ClassName.get("org.hibernate.annotations", "DynamicUpdate"));
+		}
+
+		// lookup table -> Hibernate second-level cache
+		String cacheStrategy = secondLevelCacheWriter.resolveStrategy(model, cfg);
+		if (cacheStrategy != null) {
+			entity.addAnnotation(ClassName.get("jakarta.persistence", "Cacheable"))
+					.addAnnotation(hibernateCache(cacheStrategy));
+		}
+
 		// collector for repository generation
 		List<ScalarFieldInfo> scalarFieldInfos = new ArrayList<>();
+		// LOB fields: not in DTOs/resources, streamed by dedicated endpoints
+		List<ScalarFieldInfo> lobFieldInfos = new ArrayList<>();
+		// raw JSON text fields: written as-is by the resource (@JsonRawValue)
+		Set<String> rawJsonFields = new HashSet<>();
+		// @Version field (ETag / If-Match in the controller), null when not versioned
+		ScalarFieldInfo versionFieldInfo = null;
+		// audit timestamp sent as Last-Modified by the controller, null when none
+		ScalarFieldInfo lastModifiedFieldInfo = null;
 		// ID type for repository/service
 		TypeName idTypeForRepository = null;
+		// ID property name on the entity ("id" for @EmbeddedId)
+		String idFieldName = "id";
 
 		// composite PK -> add @EmbeddedId + generate Id class
 		if (compositePk) {
@@ -149,7 +185,15 @@ public class EntityFilesWriter {
 				continue;
 
 			String fieldName = namingConfigService.resolveColumnName(model.table(), col.name());
-			TypeName javaType = SqlTypeMapper.map(col.dataType(), col.typeName(), col.nullable(), dbProduct);
+			boolean primitive = cfg.isPrimitiveTypes() && !model.keepsBoxedType(col.name(), fkMode == FkMode.RELATION);
+			TypeName forcedType = namingConfigService.resolveJavaType(model.table(), col.name(), col.typeName());
+			boolean lob = col.lob() && !isSimplePkColumn;
+			JsonMapping jsonMapping = forcedType == null ? jsonTypeWriter.resolveMapping(model, col) : null;
+			TypeName javaType = lob ? ClassName.get("java.sql", "Blob")
+					: forcedType != null ? forcedType
+					: jsonMapping != null ? jsonTypeWriter.resolveJavaType(model, col)
+					: NamingUtils.propertyType(fieldName,
+							SqlTypeMapper.map(col.dataType(), col.typeName(), col.nullable(), dbProduct, primitive));
 
 			FieldSpec.Builder field = FieldSpec.builder(javaType, fieldName, Modifier.PRIVATE);
 
@@ -159,36 +203,27 @@ public class EntityFilesWriter {
 				field.addAnnotation(ClassName.get("lombok", "EqualsAndHashCode").nestedClass("Include"));
 				field.addAnnotation(ClassName.get("lombok", "ToString").nestedClass("Include"));
 
-				// GeneratedValue strategy
-				if (col.autoIncrement()) {
-					if (isPostgres(dbProduct) && col.columnDef() != null
-							&& col.columnDef().toLowerCase(Locale.ROOT).contains("nextval(")) {
-
-						String seqName = extractPgSequenceName(col.columnDef());
+				// GeneratedValue strategy (read-only entities are never inserted)
+				if (col.autoIncrement() && !model.readOnly()) {
+					SequenceModel seq = col.sequence();
+					if (seq != null) {
 						String genName = (model.table() + "_" + col.name() + "_seq_gen").replaceAll("[^A-Za-z0-9_]",
 								"_");
 
-						if (seqName != null && !seqName.isBlank()) {
-							AnnotationSpec seqGen = AnnotationSpec
-									.builder(ClassName.get("jakarta.persistence", "SequenceGenerator"))
-									.addMember("name", "$S", genName).addMember("sequenceName", "$S", seqName)
-									.addMember("allocationSize", "$L", 1).build();
-							entity.addAnnotation(seqGen);
-
-							AnnotationSpec genVal = AnnotationSpec
-									.builder(ClassName.get("jakarta.persistence", "GeneratedValue"))
-									.addMember("strategy", "$T.SEQUENCE",
-											ClassName.get("jakarta.persistence", "GenerationType"))
-									.addMember("generator", "$S", genName).build();
-							field.addAnnotation(genVal);
-						} else {
-							AnnotationSpec genVal = AnnotationSpec
-									.builder(ClassName.get("jakarta.persistence", "GeneratedValue"))
-									.addMember("strategy", "$T.IDENTITY",
-											ClassName.get("jakarta.persistence", "GenerationType"))
-									.build();
-							field.addAnnotation(genVal);
-						}
+						// allocationSize = INCREMENT BY; above 1 the pooled-lo optimizer (selected in
+						// application-sword.yml) makes one sequence call every allocationSize inserts
+						AnnotationSpec seqGen = AnnotationSpec
+								.builder(ClassName.get("jakarta.persistence", "SequenceGenerator"))
+								.addMember("name", "$S", genName).addMember("sequenceName", "$S", seq.name())
+								.addMember("allocationSize", "$L", seq.allocationSize()).build();
+						entity.addAnnotation(seqGen);
+
+						AnnotationSpec genVal = AnnotationSpec
+								.builder(ClassName.get("jakarta.persistence", "GeneratedValue"))
+								.addMember("strategy", "$T.SEQUENCE",
+										ClassName.get("jakarta.persistence", "GenerationType"))
+								.addMember("generator", "$S", genName).build();
+						field.addAnnotation(genVal);
 					} else {
 						AnnotationSpec genVal = AnnotationSpec
 								.builder(ClassName.get("jakarta.persistence", "GeneratedValue")).addMember("strategy",
@@ -201,28 +236,80 @@ public class EntityFilesWriter {
 				// remember id type
 				if (!compositePk) {
 					idTypeForRepository = javaType;
+					idFieldName = fieldName;
 				}
 
+			} else if (lob) {
+				// LOB: fetched only when accessed (needs bytecode enhancement), read as a Blob locator
+				field.addAnnotation(ClassName.get("jakarta.persistence", "Lob"));
+				field.addAnnotation(AnnotationSpec.builder(ClassName.get("jakarta.persistence", "Basic"))
+						.addMember("fetch", "$T.LAZY", ClassName.get("jakarta.persistence", "FetchType")).build());
+				lobFieldInfos.add(new ScalarFieldInfo(fieldName, javaType));
 			} else {
 				// scalar field, not PK
 				if (!javaType.toString().equals("byte[]")) {
 					field.addAnnotation(ClassName.get("lombok", "ToString").nestedClass("Include"));
 				}
-				scalarFieldInfos.add(new ScalarFieldInfo(fieldName, javaType));
+				boolean finder = !SqlTypeMapper.isJson(col.typeName()) && !col.version();
+				// range queries only where an index can serve them, never on FK ids
+				boolean range = finder && isRangeType(javaType) && model.indexedCols().contains(col.name())
+						&& model.simpleFks().stream().noneMatch(fk -> fk.localColumn().equals(col.name()));
+				boolean indexed = finder && model.indexedCols().contains(col.name());
+				ScalarFieldInfo info = new ScalarFieldInfo(fieldName, javaType, finder, range, indexed,
+						namingConfigService.resolveResourceName(model.table(), col.name()));
+				scalarFieldInfos.add(info);
+
+				// optimistic locking: Hibernate adds "and version = ?" to UPDATE/DELETE
+				if (col.version()) {
+					field.addAnnotation(ClassName.get("jakarta.persistence", "Version"));
+					if (col.versionByDatabase()) {
+						// rowversion / ROW CHANGE TIMESTAMP: never written, read back after insert and update
+						ClassName eventType = ClassName.get("org.hibernate.generator", "EventType");
+						field.addAnnotation(AnnotationSpec.builder(ClassName.get("org.hibernate.annotations", "Generated"))
+								.addMember("event", "{ $T.INSERT, $T.UPDATE }", eventType, eventType).build());
+					}
+					versionFieldInfo = info;
+				}
+				if (col.lastModified()) {
+					lastModifiedFieldInfo = info;
+				}
 			}
 
 			// @Column
 			AnnotationSpec.Builder colAnn = AnnotationSpec.builder(ClassName.get("jakarta.persistence", "Column"))
 					.addMember("name", "$S", col.name());
 
-			// Postgres JSONB/JSON
+			// DTO updates (merge) leave the LOB alone: it is only written by the upload endpoint
+			if (lob && !model.readOnly()) {
+				colAnn.addMember("updatable", "$L", false);
+			}
+
+			// JSON/JSONB: raw text is only cast on write, the other mappings use Hibernate's JSON format mapper
 			String tn = col.typeName() == null ? "" : col.typeName().toLowerCase(Locale.ROOT);
-			if ((tn.equals("jsonb") || tn.equals("json")) && isPostgres(dbProduct)) {
+			boolean json = tn.equals("jsonb") || tn.equals("json");
+			if (json && isPostgres(dbProduct)) {
 				colAnn.addMember("columnDefinition", "$S", tn);
+			}
+			if (jsonMapping != null && jsonMapping.mode() == JsonMapping.Mode.RAW) {
+				String write = rawJsonWrite(dbProduct, tn);
+				if (write != null) {
+					field.addAnnotation(AnnotationSpec.builder(ClassName.get("org.hibernate.annotations", "ColumnTransformer"))
+							.addMember("write", "$S", write).build());
+				}
+				rawJsonFields.add(fieldName);
+			} else if (jsonMapping != null || json) {
 				field.addAnnotation(AnnotationSpec.builder(ClassName.get("org.hibernate.annotations", "JdbcTypeCode"))
 						.addMember("value", "$T.JSON", ClassName.get("org.hibernate.type", "SqlTypes")).build());
 			}
 
+			// UUID, array and interval columns: native JDBC binding instead of Hibernate's defaults
+			String jdbcTypeCode = SqlTypeMapper.jdbcTypeCode(col.dataType(), col.typeName());
+			if (jdbcTypeCode != null && forcedType == null) {
+				field.addAnnotation(AnnotationSpec.builder(ClassName.get("org.hibernate.annotations", "JdbcTypeCode"))
+						.addMember("value", "$T.$L", ClassName.get("org.hibernate.type", "SqlTypes"), jdbcTypeCode)
+						.build());
+			}
+
 			field.addAnnotation(colAnn.build());
 
 			entity.addField(field.build());
@@ -234,19 +321,24 @@ public class EntityFilesWriter {
 		}
 
 		// inverse relations on parent side
+		boolean inverseRelations = false;
 		if (fkMode == FkMode.RELATION) {
 			List<FieldSpec> inverseFields = buildInverseRelationFields(model, allModels, SwordWizard.ENTITY_PKG, md,
-					relationFetch);
+					relationFetch, cacheStrategy, cfg);
 			for (FieldSpec invField : inverseFields) {
 				entity.addField(invField);
 			}
+			inverseRelations = !inverseFields.isEmpty();
 		}
+		// deletes by JPQL (no entity loaded) unless the persistence context manages related collections
+		boolean directDelete = !inverseRelations;
 
-		// write entity
+		// write entity (+ classes of typed JSON columns)
 		JavaFile.builder(SwordWizard.ENTITY_PKG, entity.build()).build().writeTo(rootPath);
+		jsonTypeWriter.writeJsonTypes(rootPath, model, generatedAnn);
 
 		// DTO + Mapper
-		if (generateDto) {
+		if (cfg.isGenerateDto()) {
 			// Costruisci mappa FK: localColumn -> fkModel
 			Map<String, SimpleFkModel> fkByLocalColumn = new LinkedHashMap<>();
 			for (SimpleFkModel fk : model.simpleFks()) {
@@ -268,28 +360,62 @@ public class EntityFilesWriter {
 			        generatedAnn,
 			        fkMode,
 			        fkByLocalColumn,
-			        embeddedPkColumns
+			        embeddedPkColumns,
+			        cfg.isPrimitiveTypes(),
+			        cfg.isRecordCarriers()
 			);
 		}
 
-		// Repository
-		if (generateRepositories) {
+		// Repository (+ native upsert fragment, null when the table has none)
+		UpsertModel upsert = null;
+		if (cfg.isGenerateRepositories()) {
+			upsert = upsertWriter.writeUpsert(rootPath, model, entitySimpleName, cfg.getDbType(), dbProduct, fkMode,
+					cfg.isPrimitiveTypes(), cfg.isRecordCarriers(), generatedAnn);
 			repositoryWriter.writeRepository(rootPath, entitySimpleName,
-					idTypeForRepository, scalarFieldInfos, generatedAnn);
+					idTypeForRepository, idFieldName, scalarFieldInfos, lobFieldInfos, generatedAnn, directDelete,
+					upsert != null, model.readOnly());
+			specificationWriter.writeSpecifications(rootPath, entitySimpleName, idTypeForRepository, idFieldName,
+					scalarFieldInfos, generatedAnn);
 		}
 
+		// paged reads map entities straight to resources, unless the service caches DTO pages
+		CacheSettings cacheSettings = cfg.isGenerateCaching() ? namingConfigService.resolveCacheSettings(model.table())
+				: null;
+		boolean directResources = cfg.isDirectResourceMapping() && cfg.isGenerateServices()
+				&& cfg.isGenerateControllers() && (cacheSettings == null || !cacheSettings.enabled());
+
 		// Service
-		if (generateServices) {
+		if (cfg.isGenerateServices()) {
 			// We assume that DTO, Mapper and Repository are also generated/available.
-			this.pageObjectWriter.writePageObjectOnce(PageObjectWriter.PageType.DTO, rootPath, generatedAnn);
-			this.serviceWriter.writeService(rootPath, entitySimpleName, idTypeForRepository, scalarFieldInfos, generatedAnn);
+			this.pageObjectWriter.writePageObjectOnce(PageObjectWriter.PageType.DTO, rootPath, generatedAnn,
+					cfg.isRecordCarriers());
+			this.importReportWriter.writeImportReportOnce(rootPath, generatedAnn);
+			this.serviceWriter.writeService(rootPath, entitySimpleName, idTypeForRepository, idFieldName,
+					Math.max(1, model.pkCols().size()), scalarFieldInfos, lobFieldInfos, versionFieldInfo, directDelete,
+					upsert, generatedAnn, cacheSettings, model.readOnly(), directResources, cfg.isRecordCarriers());
 		}
 		
-		if (generateControllers) {
-			this.pageObjectWriter.writePageObjectOnce(PageObjectWriter.PageType.RESOURCE, rootPath, generatedAnn);
-			this.controllerWriter.writeController(rootPath, entitySimpleName, idTypeForRepository, scalarFieldInfos, generatedAnn);
-			this.resourceWriter.writeResource(rootPath, entitySimpleName, idTypeForRepository, scalarFieldInfos, generatedAnn);
-			this.resourceMapperWriter.writeResourceMapper(rootPath, entitySimpleName, generatedAnn);
+		if (cfg.isGenerateControllers()) {
+			this.pageObjectWriter.writePageObjectOnce(PageObjectWriter.PageType.RESOURCE, rootPath, generatedAnn,
+					cfg.isRecordCarriers());
+			this.csvSupportWriter.writeCsvSupportOnce(rootPath, generatedAnn);
+			this.controllerWriter.writeController(rootPath, entitySimpleName, idTypeForRepository,
+					compositePk ? null : idFieldName, scalarFieldInfos,
+					lobFieldInfos, versionFieldInfo, lastModifiedFieldInfo,
+					namingConfigService.resolveCacheControl(model.table()), generatedAnn, directDelete, upsert != null,
+					model.readOnly(), directResources, cfg.isRecordCarriers());
+			if (!rawJsonFields.isEmpty()) {
+				this.jsonTypeWriter.writeRawJsonDeserializerOnce(rootPath, generatedAnn);
+			}
+			this.resourceWriter.writeResource(rootPath, entitySimpleName, idTypeForRepository, scalarFieldInfos,
+					rawJsonFields, generatedAnn, cfg.isRecordCarriers());
+			this.resourceMapperWriter.writeResourceMapper(rootPath, entitySimpleName,
+					model.pkCols().stream().map(pk -> namingConfigService.resolveColumnName(model.table(), pk)).toList(),
+					compositePk, scalarFieldInfos, versionFieldInfo, generatedAnn, cfg.isRecordCarriers());
+			if (directResources) {
+				this.resourceMapperWriter.writeEntityResourceMapper(rootPath, entitySimpleName, idFieldName,
+						scalarFieldInfos, generatedAnn);
+			}
 		}
 	}
 
@@ -315,7 +441,9 @@ public class EntityFilesWriter {
 			ColumnModel col = model.columns().get(pkCol);
 
 			String fieldName = namingConfigService.resolveColumnName(model.table(), pkCol);
-			TypeName javaType = SqlTypeMapper.map(col.dataType(), col.typeName(), col.nullable(), dbProduct);
+			TypeName forcedType = namingConfigService.resolveJavaType(model.table(), pkCol, col.typeName());
+			TypeName javaType = forcedType != null ? forcedType
+					: SqlTypeMapper.map(col.dataType(), col.typeName(), col.nullable(), dbProduct);
 
 			FieldSpec f = FieldSpec.builder(javaType, fieldName, Modifier.PRIVATE)
 					.addAnnotation(AnnotationSpec.builder(ClassName.get("jakarta.persistence", "Column"))
@@ -331,7 +459,7 @@ public class EntityFilesWriter {
 
 	private List<FieldSpec> buildInverseRelationFields(EntityModel parentModel,
 			List<EntityModel> allModels, String entityPackage, DatabaseMetaData md,
-			RelationFetch relationFetch) {
+			RelationFetch relationFetch, String parentCacheStrategy, ConnectionConfig cfg) {
 
 		List<FieldSpec> fields = new ArrayList<>();
 		Set<String> usedFieldNames = new HashSet<>();
@@ -382,6 +510,11 @@ public class EntityFilesWriter {
 					FieldSpec.Builder f = FieldSpec.builder(setOfChild, fieldName, Modifier.PRIVATE)
 							.addAnnotation(oneToManyBack);
 
+					// cached parent: cache the collection too, but only if its elements are cached
+					if (parentCacheStrategy != null && secondLevelCacheWriter.resolveStrategy(childModel, cfg) != null) {
+						f.addAnnotation(hibernateCache(parentCacheStrategy));
+					}
+
 					fields.add(f.build());
 				}
 			}
@@ -390,6 +523,16 @@ public class EntityFilesWriter {
 		return fields;
 	}
 
+	/** Temporal and numeric types that get range queries (boxed or primitive). */
+	private static boolean isRangeType(TypeName javaType) {
+		TypeName boxed = javaType.isPrimitive() ? javaType.box() : javaType;
+		return switch (boxed.toString()) {
+			case "java.time.OffsetDateTime", "java.time.LocalDate", "java.math.BigDecimal", "java.lang.Integer",
+					"java.lang.Long" -> true;
+			default -> false;
+		};
+	}
+
 	private boolean isColumnUnique(DatabaseMetaData md, String catalog, String schema, String table, String column) {
 		try (ResultSet rs = md.getIndexInfo(catalog, schema, table, true, false)) {
 			while (rs.next()) {
@@ -424,12 +567,27 @@ public class EntityFilesWriter {
 		return false;
 	}
 
-	private String extractPgSequenceName(String columnDef) {
-		if (columnDef == null)
-			return null;
-		Matcher m = Pattern.compile("nextval\\('([^']+)'").matcher(columnDef);
-		if (m.find()) {
-			return m.group(1);
+	/**
+	 * @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+	 */
+	private AnnotationSpec hibernateCache(String strategy) {
+		return AnnotationSpec.builder(ClassName.get("org.hibernate.annotations", "Cache"))
+				.addMember("usage", "$T.$L", ClassName.get("org.hibernate.annotations", "CacheConcurrencyStrategy"),
+						strategy)
+				.build();
+	}
+
+	/**
+	 * Write expression binding JSON text to a json column without parsing it in Java:
+	 * PostgreSQL needs an explicit cast, H2 would otherwise store a JSON string literal.
+	 */
+	private String rawJsonWrite(String dbProduct, String typeName) {
+		String db = dbProduct == null ? "" : dbProduct.toLowerCase(Locale.ROOT);
+		if (db.contains("postgres")) {
+			return "?::" + typeName;
+		}
+		if (db.contains("h2")) {
+			return "? FORMAT JSON";
 		}
 		return null;
 	}
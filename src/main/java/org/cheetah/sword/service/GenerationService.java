@@ -6,6 +6,7 @@ import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -13,14 +14,19 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.cheetah.sword.events.Events.GenerateRequestedEvent;
 import org.cheetah.sword.events.Events.GenerationCompletedEvent;
 import org.cheetah.sword.model.ConnectionConfig;
+import org.cheetah.sword.model.DbType;
+import org.cheetah.sword.model.GenerationTarget;
 import org.cheetah.sword.model.SchemaSelection;
 import org.cheetah.sword.service.records.ColumnModel;
 import org.cheetah.sword.service.records.EntityModel;
 import org.cheetah.sword.service.records.ImportedFkRow;
+import org.cheetah.sword.service.records.SequenceModel;
 import org.cheetah.sword.service.records.SimpleFkModel;
 import org.cheetah.sword.wizard.SwordWizard;
 import org.springframework.context.ApplicationEventPublisher;
@@ -47,19 +53,36 @@ public class GenerationService {
 	private final RepositoryWriter repositoryWriter;
 	private final PageObjectWriter pageDtoWriter;
 	private final ServiceWriter serviceWriter;
+	private final SequenceMigrationWriter sequenceMigrationWriter;
+	private final ApplicationConfigWriter applicationConfigWriter;
+	private final CacheConfigWriter cacheConfigWriter;
+	private final SecondLevelCacheWriter secondLevelCacheWriter;
+	private final ReadReplicaConfigWriter readReplicaConfigWriter;
+	private final ReactiveFilesWriter reactiveFilesWriter;
+	private final R2dbcConfigWriter r2dbcConfigWriter;
+	private final JdbcFilesWriter jdbcFilesWriter;
+	private final JdbcConfigWriter jdbcConfigWriter;
+	private final SmokeLoadTestWriter smokeLoadTestWriter;
+
+	private static final Pattern PG_NEXTVAL = Pattern.compile("nextval\\('([^']+)'", Pattern.CASE_INSENSITIVE);
+	private static final Pattern NEXT_VALUE_FOR = Pattern.compile("next\\s+value\\s+for\\s+([^\\s,()]+)",
+			Pattern.CASE_INSENSITIVE);
+	/** Widest binary column still mapped to byte[] (SQL Server's varbinary(n) limit). */
+	private static final int LOB_MIN_SIZE = 8000;
 
 	@EventListener(GenerateRequestedEvent.class)
 	public void onGenerate(GenerateRequestedEvent event) {
 		ConnectionConfig cfg = event.config();
 		SchemaSelection selection = event.selection();
 		int generated = 0;
+		namingConfigService.setRecordComponentNames(cfg.isRecordCarriers());
 
 		try (Connection connection = metadataService.open(cfg)) {
 			String catalog = selection.catalog();
 			String schema = selection.schema();
 
 			System.out.printf("%n→ Scanning catalog=%s schema=%s ...%n", nvl(catalog), nvl(schema));
-			List<String> tables = metadataService.listTables(connection, catalog, schema);
+			Map<String, String> tables = metadataService.listTables(connection, catalog, schema, cfg.isIncludeViews());
 			System.out.printf("   Found %d table(s).%n", tables.size());
 
 			String entityPackage = SwordWizard.BASE_PACKAGE;
@@ -80,29 +103,120 @@ public class GenerationService {
 			System.out.printf("   Mapper package     : %s%n", mapperPackage);
 			System.out.printf("   Repository package : %s%n", repositoryPackage);
 			System.out.printf("   Service package    : %s%n", servicesPackage);
+			System.out.printf("   Target             : %s%n", cfg.getTarget());
 			System.out.printf("   FK mode            : %s%n", cfg.getFkMode());
 			System.out.printf("   Relation fetch     : %s%n", cfg.getRelationFetch());
 			System.out.printf("   Generate DTO       : %s%n", cfg.isGenerateDto());
 			System.out.printf("   Generate Repo      : %s%n", cfg.isGenerateRepositories());
 			System.out.printf("   Generate Services  : %s%n", cfg.isGenerateServices());
 			System.out.printf("   Generate Controllers  : %s%n", cfg.isGenerateControllers());
+			System.out.printf("   Generate Caching   : %s%n", cfg.isGenerateCaching());
+			System.out.printf("   Include views      : %s%n", cfg.isIncludeViews());
+			System.out.printf("   Read replica       : %s%n", cfg.isGenerateReadReplica());
+			System.out.printf("   Target concurrency : %s%n", cfg.getTargetConcurrency());
+			System.out.printf("   Lookup max rows    : %s%n",
+					cfg.getLookupTableMaxRows() > 0 ? cfg.getLookupTableMaxRows() : "no second-level cache");
+			System.out.printf("   Sequence increment : %s%n",
+					cfg.getSequenceIncrement() > 0 ? cfg.getSequenceIncrement() : "catalog value");
 
 			DatabaseMetaData metaData = connection.getMetaData();
 			String dbProduct = metaData.getDatabaseProductName();
+			Map<String, Long> sequenceIncrements = metadataService.loadSequenceIncrements(connection, cfg.getDbType());
+			Map<String, Long> rowCounts = cfg.getLookupTableMaxRows() > 0
+					? metadataService.loadRowCountEstimates(connection, cfg.getDbType())
+					: Map.of();
+			Set<String> rowVersionColumns = metadataService.loadRowVersionColumns(connection, cfg.getDbType());
 
 			// build table models
 			List<EntityModel> models = new ArrayList<>();
-			for (String table : tables) {
-				models.add(loadEntityModel(metaData, catalog, schema, table, dbProduct));
+			for (Map.Entry<String, String> t : tables.entrySet()) {
+				String table = t.getKey();
+				// views and materialized views are always read-only; tables can opt in via YAML
+				boolean view = t.getValue() != null && t.getValue().toUpperCase(Locale.ROOT).contains("VIEW");
+				boolean readOnly = view || namingConfigService.resolveReadOnly(table);
+				models.add(loadEntityModel(metaData, catalog, schema, table, dbProduct, cfg.getDbType(), sequenceIncrements,
+						cfg.getSequenceIncrement(), rowCountEstimate(rowCounts, catalog, schema, table), rowVersionColumns,
+						view, readOnly));
 			}
 
+			// migration raising sequence increments (only when a larger target was requested)
+			sequenceMigrationWriter.writeMigrationIfNeeded(rootPath, models);
+
 			// per-table generation
+			boolean reactive = cfg.getTarget() == GenerationTarget.R2DBC;
+			boolean jdbc = cfg.getTarget() == GenerationTarget.JDBC;
+			boolean jpa = !reactive && !jdbc;
+
+			// Hibernate cannot batch inserts of IDENTITY ids: each insert runs alone to read its key
+			List<String> identityTables = models.stream().filter(m -> !m.readOnly())
+					.filter(m -> m.pkCols().stream().map(m.columns()::get)
+							.anyMatch(c -> c != null && c.autoIncrement() && c.sequence() == null))
+					.map(EntityModel::table).toList();
+			if (jpa && !identityTables.isEmpty()) {
+				System.out.printf("   Note: IDENTITY keys disable insert batching for %s (use a sequence to batch)%n",
+						String.join(", ", identityTables));
+			}
 			for (EntityModel model : models) {
-				entityFilesWriter.writeEntityFiles(rootPath, model, models, dbProduct, cfg.getFkMode(), cfg.getRelationFetch(),
-						cfg.isGenerateDto(), cfg.isGenerateRepositories(), cfg.isGenerateServices(),cfg.isGenerateControllers(), metaData);
+				if (reactive) {
+					if (reactiveFilesWriter.writeEntityFiles(rootPath, model, dbProduct, cfg)) {
+						generated++;
+					}
+					continue;
+				}
+				if (jdbc) {
+					if (jdbcFilesWriter.writeEntityFiles(rootPath, model, dbProduct, cfg)) {
+						generated++;
+					}
+					continue;
+				}
+				entityFilesWriter.writeEntityFiles(rootPath, model, models, dbProduct, cfg, metaData);
 				generated++;
 			}
 
+			// R2DBC: quoted identifiers, r2dbc connection settings
+			if (reactive) {
+				if (cfg.isGenerateRepositories()) {
+					r2dbcConfigWriter.writeR2dbcConfig(rootPath);
+				}
+				applicationConfigWriter.writeApplicationConfig(rootPath, cfg, false);
+			}
+
+			// Spring Data JDBC: timestamp conversions
+			if (jdbc && cfg.isGenerateRepositories()) {
+				jdbcConfigWriter.writeJdbcConfig(rootPath);
+			}
+
+			// Hibernate second-level cache regions for lookup tables
+			boolean secondLevelCache = jpa && secondLevelCacheWriter.writeRegionConfig(rootPath, models, cfg);
+
+			// Spring Boot settings the generated code relies on (JDBC batching, bulk chunks, L2 cache, bootstrap)
+			boolean bootstrap = !reactive && cfg.getTargetConcurrency() > 0;
+			boolean pooledSequences = jpa && models.stream().flatMap(m -> m.columns().values().stream())
+					.anyMatch(c -> c.sequence() != null && c.sequence().allocationSize() > 1);
+			if ((jpa && (cfg.isGenerateServices() || secondLevelCache || pooledSequences)) || bootstrap) {
+				applicationConfigWriter.writeApplicationConfig(rootPath, cfg, secondLevelCache);
+			}
+
+			// application.yml (when missing) and a smoke load test of the generated controllers
+			if (bootstrap) {
+				applicationConfigWriter.writeBootstrapConfig(rootPath, cfg);
+				if (cfg.isGenerateControllers()) {
+					List<String> entityNames = models.stream().filter(m -> jpa || m.pkCols().size() == 1)
+							.map(m -> namingConfigService.resolveEntityName(m.table())).toList();
+					smokeLoadTestWriter.writeSmokeLoadTest(rootPath, entityNames, cfg.getTargetConcurrency());
+				}
+			}
+
+			// Caffeine cache manager for the read-through cached services
+			if (cfg.isGenerateServices() && cfg.isGenerateCaching()) {
+				cacheConfigWriter.writeCacheConfig(rootPath, models);
+			}
+
+			// data source routing read-only transactions to a replica
+			if (cfg.isGenerateServices() && cfg.isGenerateReadReplica()) {
+				readReplicaConfigWriter.writeReadReplicaConfig(rootPath);
+			}
+
 			publisher.publishEvent(new GenerationCompletedEvent(generated, rootPath));
 			System.out.printf("✓ Generation complete. %d entit%s created.%n", generated, generated == 1 ? "y" : "ies");
 		} catch (Exception e) {
@@ -112,7 +226,8 @@ public class GenerationService {
 	}
 
 	private EntityModel loadEntityModel(DatabaseMetaData md, String catalog, String schema, String table,
-			String dbProduct) throws SQLException {
+			String dbProduct, DbType dbType, Map<String, Long> sequenceIncrements, int targetIncrement, long rowCountEstimate,
+			Set<String> rowVersionColumns, boolean view, boolean readOnly) throws SQLException {
 
 		Map<String, ColumnModel> columns = new LinkedHashMap<>();
 		Set<String> pkCols = new LinkedHashSet<>();
@@ -126,8 +241,13 @@ public class GenerationService {
 				boolean nullable = "YES".equalsIgnoreCase(rs.getString("IS_NULLABLE"));
 				String isAuto = nullSafe(rs.getString("IS_AUTOINCREMENT"));
 				String columnDef = rs.getString("COLUMN_DEF");
-				boolean autoIncrement = detectAutoIncrement(dbProduct, isAuto, typeName, columnDef);
-				columns.put(name, new ColumnModel(name, dataType, typeName, nullable, columnDef, autoIncrement));
+				SequenceModel sequence = resolveSequence(columnDef, schema, dbType, sequenceIncrements, targetIncrement);
+				boolean autoIncrement = sequence != null || detectAutoIncrement(dbProduct, isAuto, typeName, columnDef);
+				boolean lob = isBinaryLob(dataType, rs.getInt("COLUMN_SIZE"))
+						&& namingConfigService.resolveJavaType(table, name, typeName) == null;
+				columns.put(name,
+						new ColumnModel(name, dataType, typeName, nullable, columnDef, autoIncrement, sequence, lob,
+								false, false, false));
 			}
 		}
 
@@ -138,6 +258,15 @@ public class GenerationService {
 			}
 		}
 
+		// views have no primary key: pick a column that can identify rows
+		if (pkCols.isEmpty() && view) {
+			String idColumn = guessViewIdColumn(columns);
+			if (idColumn != null) {
+				pkCols.add(idColumn);
+				System.out.printf("   View %s has no primary key, using column %s as @Id%n", table, idColumn);
+			}
+		}
+
 		// foreign keys
 		Map<String, List<ImportedFkRow>> fkGroups = new LinkedHashMap<>();
 		try (ResultSet rs = md.getImportedKeys(catalog, schema, table)) {
@@ -163,7 +292,192 @@ public class GenerationService {
 			}
 		}
 
-		return new EntityModel(catalog, schema, table, columns, pkCols, simpleFks);
+		// optimistic-lock column
+		String versionColumn = detectVersionColumn(table, schema != null ? schema : catalog, columns, pkCols,
+				simpleFks, rowVersionColumns);
+		if (versionColumn != null) {
+			ColumnModel col = columns.get(versionColumn);
+			columns.put(versionColumn, col.asVersion(isRowVersion(col, table, schema != null ? schema : catalog,
+					rowVersionColumns)));
+		}
+
+		// audit timestamp sent as Last-Modified
+		String lastModifiedColumn = detectLastModifiedColumn(table, columns, pkCols);
+		if (lastModifiedColumn != null) {
+			columns.put(lastModifiedColumn, columns.get(lastModifiedColumn).asLastModified());
+		}
+
+		// leading index columns (range endpoints)
+		Set<String> indexedCols = new LinkedHashSet<>();
+		try (ResultSet rs = md.getIndexInfo(catalog, schema, table, false, true)) {
+			while (rs.next()) {
+				String colName = rs.getString("COLUMN_NAME");
+				if (colName != null && rs.getShort("ORDINAL_POSITION") == 1
+						&& rs.getShort("TYPE") != DatabaseMetaData.tableIndexStatistic) {
+					indexedCols.add(colName);
+				}
+			}
+		} catch (SQLException e) {
+			// views and some drivers have no index information
+		}
+
+		return new EntityModel(catalog, schema, table, columns, pkCols, simpleFks, indexedCols, rowCountEstimate,
+				readOnly);
+	}
+
+	/**
+	 * Last-modified column of a table, or null: the column named in the YAML
+	 * (tables.<table>.lastModified; false disables it), else the first timestamp column
+	 * matching the lastModifiedColumns patterns.
+	 */
+	private String detectLastModifiedColumn(String table, Map<String, ColumnModel> columns, Set<String> pkCols) {
+		String configured = namingConfigService.resolveLastModifiedColumn(table);
+		if (configured != null) {
+			if (configured.isEmpty()) {
+				return null;
+			}
+			for (ColumnModel col : columns.values()) {
+				if (col.name().equalsIgnoreCase(configured)) {
+					if (isTimestampType(col.dataType())) {
+						return col.name();
+					}
+					System.err.printf("   Last-modified column %s of %s is not a timestamp%n", configured, table);
+					return null;
+				}
+			}
+			System.err.printf("   Last-modified column %s not found in %s%n", configured, table);
+			return null;
+		}
+
+		for (ColumnModel col : columns.values()) {
+			if (!pkCols.contains(col.name()) && isTimestampType(col.dataType())
+					&& namingConfigService.isLastModifiedColumnName(col.name())) {
+				return col.name();
+			}
+		}
+		return null;
+	}
+
+	private static boolean isTimestampType(int dataType) {
+		return dataType == Types.TIMESTAMP || dataType == Types.TIMESTAMP_WITH_TIMEZONE;
+	}
+
+	/**
+	 * Version column of a table, or null:
+	 * 1. the column named in the YAML (tables.<table>.version; false disables versioning)
+	 * 2. a column the database maintains (SQL Server rowversion, DB2 ROW CHANGE TIMESTAMP)
+	 * 3. the first integer or timestamp column matching the versionColumns patterns
+	 * Key and FK columns are never versions.
+	 */
+	private String detectVersionColumn(String table, String owner, Map<String, ColumnModel> columns,
+			Set<String> pkCols, List<SimpleFkModel> simpleFks, Set<String> rowVersionColumns) {
+		String configured = namingConfigService.resolveVersionColumn(table);
+		if (configured != null) {
+			if (configured.isEmpty()) {
+				return null;
+			}
+			for (String name : columns.keySet()) {
+				if (name.equalsIgnoreCase(configured)) {
+					return name;
+				}
+			}
+			System.err.printf("   Version column %s not found in %s%n", configured, table);
+			return null;
+		}
+
+		List<ColumnModel> candidates = columns.values().stream()
+				.filter(c -> !pkCols.contains(c.name()) && !c.lob())
+				.filter(c -> simpleFks.stream().noneMatch(fk -> fk.localColumn().equals(c.name())))
+				.toList();
+		for (ColumnModel col : candidates) {
+			if (isRowVersion(col, table, owner, rowVersionColumns)) {
+				return col.name();
+			}
+		}
+		for (ColumnModel col : candidates) {
+			if (isVersionType(col.dataType()) && namingConfigService.isVersionColumnName(col.name())) {
+				return col.name();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Columns the database updates on every write: SQL Server rowversion (reported as TYPE_NAME
+	 * "timestamp", a binary(8)) and DB2 ROW CHANGE TIMESTAMP (from SYSCAT.COLUMNS).
+	 */
+	private static boolean isRowVersion(ColumnModel col, String table, String owner, Set<String> rowVersionColumns) {
+		String tn = col.typeName() == null ? "" : col.typeName().toLowerCase(Locale.ROOT);
+		if ((tn.equals("timestamp") || tn.equals("rowversion")) && col.dataType() == Types.BINARY) {
+			return true;
+		}
+		String key = (table + "." + col.name()).toLowerCase(Locale.ROOT);
+		return rowVersionColumns.contains(key)
+				|| (owner != null && rowVersionColumns.contains(owner.toLowerCase(Locale.ROOT) + "." + key));
+	}
+
+	/** JDBC types Hibernate can increment (integers) or stamp (timestamps) as a version. */
+	private static boolean isVersionType(int dataType) {
+		return switch (dataType) {
+			case Types.SMALLINT, Types.INTEGER, Types.BIGINT, Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE -> true;
+			default -> false;
+		};
+	}
+
+	/**
+	 * Identifier column for a view: "id" if present, else the first NOT NULL column
+	 * ending in "id", else the first NOT NULL column, else the first column.
+	 */
+	private String guessViewIdColumn(Map<String, ColumnModel> columns) {
+		String firstNotNull = null;
+		for (ColumnModel col : columns.values()) {
+			String name = col.name().toLowerCase(Locale.ROOT);
+			if (name.equals("id")) {
+				return col.name();
+			}
+		}
+		for (ColumnModel col : columns.values()) {
+			if (col.nullable()) {
+				continue;
+			}
+			if (col.name().toLowerCase(Locale.ROOT).endsWith("id")) {
+				return col.name();
+			}
+			if (firstNotNull == null) {
+				firstNotNull = col.name();
+			}
+		}
+		if (firstNotNull != null) {
+			return firstNotNull;
+		}
+		return columns.isEmpty() ? null : columns.keySet().iterator().next();
+	}
+
+	/**
+	 * Row-count estimate of a table (MySQL/MariaDB qualify tables by catalog), -1 when
+	 * the statistics do not know it.
+	 */
+	private long rowCountEstimate(Map<String, Long> rowCounts, String catalog, String schema, String table) {
+		String key = table.toLowerCase(Locale.ROOT);
+		String owner = schema != null ? schema : catalog;
+		Long rows = owner != null ? rowCounts.get(owner.toLowerCase(Locale.ROOT) + "." + key) : null;
+		if (rows == null) {
+			rows = rowCounts.get(key);
+		}
+		return rows != null ? rows : -1;
+	}
+
+	/**
+	 * Binary columns that can hold large objects: BLOB / LONGVARBINARY (MySQL longblob,
+	 * DB2 blob), and BINARY / VARBINARY wider than LOB_MIN_SIZE (PostgreSQL bytea and SQL
+	 * Server varbinary(max) report 2^31-1). Short binaries such as hashes stay byte[].
+	 */
+	private static boolean isBinaryLob(int dataType, int columnSize) {
+		return switch (dataType) {
+			case Types.BLOB, Types.LONGVARBINARY -> true;
+			case Types.BINARY, Types.VARBINARY -> columnSize <= 0 || columnSize > LOB_MIN_SIZE;
+			default -> false;
+		};
 	}
 
 	private boolean detectAutoIncrement(String dbProduct, String isAuto, String typeName, String columnDef) {
@@ -187,6 +501,77 @@ public class GenerationService {
 		return false;
 	}
 
+	/**
+	 * Resolves the sequence referenced by a column default, e.g.
+	 * nextval('orders_id_seq'::regclass) (PostgreSQL) or NEXT VALUE FOR dbo.orders_seq
+	 * (SQL Server, H2, DB2). INCREMENT BY comes from the catalog; when it cannot be read
+	 * we assume 1, which is always safe.
+	 *
+	 * allocationSize is raised to targetIncrement only if that is larger than the current
+	 * increment: SequenceMigrationWriter then emits the matching ALTER SEQUENCE.
+	 *
+	 * The name keeps the quoting of the column default (see sequenceIdentifier): a quoted
+	 * lower- or mixed-case sequence must stay quoted in @SequenceGenerator and ALTER SEQUENCE.
+	 */
+	private SequenceModel resolveSequence(String columnDef, String schema, DbType dbType,
+			Map<String, Long> sequenceIncrements, int targetIncrement) {
+		if (columnDef == null)
+			return null;
+		Matcher m = PG_NEXTVAL.matcher(columnDef);
+		if (!m.find()) {
+			m = NEXT_VALUE_FOR.matcher(columnDef);
+			if (!m.find())
+				return null;
+		}
+		String seqName = sequenceIdentifier(m.group(1), dbType);
+		if (seqName.isBlank())
+			return null;
+
+		// catalog increments are keyed by the unquoted, lower-case name
+		String key = m.group(1).replaceAll("[\"\\[\\]`]", "").toLowerCase(Locale.ROOT);
+		Long increment = sequenceIncrements.get(key);
+		if (increment == null && schema != null && !key.contains(".")) {
+			increment = sequenceIncrements.get(schema.toLowerCase(Locale.ROOT) + "." + key);
+		}
+		if (increment == null && key.contains(".")) {
+			increment = sequenceIncrements.get(key.substring(key.lastIndexOf('.') + 1));
+		}
+		long incrementBy = (increment == null || increment < 1) ? 1 : increment;
+		long allocationSize = Math.max(incrementBy, targetIncrement);
+		return new SequenceModel(seqName, incrementBy, allocationSize);
+	}
+
+	/**
+	 * Sequence name of a column default as SQL and Hibernate expect it: quoted parts ("orders_seq",
+	 * [dbo], `x`) are quoted again with the vendor's quote (DbType#quote), unquoted parts are kept
+	 * as is and folded by the database. "PUBLIC"."orders_seq" stays "PUBLIC"."orders_seq".
+	 */
+	static String sequenceIdentifier(String raw, DbType dbType) {
+		StringBuilder name = new StringBuilder();
+		int i = 0;
+		while (i < raw.length()) {
+			char c = raw.charAt(i);
+			char close = c == '"' ? '"' : c == '[' ? ']' : c == '`' ? '`' : 0;
+			if (close != 0) {
+				int end = raw.indexOf(close, i + 1);
+				// "" inside a quoted part is an escaped quote
+				while (close == '"' && end >= 0 && end + 1 < raw.length() && raw.charAt(end + 1) == '"') {
+					end = raw.indexOf(close, end + 2);
+				}
+				if (end < 0) {
+					end = raw.length();
+				}
+				String part = raw.substring(i + 1, end);
+				name.append(dbType.quote(close == '"' ? part.replace("\"\"", "\"") : part));
+				i = end + 1;
+			} else {
+				name.append(c);
+				i++;
+			}
+		}
+		return name.toString();
+	}
+
 	private static String nullSafe(String s) {
 		return s == null ? "" : s;
 	}
@@ -0,0 +1,66 @@
+package org.cheetah.sword.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import javax.lang.model.element.Modifier;
+
+import org.cheetah.sword.wizard.SwordWizard;
+import org.springframework.stereotype.Component;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+/**
+ * Generates the shared ImportReport returned by the streaming import endpoints.
+ * Written once, next to PageDto.
+ *
+ * public class ImportReport {
+ *     private long rowsRead;
+ *     private long rowsImported;
+ *     private int chunks;
+ *     private List<ChunkError> errors = new ArrayList<>();
+ *
+ *     @Data @NoArgsConstructor @AllArgsConstructor
+ *     public static class ChunkError { int chunk; long firstRow; long lastRow; String message; }
+ * }
+ *
+ * chunk is 0 for a parse error (the import stops at the row that could not be read).
+ */
+@Component
+public class ImportReportWriter {
+
+	static final String IMPORT_REPORT = "ImportReport";
+
+	public void writeImportReportOnce(Path rootPath, AnnotationSpec generatedAnn) throws IOException {
+		ClassName reportClass = ClassName.get(SwordWizard.DTO_PKG, IMPORT_REPORT);
+		ClassName chunkErrorClass = reportClass.nestedClass("ChunkError");
+
+		TypeSpec chunkError = TypeSpec.classBuilder("ChunkError").addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.addAnnotation(ClassName.get("lombok", "Data"))
+				.addAnnotation(ClassName.get("lombok", "NoArgsConstructor"))
+				.addAnnotation(ClassName.get("lombok", "AllArgsConstructor"))
+				.addField(FieldSpec.builder(TypeName.INT, "chunk", Modifier.PRIVATE).build())
+				.addField(FieldSpec.builder(TypeName.LONG, "firstRow", Modifier.PRIVATE).build())
+				.addField(FieldSpec.builder(TypeName.LONG, "lastRow", Modifier.PRIVATE).build())
+				.addField(FieldSpec.builder(String.class, "message", Modifier.PRIVATE).build())
+				.build();
+
+		TypeSpec report = TypeSpec.classBuilder(IMPORT_REPORT).addModifiers(Modifier.PUBLIC)
+				.addAnnotation(ClassName.get("lombok", "Data")).addAnnotation(generatedAnn)
+				.addField(FieldSpec.builder(TypeName.LONG, "rowsRead", Modifier.PRIVATE).build())
+				.addField(FieldSpec.builder(TypeName.LONG, "rowsImported", Modifier.PRIVATE).build())
+				.addField(FieldSpec.builder(TypeName.INT, "chunks", Modifier.PRIVATE).build())
+				.addField(FieldSpec.builder(ParameterizedTypeName.get(ClassName.get("java.util", "List"), chunkErrorClass),
+						"errors", Modifier.PRIVATE)
+						.initializer("new $T<>()", ClassName.get("java.util", "ArrayList")).build())
+				.addType(chunkError).build();
+
+		JavaFile.builder(SwordWizard.DTO_PKG, report).build().writeTo(rootPath);
+	}
+}
@@ -0,0 +1,79 @@
+package org.cheetah.sword.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+
+import javax.lang.model.element.Modifier;
+
+import org.cheetah.sword.wizard.SwordWizard;
+import org.springframework.stereotype.Component;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
+
+/**
+ * Generates JdbcConfig for the Spring Data JDBC target: custom conversions reading
+ * TIMESTAMP columns into the OffsetDateTime fields shared with the JPA DTOs (the
+ * drivers return java.sql.Timestamp, taken in the JVM time zone as Hibernate does).
+ *
+ * @Configuration
+ * public class JdbcConfig extends AbstractJdbcConfiguration {
+ *     @Override
+ *     protected List<?> userConverters() {
+ *         return List.of(new TimestampToOffsetDateTimeConverter());
+ *     }
+ * }
+ *
+ * Spring Boot backs off its own AbstractJdbcConfiguration when this one is present.
+ * Spring Data JDBC quotes table and column names by default, so the @Table/@Column
+ * names written from the catalog are sent exactly as they are stored.
+ */
+@Component
+public class JdbcConfigWriter {
+
+	static final String JDBC_CONFIG = "JdbcConfig";
+	static final String TIMESTAMP_CONVERTER = "TimestampToOffsetDateTimeConverter";
+
+	public void writeJdbcConfig(Path rootPath) throws IOException {
+		ClassName timestampClass = ClassName.get("java.sql", "Timestamp");
+		ClassName offsetDateTimeClass = ClassName.get("java.time", "OffsetDateTime");
+		TypeSpec timestampConverter = TypeSpec.classBuilder(TIMESTAMP_CONVERTER).addModifiers(Modifier.STATIC)
+				.addJavadoc("TIMESTAMP columns are read as java.sql.Timestamp: taken in the JVM time zone.\n")
+				.addAnnotation(ClassName.get("org.springframework.data.convert", "ReadingConverter"))
+				.addSuperinterface(ParameterizedTypeName.get(
+						ClassName.get("org.springframework.core.convert.converter", "Converter"), timestampClass,
+						offsetDateTimeClass))
+				.addMethod(MethodSpec.methodBuilder("convert").addAnnotation(Override.class)
+						.addModifiers(Modifier.PUBLIC).returns(offsetDateTimeClass)
+						.addParameter(timestampClass, "source")
+						.addStatement("return source.toLocalDateTime().atZone($T.systemDefault()).toOffsetDateTime()",
+								ClassName.get("java.time", "ZoneId"))
+						.build())
+				.build();
+
+		MethodSpec userConverters = MethodSpec.methodBuilder("userConverters").addAnnotation(Override.class)
+				.addModifiers(Modifier.PROTECTED)
+				.returns(ParameterizedTypeName.get(ClassName.get("java.util", "List"), WildcardTypeName.subtypeOf(Object.class)))
+				.addStatement("return $T.of(new $L())", ClassName.get("java.util", "List"), TIMESTAMP_CONVERTER)
+				.build();
+
+		AnnotationSpec generatedAnn = AnnotationSpec.builder(ClassName.get("jakarta.annotation", "Generated"))
+				.addMember("value", "$S", "S.W.O.R.D.").addMember("date", "$S", OffsetDateTime.now().toString())
+				.build();
+
+		TypeSpec config = TypeSpec.classBuilder(JDBC_CONFIG).addModifiers(Modifier.PUBLIC)
+				.addJavadoc("Conversions of the types shared with the DTOs.\n")
+				.addAnnotation(ClassName.get("org.springframework.context.annotation", "Configuration"))
+				.addAnnotation(generatedAnn)
+				.superclass(ClassName.get("org.springframework.data.jdbc.repository.config", "AbstractJdbcConfiguration"))
+				.addMethod(userConverters).addType(timestampConverter).build();
+
+		JavaFile.builder(SwordWizard.CONFIG_PKG, config).build().writeTo(rootPath);
+	}
+}
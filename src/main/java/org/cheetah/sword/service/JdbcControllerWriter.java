@@ -0,0 +1,253 @@
+package org.cheetah.sword.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import javax.lang.model.element.Modifier;
+
+import org.cheetah.sword.service.records.ScalarFieldInfo;
+import org.cheetah.sword.util.NamingUtils;
+import org.cheetah.sword.wizard.SwordWizard;
+import org.springframework.stereotype.Component;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+/**
+ * Generates the Spring MVC controller of a Spring Data JDBC entity (see JdbcFilesWriter),
+ * on the paths and with the payloads of the JPA controller:
+ * - GET ?pageNumber=&pageSize=        PageResource
+ * - GET /{id}, HEAD /{id}             404 when the row does not exist
+ * - GET /by-<field>?<field>=v&pageNumber=&pageSize=
+ * - POST, PUT /{id} (404; 412 on a stale version), DELETE /{id} (204/404)
+ * Read-only entities only get the GET/HEAD endpoints.
+ * With direct resource mapping, the paged endpoints pass entityMapper::toResource to the
+ * service and wrap the page of resources (asPageResource): no DTO per row.
+ *
+ * Not generated for this target: ETag/conditional GETs, PATCH, bulk, batch get, range/scan,
+ * search, upsert, export/import and LOB endpoints.
+ */
+@Component
+public class JdbcControllerWriter {
+
+    public void writeController(Path rootPath,
+                                String entitySimpleName,
+                                TypeName idType,
+                                List<ScalarFieldInfo> scalarFieldInfos,
+                                AnnotationSpec generatedAnn,
+                                boolean readOnly,
+                                boolean directResources,
+                                boolean records) throws IOException {
+
+        ClassName serviceClass        = ClassName.get(SwordWizard.SERVICE_PKG, entitySimpleName + "Service");
+        ClassName resourceClass       = ClassName.get(SwordWizard.RESOURCES_PKG, entitySimpleName + "Resource");
+        ClassName dtoClass            = ClassName.get(SwordWizard.DTO_PKG, entitySimpleName + "Dto");
+        ClassName resourceMapperClass = ClassName.get(SwordWizard.RESOURCE_MAPPERS_PKG, entitySimpleName + "ResourceMapper");
+        ClassName pageDtoClass        = ClassName.get(SwordWizard.DTO_PKG, "PageDto");
+        ClassName pageResourceClass   = ClassName.get(SwordWizard.RESOURCES_PKG, "PageResource");
+        ClassName entityMapperClass   = ClassName.get(SwordWizard.RESOURCE_MAPPERS_PKG,
+            ResourceMapperWriter.entityResourceMapperName(entitySimpleName));
+
+        ClassName responseEntityClass = ClassName.get("org.springframework.http", "ResponseEntity");
+        ClassName httpStatusClass     = ClassName.get("org.springframework.http", "HttpStatus");
+        ClassName mediaTypeClass      = ClassName.get("org.springframework.http", "MediaType");
+        ClassName requestParamAnn     = ClassName.get("org.springframework.web.bind.annotation", "RequestParam");
+
+        TypeName resourceListType             = ParameterizedTypeName.get(ClassName.get("java.util", "List"), resourceClass);
+        TypeName pageDtoOfDtoType             = ParameterizedTypeName.get(pageDtoClass, dtoClass);
+        TypeName pageDtoOfResourceType        = ParameterizedTypeName.get(pageDtoClass, resourceClass);
+        TypeName pageResourceOfResourceType   = ParameterizedTypeName.get(pageResourceClass, resourceClass);
+        TypeName responseEntityOfPageResource = ParameterizedTypeName.get(responseEntityClass, pageResourceOfResourceType);
+        TypeName responseEntityOfResource     = ParameterizedTypeName.get(responseEntityClass, resourceClass);
+        TypeName responseEntityOfVoid         = ParameterizedTypeName.get(responseEntityClass, ClassName.get(Void.class));
+
+        ParameterSpec idPathVariableParam = ParameterSpec.builder(idType, "id")
+            .addAnnotation(ClassName.get("org.springframework.web.bind.annotation", "PathVariable"))
+            .build();
+        ParameterSpec resourceRequestBodyParam = ParameterSpec.builder(resourceClass, "body")
+            .addAnnotation(ClassName.get("org.springframework.web.bind.annotation", "RequestBody"))
+            .build();
+        ParameterSpec pageNumberRequestParam = ParameterSpec.builder(TypeName.INT, "pageNumber")
+            .addAnnotation(requestParamAnn)
+            .build();
+        ParameterSpec pageSizeRequestParam = ParameterSpec.builder(TypeName.INT, "pageSize")
+            .addAnnotation(requestParamAnn)
+            .build();
+
+        MethodSpec.Builder constructor = MethodSpec.constructorBuilder()
+            .addModifiers(Modifier.PUBLIC)
+            .addParameter(serviceClass, "service")
+            .addParameter(resourceMapperClass, "mapper")
+            .addStatement("this.service = service")
+            .addStatement("this.mapper = mapper");
+        if (directResources) {
+            constructor.addParameter(entityMapperClass, "entityMapper")
+                .addStatement("this.entityMapper = entityMapper");
+        }
+
+        // direct resource mapping: the service already returns resources, only the page wrapper changes
+        MethodSpec toPageResource = directResources
+            ? MethodSpec.methodBuilder("asPageResource")
+                .addJavadoc("Wraps a page of resources read by the service in a PageResource")
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .returns(pageResourceOfResourceType)
+                .addParameter(pageDtoOfResourceType, "page")
+                .addStatement("return $L", PageObjectWriter.fromPageObject(pageResourceClass, resourceClass,
+                    "page." + PageObjectWriter.contentAccessor(records) + "()", "page", records))
+                .build()
+            : MethodSpec.methodBuilder("toPageResource")
+                .addJavadoc("Transforms a PageDto in a PageResource")
+                .addModifiers(Modifier.PRIVATE)
+                .returns(pageResourceOfResourceType)
+                .addParameter(pageDtoOfDtoType, "pageDto")
+                .addStatement("$T content = pageDto.$L().stream().map(mapper::toResource).toList()", resourceListType,
+                    PageObjectWriter.contentAccessor(records))
+                .addStatement("return $L", PageObjectWriter.fromPageObject(pageResourceClass, resourceClass, "content", "pageDto", records))
+                .build();
+        String projection = directResources ? ", entityMapper::toResource" : "";
+
+        MethodSpec getAll = MethodSpec.methodBuilder("getAll")
+            .addModifiers(Modifier.PUBLIC)
+            .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "GetMapping"))
+                .addMember("produces", "$T.APPLICATION_JSON_VALUE", mediaTypeClass)
+                .build())
+            .addParameter(pageNumberRequestParam)
+            .addParameter(pageSizeRequestParam)
+            .returns(responseEntityOfPageResource)
+            .addStatement("return $T.ok($N(service.findAll(pageNumber, pageSize$L)))", responseEntityClass,
+                toPageResource, projection)
+            .build();
+
+        MethodSpec getById = MethodSpec.methodBuilder("getById")
+            .addModifiers(Modifier.PUBLIC)
+            .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "GetMapping"))
+                .addMember("value", "$S", "/{id}")
+                .build())
+            .addParameter(idPathVariableParam)
+            .returns(responseEntityOfResource)
+            .addStatement("$T dto = service.findById(id)", dtoClass)
+            .beginControlFlow("if (dto == null)")
+            .addStatement("return $T.notFound().build()", responseEntityClass)
+            .endControlFlow()
+            .addStatement("return $T.ok(mapper.toResource(dto))", responseEntityClass)
+            .build();
+
+        MethodSpec exists = MethodSpec.methodBuilder("exists")
+            .addModifiers(Modifier.PUBLIC)
+            .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "RequestMapping"))
+                .addMember("value", "$S", "/{id}")
+                .addMember("method", "$T.HEAD", ClassName.get("org.springframework.web.bind.annotation", "RequestMethod"))
+                .build())
+            .addParameter(idPathVariableParam)
+            .returns(responseEntityOfVoid)
+            .addStatement("return service.existsById(id) ? $T.ok().build() : $T.notFound().build()",
+                responseEntityClass, responseEntityClass)
+            .build();
+
+        TypeSpec.Builder controllerTypeBuilder = TypeSpec.classBuilder(entitySimpleName + "Controller")
+            .addModifiers(Modifier.PUBLIC)
+            .addAnnotation(ClassName.get("org.springframework.web.bind.annotation", "RestController"))
+            .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "RequestMapping"))
+                .addMember("value", "$S", "/" + entitySimpleName.toLowerCase(java.util.Locale.ROOT))
+                .build())
+            .addAnnotation(generatedAnn)
+            .addField(FieldSpec.builder(serviceClass, "service", Modifier.PRIVATE, Modifier.FINAL).build())
+            .addField(FieldSpec.builder(resourceMapperClass, "mapper", Modifier.PRIVATE, Modifier.FINAL).build());
+        if (directResources) {
+            controllerTypeBuilder.addField(FieldSpec.builder(entityMapperClass, "entityMapper", Modifier.PRIVATE, Modifier.FINAL).build());
+        }
+        controllerTypeBuilder
+            .addMethod(constructor.build())
+            .addMethod(toPageResource)
+            .addMethod(getAll)
+            .addMethod(getById)
+            .addMethod(exists);
+
+        if (!readOnly) {
+            MethodSpec create = MethodSpec.methodBuilder("create")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(ClassName.get("org.springframework.web.bind.annotation", "PostMapping"))
+                .addParameter(resourceRequestBodyParam)
+                .returns(responseEntityOfResource)
+                .addStatement("return $T.ok(mapper.toResource(service.save(mapper.toDto(body))))", responseEntityClass)
+                .build();
+
+            /*
+             * try {
+             *     UserDto dto = service.update(id, mapper.toDto(body));
+             *     return dto == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(mapper.toResource(dto));
+             * } catch (OptimisticLockingFailureException e) {
+             *     return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+             * }
+             */
+            MethodSpec update = MethodSpec.methodBuilder("update")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "PutMapping"))
+                    .addMember("value", "$S", "/{id}")
+                    .build())
+                .addParameter(idPathVariableParam)
+                .addParameter(resourceRequestBodyParam)
+                .returns(responseEntityOfResource)
+                .beginControlFlow("try")
+                .addStatement("$T dto = service.update(id, mapper.toDto(body))", dtoClass)
+                .addStatement("return dto == null ? $T.notFound().build() : $T.ok(mapper.toResource(dto))",
+                    responseEntityClass, responseEntityClass)
+                .nextControlFlow("catch ($T e)", ClassName.get("org.springframework.dao", "OptimisticLockingFailureException"))
+                .addStatement("return $T.status($T.PRECONDITION_FAILED).build()", responseEntityClass, httpStatusClass)
+                .endControlFlow()
+                .build();
+
+            MethodSpec delete = MethodSpec.methodBuilder("delete")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "DeleteMapping"))
+                    .addMember("value", "$S", "/{id}")
+                    .build())
+                .addParameter(idPathVariableParam)
+                .returns(responseEntityOfVoid)
+                .addStatement("return service.delete(id) ? $T.noContent().build() : $T.notFound().build()",
+                    responseEntityClass, responseEntityClass)
+                .build();
+
+            controllerTypeBuilder
+                .addMethod(create)
+                .addMethod(update)
+                .addMethod(delete);
+        }
+
+        // --- finders: GET /by-<field>?<field>=v&pageNumber=&pageSize= ---
+        for (ScalarFieldInfo fieldInfo : scalarFieldInfos) {
+            if (!fieldInfo.finder()) {
+                continue;
+            }
+            String fieldName = fieldInfo.javaFieldName();
+            String capitalizedFieldName = NamingUtils.upperFirst(fieldName);
+
+            MethodSpec findByMethodSpec = MethodSpec.methodBuilder("findBy" + capitalizedFieldName)
+                .addJavadoc("Returns resources filtered by {@code $L}.\n", fieldName)
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "GetMapping"))
+                    .addMember("value", "$S", "/by-" + fieldName)
+                    .addMember("produces", "$T.APPLICATION_JSON_VALUE", mediaTypeClass)
+                    .build())
+                .addParameter(ParameterSpec.builder(fieldInfo.javaType(), fieldName).addAnnotation(requestParamAnn).build())
+                .addParameter(pageNumberRequestParam)
+                .addParameter(pageSizeRequestParam)
+                .returns(responseEntityOfPageResource)
+                .addStatement("return $T.ok($N(service.findBy$L($L, pageNumber, pageSize$L)))",
+                    responseEntityClass, toPageResource, capitalizedFieldName, fieldName, projection)
+                .build();
+
+            controllerTypeBuilder.addMethod(findByMethodSpec);
+        }
+
+        JavaFile.builder(SwordWizard.CONTROLLER_PKG, controllerTypeBuilder.build()).build().writeTo(rootPath);
+    }
+}
@@ -0,0 +1,165 @@
+package org.cheetah.sword.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import javax.lang.model.element.Modifier;
+
+import org.cheetah.sword.model.ConnectionConfig;
+import org.cheetah.sword.service.records.EntityModel;
+import org.cheetah.sword.service.records.RelationalEntityInfo;
+import org.cheetah.sword.service.records.ScalarFieldInfo;
+import org.cheetah.sword.util.NamingUtils;
+import org.cheetah.sword.wizard.SwordWizard;
+import org.springframework.stereotype.Component;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+import lombok.AllArgsConstructor;
+
+/**
+ * Generates the Spring Data JDBC + Spring MVC stack of one table (GenerationTarget.JDBC):
+ * the Spring Data Relational entity (RelationalEntityWriter, an aggregate root without
+ * persistence context, proxies or dirty checking) and a JDBC repository, then delegates
+ * service, controller and resource generation. DTOs, mappers, resources and PageDto /
+ * PageResource are the ones of the JPA target, and so is the optional EntityResourceMapper.
+ *
+ * @Repository
+ * public interface OrdersRepository extends ListCrudRepository<Order, Long>,
+ *         ListPagingAndSortingRepository<Order, Long> {
+ *     Page<Order> findByStatus(String status, Pageable pageable);
+ *
+ *     @Modifying
+ *     @Query("DELETE FROM \"orders\" WHERE \"id\" = :id")
+ *     int deleteRowById(@Param("id") Long id);
+ * }
+ *
+ * Read-only entities get ListPagingAndSortingRepository plus findById/existsById only.
+ * Tables whose key is not a single column are skipped (writeEntityFiles returns false).
+ */
+@Component
+@AllArgsConstructor
+public class JdbcFilesWriter {
+
+	private final RelationalEntityWriter relationalEntityWriter;
+	private final PageObjectWriter pageObjectWriter;
+	private final JdbcServiceWriter jdbcServiceWriter;
+	private final JdbcControllerWriter jdbcControllerWriter;
+	private final ResourceMapperWriter resourceMapperWriter;
+	private final ResourceWriter resourceWriter;
+
+	public boolean writeEntityFiles(Path rootPath, EntityModel model, String dbProduct, ConnectionConfig cfg)
+			throws IOException {
+
+		if (model.pkCols().size() != 1) {
+			System.out.printf("   Skipped %s: JDBC aggregates need a single-column primary key%n", model.table());
+			return false;
+		}
+
+		model = RelationalEntityWriter.withoutLobs(model);
+		AnnotationSpec generatedAnn = AnnotationSpec.builder(ClassName.get("jakarta.annotation", "Generated"))
+				.addMember("value", "$S", "S.W.O.R.D.").addMember("date", "$S", OffsetDateTime.now().toString())
+				.build();
+		RelationalEntityInfo entity = relationalEntityWriter.writeEntityAndDto(rootPath, model, dbProduct, cfg,
+				generatedAnn);
+		String entitySimpleName = entity.entitySimpleName();
+
+		if (cfg.isGenerateRepositories()) {
+			writeRepository(rootPath, model, entity, cfg, generatedAnn);
+		}
+
+		boolean directResources = cfg.isDirectResourceMapping() && cfg.isGenerateServices()
+				&& cfg.isGenerateControllers();
+		if (cfg.isGenerateServices()) {
+			pageObjectWriter.writePageObjectOnce(PageObjectWriter.PageType.DTO, rootPath, generatedAnn,
+					cfg.isRecordCarriers());
+			jdbcServiceWriter.writeService(rootPath, entitySimpleName, entity.idType(), entity.idFieldName(),
+					entity.scalarFields(), entity.versionField(), generatedAnn, model.readOnly(), directResources,
+					cfg.isRecordCarriers());
+		}
+
+		if (cfg.isGenerateControllers()) {
+			pageObjectWriter.writePageObjectOnce(PageObjectWriter.PageType.RESOURCE, rootPath, generatedAnn,
+					cfg.isRecordCarriers());
+			jdbcControllerWriter.writeController(rootPath, entitySimpleName, entity.idType(), entity.scalarFields(),
+					generatedAnn, model.readOnly(), directResources, cfg.isRecordCarriers());
+			resourceWriter.writeResource(rootPath, entitySimpleName, entity.idType(), entity.scalarFields(),
+					Collections.emptySet(), generatedAnn, cfg.isRecordCarriers());
+			resourceMapperWriter.writeResourceMapper(rootPath, entitySimpleName, List.of(entity.idFieldName()), false,
+					entity.scalarFields(), null, generatedAnn, cfg.isRecordCarriers());
+			if (directResources) {
+				resourceMapperWriter.writeEntityResourceMapper(rootPath, entitySimpleName, entity.idFieldName(),
+						entity.scalarFields(), generatedAnn);
+			}
+		}
+		return true;
+	}
+
+	private void writeRepository(Path rootPath, EntityModel model, RelationalEntityInfo entity, ConnectionConfig cfg,
+			AnnotationSpec generatedAnn) throws IOException {
+
+		TypeName idType = entity.idType();
+		ClassName entityClass = ClassName.get(SwordWizard.ENTITY_PKG, entity.entitySimpleName());
+		ClassName pageClass = ClassName.get("org.springframework.data.domain", "Page");
+		ClassName pageableClass = ClassName.get("org.springframework.data.domain", "Pageable");
+		ClassName paramAnn = ClassName.get("org.springframework.data.repository.query", "Param");
+		TypeName pageOfEntity = ParameterizedTypeName.get(pageClass, entityClass);
+
+		TypeSpec.Builder repo = TypeSpec
+				.interfaceBuilder(NamingUtils.pluralizeSimpleName(entity.entitySimpleName()) + "Repository")
+				.addModifiers(Modifier.PUBLIC)
+				.addAnnotation(ClassName.get("org.springframework.stereotype", "Repository"))
+				.addAnnotation(generatedAnn);
+		if (!model.readOnly()) {
+			repo.addSuperinterface(ParameterizedTypeName.get(
+					ClassName.get("org.springframework.data.repository", "ListCrudRepository"), entityClass, idType));
+		}
+		repo.addSuperinterface(ParameterizedTypeName.get(
+				ClassName.get("org.springframework.data.repository", "ListPagingAndSortingRepository"), entityClass,
+				idType));
+
+		if (model.readOnly()) {
+			repo.addMethod(MethodSpec.methodBuilder("findById").addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+					.returns(ParameterizedTypeName.get(ClassName.get("java.util", "Optional"), entityClass))
+					.addParameter(idType, "id").build());
+			repo.addMethod(MethodSpec.methodBuilder("existsById").addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+					.returns(TypeName.BOOLEAN).addParameter(idType, "id").build());
+		}
+
+		for (ScalarFieldInfo sf : entity.scalarFields()) {
+			if (!sf.finder()) {
+				continue;
+			}
+			repo.addMethod(MethodSpec.methodBuilder("findBy" + NamingUtils.upperFirst(sf.javaFieldName()))
+					.addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT).returns(pageOfEntity)
+					.addParameter(sf.javaType(), sf.javaFieldName()).addParameter(pageableClass, "pageable").build());
+		}
+
+		// one DELETE with the affected row count (deleteById loads nothing but cannot tell a miss)
+		if (!model.readOnly()) {
+			String sql = "DELETE FROM " + cfg.getDbType().quote(model.table()) + " WHERE "
+					+ cfg.getDbType().quote(entity.pkColumn()) + " = :id";
+			repo.addMethod(MethodSpec.methodBuilder("deleteRowById").addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+					.addAnnotation(ClassName.get("org.springframework.data.jdbc.repository.query", "Modifying"))
+					.addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.data.jdbc.repository.query", "Query"))
+							.addMember("value", "$S", sql).build())
+					.returns(TypeName.INT)
+					.addParameter(ParameterSpec.builder(idType, "id")
+							.addAnnotation(AnnotationSpec.builder(paramAnn).addMember("value", "$S", "id").build())
+							.build())
+					.build());
+		}
+
+		JavaFile.builder(SwordWizard.REPOSITORY_PKG, repo.build()).build().writeTo(rootPath);
+	}
+}
@@ -0,0 +1,190 @@
+package org.cheetah.sword.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import javax.lang.model.element.Modifier;
+
+import org.cheetah.sword.service.records.ScalarFieldInfo;
+import org.cheetah.sword.util.NamingUtils;
+import org.cheetah.sword.wizard.SwordWizard;
+import org.springframework.stereotype.Component;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.TypeVariableName;
+import com.squareup.javapoet.WildcardTypeName;
+
+/**
+ * Generates the @Service of a Spring Data JDBC entity (see JdbcFilesWriter), with the
+ * signatures of the JPA service's CRUD core so controllers and callers look the same:
+ * - PageDto<Dto> findAll(pageNumber, maxRecordsPerPage), findBy<Field>(value, pageNumber, maxRecordsPerPage)
+ * - Dto findById(id)                 null when the row does not exist
+ * - boolean existsById(id)
+ * - Dto save(dto)                    always an INSERT (JdbcAggregateTemplate), client-assigned keys included
+ * - Dto update(id, dto)              null when the row does not exist
+ * - boolean delete(id)               one DELETE, false when no row has the id
+ *
+ * With projections (direct resource mapping), findAll and the finders also take a
+ * Function<? super Entity, ? extends R> that the controller uses to read resources straight
+ * from the aggregates: <R> PageDto<R> findAll(pageNumber, maxRecordsPerPage, projection).
+ *
+ * Every call is a plain statement: there is no persistence context to flush or clear.
+ * Versioned entities (numeric @Version): a DTO without version is applied to the current
+ * row, a stale one fails with OptimisticLockingFailureException (412 in the controller).
+ * Read-only entities get the query methods only.
+ */
+@Component
+public class JdbcServiceWriter {
+
+	public void writeService(Path rootPath, String entitySimpleName, TypeName idType, String idFieldName,
+			List<ScalarFieldInfo> scalarFields, ScalarFieldInfo versionField, AnnotationSpec generatedAnn,
+			boolean readOnly, boolean projections, boolean records) throws IOException {
+
+		ClassName entityClass = ClassName.get(SwordWizard.ENTITY_PKG, entitySimpleName);
+		ClassName dtoClass = ClassName.get(SwordWizard.DTO_PKG, entitySimpleName + "Dto");
+		ClassName mapperClass = ClassName.get(SwordWizard.MAPPER_PKG, entitySimpleName + "Mapper");
+		ClassName repoClass = ClassName.get(SwordWizard.REPOSITORY_PKG,
+				NamingUtils.pluralizeSimpleName(entitySimpleName) + "Repository");
+		ClassName pageDtoClass = ClassName.get(SwordWizard.DTO_PKG, "PageDto");
+
+		ClassName pageRequestClass = ClassName.get("org.springframework.data.domain", "PageRequest");
+		ClassName templateClass = ClassName.get("org.springframework.data.jdbc.core", "JdbcAggregateTemplate");
+		ClassName transactionalAnn = ClassName.get("org.springframework.transaction.annotation", "Transactional");
+
+		TypeName pageOfEntity = ParameterizedTypeName.get(ClassName.get("org.springframework.data.domain", "Page"),
+				entityClass);
+		TypeName pageDtoOfDto = ParameterizedTypeName.get(pageDtoClass, dtoClass);
+
+		TypeSpec.Builder serviceType = TypeSpec.classBuilder(entitySimpleName + "Service").addModifiers(Modifier.PUBLIC)
+				.addAnnotation(ClassName.get("org.springframework.stereotype", "Service")).addAnnotation(generatedAnn)
+				.addField(FieldSpec.builder(repoClass, "repository", Modifier.PRIVATE, Modifier.FINAL).build())
+				.addField(FieldSpec.builder(mapperClass, "mapper", Modifier.PRIVATE, Modifier.FINAL).build());
+
+		MethodSpec.Builder ctor = MethodSpec.constructorBuilder().addModifiers(Modifier.PUBLIC)
+				.addParameter(repoClass, "repository").addParameter(mapperClass, "mapper")
+				.addStatement("this.repository = repository").addStatement("this.mapper = mapper");
+		if (!readOnly) {
+			serviceType.addField(FieldSpec.builder(templateClass, "template", Modifier.PRIVATE, Modifier.FINAL).build());
+			ctor.addParameter(templateClass, "template").addStatement("this.template = template");
+		}
+		serviceType.addMethod(ctor.build());
+
+		serviceType.addMethod(MethodSpec.methodBuilder("toPageDto").addModifiers(Modifier.PRIVATE).returns(pageDtoOfDto)
+				.addParameter(pageOfEntity, "page")
+				.addStatement("$T<$T> dtoList = page.getContent().stream().map(mapper::toDto).toList()",
+						ClassName.get("java.util", "List"), dtoClass)
+				.addStatement("return $L", PageObjectWriter.fromSpringPage(pageDtoClass, dtoClass, "dtoList", records))
+				.build());
+
+		serviceType.addMethod(MethodSpec.methodBuilder("findAll").addModifiers(Modifier.PUBLIC).returns(pageDtoOfDto)
+				.addParameter(TypeName.INT, "pageNumber").addParameter(TypeName.INT, "maxRecordsPerPage")
+				.addStatement("return toPageDto(repository.findAll($T.of(pageNumber, maxRecordsPerPage)))",
+						pageRequestClass)
+				.build());
+
+		serviceType.addMethod(MethodSpec.methodBuilder("findById").addModifiers(Modifier.PUBLIC).returns(dtoClass)
+				.addParameter(idType, "id")
+				.addStatement("return repository.findById(id).map(mapper::toDto).orElse(null)").build());
+
+		serviceType.addMethod(MethodSpec.methodBuilder("existsById").addModifiers(Modifier.PUBLIC)
+				.returns(TypeName.BOOLEAN).addParameter(idType, "id")
+				.addStatement("return repository.existsById(id)").build());
+
+		for (ScalarFieldInfo sf : scalarFields) {
+			if (!sf.finder()) {
+				continue;
+			}
+			String repoMethodName = "findBy" + NamingUtils.upperFirst(sf.javaFieldName());
+			serviceType.addMethod(MethodSpec.methodBuilder(repoMethodName).addModifiers(Modifier.PUBLIC)
+					.returns(pageDtoOfDto).addParameter(sf.javaType(), sf.javaFieldName())
+					.addParameter(TypeName.INT, "pageNumber").addParameter(TypeName.INT, "maxRecordsPerPage")
+					.addStatement("return toPageDto(repository.$L($L, $T.of(pageNumber, maxRecordsPerPage)))",
+							repoMethodName, sf.javaFieldName(), pageRequestClass)
+					.build());
+		}
+
+		if (projections) {
+			TypeVariableName r = TypeVariableName.get("R");
+			TypeName pageDtoOfR = ParameterizedTypeName.get(pageDtoClass, r);
+			ParameterSpec projectionParam = ParameterSpec.builder(ParameterizedTypeName.get(
+					ClassName.get("java.util.function", "Function"), WildcardTypeName.supertypeOf(entityClass),
+					WildcardTypeName.subtypeOf(r)), "projection").build();
+
+			serviceType.addMethod(MethodSpec.methodBuilder("toPageDto").addModifiers(Modifier.PRIVATE)
+					.addTypeVariable(r).returns(pageDtoOfR).addParameter(pageOfEntity, "page")
+					.addParameter(projectionParam)
+					.addStatement("$T<$T> content = page.getContent().stream().<$T>map(projection).toList()",
+							ClassName.get("java.util", "List"), r, r)
+					.addStatement("return $L", PageObjectWriter.fromSpringPage(pageDtoClass, r, "content", records))
+					.build());
+			serviceType.addMethod(MethodSpec.methodBuilder("findAll").addModifiers(Modifier.PUBLIC)
+					.addTypeVariable(r).returns(pageDtoOfR).addParameter(TypeName.INT, "pageNumber")
+					.addParameter(TypeName.INT, "maxRecordsPerPage").addParameter(projectionParam)
+					.addStatement("return toPageDto(repository.findAll($T.of(pageNumber, maxRecordsPerPage)), projection)",
+							pageRequestClass)
+					.build());
+			for (ScalarFieldInfo sf : scalarFields) {
+				if (!sf.finder()) {
+					continue;
+				}
+				String repoMethodName = "findBy" + NamingUtils.upperFirst(sf.javaFieldName());
+				serviceType.addMethod(MethodSpec.methodBuilder(repoMethodName).addModifiers(Modifier.PUBLIC)
+						.addTypeVariable(r).returns(pageDtoOfR).addParameter(sf.javaType(), sf.javaFieldName())
+						.addParameter(TypeName.INT, "pageNumber").addParameter(TypeName.INT, "maxRecordsPerPage")
+						.addParameter(projectionParam)
+						.addStatement("return toPageDto(repository.$L($L, $T.of(pageNumber, maxRecordsPerPage)), projection)",
+								repoMethodName, sf.javaFieldName(), pageRequestClass)
+						.build());
+			}
+		}
+
+		if (!readOnly) {
+			// repository.save would UPDATE an entity whose key is already set (no version)
+			serviceType.addMethod(MethodSpec.methodBuilder("save").addModifiers(Modifier.PUBLIC)
+					.addAnnotation(transactionalAnn).returns(dtoClass).addParameter(dtoClass, "dto")
+					.addStatement("return mapper.toDto(template.insert(mapper.toEntity(dto)))").build());
+
+			/*
+			 * User current = repository.findById(id).orElse(null);   // or existsById when unversioned
+			 * if (current == null) return null;
+			 * User e = mapper.toEntity(dto);
+			 * e.setId(id);
+			 * if (e.getVersion() == null) e.setVersion(current.getVersion());
+			 * return mapper.toDto(repository.save(e));                 // UPDATE ... WHERE id = ? AND version = ?
+			 */
+			MethodSpec.Builder update = MethodSpec.methodBuilder("update").addModifiers(Modifier.PUBLIC)
+					.addAnnotation(transactionalAnn).returns(dtoClass).addParameter(idType, "id")
+					.addParameter(dtoClass, "dto");
+			if (versionField != null) {
+				String getter = NamingUtils.getterName(versionField.javaFieldName(), versionField.javaType());
+				String setter = "set" + NamingUtils.upperFirst(versionField.javaFieldName());
+				update.addStatement("$T current = repository.findById(id).orElse(null)", entityClass)
+						.beginControlFlow("if (current == null)").addStatement("return null").endControlFlow()
+						.addStatement("$T e = mapper.toEntity(dto)", entityClass)
+						.addStatement("e.set$L(id)", NamingUtils.upperFirst(idFieldName))
+						.beginControlFlow("if (e.$L() == null)", getter)
+						.addStatement("e.$L(current.$L())", setter, getter).endControlFlow();
+			} else {
+				update.beginControlFlow("if (!repository.existsById(id))").addStatement("return null").endControlFlow()
+						.addStatement("$T e = mapper.toEntity(dto)", entityClass)
+						.addStatement("e.set$L(id)", NamingUtils.upperFirst(idFieldName));
+			}
+			serviceType.addMethod(update.addStatement("return mapper.toDto(repository.save(e))").build());
+
+			serviceType.addMethod(MethodSpec.methodBuilder("delete").addModifiers(Modifier.PUBLIC)
+					.addAnnotation(transactionalAnn).returns(TypeName.BOOLEAN).addParameter(idType, "id")
+					.addStatement("return repository.deleteRowById(id) > 0").build());
+		}
+
+		JavaFile.builder(SwordWizard.SERVICE_PKG, serviceType.build()).build().writeTo(rootPath);
+	}
+}
@@ -0,0 +1,203 @@
+package org.cheetah.sword.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Modifier;
+
+import org.cheetah.sword.service.records.ColumnModel;
+import org.cheetah.sword.service.records.EntityModel;
+import org.cheetah.sword.service.records.JsonMapping;
+import org.cheetah.sword.util.NamingUtils;
+import org.cheetah.sword.util.SqlTypeMapper;
+import org.cheetah.sword.wizard.SwordWizard;
+import org.springframework.stereotype.Component;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Resolves the Java type of json/jsonb columns from their JsonMapping (naming YAML) and
+ * generates the supporting classes:
+ *
+ * - raw    String; the resource field is @JsonRawValue, so the stored text is written to
+ *          the response as is, and RawJsonDeserializer keeps the request JSON as text
+ * - node   com.fasterxml.jackson.databind.JsonNode
+ * - map    Map<String, Object>
+ * - typed  <Entity><Field> class under JSON_PKG, inferred from the sample document:
+ *          strings, numbers (Long/Double), booleans, nested objects (static nested classes)
+ *          and arrays (List of the first element's type); unknown properties are ignored.
+ *          Lombok classes like the DTOs, since JavaPoet 1.13 cannot emit records.
+ *
+ * public class OrderShipping {
+ *     private String street;
+ *     @JsonProperty("zip_code") private String zipCode;
+ *     private List<Line> lines;
+ *
+ *     public static class Line { private String sku; private Long qty; }
+ * }
+ */
+@Component
+@RequiredArgsConstructor
+public class JsonTypeWriter {
+
+	static final String RAW_JSON_DESERIALIZER = "RawJsonDeserializer";
+
+	private final NamingConfigService namingConfigService;
+
+	/**
+	 * Mapping of a column, or null when the column is not json/jsonb or has no configured mapping.
+	 */
+	public JsonMapping resolveMapping(EntityModel model, ColumnModel col) {
+		if (!SqlTypeMapper.isJson(col.typeName())) {
+			return null;
+		}
+		return namingConfigService.resolveJsonMapping(model.table(), col.name());
+	}
+
+	/**
+	 * Java type of a json/jsonb column, or null to fall back to SqlTypeMapper.
+	 */
+	public TypeName resolveJavaType(EntityModel model, ColumnModel col) {
+		JsonMapping mapping = resolveMapping(model, col);
+		if (mapping == null) {
+			return null;
+		}
+		return switch (mapping.mode()) {
+			case RAW -> ClassName.get(String.class);
+			case NODE -> ClassName.get("com.fasterxml.jackson.databind", "JsonNode");
+			case MAP -> ParameterizedTypeName.get(ClassName.get(Map.class), ClassName.get(String.class),
+					ClassName.get(Object.class));
+			case TYPED -> ClassName.get(SwordWizard.JSON_PKG, typedClassName(model, col));
+		};
+	}
+
+	/**
+	 * Writes the typed classes of the entity's json columns mapped from a sample.
+	 */
+	public void writeJsonTypes(Path rootPath, EntityModel model, AnnotationSpec generatedAnn) throws IOException {
+		for (ColumnModel col : model.columns().values()) {
+			JsonMapping mapping = resolveMapping(model, col);
+			if (mapping == null || mapping.mode() != JsonMapping.Mode.TYPED) {
+				continue;
+			}
+			String className = typedClassName(model, col);
+			TypeSpec type = buildType(ClassName.get(SwordWizard.JSON_PKG, className), mapping.sample(), generatedAnn)
+					.build();
+			JavaFile.builder(SwordWizard.JSON_PKG, type).build().writeTo(rootPath);
+		}
+	}
+
+	/*
+	 * public class RawJsonDeserializer extends JsonDeserializer<String> {
+	 *     public String deserialize(JsonParser p, DeserializationContext ctx) throws IOException {
+	 *         return p.currentToken() == JsonToken.VALUE_STRING ? p.getText() : p.readValueAsTree().toString();
+	 *     }
+	 * }
+	 *
+	 * A JSON string is taken as the JSON text itself (CSV import cells arrive as strings).
+	 */
+	public void writeRawJsonDeserializerOnce(Path rootPath, AnnotationSpec generatedAnn) throws IOException {
+		ClassName jsonParserClass = ClassName.get("com.fasterxml.jackson.core", "JsonParser");
+		MethodSpec deserialize = MethodSpec.methodBuilder("deserialize").addAnnotation(Override.class)
+				.addModifiers(Modifier.PUBLIC).returns(String.class)
+				.addParameter(jsonParserClass, "p")
+				.addParameter(ClassName.get("com.fasterxml.jackson.databind", "DeserializationContext"), "ctx")
+				.addException(IOException.class)
+				.addStatement("return p.currentToken() == $T.VALUE_STRING ? p.getText() : p.readValueAsTree().toString()",
+						ClassName.get("com.fasterxml.jackson.core", "JsonToken"))
+				.build();
+
+		TypeSpec type = TypeSpec.classBuilder(RAW_JSON_DESERIALIZER).addModifiers(Modifier.PUBLIC)
+				.addJavadoc("Keeps a JSON value as its text, for @JsonRawValue fields.\n")
+				.superclass(ParameterizedTypeName.get(
+						ClassName.get("com.fasterxml.jackson.databind", "JsonDeserializer"), ClassName.get(String.class)))
+				.addAnnotation(generatedAnn).addMethod(deserialize).build();
+
+		JavaFile.builder(SwordWizard.RESOURCES_PKG, type).build().writeTo(rootPath);
+	}
+
+	private String typedClassName(EntityModel model, ColumnModel col) {
+		return namingConfigService.resolveEntityName(model.table())
+				+ NamingUtils.upperFirst(namingConfigService.resolveColumnName(model.table(), col.name()));
+	}
+
+	@SuppressWarnings("unchecked")
+	private TypeSpec.Builder buildType(ClassName className, Map<String, Object> sample, AnnotationSpec generatedAnn) {
+		TypeSpec.Builder type = TypeSpec.classBuilder(className).addModifiers(Modifier.PUBLIC)
+				.addAnnotation(ClassName.get("lombok", "Data"))
+				.addAnnotation(ClassName.get("lombok", "NoArgsConstructor"))
+				.addAnnotation(ClassName.get("lombok", "AllArgsConstructor"))
+				.addAnnotation(ClassName.get("lombok", "Builder"))
+				.addAnnotation(AnnotationSpec.builder(ClassName.get("com.fasterxml.jackson.annotation", "JsonIgnoreProperties"))
+						.addMember("ignoreUnknown", "$L", true).build());
+		if (generatedAnn != null) {
+			type.addAnnotation(generatedAnn);
+		}
+
+		for (Map.Entry<String, Object> property : sample.entrySet()) {
+			String key = property.getKey();
+			String fieldName = fieldName(key);
+			TypeName fieldType = inferType(className, NamingUtils.upperFirst(fieldName), property.getValue(), type);
+
+			FieldSpec.Builder field = FieldSpec.builder(fieldType, fieldName, Modifier.PRIVATE);
+			if (!fieldName.equals(key)) {
+				field.addAnnotation(AnnotationSpec.builder(ClassName.get("com.fasterxml.jackson.annotation", "JsonProperty"))
+						.addMember("value", "$S", key).build());
+			}
+			type.addField(field.build());
+		}
+		return type;
+	}
+
+	/**
+	 * Type of a sample value; nested objects become static nested classes of owner.
+	 */
+	@SuppressWarnings("unchecked")
+	private TypeName inferType(ClassName ownerName, String nestedName, Object value, TypeSpec.Builder owner) {
+		if (value instanceof String) {
+			return ClassName.get(String.class);
+		}
+		if (value instanceof Boolean) {
+			return ClassName.get(Boolean.class);
+		}
+		if (value instanceof Integer || value instanceof Long || value instanceof java.math.BigInteger) {
+			return ClassName.get(Long.class);
+		}
+		if (value instanceof Number) {
+			return ClassName.get(Double.class);
+		}
+		if (value instanceof Map<?, ?> map) {
+			ClassName nested = ownerName.nestedClass(nestedName);
+			owner.addType(buildType(nested, (Map<String, Object>) map, null).addModifiers(Modifier.STATIC).build());
+			return nested;
+		}
+		if (value instanceof List<?> list) {
+			TypeName element = list.isEmpty() || list.get(0) == null
+					? ClassName.get("com.fasterxml.jackson.databind", "JsonNode")
+					: inferType(ownerName, nestedName, list.get(0), owner).box();
+			return ParameterizedTypeName.get(ClassName.get(List.class), element);
+		}
+		// null in the sample: type unknown, keep the JSON tree
+		return ClassName.get("com.fasterxml.jackson.databind", "JsonNode");
+	}
+
+	private String fieldName(String key) {
+		String name = key.matches("[a-z][A-Za-z0-9]*") ? key : NamingUtils.toFieldName(key);
+		if (name.isEmpty() || !Character.isJavaIdentifierStart(name.charAt(0))) {
+			name = "_" + name;
+		}
+		return SourceVersion.isKeyword(name) ? name + "Value" : name;
+	}
+}
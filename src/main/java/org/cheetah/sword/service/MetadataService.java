@@ -6,7 +6,13 @@ import org.springframework.stereotype.Service;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class MetadataService {
@@ -44,12 +50,125 @@ public class MetadataService {
     }
 
     public List<String> listTables(Connection c, String catalog, String schema) throws SQLException {
-        List<String> out = new ArrayList<>();
-        try (ResultSet rs = c.getMetaData().getTables(catalog, schema, "%", new String[]{"TABLE"})) {
+        return new ArrayList<>(listTables(c, catalog, schema, false).keySet());
+    }
+
+    /**
+     * Lists tables, optionally with views and materialized views, mapped to their JDBC
+     * TABLE_TYPE ("TABLE", "VIEW", "MATERIALIZED VIEW"), in catalog order.
+     */
+    public Map<String, String> listTables(Connection c, String catalog, String schema, boolean includeViews)
+            throws SQLException {
+        String[] types = includeViews
+                ? new String[]{"TABLE", "VIEW", "MATERIALIZED VIEW"}
+                : new String[]{"TABLE"};
+        Map<String, String> out = new LinkedHashMap<>();
+        try (ResultSet rs = c.getMetaData().getTables(catalog, schema, "%", types)) {
+            while (rs.next()) {
+                out.put(rs.getString("TABLE_NAME"), rs.getString("TABLE_TYPE"));
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Reads INCREMENT BY for every sequence visible to the connection, from the vendor catalog
+     * (pg_sequences, SYSCAT.SEQUENCES, sys.sequences, INFORMATION_SCHEMA.SEQUENCES).
+     * Keys are lowercased, both qualified ("schema.name") and unqualified ("name").
+     * Vendors without sequences, or a catalog we cannot read, give an empty map.
+     */
+    public Map<String, Long> loadSequenceIncrements(Connection c, DbType t) {
+        String sql = switch (t) {
+            case POSTGRES -> "SELECT schemaname, sequencename, increment_by FROM pg_sequences";
+            case DB2 -> "SELECT SEQSCHEMA, SEQNAME, INCREMENT FROM SYSCAT.SEQUENCES";
+            case MSSQL -> "SELECT SCHEMA_NAME(schema_id), name, CAST(increment AS BIGINT) FROM sys.sequences";
+            case H2 -> "SELECT SEQUENCE_SCHEMA, SEQUENCE_NAME, INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES";
+            default -> null;
+        };
+        Map<String, Long> out = new HashMap<>();
+        if (sql == null) return out;
+
+        try (Statement st = c.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            while (rs.next()) {
+                String schema = rs.getString(1);
+                String name = rs.getString(2);
+                long increment = rs.getLong(3);
+                if (name == null) continue;
+                String key = name.trim().toLowerCase(Locale.ROOT);
+                out.put(key, increment);
+                if (schema != null) {
+                    out.put(schema.trim().toLowerCase(Locale.ROOT) + "." + key, increment);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Unable to read sequence catalog (" + t.displayName() + "): " + e.getMessage());
+        }
+        return out;
+    }
+
+    /**
+     * Reads row-count estimates from the vendor statistics (pg_class.reltuples, SYSCAT.TABLES.CARD,
+     * sys.partitions, INFORMATION_SCHEMA.TABLES). No table is scanned, so values are only as fresh
+     * as the last ANALYZE / RUNSTATS. Keys are lowercased, both qualified ("schema.table") and
+     * unqualified ("table"); tables without statistics are left out.
+     */
+    public Map<String, Long> loadRowCountEstimates(Connection c, DbType t) {
+        String sql = switch (t) {
+            case POSTGRES -> "SELECT n.nspname, c.relname, CAST(c.reltuples AS BIGINT) FROM pg_class c "
+                    + "JOIN pg_namespace n ON n.oid = c.relnamespace WHERE c.relkind IN ('r', 'p')";
+            case DB2 -> "SELECT TABSCHEMA, TABNAME, CARD FROM SYSCAT.TABLES WHERE TYPE = 'T'";
+            case MSSQL -> "SELECT SCHEMA_NAME(t.schema_id), t.name, SUM(p.rows) FROM sys.tables t "
+                    + "JOIN sys.partitions p ON p.object_id = t.object_id AND p.index_id IN (0, 1) "
+                    + "GROUP BY t.schema_id, t.name";
+            case MYSQL, MARIADB -> "SELECT TABLE_SCHEMA, TABLE_NAME, TABLE_ROWS FROM INFORMATION_SCHEMA.TABLES "
+                    + "WHERE TABLE_TYPE = 'BASE TABLE'";
+            case H2 -> "SELECT TABLE_SCHEMA, TABLE_NAME, ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES "
+                    + "WHERE TABLE_TYPE = 'BASE TABLE'";
+        };
+        Map<String, Long> out = new HashMap<>();
+
+        try (Statement st = c.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            while (rs.next()) {
+                String schema = rs.getString(1);
+                String name = rs.getString(2);
+                long rows = rs.getLong(3);
+                // never analyzed: NULL (MySQL), -1 (PostgreSQL 14+, DB2)
+                if (name == null || rs.wasNull() || rows < 0) continue;
+                String key = name.trim().toLowerCase(Locale.ROOT);
+                out.put(key, rows);
+                if (schema != null) {
+                    out.put(schema.trim().toLowerCase(Locale.ROOT) + "." + key, rows);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Unable to read table statistics (" + t.displayName() + "): " + e.getMessage());
+        }
+        return out;
+    }
+
+    /**
+     * Reads the columns the database itself versions on every update (DB2 ROW CHANGE TIMESTAMP,
+     * SYSCAT.COLUMNS.ROWCHANGETIMESTAMP). SQL Server rowversion needs no query: the driver reports
+     * it as TYPE_NAME "timestamp". Keys are lowercased "table.column", also qualified
+     * ("schema.table.column"); other vendors give an empty set.
+     */
+    public Set<String> loadRowVersionColumns(Connection c, DbType t) {
+        Set<String> out = new HashSet<>();
+        if (t != DbType.DB2) return out;
+
+        String sql = "SELECT TABSCHEMA, TABNAME, COLNAME FROM SYSCAT.COLUMNS WHERE ROWCHANGETIMESTAMP = 'Y'";
+        try (Statement st = c.createStatement(); ResultSet rs = st.executeQuery(sql)) {
             while (rs.next()) {
-                out.add(rs.getString("TABLE_NAME"));
+                String schema = rs.getString(1);
+                String key = (rs.getString(2).trim() + "." + rs.getString(3).trim()).toLowerCase(Locale.ROOT);
+                out.add(key);
+                if (schema != null) {
+                    out.add(schema.trim().toLowerCase(Locale.ROOT) + "." + key);
+                }
             }
+        } catch (SQLException e) {
+            System.err.println("Unable to read row change timestamp columns (" + t.displayName() + "): " + e.getMessage());
         }
         return out;
     }
-}
\ No newline at end of file
+}
@@ -1,13 +1,23 @@
 package org.cheetah.sword.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.TypeName;
+import org.cheetah.sword.service.records.CacheSettings;
+import org.cheetah.sword.service.records.JsonMapping;
+import org.cheetah.sword.util.NamingUtils;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.stereotype.Service;
 import org.yaml.snakeyaml.Yaml;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 /**
  * Provides resolution of Java entity class names (for tables) and Java field names (for columns).
@@ -39,6 +49,95 @@ import java.util.*;
  * Behavior:
  * - Tables not listed in YAML still get generated using default naming rules.
  * - Columns not listed in YAML still get generated using default naming rules.
+ *
+ * A column can take a different name in the REST resource than in the entity and DTO:
+ *
+ * tables:
+ *   users:
+ *     columns:
+ *       first_name:
+ *         dto: firstName
+ *         resource: givenName
+ *
+ * Read-through cache settings (used when caching is generated) can be given globally
+ * and per table; per-table values fall back to the global ones:
+ *
+ * cache:
+ *   maximumSize: 10000
+ *   ttlSeconds: 600
+ * tables:
+ *   countries:
+ *     cache:
+ *       maximumSize: 300
+ *       ttlSeconds: 86400
+ *   audit_log:
+ *     cache: false
+ *
+ * Hibernate second-level caching of lookup tables is normally decided from the catalog
+ * row-count statistics; a table can force it (or opt out) with:
+ *
+ * tables:
+ *   order_statuses:
+ *     secondLevelCache: READ_ONLY     # READ_ONLY | READ_WRITE | NONSTRICT_READ_WRITE | NONE
+ *
+ * Reference data that the application never writes can be generated like a view
+ * (@Immutable entity, query-only repository, service and controller):
+ *
+ * tables:
+ *   countries:
+ *     readOnly: true
+ *
+ * Java types chosen by SqlTypeMapper can be overridden by database TYPE_NAME (root "types")
+ * and per column (tables.<table>.types); values are primitives, arrays or fully qualified
+ * class names:
+ *
+ * types:
+ *   citext: String
+ *   money: java.math.BigDecimal
+ * tables:
+ *   devices:
+ *     types:
+ *       mac_address: byte[]
+ *       serial_no: java.util.UUID
+ *
+ * json/jsonb columns are mapped per column (tables.<table>.json), with a global default
+ * (jsonMode). Modes: raw (String, no parsing), node (JsonNode), map (Map<String, Object>),
+ * or a generated class inferred from a sample document (inline or sampleFile):
+ *
+ * jsonMode: raw
+ * tables:
+ *   orders:
+ *     json:
+ *       attributes: node
+ *       shipping:
+ *         sample: '{"street": "Main St 1", "zip": "12345", "lines": [{"sku": "A1", "qty": 2}]}'
+ *       invoice:
+ *         sampleFile: samples/invoice.json
+ *
+ * Optimistic locking (@Version) uses the column the database maintains itself (SQL Server
+ * rowversion, DB2 ROW CHANGE TIMESTAMP), else the first integer or timestamp column whose
+ * name matches versionColumns (case-insensitive, '*' wildcard; DEFAULT_VERSION_COLUMNS
+ * when absent). A table can name its column or opt out:
+ *
+ * versionColumns: [version, "*_version", lock_no]
+ * tables:
+ *   orders:
+ *     version: row_stamp
+ *   releases:
+ *     version: false
+ *
+ * Controllers answer conditional GETs: Last-Modified comes from the first timestamp column
+ * matching lastModifiedColumns (DEFAULT_LAST_MODIFIED_COLUMNS when absent) or the column named
+ * per table; Cache-Control is set globally and per table (default "no-cache": clients keep
+ * the response but revalidate it with If-None-Match / If-Modified-Since):
+ *
+ * lastModifiedColumns: [updated_at, "*_modified"]
+ * cacheControl: "no-cache"
+ * tables:
+ *   countries:
+ *     cacheControl: "max-age=3600, must-revalidate"
+ *   orders:
+ *     lastModified: changed_ts
  */
 @Service
 public class NamingConfigService {
@@ -50,6 +149,38 @@ public class NamingConfigService {
      */
     private final Map<String, TableOverride> tableOverrides = new HashMap<>();
 
+    /** Java type overrides by database TYPE_NAME (root "types" section, lowercased keys). */
+    private final Map<String, TypeName> typeOverrides = new HashMap<>();
+
+    /** Default mapping of json/jsonb columns (root "jsonMode"), null when not configured. */
+    private JsonMapping defaultJsonMapping;
+
+    /** Version column names matched when no column is configured or maintained by the database. */
+    static final List<String> DEFAULT_VERSION_COLUMNS = List.of("version", "row_version", "lock_version", "opt_lock");
+
+    /** Version column name patterns (root "versionColumns"), compiled from '*' wildcards. */
+    private List<Pattern> versionColumnPatterns = compilePatterns(DEFAULT_VERSION_COLUMNS);
+
+    /** Audit timestamp names used for Last-Modified when no column is configured. */
+    static final List<String> DEFAULT_LAST_MODIFIED_COLUMNS = List.of("updated_at", "modified_at", "last_modified",
+            "last_modified_at", "last_updated", "updated_on", "modified_on", "date_modified", "update_date");
+
+    /** Last-modified column name patterns (root "lastModifiedColumns"). */
+    private List<Pattern> lastModifiedColumnPatterns = compilePatterns(DEFAULT_LAST_MODIFIED_COLUMNS);
+
+    /** Cache-Control of the GET endpoints (root "cacheControl"), fallback for per-table values. */
+    private String defaultCacheControl = "no-cache";
+
+    /** Global cache settings (root "cache" section), fallback for per-table settings. */
+    private CacheSettings defaultCacheSettings = CacheSettings.DEFAULT;
+
+    /**
+     * Set when DTOs and resources are records: property names javac rejects as record
+     * components ("wait", "hashCode", ...) get a "Value" suffix in every generated class,
+     * so entity, DTO and resource keep matching names and MapStruct needs no extra @Mapping.
+     */
+    private boolean recordComponentNames;
+
     /**
      * Creates the service and loads overrides (if any) from the YAML file
      * specified via application arguments.
@@ -77,6 +208,10 @@ public class NamingConfigService {
         return deriveEntityName(tableName);
     }
 
+    public void setRecordComponentNames(boolean recordComponentNames) {
+        this.recordComponentNames = recordComponentNames;
+    }
+
     /**
      * Returns the Java field/property name for a given physical column name.
      * Precedence:
@@ -85,10 +220,133 @@ public class NamingConfigService {
      */
     public String resolveColumnName(String tableName, String columnName) {
         TableOverride override = tableOverrides.get(tableName.toLowerCase(Locale.ROOT));
-        if (override != null && override.columns().containsKey(columnName)) {
-            return override.columns().get(columnName);
+        String name = override != null && override.columns().containsKey(columnName)
+                ? override.columns().get(columnName)
+                : toPropertyName(columnName);
+        return recordComponentNames ? NamingUtils.recordComponentName(name) : name;
+    }
+
+    /**
+     * Returns the resource property name of a column: the "resource" name of a structured
+     * YAML mapping (tables.<table>.columns.<column>.resource), else resolveColumnName.
+     */
+    public String resolveResourceName(String tableName, String columnName) {
+        TableOverride override = tableOverrides.get(tableName.toLowerCase(Locale.ROOT));
+        if (override != null && override.resourceColumns().containsKey(columnName)) {
+            String name = override.resourceColumns().get(columnName);
+            return recordComponentNames ? NamingUtils.recordComponentName(name) : name;
+        }
+        return resolveColumnName(tableName, columnName);
+    }
+
+    /**
+     * Returns the read-through cache settings for a physical table name.
+     * Precedence:
+     * 1. YAML override (tables.<table>.cache)
+     * 2. YAML global settings (cache)
+     * 3. CacheSettings.DEFAULT
+     */
+    public CacheSettings resolveCacheSettings(String tableName) {
+        TableOverride override = tableOverrides.get(tableName.toLowerCase(Locale.ROOT));
+        if (override != null && override.cache() != null) {
+            return override.cache();
+        }
+        return defaultCacheSettings;
+    }
+
+    /**
+     * Returns the second-level cache strategy forced for a physical table name
+     * (tables.<table>.secondLevelCache, uppercased), or null when the table does not set one.
+     */
+    public String resolveSecondLevelCache(String tableName) {
+        TableOverride override = tableOverrides.get(tableName.toLowerCase(Locale.ROOT));
+        return override != null ? override.secondLevelCache() : null;
+    }
+
+    /**
+     * Returns true when a physical table is marked read-only (tables.<table>.readOnly).
+     */
+    public boolean resolveReadOnly(String tableName) {
+        TableOverride override = tableOverrides.get(tableName.toLowerCase(Locale.ROOT));
+        return override != null && override.readOnly();
+    }
+
+    /**
+     * Returns the Java type forced for a column, or null when SqlTypeMapper decides.
+     * Precedence:
+     * 1. YAML override (tables.<table>.types.<column>)
+     * 2. YAML override by database type name (types.<typeName>)
+     */
+    public TypeName resolveJavaType(String tableName, String columnName, String sqlTypeName) {
+        TableOverride override = tableOverrides.get(tableName.toLowerCase(Locale.ROOT));
+        if (override != null && override.types().containsKey(columnName)) {
+            return override.types().get(columnName);
         }
-        return toPropertyName(columnName);
+        if (sqlTypeName == null) {
+            return null;
+        }
+        return typeOverrides.get(sqlTypeName.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Returns the mapping of a json/jsonb column, or null when SqlTypeMapper decides.
+     * Precedence:
+     * 1. YAML override (tables.<table>.json.<column>)
+     * 2. YAML global mode (jsonMode)
+     */
+    public JsonMapping resolveJsonMapping(String tableName, String columnName) {
+        TableOverride override = tableOverrides.get(tableName.toLowerCase(Locale.ROOT));
+        if (override != null && override.json().containsKey(columnName)) {
+            return override.json().get(columnName);
+        }
+        return defaultJsonMapping;
+    }
+
+    /**
+     * Returns the version column configured for a physical table (tables.<table>.version),
+     * "" when the table opts out with version: false, or null when it is detected.
+     */
+    public String resolveVersionColumn(String tableName) {
+        TableOverride override = tableOverrides.get(tableName.toLowerCase(Locale.ROOT));
+        return override != null ? override.version() : null;
+    }
+
+    /**
+     * Returns true when a column name matches one of the version column patterns (versionColumns).
+     */
+    public boolean isVersionColumnName(String columnName) {
+        return versionColumnPatterns.stream().anyMatch(p -> p.matcher(columnName).matches());
+    }
+
+    /**
+     * Returns the last-modified column configured for a physical table (tables.<table>.lastModified),
+     * "" when the table opts out with lastModified: false, or null when it is detected.
+     */
+    public String resolveLastModifiedColumn(String tableName) {
+        TableOverride override = tableOverrides.get(tableName.toLowerCase(Locale.ROOT));
+        return override != null ? override.lastModified() : null;
+    }
+
+    /**
+     * Returns true when a column name matches one of the last-modified patterns (lastModifiedColumns).
+     */
+    public boolean isLastModifiedColumnName(String columnName) {
+        return lastModifiedColumnPatterns.stream().anyMatch(p -> p.matcher(columnName).matches());
+    }
+
+    /**
+     * Returns the Cache-Control value of a table's GET endpoints.
+     * Precedence:
+     * 1. YAML override (tables.<table>.cacheControl)
+     * 2. YAML global value (cacheControl)
+     * 3. "no-cache"
+     */
+    public String resolveCacheControl(String tableName) {
+        TableOverride override = tableOverrides.get(tableName.toLowerCase(Locale.ROOT));
+        if (override != null && override.cacheControl() != null) {
+            return override.cacheControl();
+        }
+        return defaultCacheControl;
     }
 
     /**
@@ -136,6 +394,29 @@ public class NamingConfigService {
                 return;
             }
 
+            defaultCacheSettings = parseCacheSettings(root.get("cache"), CacheSettings.DEFAULT);
+
+            Map<String, Object> types = (Map<String, Object>) root.get("types");
+            if (types != null) {
+                for (Map.Entry<String, Object> t : types.entrySet()) {
+                    typeOverrides.put(t.getKey().toLowerCase(Locale.ROOT), parseJavaType(t.getValue().toString()));
+                }
+            }
+
+            if (root.get("jsonMode") != null) {
+                defaultJsonMapping = parseJsonMapping(root.get("jsonMode"), path);
+            }
+
+            if (root.get("versionColumns") instanceof List<?> patterns) {
+                versionColumnPatterns = compilePatterns(patterns.stream().map(Object::toString).toList());
+            }
+            if (root.get("lastModifiedColumns") instanceof List<?> patterns) {
+                lastModifiedColumnPatterns = compilePatterns(patterns.stream().map(Object::toString).toList());
+            }
+            if (root.get("cacheControl") != null) {
+                defaultCacheControl = root.get("cacheControl").toString().trim();
+            }
+
             Map<String, Object> tables = (Map<String, Object>) root.get("tables");
             if (tables == null) {
                 System.out.println("naming override file loaded, but 'tables' section is missing: " + path.toAbsolutePath());
@@ -149,16 +430,58 @@ public class NamingConfigService {
                 String entityName = (String) tbl.get("entityName");
 
                 Map<String, String> colMap = new HashMap<>();
+                Map<String, String> resourceColMap = new HashMap<>();
                 Map<String, Object> cols = (Map<String, Object>) tbl.get("columns");
                 if (cols != null) {
                     for (Map.Entry<String, Object> c : cols.entrySet()) {
-                        colMap.put(c.getKey(), c.getValue().toString());
+                        if (c.getValue() instanceof Map<?, ?> names) {
+                            // structured mapping: { dto: firstName, resource: givenName }
+                            if (names.get("dto") != null) {
+                                colMap.put(c.getKey(), names.get("dto").toString());
+                            }
+                            if (names.get("resource") != null) {
+                                resourceColMap.put(c.getKey(), names.get("resource").toString());
+                            }
+                        } else {
+                            colMap.put(c.getKey(), c.getValue().toString());
+                        }
+                    }
+                }
+
+                Map<String, TypeName> typeMap = new HashMap<>();
+                Map<String, Object> colTypes = (Map<String, Object>) tbl.get("types");
+                if (colTypes != null) {
+                    for (Map.Entry<String, Object> c : colTypes.entrySet()) {
+                        typeMap.put(c.getKey(), parseJavaType(c.getValue().toString()));
+                    }
+                }
+
+                Map<String, JsonMapping> jsonMap = new HashMap<>();
+                Map<String, Object> jsonCols = (Map<String, Object>) tbl.get("json");
+                if (jsonCols != null) {
+                    for (Map.Entry<String, Object> c : jsonCols.entrySet()) {
+                        jsonMap.put(c.getKey(), parseJsonMapping(c.getValue(), path));
                     }
                 }
 
+                CacheSettings cache = tbl.containsKey("cache")
+                        ? parseCacheSettings(tbl.get("cache"), defaultCacheSettings)
+                        : null;
+
+                Object l2 = tbl.get("secondLevelCache");
+                String secondLevelCache = l2 != null
+                        ? l2.toString().trim().toUpperCase(Locale.ROOT).replace('-', '_')
+                        : null;
+
+                String version = columnOrOff(tbl.get("version"));
+                String lastModified = columnOrOff(tbl.get("lastModified"));
+                String cacheControl = tbl.get("cacheControl") != null ? tbl.get("cacheControl").toString().trim() : null;
+
                 tableOverrides.put(
                         tableName.toLowerCase(Locale.ROOT),
-                        new TableOverride(entityName, colMap)
+                        new TableOverride(entityName, colMap, resourceColMap, typeMap, jsonMap, cache,
+                                secondLevelCache, Boolean.parseBoolean(String.valueOf(tbl.get("readOnly"))), version,
+                                lastModified, cacheControl)
                 );
             }
 
@@ -169,6 +492,99 @@ public class NamingConfigService {
         }
     }
 
+    /**
+     * Parses a "cache" node: either a boolean (enable/disable with fallback sizes)
+     * or a map with optional enabled, maximumSize and ttlSeconds keys.
+     */
+    @SuppressWarnings("unchecked")
+    private CacheSettings parseCacheSettings(Object node, CacheSettings fallback) {
+        if (node instanceof Boolean enabled) {
+            return new CacheSettings(enabled, fallback.maximumSize(), fallback.ttlSeconds());
+        }
+        if (!(node instanceof Map)) {
+            return fallback;
+        }
+        Map<String, Object> map = (Map<String, Object>) node;
+        boolean enabled = map.containsKey("enabled") ? Boolean.parseBoolean(map.get("enabled").toString()) : fallback.enabled();
+        long maximumSize = map.containsKey("maximumSize") ? Long.parseLong(map.get("maximumSize").toString()) : fallback.maximumSize();
+        long ttlSeconds = map.containsKey("ttlSeconds") ? Long.parseLong(map.get("ttlSeconds").toString()) : fallback.ttlSeconds();
+        return new CacheSettings(enabled, maximumSize, ttlSeconds);
+    }
+
+    /**
+     * Parses a json mapping node: a mode name (raw, node, map) or a map with a sample
+     * document, given inline (JSON text or YAML mapping) or as sampleFile, resolved
+     * against the YAML file's directory.
+     */
+    @SuppressWarnings("unchecked")
+    private JsonMapping parseJsonMapping(Object node, Path yamlPath) throws IOException {
+        if (!(node instanceof Map)) {
+            return new JsonMapping(JsonMapping.Mode.valueOf(node.toString().trim().toUpperCase(Locale.ROOT)), null);
+        }
+        Map<String, Object> map = (Map<String, Object>) node;
+        Object sample = map.get("sample");
+        if (sample == null && map.get("sampleFile") != null) {
+            Path file = Path.of(map.get("sampleFile").toString());
+            if (!file.isAbsolute() && yamlPath.getParent() != null) {
+                file = yamlPath.getParent().resolve(file);
+            }
+            sample = Files.readString(file);
+        }
+        if (sample instanceof String text) {
+            sample = new ObjectMapper().readValue(text, Map.class);
+        }
+        if (!(sample instanceof Map)) {
+            throw new IllegalArgumentException("json sample must be a JSON object: " + node);
+        }
+        return new JsonMapping(JsonMapping.Mode.TYPED, (Map<String, Object>) sample);
+    }
+
+    /**
+     * Parses a "column or false" node (version, lastModified): the column name, "" for false,
+     * null when absent.
+     */
+    private static String columnOrOff(Object node) {
+        if (node == null) {
+            return null;
+        }
+        return Boolean.FALSE.equals(node) ? "" : node.toString().trim();
+    }
+
+    /**
+     * Compiles column name patterns: '*' matches any characters, the rest is literal.
+     */
+    private static List<Pattern> compilePatterns(List<String> patterns) {
+        List<Pattern> out = new ArrayList<>();
+        for (String p : patterns) {
+            String regex = Arrays.stream(p.trim().split("\\*", -1)).map(Pattern::quote)
+                    .collect(Collectors.joining(".*"));
+            out.add(Pattern.compile(regex, Pattern.CASE_INSENSITIVE));
+        }
+        return out;
+    }
+
+    /**
+     * Parses a Java type written in YAML: a primitive ("int"), an array ("long[]", "String[]"),
+     * a java.lang simple name ("String", "Double") or a fully qualified class name.
+     */
+    private TypeName parseJavaType(String raw) {
+        String type = raw.trim();
+        if (type.endsWith("[]")) {
+            return ArrayTypeName.of(parseJavaType(type.substring(0, type.length() - 2)));
+        }
+        return switch (type) {
+            case "boolean" -> TypeName.BOOLEAN;
+            case "byte" -> TypeName.BYTE;
+            case "short" -> TypeName.SHORT;
+            case "int" -> TypeName.INT;
+            case "long" -> TypeName.LONG;
+            case "char" -> TypeName.CHAR;
+            case "float" -> TypeName.FLOAT;
+            case "double" -> TypeName.DOUBLE;
+            default -> type.contains(".") ? ClassName.bestGuess(type) : ClassName.get("java.lang", type);
+        };
+    }
+
     /**
      * Derives an entity simple name from a physical table name.
      *
@@ -426,6 +842,14 @@ public class NamingConfigService {
      * Holds naming overrides for a single table.
      * entityName: desired entity class simple name
      * columns: map: physical column name -> desired Java field name
+     * resourceColumns: map: physical column name -> resource property name, when it differs
+     * types: map: physical column name -> forced Java type
+     * json: map: physical column name -> json/jsonb column mapping
+     * cache: read-through cache settings, null when not configured for the table
+     * secondLevelCache: forced Hibernate cache strategy (or NONE), null when not configured
+     * readOnly: generate the table as an immutable, query-only entity
      */
-    record TableOverride(String entityName, Map<String, String> columns) {}
+    record TableOverride(String entityName, Map<String, String> columns, Map<String, String> resourceColumns,
+            Map<String, TypeName> types, Map<String, JsonMapping> json, CacheSettings cache, String secondLevelCache, boolean readOnly,
+            String version, String lastModified, String cacheControl) {}
 }
\ No newline at end of file
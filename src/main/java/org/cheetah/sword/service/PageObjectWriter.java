@@ -6,11 +6,14 @@ import java.util.List;
 
 import javax.lang.model.element.Modifier;
 
+import org.cheetah.sword.util.JavaRecords;
+import org.cheetah.sword.util.NamingUtils;
 import org.cheetah.sword.wizard.SwordWizard;
 import org.springframework.stereotype.Component;
 
 import com.squareup.javapoet.AnnotationSpec;
 import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.ParameterizedTypeName;
@@ -21,13 +24,16 @@ import com.squareup.javapoet.TypeVariableName;
 /**
  * Generates the generic PageDto<T> container. Extracted from
  * GenerationService#writePageDtoOnce.
+ *
+ * With records, PageDto/PageResource are records built with their canonical constructor:
+ * new PageDto<>(content, pageNumber, pageSize, totalElements, totalPages).
  */
 @Component
 public class PageObjectWriter {
 
 	enum PageType {DTO,RESOURCE}
 	
-	public void writePageObjectOnce(PageType pageType,Path rootPath, AnnotationSpec generatedAnn) throws IOException {
+	public void writePageObjectOnce(PageType pageType,Path rootPath, AnnotationSpec generatedAnn, boolean records) throws IOException {
 
 		// naive approach: always write. If file already exists on disk from previous
 		// run
@@ -35,10 +41,13 @@ public class PageObjectWriter {
 
 		TypeVariableName typeT = TypeVariableName.get("T");
 
-		TypeSpec.Builder pageObject = TypeSpec.classBuilder(pageType.equals(PageType.DTO)? "PageDto" : "PageResource").addTypeVariable(typeT).addModifiers(Modifier.PUBLIC)
-				.addAnnotation(ClassName.get("lombok", "Data")).addAnnotation(ClassName.get("lombok", "Builder"))
-				.addAnnotation(ClassName.get("lombok", "NoArgsConstructor"))
-				.addAnnotation(ClassName.get("lombok", "AllArgsConstructor")).addAnnotation(generatedAnn);
+		TypeSpec.Builder pageObject = TypeSpec.classBuilder(pageType.equals(PageType.DTO)? "PageDto" : "PageResource").addTypeVariable(typeT).addModifiers(Modifier.PUBLIC);
+		if (!records) {
+			pageObject.addAnnotation(ClassName.get("lombok", "Data")).addAnnotation(ClassName.get("lombok", "Builder"))
+					.addAnnotation(ClassName.get("lombok", "NoArgsConstructor"))
+					.addAnnotation(ClassName.get("lombok", "AllArgsConstructor"));
+		}
+		pageObject.addAnnotation(generatedAnn);
 
 		pageObject.addField(FieldSpec
 				.builder(ParameterizedTypeName.get(ClassName.get(List.class), typeT), "content", Modifier.PRIVATE)
@@ -48,6 +57,49 @@ public class PageObjectWriter {
 		pageObject.addField(FieldSpec.builder(TypeName.LONG, "totalElements", Modifier.PRIVATE).build());
 		pageObject.addField(FieldSpec.builder(TypeName.INT, "totalPages", Modifier.PRIVATE).build());
 
-		JavaFile.builder(pageType.equals(PageType.DTO)? SwordWizard.DTO_PKG : SwordWizard.RESOURCES_PKG, pageObject.build()).build().writeTo(rootPath);
+		String pkg = pageType.equals(PageType.DTO)? SwordWizard.DTO_PKG : SwordWizard.RESOURCES_PKG;
+		if (records) {
+			JavaRecords.writeTo(pkg, pageObject.build(), rootPath);
+		} else {
+			JavaFile.builder(pkg, pageObject.build()).build().writeTo(rootPath);
+		}
+	}
+
+	/**
+	 * Page object built from a Spring Data Page named page:
+	 * PageDto.<T>builder().content(content).pageNumber(page.getNumber())...build(), or
+	 * new PageDto<>(content, page.getNumber(), ...) with records.
+	 */
+	static CodeBlock fromSpringPage(ClassName pageClass, TypeName elementType, String content, boolean records) {
+		return newPage(pageClass, elementType, content, "page.getNumber()", "page.getSize()",
+				"page.getTotalElements()", "page.getTotalPages()", records);
+	}
+
+	/** Page object with the content and counters of another page object (PageDto -> PageResource). */
+	static CodeBlock fromPageObject(ClassName pageClass, TypeName elementType, String content, String source,
+			boolean records) {
+		return newPage(pageClass, elementType, content,
+				source + "." + accessor("pageNumber", records) + "()", source + "." + accessor("pageSize", records) + "()",
+				source + "." + accessor("totalElements", records) + "()", source + "." + accessor("totalPages", records) + "()",
+				records);
+	}
+
+	/** content() of a page object, getContent() for the Lombok class. */
+	static String contentAccessor(boolean records) {
+		return accessor("content", records);
+	}
+
+	static String accessor(String property, boolean records) {
+		return NamingUtils.accessorName(property, TypeName.OBJECT, records);
+	}
+
+	private static CodeBlock newPage(ClassName pageClass, TypeName elementType, String content, String pageNumber,
+			String pageSize, String totalElements, String totalPages, boolean records) {
+		if (records) {
+			return CodeBlock.of("new $T<>($L, $L, $L, $L, $L)", pageClass, content, pageNumber, pageSize,
+					totalElements, totalPages);
+		}
+		return CodeBlock.of("$T.<$T>builder().content($L).pageNumber($L).pageSize($L).totalElements($L).totalPages($L).build()",
+				pageClass, elementType, content, pageNumber, pageSize, totalElements, totalPages);
 	}
 }
@@ -0,0 +1,108 @@
+package org.cheetah.sword.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+
+import javax.lang.model.element.Modifier;
+
+import org.cheetah.sword.wizard.SwordWizard;
+import org.springframework.stereotype.Component;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeSpec;
+
+/**
+ * Generates R2dbcConfig for the R2DBC target:
+ * - a mapping context that quotes every table and column name, so the @Table/@Column
+ *   names written from the catalog are sent exactly as they are stored (mixed or lower
+ *   case included);
+ * - custom conversions reading TIMESTAMP columns into the OffsetDateTime fields shared
+ *   with the JPA DTOs (the drivers return LocalDateTime, taken in the JVM time zone as
+ *   Hibernate does).
+ *
+ * @Configuration
+ * public class R2dbcConfig {
+ *     @Bean
+ *     public R2dbcCustomConversions r2dbcCustomConversions(ConnectionFactory connectionFactory) {
+ *         return R2dbcCustomConversions.of(DialectResolver.getDialect(connectionFactory),
+ *                 List.of(new TimestampToOffsetDateTimeConverter()));
+ *     }
+ *
+ *     @Bean
+ *     public R2dbcMappingContext r2dbcMappingContext(Optional<NamingStrategy> namingStrategy,
+ *             R2dbcCustomConversions r2dbcCustomConversions) {
+ *         R2dbcMappingContext context = new R2dbcMappingContext(namingStrategy.orElse(DefaultNamingStrategy.INSTANCE));
+ *         context.setSimpleTypeHolder(r2dbcCustomConversions.getSimpleTypeHolder());
+ *         context.setForceQuote(true);
+ *         return context;
+ *     }
+ * }
+ *
+ * Spring Boot backs off its own beans of both types when these are present.
+ */
+@Component
+public class R2dbcConfigWriter {
+
+	static final String R2DBC_CONFIG = "R2dbcConfig";
+	static final String TIMESTAMP_CONVERTER = "TimestampToOffsetDateTimeConverter";
+
+	public void writeR2dbcConfig(Path rootPath) throws IOException {
+		ClassName contextClass = ClassName.get("org.springframework.data.r2dbc.mapping", "R2dbcMappingContext");
+		ClassName namingStrategyClass = ClassName.get("org.springframework.data.relational.core.mapping",
+				"NamingStrategy");
+		ClassName defaultNamingStrategyClass = ClassName.get("org.springframework.data.relational.core.mapping",
+				"DefaultNamingStrategy");
+		ClassName conversionsClass = ClassName.get("org.springframework.data.r2dbc.convert", "R2dbcCustomConversions");
+
+		MethodSpec mappingContext = MethodSpec.methodBuilder("r2dbcMappingContext").addModifiers(Modifier.PUBLIC)
+				.addAnnotation(ClassName.get("org.springframework.context.annotation", "Bean")).returns(contextClass)
+				.addParameter(ParameterizedTypeName.get(ClassName.get("java.util", "Optional"), namingStrategyClass),
+						"namingStrategy")
+				.addParameter(conversionsClass, "r2dbcCustomConversions")
+				.addStatement("$T context = new $T(namingStrategy.orElse($T.INSTANCE))", contextClass, contextClass,
+						defaultNamingStrategyClass)
+				.addStatement("context.setSimpleTypeHolder(r2dbcCustomConversions.getSimpleTypeHolder())")
+				.addStatement("context.setForceQuote(true)").addStatement("return context").build();
+
+		ClassName localDateTimeClass = ClassName.get("java.time", "LocalDateTime");
+		ClassName offsetDateTimeClass = ClassName.get("java.time", "OffsetDateTime");
+		TypeSpec timestampConverter = TypeSpec.classBuilder(TIMESTAMP_CONVERTER).addModifiers(Modifier.STATIC)
+				.addJavadoc("TIMESTAMP columns are read as LocalDateTime: taken in the JVM time zone.\n")
+				.addAnnotation(ClassName.get("org.springframework.data.convert", "ReadingConverter"))
+				.addSuperinterface(ParameterizedTypeName.get(
+						ClassName.get("org.springframework.core.convert.converter", "Converter"), localDateTimeClass,
+						offsetDateTimeClass))
+				.addMethod(MethodSpec.methodBuilder("convert").addAnnotation(Override.class)
+						.addModifiers(Modifier.PUBLIC).returns(offsetDateTimeClass)
+						.addParameter(localDateTimeClass, "source")
+						.addStatement("return source.atZone($T.systemDefault()).toOffsetDateTime()",
+								ClassName.get("java.time", "ZoneId"))
+						.build())
+				.build();
+
+		MethodSpec customConversions = MethodSpec.methodBuilder("r2dbcCustomConversions").addModifiers(Modifier.PUBLIC)
+				.addAnnotation(ClassName.get("org.springframework.context.annotation", "Bean")).returns(conversionsClass)
+				.addParameter(ClassName.get("io.r2dbc.spi", "ConnectionFactory"), "connectionFactory")
+				.addStatement("return $T.of($T.getDialect(connectionFactory), $T.of(new $L()))", conversionsClass,
+						ClassName.get("org.springframework.data.r2dbc.dialect", "DialectResolver"),
+						ClassName.get("java.util", "List"), TIMESTAMP_CONVERTER)
+				.build();
+
+		AnnotationSpec generatedAnn = AnnotationSpec.builder(ClassName.get("jakarta.annotation", "Generated"))
+				.addMember("value", "$S", "S.W.O.R.D.").addMember("date", "$S", OffsetDateTime.now().toString())
+				.build();
+
+		TypeSpec config = TypeSpec.classBuilder(R2DBC_CONFIG).addModifiers(Modifier.PUBLIC)
+				.addJavadoc("Quoted identifiers and the conversions of the types shared with the DTOs.\n")
+				.addAnnotation(ClassName.get("org.springframework.context.annotation", "Configuration"))
+				.addAnnotation(generatedAnn).addMethod(customConversions).addMethod(mappingContext)
+				.addType(timestampConverter).build();
+
+		JavaFile.builder(SwordWizard.CONFIG_PKG, config).build().writeTo(rootPath);
+	}
+}
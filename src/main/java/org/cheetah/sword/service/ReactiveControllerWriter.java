@@ -0,0 +1,227 @@
+package org.cheetah.sword.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import javax.lang.model.element.Modifier;
+
+import org.cheetah.sword.service.records.ScalarFieldInfo;
+import org.cheetah.sword.util.NamingUtils;
+import org.cheetah.sword.wizard.SwordWizard;
+import org.springframework.stereotype.Component;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+/**
+ * Generates the WebFlux controller of an R2DBC entity (see ReactiveFilesWriter), on the
+ * same paths as the Spring MVC one:
+ * - GET ?pageNumber=&pageSize=       one page as a JSON array, or as NDJSON (Accept: application/x-ndjson)
+ * - GET /stream                      every row as NDJSON, written as the rows are read (back-pressured)
+ * - GET /{id}, HEAD /{id}            404 when the row does not exist
+ * - GET /by-<field>?<field>=v&pageNumber=&pageSize=
+ * - POST, PUT /{id} (404; 412 on a stale version), DELETE /{id} (204/404)
+ * Read-only entities only get the GET/HEAD endpoints.
+ *
+ * Not generated for this target: ETag/conditional GETs, PATCH, bulk, batch get, range/scan,
+ * search, upsert, export/import and LOB endpoints.
+ */
+@Component
+public class ReactiveControllerWriter {
+
+    public void writeController(Path rootPath,
+                                String entitySimpleName,
+                                TypeName idType,
+                                List<ScalarFieldInfo> scalarFieldInfos,
+                                AnnotationSpec generatedAnn,
+                                boolean readOnly) throws IOException {
+
+        ClassName serviceClass        = ClassName.get(SwordWizard.SERVICE_PKG, entitySimpleName + "Service");
+        ClassName resourceClass       = ClassName.get(SwordWizard.RESOURCES_PKG, entitySimpleName + "Resource");
+        ClassName resourceMapperClass = ClassName.get(SwordWizard.RESOURCE_MAPPERS_PKG, entitySimpleName + "ResourceMapper");
+
+        ClassName fluxClass           = ClassName.get("reactor.core.publisher", "Flux");
+        ClassName monoClass           = ClassName.get("reactor.core.publisher", "Mono");
+        ClassName responseEntityClass = ClassName.get("org.springframework.http", "ResponseEntity");
+        ClassName httpStatusClass     = ClassName.get("org.springframework.http", "HttpStatus");
+        ClassName mediaTypeClass      = ClassName.get("org.springframework.http", "MediaType");
+        ClassName requestParamAnn     = ClassName.get("org.springframework.web.bind.annotation", "RequestParam");
+
+        TypeName fluxOfResource          = ParameterizedTypeName.get(fluxClass, resourceClass);
+        TypeName monoOfResponseResource  = ParameterizedTypeName.get(monoClass,
+            ParameterizedTypeName.get(responseEntityClass, resourceClass));
+        TypeName monoOfResponseVoid      = ParameterizedTypeName.get(monoClass,
+            ParameterizedTypeName.get(responseEntityClass, ClassName.get(Void.class)));
+
+        ParameterSpec idPathVariableParam = ParameterSpec.builder(idType, "id")
+            .addAnnotation(ClassName.get("org.springframework.web.bind.annotation", "PathVariable"))
+            .build();
+        ParameterSpec resourceRequestBodyParam = ParameterSpec.builder(resourceClass, "body")
+            .addAnnotation(ClassName.get("org.springframework.web.bind.annotation", "RequestBody"))
+            .build();
+        ParameterSpec pageNumberRequestParam = ParameterSpec.builder(TypeName.INT, "pageNumber")
+            .addAnnotation(requestParamAnn)
+            .build();
+        ParameterSpec pageSizeRequestParam = ParameterSpec.builder(TypeName.INT, "pageSize")
+            .addAnnotation(requestParamAnn)
+            .build();
+
+        MethodSpec constructor = MethodSpec.constructorBuilder()
+            .addModifiers(Modifier.PUBLIC)
+            .addParameter(serviceClass, "service")
+            .addParameter(resourceMapperClass, "mapper")
+            .addStatement("this.service = service")
+            .addStatement("this.mapper = mapper")
+            .build();
+
+        // GET ?pageNumber=&pageSize= : a Flux is written as a JSON array, or one line per row for NDJSON
+        MethodSpec getAll = MethodSpec.methodBuilder("getAll")
+            .addModifiers(Modifier.PUBLIC)
+            .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "GetMapping"))
+                .addMember("produces", "{ $T.APPLICATION_JSON_VALUE, $T.APPLICATION_NDJSON_VALUE }", mediaTypeClass,
+                    mediaTypeClass)
+                .build())
+            .addParameter(pageNumberRequestParam)
+            .addParameter(pageSizeRequestParam)
+            .returns(fluxOfResource)
+            .addStatement("return service.findAll(pageNumber, pageSize).map(mapper::toResource)")
+            .build();
+
+        MethodSpec stream = MethodSpec.methodBuilder("stream")
+            .addJavadoc("Every row as NDJSON, sent while the query is still reading.\n")
+            .addModifiers(Modifier.PUBLIC)
+            .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "GetMapping"))
+                .addMember("value", "$S", "/stream")
+                .addMember("produces", "$T.APPLICATION_NDJSON_VALUE", mediaTypeClass)
+                .build())
+            .returns(fluxOfResource)
+            .addStatement("return service.streamAll().map(mapper::toResource)")
+            .build();
+
+        MethodSpec getById = MethodSpec.methodBuilder("getById")
+            .addModifiers(Modifier.PUBLIC)
+            .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "GetMapping"))
+                .addMember("value", "$S", "/{id}")
+                .build())
+            .addParameter(idPathVariableParam)
+            .returns(monoOfResponseResource)
+            .addStatement("return service.findById(id).map(dto -> $T.ok(mapper.toResource(dto)))"
+                + ".defaultIfEmpty($T.notFound().build())", responseEntityClass, responseEntityClass)
+            .build();
+
+        MethodSpec exists = MethodSpec.methodBuilder("exists")
+            .addModifiers(Modifier.PUBLIC)
+            .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "RequestMapping"))
+                .addMember("value", "$S", "/{id}")
+                .addMember("method", "$T.HEAD", ClassName.get("org.springframework.web.bind.annotation", "RequestMethod"))
+                .build())
+            .addParameter(idPathVariableParam)
+            .returns(monoOfResponseVoid)
+            .addStatement("return service.existsById(id).map(found -> found ? $T.ok().<Void>build() : $T.notFound().<Void>build())",
+                responseEntityClass, responseEntityClass)
+            .build();
+
+        TypeSpec.Builder controllerTypeBuilder = TypeSpec.classBuilder(entitySimpleName + "Controller")
+            .addModifiers(Modifier.PUBLIC)
+            .addAnnotation(ClassName.get("org.springframework.web.bind.annotation", "RestController"))
+            .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "RequestMapping"))
+                .addMember("value", "$S", "/" + entitySimpleName.toLowerCase(java.util.Locale.ROOT))
+                .build())
+            .addAnnotation(generatedAnn)
+            .addField(FieldSpec.builder(serviceClass, "service", Modifier.PRIVATE, Modifier.FINAL).build())
+            .addField(FieldSpec.builder(resourceMapperClass, "mapper", Modifier.PRIVATE, Modifier.FINAL).build())
+            .addMethod(constructor)
+            .addMethod(getAll)
+            .addMethod(stream)
+            .addMethod(getById)
+            .addMethod(exists);
+
+        if (!readOnly) {
+            MethodSpec create = MethodSpec.methodBuilder("create")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(ClassName.get("org.springframework.web.bind.annotation", "PostMapping"))
+                .addParameter(resourceRequestBodyParam)
+                .returns(monoOfResponseResource)
+                .addStatement("return service.save(mapper.toDto(body)).map(dto -> $T.ok(mapper.toResource(dto)))",
+                    responseEntityClass)
+                .build();
+
+            /*
+             * return service.update(id, mapper.toDto(body))
+             *     .map(dto -> ResponseEntity.ok(mapper.toResource(dto)))
+             *     .defaultIfEmpty(ResponseEntity.notFound().build())
+             *     .onErrorResume(OptimisticLockingFailureException.class,
+             *         e -> Mono.just(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).<UserResource>build()));
+             */
+            MethodSpec update = MethodSpec.methodBuilder("update")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "PutMapping"))
+                    .addMember("value", "$S", "/{id}")
+                    .build())
+                .addParameter(idPathVariableParam)
+                .addParameter(resourceRequestBodyParam)
+                .returns(monoOfResponseResource)
+                .addStatement("return service.update(id, mapper.toDto(body))"
+                    + ".map(dto -> $T.ok(mapper.toResource(dto)))"
+                    + ".defaultIfEmpty($T.notFound().build())"
+                    + ".onErrorResume($T.class, e -> $T.just($T.status($T.PRECONDITION_FAILED).<$T>build()))",
+                    responseEntityClass, responseEntityClass,
+                    ClassName.get("org.springframework.dao", "OptimisticLockingFailureException"), monoClass,
+                    responseEntityClass, httpStatusClass, resourceClass)
+                .build();
+
+            MethodSpec delete = MethodSpec.methodBuilder("delete")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "DeleteMapping"))
+                    .addMember("value", "$S", "/{id}")
+                    .build())
+                .addParameter(idPathVariableParam)
+                .returns(monoOfResponseVoid)
+                .addStatement("return service.delete(id).map(deleted -> deleted ? $T.noContent().<Void>build() : $T.notFound().<Void>build())",
+                    responseEntityClass, responseEntityClass)
+                .build();
+
+            controllerTypeBuilder
+                .addMethod(create)
+                .addMethod(update)
+                .addMethod(delete);
+        }
+
+        // --- finders: GET /by-<field>?<field>=v&pageNumber=&pageSize= ---
+        for (ScalarFieldInfo fieldInfo : scalarFieldInfos) {
+            if (!fieldInfo.finder()) {
+                continue;
+            }
+            String fieldName = fieldInfo.javaFieldName();
+            String capitalizedFieldName = NamingUtils.upperFirst(fieldName);
+
+            MethodSpec findByMethodSpec = MethodSpec.methodBuilder("findBy" + capitalizedFieldName)
+                .addJavadoc("Returns resources filtered by {@code $L}.\n", fieldName)
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "GetMapping"))
+                    .addMember("value", "$S", "/by-" + fieldName)
+                    .addMember("produces", "{ $T.APPLICATION_JSON_VALUE, $T.APPLICATION_NDJSON_VALUE }", mediaTypeClass,
+                        mediaTypeClass)
+                    .build())
+                .addParameter(ParameterSpec.builder(fieldInfo.javaType(), fieldName).addAnnotation(requestParamAnn).build())
+                .addParameter(pageNumberRequestParam)
+                .addParameter(pageSizeRequestParam)
+                .returns(fluxOfResource)
+                .addStatement("return service.findBy$L($L, pageNumber, pageSize).map(mapper::toResource)",
+                    capitalizedFieldName, fieldName)
+                .build();
+
+            controllerTypeBuilder.addMethod(findByMethodSpec);
+        }
+
+        JavaFile.builder(SwordWizard.CONTROLLER_PKG, controllerTypeBuilder.build()).build().writeTo(rootPath);
+    }
+}
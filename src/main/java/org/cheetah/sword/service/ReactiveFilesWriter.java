@@ -0,0 +1,159 @@
+package org.cheetah.sword.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import javax.lang.model.element.Modifier;
+
+import org.cheetah.sword.model.ConnectionConfig;
+import org.cheetah.sword.service.records.EntityModel;
+import org.cheetah.sword.service.records.RelationalEntityInfo;
+import org.cheetah.sword.service.records.ScalarFieldInfo;
+import org.cheetah.sword.util.NamingUtils;
+import org.cheetah.sword.wizard.SwordWizard;
+import org.springframework.stereotype.Component;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+import lombok.AllArgsConstructor;
+
+/**
+ * Generates the R2DBC + WebFlux stack of one table (GenerationTarget.R2DBC): the Spring
+ * Data Relational entity (RelationalEntityWriter) and a reactive repository, then
+ * delegates service, controller and resource generation. The DTOs, mappers and
+ * resources are the same as for JPA; only persistence and web layers change.
+ *
+ * @Repository
+ * public interface OrdersRepository extends ReactiveCrudRepository<Order, Long> {
+ *     Flux<Order> findAllBy(Pageable pageable);
+ *     Flux<Order> findByStatus(String status, Pageable pageable);
+ *
+ *     @Modifying
+ *     @Query("DELETE FROM \"orders\" WHERE \"id\" = :id")
+ *     Mono<Integer> deleteRowById(@Param("id") Long id);
+ * }
+ *
+ * Read-only entities get a query-only repository (Repository marker +
+ * findAll/findAllBy/findById/existsById). Tables whose key is not a single column are
+ * skipped (writeEntityFiles returns false).
+ */
+@Component
+@AllArgsConstructor
+public class ReactiveFilesWriter {
+
+	private final RelationalEntityWriter relationalEntityWriter;
+	private final ReactiveServiceWriter reactiveServiceWriter;
+	private final ReactiveControllerWriter reactiveControllerWriter;
+	private final ResourceMapperWriter resourceMapperWriter;
+	private final ResourceWriter resourceWriter;
+
+	public boolean writeEntityFiles(Path rootPath, EntityModel model, String dbProduct, ConnectionConfig cfg)
+			throws IOException {
+
+		if (model.pkCols().size() != 1) {
+			System.out.printf("   Skipped %s: R2DBC repositories need a single-column primary key%n", model.table());
+			return false;
+		}
+
+		model = RelationalEntityWriter.withoutLobs(model);
+		AnnotationSpec generatedAnn = AnnotationSpec.builder(ClassName.get("jakarta.annotation", "Generated"))
+				.addMember("value", "$S", "S.W.O.R.D.").addMember("date", "$S", OffsetDateTime.now().toString())
+				.build();
+		RelationalEntityInfo entity = relationalEntityWriter.writeEntityAndDto(rootPath, model, dbProduct, cfg,
+				generatedAnn);
+		String entitySimpleName = entity.entitySimpleName();
+
+		if (cfg.isGenerateRepositories()) {
+			writeRepository(rootPath, model, entity, cfg, generatedAnn);
+		}
+
+		if (cfg.isGenerateServices()) {
+			reactiveServiceWriter.writeService(rootPath, entitySimpleName, entity.idType(), entity.idFieldName(),
+					entity.scalarFields(), entity.versionField(), generatedAnn, model.readOnly());
+		}
+
+		if (cfg.isGenerateControllers()) {
+			reactiveControllerWriter.writeController(rootPath, entitySimpleName, entity.idType(), entity.scalarFields(),
+					generatedAnn, model.readOnly());
+			resourceWriter.writeResource(rootPath, entitySimpleName, entity.idType(), entity.scalarFields(),
+					Collections.emptySet(), generatedAnn, cfg.isRecordCarriers());
+			resourceMapperWriter.writeResourceMapper(rootPath, entitySimpleName, List.of(entity.idFieldName()), false,
+					entity.scalarFields(), null, generatedAnn, cfg.isRecordCarriers());
+		}
+		return true;
+	}
+
+	private void writeRepository(Path rootPath, EntityModel model, RelationalEntityInfo entity, ConnectionConfig cfg,
+			AnnotationSpec generatedAnn) throws IOException {
+
+		String entitySimpleName = entity.entitySimpleName();
+		TypeName idType = entity.idType();
+		ClassName entityClass = ClassName.get(SwordWizard.ENTITY_PKG, entitySimpleName);
+		ClassName fluxClass = ClassName.get("reactor.core.publisher", "Flux");
+		ClassName monoClass = ClassName.get("reactor.core.publisher", "Mono");
+		ClassName pageableClass = ClassName.get("org.springframework.data.domain", "Pageable");
+		ClassName paramAnn = ClassName.get("org.springframework.data.repository.query", "Param");
+		TypeName fluxOfEntity = ParameterizedTypeName.get(fluxClass, entityClass);
+
+		TypeSpec.Builder repo = TypeSpec.interfaceBuilder(NamingUtils.pluralizeSimpleName(entitySimpleName) + "Repository")
+				.addModifiers(Modifier.PUBLIC)
+				.addAnnotation(ClassName.get("org.springframework.stereotype", "Repository"))
+				.addAnnotation(generatedAnn);
+
+		if (model.readOnly()) {
+			repo.addSuperinterface(ParameterizedTypeName.get(
+					ClassName.get("org.springframework.data.repository", "Repository"), entityClass, idType));
+			repo.addMethod(MethodSpec.methodBuilder("findAll").addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+					.returns(fluxOfEntity).build());
+			repo.addMethod(MethodSpec.methodBuilder("findById").addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+					.returns(ParameterizedTypeName.get(monoClass, entityClass)).addParameter(idType, "id").build());
+			repo.addMethod(MethodSpec.methodBuilder("existsById").addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+					.returns(ParameterizedTypeName.get(monoClass, ClassName.get(Boolean.class)))
+					.addParameter(idType, "id").build());
+		} else {
+			repo.addSuperinterface(ParameterizedTypeName.get(
+					ClassName.get("org.springframework.data.repository.reactive", "ReactiveCrudRepository"), entityClass,
+					idType));
+		}
+
+		// paged listing (ReactiveCrudRepository has no Pageable findAll)
+		repo.addMethod(MethodSpec.methodBuilder("findAllBy").addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+				.returns(fluxOfEntity).addParameter(pageableClass, "pageable").build());
+
+		for (ScalarFieldInfo sf : entity.scalarFields()) {
+			if (!sf.finder()) {
+				continue;
+			}
+			repo.addMethod(MethodSpec.methodBuilder("findBy" + NamingUtils.upperFirst(sf.javaFieldName()))
+					.addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT).returns(fluxOfEntity)
+					.addParameter(sf.javaType(), sf.javaFieldName()).addParameter(pageableClass, "pageable").build());
+		}
+
+		// one DELETE with the affected row count (deleteById completes empty either way)
+		if (!model.readOnly()) {
+			String sql = "DELETE FROM " + cfg.getDbType().quote(model.table()) + " WHERE "
+					+ cfg.getDbType().quote(entity.pkColumn()) + " = :id";
+			repo.addMethod(MethodSpec.methodBuilder("deleteRowById").addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+					.addAnnotation(ClassName.get("org.springframework.data.r2dbc.repository", "Modifying"))
+					.addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.data.r2dbc.repository", "Query"))
+							.addMember("value", "$S", sql).build())
+					.returns(ParameterizedTypeName.get(monoClass, ClassName.get(Integer.class)))
+					.addParameter(ParameterSpec.builder(idType, "id")
+							.addAnnotation(AnnotationSpec.builder(paramAnn).addMember("value", "$S", "id").build())
+							.build())
+					.build());
+		}
+
+		JavaFile.builder(SwordWizard.REPOSITORY_PKG, repo.build()).build().writeTo(rootPath);
+	}
+}
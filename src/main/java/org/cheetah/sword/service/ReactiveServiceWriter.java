@@ -0,0 +1,156 @@
+package org.cheetah.sword.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import javax.lang.model.element.Modifier;
+
+import org.cheetah.sword.service.records.ScalarFieldInfo;
+import org.cheetah.sword.util.NamingUtils;
+import org.cheetah.sword.wizard.SwordWizard;
+import org.springframework.stereotype.Component;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+/**
+ * Generates the reactive @Service of an R2DBC entity (see ReactiveFilesWriter). Every
+ * method returns a Mono or a Flux of DTOs; nothing blocks.
+ *
+ * - Flux<Dto> findAll(pageNumber, maxRecordsPerPage)  one page, no count query
+ * - Flux<Dto> streamAll()                             every row, emitted as the driver reads them
+ * - Mono<Dto> findById(id)                            empty when the row does not exist
+ * - Mono<Boolean> existsById(id)
+ * - Flux<Dto> findBy<Field>(value, pageNumber, maxRecordsPerPage)
+ * - Mono<Dto> save(dto)                               always an INSERT (R2dbcEntityTemplate), so
+ *                                                     client-assigned keys are inserted too
+ * - Mono<Dto> update(id, dto)                         empty when the row does not exist
+ * - Mono<Boolean> delete(id)                          one DELETE, false when no row has the id
+ *
+ * Writes are @Transactional (Spring Boot's R2dbcTransactionManager). Versioned entities
+ * (numeric @Version): a DTO without version is applied to the current row, a stale one
+ * fails with OptimisticLockingFailureException (412 in the controller).
+ *
+ * Read-only entities get the query methods only.
+ */
+@Component
+public class ReactiveServiceWriter {
+
+	public void writeService(Path rootPath, String entitySimpleName, TypeName idType, String idFieldName,
+			List<ScalarFieldInfo> scalarFields, ScalarFieldInfo versionField, AnnotationSpec generatedAnn,
+			boolean readOnly) throws IOException {
+
+		ClassName entityClass = ClassName.get(SwordWizard.ENTITY_PKG, entitySimpleName);
+		ClassName dtoClass = ClassName.get(SwordWizard.DTO_PKG, entitySimpleName + "Dto");
+		ClassName mapperClass = ClassName.get(SwordWizard.MAPPER_PKG, entitySimpleName + "Mapper");
+		ClassName repoClass = ClassName.get(SwordWizard.REPOSITORY_PKG,
+				NamingUtils.pluralizeSimpleName(entitySimpleName) + "Repository");
+
+		ClassName fluxClass = ClassName.get("reactor.core.publisher", "Flux");
+		ClassName monoClass = ClassName.get("reactor.core.publisher", "Mono");
+		ClassName pageRequestClass = ClassName.get("org.springframework.data.domain", "PageRequest");
+		ClassName templateClass = ClassName.get("org.springframework.data.r2dbc.core", "R2dbcEntityTemplate");
+		ClassName transactionalAnn = ClassName.get("org.springframework.transaction.annotation", "Transactional");
+
+		TypeName fluxOfDto = ParameterizedTypeName.get(fluxClass, dtoClass);
+		TypeName monoOfDto = ParameterizedTypeName.get(monoClass, dtoClass);
+
+		TypeSpec.Builder serviceType = TypeSpec.classBuilder(entitySimpleName + "Service").addModifiers(Modifier.PUBLIC)
+				.addAnnotation(ClassName.get("org.springframework.stereotype", "Service")).addAnnotation(generatedAnn)
+				.addField(FieldSpec.builder(repoClass, "repository", Modifier.PRIVATE, Modifier.FINAL).build())
+				.addField(FieldSpec.builder(mapperClass, "mapper", Modifier.PRIVATE, Modifier.FINAL).build());
+
+		MethodSpec.Builder ctor = MethodSpec.constructorBuilder().addModifiers(Modifier.PUBLIC)
+				.addParameter(repoClass, "repository").addParameter(mapperClass, "mapper")
+				.addStatement("this.repository = repository").addStatement("this.mapper = mapper");
+		if (!readOnly) {
+			serviceType.addField(FieldSpec.builder(templateClass, "template", Modifier.PRIVATE, Modifier.FINAL).build());
+			ctor.addParameter(templateClass, "template").addStatement("this.template = template");
+		}
+		serviceType.addMethod(ctor.build());
+
+		serviceType.addMethod(MethodSpec.methodBuilder("findAll").addModifiers(Modifier.PUBLIC).returns(fluxOfDto)
+				.addParameter(TypeName.INT, "pageNumber").addParameter(TypeName.INT, "maxRecordsPerPage")
+				.addStatement("return repository.findAllBy($T.of(pageNumber, maxRecordsPerPage)).map(mapper::toDto)",
+						pageRequestClass)
+				.build());
+
+		serviceType.addMethod(MethodSpec.methodBuilder("streamAll").addModifiers(Modifier.PUBLIC).returns(fluxOfDto)
+				.addStatement("return repository.findAll().map(mapper::toDto)").build());
+
+		serviceType.addMethod(MethodSpec.methodBuilder("findById").addModifiers(Modifier.PUBLIC).returns(monoOfDto)
+				.addParameter(idType, "id").addStatement("return repository.findById(id).map(mapper::toDto)").build());
+
+		serviceType.addMethod(MethodSpec.methodBuilder("existsById").addModifiers(Modifier.PUBLIC)
+				.returns(ParameterizedTypeName.get(monoClass, ClassName.get(Boolean.class))).addParameter(idType, "id")
+				.addStatement("return repository.existsById(id)").build());
+
+		for (ScalarFieldInfo sf : scalarFields) {
+			if (!sf.finder()) {
+				continue;
+			}
+			String repoMethodName = "findBy" + NamingUtils.upperFirst(sf.javaFieldName());
+			serviceType.addMethod(MethodSpec.methodBuilder(repoMethodName).addModifiers(Modifier.PUBLIC)
+					.returns(fluxOfDto).addParameter(sf.javaType(), sf.javaFieldName())
+					.addParameter(TypeName.INT, "pageNumber").addParameter(TypeName.INT, "maxRecordsPerPage")
+					.addStatement("return repository.$L($L, $T.of(pageNumber, maxRecordsPerPage)).map(mapper::toDto)",
+							repoMethodName, sf.javaFieldName(), pageRequestClass)
+					.build());
+		}
+
+		if (!readOnly) {
+			/*
+			 * repository.save would UPDATE an entity whose key is already set (no version):
+			 * the template always INSERTs, generated keys are read back.
+			 */
+			serviceType.addMethod(MethodSpec.methodBuilder("save").addModifiers(Modifier.PUBLIC)
+					.addAnnotation(transactionalAnn).returns(monoOfDto).addParameter(dtoClass, "dto")
+					.addStatement("return template.insert(mapper.toEntity(dto)).map(mapper::toDto)").build());
+
+			/*
+			 * User e = mapper.toEntity(dto);
+			 * e.setId(id);
+			 * return repository.findById(id).flatMap(current -> {
+			 *     if (e.getVersion() == null) {
+			 *         e.setVersion(current.getVersion());
+			 *     }
+			 *     return repository.save(e);      // UPDATE ... WHERE id = ? AND version = ?
+			 * }).map(mapper::toDto);
+			 *
+			 * or, unversioned: repository.existsById(id).filter(Boolean::booleanValue).flatMap(found -> repository.save(e))
+			 */
+			MethodSpec.Builder update = MethodSpec.methodBuilder("update").addModifiers(Modifier.PUBLIC)
+					.addAnnotation(transactionalAnn).returns(monoOfDto).addParameter(idType, "id")
+					.addParameter(dtoClass, "dto").addStatement("$T e = mapper.toEntity(dto)", entityClass)
+					.addStatement("e.set$L(id)", NamingUtils.upperFirst(idFieldName));
+			if (versionField != null) {
+				String getter = NamingUtils.getterName(versionField.javaFieldName(), versionField.javaType());
+				String setter = "set" + NamingUtils.upperFirst(versionField.javaFieldName());
+				update.addCode("return repository.findById(id).flatMap(current -> {\n").addCode("$>")
+						.beginControlFlow("if (e.$L() == null)", getter)
+						.addStatement("e.$L(current.$L())", setter, getter).endControlFlow()
+						.addStatement("return repository.save(e)").addCode("$<")
+						.addStatement("}).map(mapper::toDto)");
+			} else {
+				update.addStatement(
+						"return repository.existsById(id).filter(Boolean::booleanValue).flatMap(found -> repository.save(e)).map(mapper::toDto)");
+			}
+			serviceType.addMethod(update.build());
+
+			serviceType.addMethod(MethodSpec.methodBuilder("delete").addModifiers(Modifier.PUBLIC)
+					.addAnnotation(transactionalAnn)
+					.returns(ParameterizedTypeName.get(monoClass, ClassName.get(Boolean.class)))
+					.addParameter(idType, "id").addStatement("return repository.deleteRowById(id).map(count -> count > 0)")
+					.build());
+		}
+
+		JavaFile.builder(SwordWizard.SERVICE_PKG, serviceType.build()).build().writeTo(rootPath);
+	}
+}
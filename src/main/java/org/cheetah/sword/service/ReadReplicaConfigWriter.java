@@ -0,0 +1,105 @@
+package org.cheetah.sword.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+
+import javax.lang.model.element.Modifier;
+
+import org.cheetah.sword.wizard.SwordWizard;
+import org.springframework.stereotype.Component;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.TypeSpec;
+
+/**
+ * Generates ReadReplicaConfig, which sends read-only transactions to a replica
+ * connection pool. Active only when sword.datasource.replica.jdbc-url is set.
+ *
+ * @Configuration
+ * @ConditionalOnProperty(name = "sword.datasource.replica.jdbc-url")
+ * public class ReadReplicaConfig {
+ *     @Bean @ConfigurationProperties("spring.datasource.hikari")
+ *     public HikariDataSource primaryDataSource(DataSourceProperties properties) { ... }
+ *
+ *     @Bean @ConfigurationProperties("sword.datasource.replica")
+ *     public HikariDataSource replicaDataSource() { return new HikariDataSource(); }
+ *
+ *     @Bean @Primary
+ *     public DataSource dataSource(...) {
+ *         LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+ *         dataSource.setReadOnlyDataSource(replica);
+ *         return dataSource;
+ *     }
+ * }
+ *
+ * The lazy proxy only fetches a physical connection at the first statement, after the
+ * transaction manager has flagged the connection read-only for
+ * @Transactional(readOnly = true), so the choice of pool follows the generated
+ * service annotations. Requires Spring Framework 6.2+ (Spring Boot 3.4+).
+ */
+@Component
+public class ReadReplicaConfigWriter {
+
+	static final String READ_REPLICA_CONFIG = "ReadReplicaConfig";
+	static final String REPLICA_PREFIX = "sword.datasource.replica";
+
+	public void writeReadReplicaConfig(Path rootPath) throws IOException {
+		ClassName beanAnn = ClassName.get("org.springframework.context.annotation", "Bean");
+		ClassName primaryAnn = ClassName.get("org.springframework.context.annotation", "Primary");
+		ClassName qualifierAnn = ClassName.get("org.springframework.beans.factory.annotation", "Qualifier");
+		ClassName configPropsAnn = ClassName.get("org.springframework.boot.context.properties",
+				"ConfigurationProperties");
+		ClassName hikariClass = ClassName.get("com.zaxxer.hikari", "HikariDataSource");
+		ClassName dataSourceClass = ClassName.get("javax.sql", "DataSource");
+		ClassName dataSourcePropsClass = ClassName.get("org.springframework.boot.autoconfigure.jdbc",
+				"DataSourceProperties");
+		ClassName lazyProxyClass = ClassName.get("org.springframework.jdbc.datasource",
+				"LazyConnectionDataSourceProxy");
+
+		MethodSpec primaryDataSource = MethodSpec.methodBuilder("primaryDataSource").addModifiers(Modifier.PUBLIC)
+				.addAnnotation(beanAnn)
+				.addAnnotation(AnnotationSpec.builder(configPropsAnn).addMember("value", "$S", "spring.datasource.hikari")
+						.build())
+				.returns(hikariClass).addParameter(dataSourcePropsClass, "properties")
+				.addStatement("return properties.initializeDataSourceBuilder().type($T.class).build()", hikariClass)
+				.build();
+
+		MethodSpec replicaDataSource = MethodSpec.methodBuilder("replicaDataSource").addModifiers(Modifier.PUBLIC)
+				.addAnnotation(beanAnn)
+				.addAnnotation(AnnotationSpec.builder(configPropsAnn).addMember("value", "$S", REPLICA_PREFIX).build())
+				.returns(hikariClass).addStatement("return new $T()", hikariClass).build();
+
+		MethodSpec dataSource = MethodSpec.methodBuilder("dataSource").addModifiers(Modifier.PUBLIC)
+				.addAnnotation(beanAnn).addAnnotation(primaryAnn).returns(dataSourceClass)
+				.addParameter(ParameterSpec.builder(hikariClass, "primary")
+						.addAnnotation(AnnotationSpec.builder(qualifierAnn).addMember("value", "$S", "primaryDataSource")
+								.build())
+						.build())
+				.addParameter(ParameterSpec.builder(hikariClass, "replica")
+						.addAnnotation(AnnotationSpec.builder(qualifierAnn).addMember("value", "$S", "replicaDataSource")
+								.build())
+						.build())
+				.addStatement("$T dataSource = new $T(primary)", lazyProxyClass, lazyProxyClass)
+				.addStatement("dataSource.setReadOnlyDataSource(replica)").addStatement("return dataSource").build();
+
+		AnnotationSpec generatedAnn = AnnotationSpec.builder(ClassName.get("jakarta.annotation", "Generated"))
+				.addMember("value", "$S", "S.W.O.R.D.").addMember("date", "$S", OffsetDateTime.now().toString())
+				.build();
+
+		TypeSpec config = TypeSpec.classBuilder(READ_REPLICA_CONFIG).addModifiers(Modifier.PUBLIC)
+				.addJavadoc("Routes read-only transactions to the replica pool ($L.*).\n", REPLICA_PREFIX)
+				.addAnnotation(ClassName.get("org.springframework.context.annotation", "Configuration"))
+				.addAnnotation(AnnotationSpec
+						.builder(ClassName.get("org.springframework.boot.autoconfigure.condition", "ConditionalOnProperty"))
+						.addMember("name", "$S", REPLICA_PREFIX + ".jdbc-url").build())
+				.addAnnotation(generatedAnn).addMethod(primaryDataSource).addMethod(replicaDataSource)
+				.addMethod(dataSource).build();
+
+		JavaFile.builder(SwordWizard.CONFIG_PKG, config).build().writeTo(rootPath);
+	}
+}
@@ -0,0 +1,152 @@
+package org.cheetah.sword.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.lang.model.element.Modifier;
+
+import org.cheetah.sword.model.ConnectionConfig;
+import org.cheetah.sword.model.FkMode;
+import org.cheetah.sword.service.records.ColumnModel;
+import org.cheetah.sword.service.records.EntityModel;
+import org.cheetah.sword.service.records.RelationalEntityInfo;
+import org.cheetah.sword.service.records.ScalarFieldInfo;
+import org.cheetah.sword.service.records.SimpleFkModel;
+import org.cheetah.sword.util.SqlTypeMapper;
+import org.cheetah.sword.wizard.SwordWizard;
+import org.springframework.stereotype.Component;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+import lombok.AllArgsConstructor;
+
+/**
+ * Generates the Spring Data Relational entity shared by the R2DBC and JDBC targets
+ * (the same annotations serve Spring Data R2DBC and Spring Data JDBC), its JSON
+ * column types and, when requested, the DTO and MapStruct mapper.
+ *
+ * @Table("orders")
+ * public class Order {
+ *     @Id @Column("id") private Long id;
+ *     @Column("customer_id") private Long customerId;
+ *     @Version @Column("version_no") private Long versionNo;
+ *     ...
+ * }
+ *
+ * Entities are flat aggregates: FK columns stay scalar fields and LOB columns are left
+ * out (withoutLobs). Field types are the DTO types, so the mapper copies values as they
+ * are; json, array and interval columns need custom conversions for the driver in use.
+ * A numeric version column is @Version (UPDATE ... WHERE version = ?), a version
+ * maintained by the database (rowversion) is @ReadOnlyProperty and a timestamp version
+ * is a plain column.
+ *
+ * Spring Data Relational has no composite ids: callers skip tables whose key is not a
+ * single column.
+ */
+@Component
+@AllArgsConstructor
+public class RelationalEntityWriter {
+
+	private final NamingConfigService namingConfigService;
+	private final DtoAndMapperWriter dtoAndMapperWriter;
+	private final JsonTypeWriter jsonTypeWriter;
+
+	public RelationalEntityInfo writeEntityAndDto(Path rootPath, EntityModel model, String dbProduct,
+			ConnectionConfig cfg, AnnotationSpec generatedAnn) throws IOException {
+
+		String entitySimpleName = namingConfigService.resolveEntityName(model.table());
+		String pkCol = model.pkCols().iterator().next();
+
+		TypeSpec.Builder entity = TypeSpec.classBuilder(entitySimpleName).addModifiers(Modifier.PUBLIC)
+				.addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.data.relational.core.mapping", "Table"))
+						.addMember("value", "$S", model.table()).build())
+				.addAnnotation(ClassName.get("lombok", "Data"))
+				.addAnnotation(ClassName.get("lombok", "NoArgsConstructor"))
+				.addAnnotation(ClassName.get("lombok", "AllArgsConstructor"))
+				.addAnnotation(ClassName.get("lombok", "Builder"))
+				.addAnnotation(generatedAnn);
+
+		List<ScalarFieldInfo> scalarFieldInfos = new ArrayList<>();
+		ScalarFieldInfo versionFieldInfo = null;
+		TypeName idType = null;
+		String idFieldName = null;
+
+		for (ColumnModel col : model.columns().values()) {
+			String fieldName = namingConfigService.resolveColumnName(model.table(), col.name());
+			TypeName javaType = dtoAndMapperWriter.resolveDtoType(model, col, dbProduct, FkMode.SCALAR,
+					cfg.isPrimitiveTypes());
+
+			FieldSpec.Builder field = FieldSpec.builder(javaType, fieldName, Modifier.PRIVATE);
+			if (col.name().equals(pkCol)) {
+				field.addAnnotation(ClassName.get("org.springframework.data.annotation", "Id"));
+				idType = javaType.isPrimitive() ? javaType.box() : javaType;
+				idFieldName = fieldName;
+			} else if (col.versionByDatabase()) {
+				// rowversion / ROW CHANGE TIMESTAMP: maintained by the database, never written
+				field.addAnnotation(ClassName.get("org.springframework.data.annotation", "ReadOnlyProperty"));
+			} else if (col.version() && !isTimestamp(col)) {
+				// numeric version: UPDATE ... WHERE version = ?, OptimisticLockingFailureException when stale
+				field.addAnnotation(ClassName.get("org.springframework.data.annotation", "Version"));
+			}
+			field.addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.data.relational.core.mapping", "Column"))
+					.addMember("value", "$S", col.name()).build());
+			entity.addField(field.build());
+
+			if (!col.name().equals(pkCol)) {
+				// no derived queries on json, version or array (byte[], arrays) columns
+				boolean finder = !SqlTypeMapper.isJson(col.typeName()) && !col.version()
+						&& !(javaType instanceof ArrayTypeName);
+				ScalarFieldInfo info = new ScalarFieldInfo(fieldName, javaType, finder, false, false,
+						namingConfigService.resolveResourceName(model.table(), col.name()));
+				scalarFieldInfos.add(info);
+				if (col.version() && !col.versionByDatabase() && !isTimestamp(col)) {
+					versionFieldInfo = info;
+				}
+			}
+		}
+
+		JavaFile.builder(SwordWizard.ENTITY_PKG, entity.build()).build().writeTo(rootPath);
+		jsonTypeWriter.writeJsonTypes(rootPath, model, generatedAnn);
+
+		if (cfg.isGenerateDto()) {
+			Map<String, SimpleFkModel> fkByLocalColumn = new LinkedHashMap<>();
+			for (SimpleFkModel fk : model.simpleFks()) {
+				fkByLocalColumn.put(fk.localColumn(), fk);
+			}
+			dtoAndMapperWriter.writeDtoAndMapper(rootPath, model, dbProduct, entitySimpleName, generatedAnn,
+					FkMode.SCALAR, fkByLocalColumn, Collections.emptySet(), cfg.isPrimitiveTypes(),
+					cfg.isRecordCarriers());
+		}
+
+		return new RelationalEntityInfo(entitySimpleName, idType, idFieldName, pkCol, scalarFieldInfos,
+				versionFieldInfo);
+	}
+
+	/** The model without its LOB columns: neither mapped by the entity nor part of the DTO/mapper. */
+	static EntityModel withoutLobs(EntityModel model) {
+		Map<String, ColumnModel> columns = new LinkedHashMap<>();
+		model.columns().forEach((name, col) -> {
+			if (!col.lob()) {
+				columns.put(name, col);
+			}
+		});
+		return new EntityModel(model.catalog(), model.schema(), model.table(), columns, model.pkCols(),
+				model.simpleFks(), model.indexedCols(), model.rowCountEstimate(), model.readOnly());
+	}
+
+	private static boolean isTimestamp(ColumnModel col) {
+		return col.dataType() == Types.TIMESTAMP || col.dataType() == Types.TIMESTAMP_WITH_TIMEZONE;
+	}
+}
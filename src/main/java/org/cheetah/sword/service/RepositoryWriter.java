@@ -15,6 +15,7 @@ import com.squareup.javapoet.AnnotationSpec;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
 import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
@@ -22,27 +23,152 @@ import com.squareup.javapoet.TypeSpec;
 /**
  * Generates Spring Data repository interfaces. Extracted from
  * GenerationService#writeRepository.
+ *
+ * Read-only entities (views, read-only reference data) get a query-only repository:
+ * it extends the Repository marker instead of JpaRepository and declares just the
+ * queries the generated service uses, so no save/delete method exists.
+ *
+ * public interface ReportsRepository extends Repository<Report, Long> {
+ *     Page<Report> findAll(Pageable pageable);
+ *     Optional<Report> findById(Long id);
+ *     List<Report> findAllById(Iterable<Long> ids);
+ *     boolean existsById(Long id);
+ *     ...
+ * }
+ *
+ * Each LOB field gets a projection query (reads only the Blob locator) and, unless
+ * read-only, a bulk update used by the streaming upload:
+ *
+ * @Query("select e.content from Document e where e.id = :id")
+ * Optional<Blob> findContentById(@Param("id") Long id);
+ *
+ * @Modifying
+ * @Query("update Document e set e.content = :content where e.id = :id")
+ * int updateContent(@Param("id") Long id, @Param("content") Blob content);
+ *
+ * Range fields (indexed temporal/numeric columns) get inclusive range queries and, with a
+ * simple id, a keyset scan ordered by (field, id):
+ *
+ * Page<Order> findByOrderedAtBetween(OffsetDateTime from, OffsetDateTime to, Pageable pageable);
+ * Page<Order> findByOrderedAtGreaterThanEqual(OffsetDateTime from, Pageable pageable);
+ * Page<Order> findByOrderedAtLessThanEqual(OffsetDateTime to, Pageable pageable);
+ * Window<Order> findByOrderedAtBetweenOrderByOrderedAtAscIdAsc(OffsetDateTime from, OffsetDateTime to,
+ *         ScrollPosition position, Limit limit);
+ * (and the GreaterThanEqual / LessThanEqual windows, for a scan with one bound)
+ *
+ * Every repository also extends JpaSpecificationExecutor, for the filters built by
+ * the generated <Entities>Specifications (GET /search), and - when UpsertWriter generated
+ * one - the native upsert fragment <Entities>UpsertRepository.
  */
 @Component
 public class RepositoryWriter {
+
+	/** JDBC fetch size used by the streaming export query. */
+	static final int EXPORT_FETCH_SIZE = 1000;
+
 	public void writeRepository(Path rootPath, String entitySimpleName, TypeName idTypeForRepository,
-			List<ScalarFieldInfo> scalarFields, AnnotationSpec generatedAnn) throws IOException {
+			String idFieldName, List<ScalarFieldInfo> scalarFields, List<ScalarFieldInfo> lobFields,
+			AnnotationSpec generatedAnn, boolean directDelete, boolean upsert, boolean readOnly) throws IOException {
 
 		ClassName entityClass = ClassName.get(SwordWizard.ENTITY_PKG, entitySimpleName);
 		TypeName idType = (idTypeForRepository != null) ? idTypeForRepository : ClassName.get(Long.class);
 
-		ParameterizedTypeName jpaRepoType = ParameterizedTypeName
-				.get(ClassName.get("org.springframework.data.jpa.repository", "JpaRepository"), entityClass, idType);
+		ParameterizedTypeName jpaRepoType = readOnly
+				? ParameterizedTypeName.get(ClassName.get("org.springframework.data.repository", "Repository"),
+						entityClass, idType)
+				: ParameterizedTypeName.get(ClassName.get("org.springframework.data.jpa.repository", "JpaRepository"),
+						entityClass, idType);
 
 		String repoSimpleName = NamingUtils.pluralizeSimpleName(entitySimpleName) + "Repository";
 
 		TypeSpec.Builder repo = TypeSpec.interfaceBuilder(repoSimpleName).addModifiers(Modifier.PUBLIC)
 				.addSuperinterface(jpaRepoType)
+				.addSuperinterface(ParameterizedTypeName.get(
+						ClassName.get("org.springframework.data.jpa.repository", "JpaSpecificationExecutor"), entityClass))
 				.addAnnotation(ClassName.get("org.springframework.stereotype", "Repository"))
 				.addAnnotation(generatedAnn);
+		if (upsert) {
+			repo.addSuperinterface(ClassName.get(SwordWizard.REPOSITORY_PKG,
+					NamingUtils.pluralizeSimpleName(entitySimpleName) + "UpsertRepository"));
+		}
+
+		if (readOnly) {
+			ClassName pageClass = ClassName.get("org.springframework.data.domain", "Page");
+			ClassName pageableClass = ClassName.get("org.springframework.data.domain", "Pageable");
+			repo.addMethod(MethodSpec.methodBuilder("findAll").addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+					.returns(ParameterizedTypeName.get(pageClass, entityClass)).addParameter(pageableClass, "pageable")
+					.build());
+			repo.addMethod(MethodSpec.methodBuilder("findById").addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+					.returns(ParameterizedTypeName.get(ClassName.get("java.util", "Optional"), entityClass))
+					.addParameter(idType, "id").build());
+			repo.addMethod(MethodSpec.methodBuilder("findAllById").addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+					.returns(ParameterizedTypeName.get(ClassName.get("java.util", "List"), entityClass))
+					.addParameter(ParameterizedTypeName.get(ClassName.get(Iterable.class), idType), "ids").build());
+			repo.addMethod(MethodSpec.methodBuilder("existsById").addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+					.returns(TypeName.BOOLEAN).addParameter(idType, "id").build());
+		}
+
+		/*
+		 * Streaming export: rows are pulled from an open cursor EXPORT_FETCH_SIZE at a
+		 * time and loaded read-only (no dirty-checking snapshots).
+		 *
+		 * @QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+		 *               @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+		 * @Query("select e from User e")
+		 * Stream<User> streamAll();
+		 */
+		ClassName queryHintAnn = ClassName.get("jakarta.persistence", "QueryHint");
+		ClassName hibernateHints = ClassName.get("org.hibernate.jpa", "HibernateHints");
+		AnnotationSpec fetchSizeHint = AnnotationSpec.builder(queryHintAnn)
+				.addMember("name", "$T.HINT_FETCH_SIZE", hibernateHints)
+				.addMember("value", "$S", String.valueOf(EXPORT_FETCH_SIZE)).build();
+		AnnotationSpec readOnlyHint = AnnotationSpec.builder(queryHintAnn)
+				.addMember("name", "$T.HINT_READ_ONLY", hibernateHints).addMember("value", "$S", "true").build();
+
+		MethodSpec streamAll = MethodSpec.methodBuilder("streamAll").addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+				.addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.data.jpa.repository", "QueryHints"))
+						.addMember("value", "{ $L, $L }", fetchSizeHint, readOnlyHint).build())
+				.addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.data.jpa.repository", "Query"))
+						.addMember("value", "$S", "select e from " + entitySimpleName + " e").build())
+				.returns(ParameterizedTypeName.get(ClassName.get("java.util.stream", "Stream"), entityClass)).build();
+		repo.addMethod(streamAll);
+
+		// LOB read/write by id
+		ClassName queryAnn = ClassName.get("org.springframework.data.jpa.repository", "Query");
+		ClassName paramAnn = ClassName.get("org.springframework.data.repository.query", "Param");
+		for (ScalarFieldInfo lob : lobFields) {
+			String fieldName = lob.javaFieldName();
+			ParameterSpec idParam = ParameterSpec.builder(idType, "id")
+					.addAnnotation(AnnotationSpec.builder(paramAnn).addMember("value", "$S", "id").build()).build();
+
+			repo.addMethod(MethodSpec.methodBuilder("find" + NamingUtils.upperFirst(fieldName) + "ById")
+					.addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+					.addAnnotation(AnnotationSpec.builder(queryAnn).addMember("value", "$S", "select e." + fieldName
+							+ " from " + entitySimpleName + " e where e." + idFieldName + " = :id").build())
+					.returns(ParameterizedTypeName.get(ClassName.get("java.util", "Optional"), lob.javaType()))
+					.addParameter(idParam).build());
+
+			if (!readOnly) {
+				repo.addMethod(MethodSpec.methodBuilder("update" + NamingUtils.upperFirst(fieldName))
+						.addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+						.addAnnotation(ClassName.get("org.springframework.data.jpa.repository", "Modifying"))
+						.addAnnotation(AnnotationSpec.builder(queryAnn).addMember("value", "$S", "update "
+								+ entitySimpleName + " e set e." + fieldName + " = :" + fieldName + " where e."
+								+ idFieldName + " = :id").build())
+						.returns(TypeName.INT).addParameter(idParam)
+						.addParameter(ParameterSpec.builder(lob.javaType(), fieldName)
+								.addAnnotation(AnnotationSpec.builder(paramAnn).addMember("value", "$S", fieldName)
+										.build())
+								.build())
+						.build());
+			}
+		}
 
 		// add finder methods for non-PK scalar fields
 		for (ScalarFieldInfo sf : scalarFields) {
+			if (!sf.finder()) {
+				continue;
+			}
 			String fieldName = sf.javaFieldName();
 			TypeName fieldType = sf.javaType();
 			String methodName = "findBy" + NamingUtils.upperFirst(fieldName);
@@ -56,6 +182,93 @@ public class RepositoryWriter {
 			repo.addMethod(finder);
 		}
 
+		/*
+		 * Direct deletes: one JPQL DELETE, no entity loaded first (deleteById does a findById),
+		 * returning the affected row count. Only without inverse relations, which the
+		 * persistence context would otherwise have to keep consistent.
+		 *
+		 * @Modifying
+		 * @Query("delete from Order e where e.id = :id")
+		 * int deleteRowById(@Param("id") Long id);
+		 *
+		 * @Modifying
+		 * @Query("delete from Order e where e.status = :status")
+		 * int deleteByStatus(@Param("status") String status);   // indexed finder fields
+		 */
+		if (directDelete && !readOnly) {
+			ClassName modifyingAnn = ClassName.get("org.springframework.data.jpa.repository", "Modifying");
+			repo.addMethod(MethodSpec.methodBuilder("deleteRowById").addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+					.addAnnotation(modifyingAnn)
+					.addAnnotation(AnnotationSpec.builder(queryAnn).addMember("value", "$S", "delete from "
+							+ entitySimpleName + " e where e." + idFieldName + " = :id").build())
+					.returns(TypeName.INT)
+					.addParameter(ParameterSpec.builder(idType, "id")
+							.addAnnotation(AnnotationSpec.builder(paramAnn).addMember("value", "$S", "id").build())
+							.build())
+					.build());
+			for (ScalarFieldInfo sf : scalarFields) {
+				if (!sf.indexed()) {
+					continue;
+				}
+				String fieldName = sf.javaFieldName();
+				repo.addMethod(MethodSpec.methodBuilder("deleteBy" + NamingUtils.upperFirst(fieldName))
+						.addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT).addAnnotation(modifyingAnn)
+						.addAnnotation(AnnotationSpec.builder(queryAnn).addMember("value", "$S", "delete from "
+								+ entitySimpleName + " e where e." + fieldName + " = :" + fieldName).build())
+						.returns(TypeName.INT)
+						.addParameter(ParameterSpec.builder(sf.javaType(), fieldName)
+								.addAnnotation(AnnotationSpec.builder(paramAnn).addMember("value", "$S", fieldName)
+										.build())
+								.build())
+						.build());
+			}
+		}
+
+		// range queries for indexed temporal/numeric fields
+		ClassName pageableClass = ClassName.get("org.springframework.data.domain", "Pageable");
+		TypeName pageOfEntity = ParameterizedTypeName.get(ClassName.get("org.springframework.data.domain", "Page"),
+				entityClass);
+		boolean keyset = SpecificationWriter.parser(idType) != null;
+		for (ScalarFieldInfo sf : scalarFields) {
+			if (!sf.range()) {
+				continue;
+			}
+			String field = NamingUtils.upperFirst(sf.javaFieldName());
+			TypeName boundType = sf.javaType().isPrimitive() ? sf.javaType().box() : sf.javaType();
+
+			repo.addMethod(MethodSpec.methodBuilder("findBy" + field + "Between")
+					.addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT).returns(pageOfEntity)
+					.addParameter(boundType, "from").addParameter(boundType, "to")
+					.addParameter(pageableClass, "pageable").build());
+			repo.addMethod(MethodSpec.methodBuilder("findBy" + field + "GreaterThanEqual")
+					.addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT).returns(pageOfEntity)
+					.addParameter(boundType, "from").addParameter(pageableClass, "pageable").build());
+			repo.addMethod(MethodSpec.methodBuilder("findBy" + field + "LessThanEqual")
+					.addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT).returns(pageOfEntity)
+					.addParameter(boundType, "to").addParameter(pageableClass, "pageable").build());
+
+			if (keyset) {
+				// same bounds as the range queries: both, from only, to only
+				String orderBy = "OrderBy" + field + "Asc" + NamingUtils.upperFirst(idFieldName) + "Asc";
+				TypeName windowOfEntity = ParameterizedTypeName
+						.get(ClassName.get("org.springframework.data.domain", "Window"), entityClass);
+				ClassName scrollPositionClass = ClassName.get("org.springframework.data.domain", "ScrollPosition");
+				ClassName limitClass = ClassName.get("org.springframework.data.domain", "Limit");
+				repo.addMethod(MethodSpec.methodBuilder("findBy" + field + "Between" + orderBy)
+						.addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT).returns(windowOfEntity)
+						.addParameter(boundType, "from").addParameter(boundType, "to")
+						.addParameter(scrollPositionClass, "position").addParameter(limitClass, "limit").build());
+				repo.addMethod(MethodSpec.methodBuilder("findBy" + field + "GreaterThanEqual" + orderBy)
+						.addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT).returns(windowOfEntity)
+						.addParameter(boundType, "from")
+						.addParameter(scrollPositionClass, "position").addParameter(limitClass, "limit").build());
+				repo.addMethod(MethodSpec.methodBuilder("findBy" + field + "LessThanEqual" + orderBy)
+						.addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT).returns(windowOfEntity)
+						.addParameter(boundType, "to")
+						.addParameter(scrollPositionClass, "position").addParameter(limitClass, "limit").build());
+			}
+		}
+
 		JavaFile.builder(SwordWizard.REPOSITORY_PKG, repo.build()).build().writeTo(rootPath);
 	}
 }
@@ -2,15 +2,19 @@ package org.cheetah.sword.service;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import javax.lang.model.element.Modifier;
 
+import org.cheetah.sword.service.records.ScalarFieldInfo;
+import org.cheetah.sword.util.NamingUtils;
 import org.cheetah.sword.wizard.SwordWizard;
 import org.springframework.stereotype.Component;
 
 import com.squareup.javapoet.AnnotationSpec;
 import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterizedTypeName;
@@ -19,6 +23,26 @@ import com.squareup.javapoet.TypeSpec;
 
 /**
  * This writer generates a MapStruct mapper converting between Resource and DTO.
+ *
+ * The resource always exposes the key as "id", while the DTO names it after the column
+ * (or flattens the columns of a composite key), so the key properties are mapped explicitly:
+ *
+ * @Mappings({ @Mapping(target = "id.orderId", source = "orderId"), ... })  OrderLineResource toResource(OrderLineDto dto);
+ * @Mappings({ @Mapping(target = "orderId", source = "id.orderId"), ... })  OrderLineDto toDto(OrderLineResource resource);
+ *
+ * Fields renamed for the REST API (YAML "resource:" names) get one @Mapping each way too.
+ *
+ * Record resources are immutable, so a versioned one also gets a copy with the If-Match
+ * version (MapStruct calls the canonical constructor):
+ *
+ * @Mappings({ @Mapping(target = "revision", source = "revision") })
+ * CustomerResource withRevision(CustomerResource resource, Long revision);
+ *
+ * With direct resource mapping, <Entity>EntityResourceMapper reads the resource straight
+ * from the entity, without the intermediate DTO (paged GETs of the controllers):
+ *
+ * @Mappings({ @Mapping(target = "id", source = "idUser"), @Mapping(target = "givenName", source = "firstName") })
+ * UserResource toResource(User entity);
  */
 @Component
 public class ResourceMapperWriter {
@@ -31,11 +55,21 @@ public class ResourceMapperWriter {
      * @param resourcesPackage Package of Resources (e.g. baseRoot + ".web.resource").
      * @param rootPath         Root output path.
      * @param entitySimpleName Simple name (e.g. "Incident").
+     * @param idProperties     DTO properties of the primary key columns.
+     * @param compositeId      true when the resource id is the embedded id class.
+     * @param scalarFieldInfos Scalar fields of the resource (renamed ones get explicit mappings).
+     * @param versionField     Version field of the If-Match controllers, null for none.
      * @param generatedAnn     Generated annotation for traceability.
+     * @param records          Resources are records: versionField gets a with<Version> copy.
      */
     public void writeResourceMapper(Path rootPath,
                                     String entitySimpleName,
-                                    AnnotationSpec generatedAnn) throws IOException {
+                                    List<String> idProperties,
+                                    boolean compositeId,
+                                    List<ScalarFieldInfo> scalarFieldInfos,
+                                    ScalarFieldInfo versionField,
+                                    AnnotationSpec generatedAnn,
+                                    boolean records) throws IOException {
 
         String dtoName = entitySimpleName + "Dto";
         String resourceName = entitySimpleName + "Resource";
@@ -49,17 +83,41 @@ public class ResourceMapperWriter {
         TypeName dtoList = ParameterizedTypeName.get(listType, dtoType);
         TypeName resourceList = ParameterizedTypeName.get(listType, resourceType);
 
-        MethodSpec toResource = MethodSpec.methodBuilder("toResource")
+        // resource "id" (or "id.<field>") <-> DTO key properties
+        List<AnnotationSpec> toResourceMappings = new ArrayList<>();
+        List<AnnotationSpec> toDtoMappings = new ArrayList<>();
+        for (String property : idProperties) {
+            String resourceProperty = compositeId ? "id." + property : "id";
+            if (resourceProperty.equals(property)) {
+                continue;
+            }
+            toResourceMappings.add(mapping(resourceProperty, property));
+            toDtoMappings.add(mapping(property, resourceProperty));
+        }
+        for (ScalarFieldInfo f : scalarFieldInfos) {
+            if (f.renamedInResource()) {
+                toResourceMappings.add(mapping(f.resourceFieldName(), f.javaFieldName()));
+                toDtoMappings.add(mapping(f.javaFieldName(), f.resourceFieldName()));
+            }
+        }
+
+        MethodSpec.Builder toResourceBuilder = MethodSpec.methodBuilder("toResource")
             .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
             .returns(resourceType)
-            .addParameter(dtoType, "dto")
-            .build();
+            .addParameter(dtoType, "dto");
+        if (!toResourceMappings.isEmpty()) {
+            toResourceBuilder.addAnnotation(mappings(toResourceMappings));
+        }
+        MethodSpec toResource = toResourceBuilder.build();
 
-        MethodSpec toDto = MethodSpec.methodBuilder("toDto")
+        MethodSpec.Builder toDtoBuilder = MethodSpec.methodBuilder("toDto")
             .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
             .returns(dtoType)
-            .addParameter(resourceType, "resource")
-            .build();
+            .addParameter(resourceType, "resource");
+        if (!toDtoMappings.isEmpty()) {
+            toDtoBuilder.addAnnotation(mappings(toDtoMappings));
+        }
+        MethodSpec toDto = toDtoBuilder.build();
 
         MethodSpec toResourceList = MethodSpec.methodBuilder("toResourceList")
             .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
@@ -73,14 +131,98 @@ public class ResourceMapperWriter {
             .addParameter(resourceList, "resources")
             .build();
 
-        TypeSpec type = TypeSpec.interfaceBuilder(mapperName)
+        TypeSpec.Builder type = TypeSpec.interfaceBuilder(mapperName)
             .addModifiers(Modifier.PUBLIC)
             .addAnnotation(AnnotationSpec.builder(mapperAnn)
                 .addMember("componentModel", "$S", "spring").build())
             .addAnnotation(generatedAnn)
-            .addMethods(Arrays.asList(toResource, toDto, toResourceList, toDtoList))
+            .addMethods(Arrays.asList(toResource, toDto, toResourceList, toDtoList));
+
+        if (records && versionField != null) {
+            String version = versionField.resourceFieldName();
+            type.addMethod(MethodSpec.methodBuilder(withVersionName(versionField))
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .addAnnotation(mappings(List.of(mapping(version, version))))
+                .returns(resourceType)
+                .addParameter(resourceType, "resource")
+                .addParameter(versionField.javaType(), version)
+                .build());
+        }
+
+        JavaFile.builder(SwordWizard.RESOURCE_MAPPERS_PKG, type.build()).build().writeTo(rootPath);
+    }
+
+    /**
+     * Generates <Entity>EntityResourceMapper: entity -> resource in one step, for the paged
+     * reads that never need the DTO.
+     *
+     * @param rootPath         Root output path.
+     * @param entitySimpleName Simple name (e.g. "Incident").
+     * @param idFieldName      Entity key property, "id" for an embedded id (mapped as is).
+     * @param scalarFieldInfos Scalar fields of the resource (renamed ones get explicit mappings).
+     * @param generatedAnn     Generated annotation for traceability.
+     */
+    public void writeEntityResourceMapper(Path rootPath,
+                                          String entitySimpleName,
+                                          String idFieldName,
+                                          List<ScalarFieldInfo> scalarFieldInfos,
+                                          AnnotationSpec generatedAnn) throws IOException {
+
+        ClassName entityType = ClassName.get(SwordWizard.ENTITY_PKG, entitySimpleName);
+        ClassName resourceType = ClassName.get(SwordWizard.RESOURCES_PKG, entitySimpleName + "Resource");
+
+        List<AnnotationSpec> toResourceMappings = new ArrayList<>();
+        if (!"id".equals(idFieldName)) {
+            toResourceMappings.add(mapping("id", idFieldName));
+        }
+        for (ScalarFieldInfo f : scalarFieldInfos) {
+            if (f.renamedInResource()) {
+                toResourceMappings.add(mapping(f.resourceFieldName(), f.javaFieldName()));
+            }
+        }
+
+        MethodSpec.Builder toResource = MethodSpec.methodBuilder("toResource")
+            .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+            .returns(resourceType)
+            .addParameter(entityType, "entity");
+        if (!toResourceMappings.isEmpty()) {
+            toResource.addAnnotation(mappings(toResourceMappings));
+        }
+
+        TypeSpec type = TypeSpec.interfaceBuilder(entityResourceMapperName(entitySimpleName))
+            .addModifiers(Modifier.PUBLIC)
+            .addAnnotation(AnnotationSpec.builder(ClassName.get("org.mapstruct", "Mapper"))
+                .addMember("componentModel", "$S", "spring").build())
+            .addAnnotation(generatedAnn)
+            .addMethod(toResource.build())
             .build();
 
         JavaFile.builder(SwordWizard.RESOURCE_MAPPERS_PKG, type).build().writeTo(rootPath);
     }
+
+    static String entityResourceMapperName(String entitySimpleName) {
+        return entitySimpleName + "EntityResourceMapper";
+    }
+
+    /** Copy of a record resource with another version: "withRevision". */
+    static String withVersionName(ScalarFieldInfo versionField) {
+        return "with" + NamingUtils.upperFirst(versionField.resourceFieldName());
+    }
+
+    private static AnnotationSpec mapping(String target, String source) {
+        return AnnotationSpec.builder(ClassName.get("org.mapstruct", "Mapping"))
+            .addMember("target", "$S", target)
+            .addMember("source", "$S", source)
+            .build();
+    }
+
+    private static AnnotationSpec mappings(List<AnnotationSpec> mappings) {
+        CodeBlock.Builder values = CodeBlock.builder().add("{");
+        for (int i = 0; i < mappings.size(); i++) {
+            values.add(i == 0 ? "$L" : ", $L", mappings.get(i));
+        }
+        return AnnotationSpec.builder(ClassName.get("org.mapstruct", "Mappings"))
+            .addMember("value", "$L", values.add("}").build())
+            .build();
+    }
 }
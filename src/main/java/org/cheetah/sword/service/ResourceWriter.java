@@ -3,10 +3,12 @@ package org.cheetah.sword.service;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Set;
 
 import javax.lang.model.element.Modifier;
 
 import org.cheetah.sword.service.records.ScalarFieldInfo;
+import org.cheetah.sword.util.JavaRecords;
 import org.cheetah.sword.wizard.SwordWizard;
 import org.springframework.stereotype.Component;
 
@@ -20,6 +22,9 @@ import com.squareup.javapoet.TypeSpec;
 /**
  * This writer generates the Resource POJO used as REST payload.
  * It mirrors DTO fields and is decoupled from persistence concerns.
+ * Fields renamed for the REST API (YAML "resource:" names) use ScalarFieldInfo.resourceFieldName().
+ * With records the resource is a Java record (see JavaRecords), read by Jackson through its
+ * canonical constructor; field annotations (@JsonRawValue, ...) go on the components.
  *
  * Assumptions:
  * - ScalarFieldInfo provides javaFieldName() and javaType() (already a JavaPoet TypeName).
@@ -35,32 +40,50 @@ public class ResourceWriter {
      * @param entitySimpleName Simple name of the entity (e.g. "Incident").
      * @param idType           JavaPoet TypeName for the id type (e.g. ClassName.get(Long.class)).
      * @param scalarFieldInfos List of scalar fields (name + java type) collected during entity inspection.
+     * @param rawJsonFields    Fields holding raw JSON text: written unquoted (@JsonRawValue), read back as text.
      * @param generatedAnn     @Generated annotation to be applied on generated types.
+     * @param records          Generate a record instead of a Lombok class.
      */
     public void writeResource(Path rootPath,
                               String entitySimpleName,
                               TypeName idType,
                               List<ScalarFieldInfo> scalarFieldInfos,
-                              AnnotationSpec generatedAnn) throws IOException {
+                              Set<String> rawJsonFields,
+                              AnnotationSpec generatedAnn,
+                              boolean records) throws IOException {
 
         String resourceSimpleName = entitySimpleName + "Resource";
 
         TypeSpec.Builder type = TypeSpec.classBuilder(resourceSimpleName)
-            .addModifiers(Modifier.PUBLIC)
-            .addAnnotation(ClassName.get("lombok", "Data"))
-            .addAnnotation(ClassName.get("lombok", "NoArgsConstructor"))
-            .addAnnotation(ClassName.get("lombok", "AllArgsConstructor"))
-            .addAnnotation(ClassName.get("lombok", "Builder"))
-            .addAnnotation(generatedAnn);
+            .addModifiers(Modifier.PUBLIC);
+        if (!records) {
+            type.addAnnotation(ClassName.get("lombok", "Data"))
+                .addAnnotation(ClassName.get("lombok", "NoArgsConstructor"))
+                .addAnnotation(ClassName.get("lombok", "AllArgsConstructor"))
+                .addAnnotation(ClassName.get("lombok", "Builder"));
+        }
+        type.addAnnotation(generatedAnn);
 
         // id field
         type.addField(FieldSpec.builder(idType, "id", Modifier.PRIVATE).build());
 
         // scalar fields
         for (ScalarFieldInfo f : scalarFieldInfos) {
-            type.addField(FieldSpec.builder(f.javaType(), f.javaFieldName(), Modifier.PRIVATE).build());
+            FieldSpec.Builder field = FieldSpec.builder(f.javaType(), f.resourceFieldName(), Modifier.PRIVATE);
+            if (rawJsonFields.contains(f.javaFieldName())) {
+                field.addAnnotation(ClassName.get("com.fasterxml.jackson.annotation", "JsonRawValue"))
+                    .addAnnotation(AnnotationSpec.builder(ClassName.get("com.fasterxml.jackson.databind.annotation", "JsonDeserialize"))
+                        .addMember("using", "$T.class",
+                            ClassName.get(SwordWizard.RESOURCES_PKG, JsonTypeWriter.RAW_JSON_DESERIALIZER))
+                        .build());
+            }
+            type.addField(field.build());
         }
 
-        JavaFile.builder(SwordWizard.RESOURCES_PKG, type.build()).build().writeTo(rootPath);
+        if (records) {
+            JavaRecords.writeTo(SwordWizard.RESOURCES_PKG, type.build(), rootPath);
+        } else {
+            JavaFile.builder(SwordWizard.RESOURCES_PKG, type.build()).build().writeTo(rootPath);
+        }
     }
 }
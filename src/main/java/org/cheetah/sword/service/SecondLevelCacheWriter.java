@@ -0,0 +1,120 @@
+package org.cheetah.sword.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import org.cheetah.sword.model.ConnectionConfig;
+import org.cheetah.sword.service.records.CacheSettings;
+import org.cheetah.sword.service.records.EntityModel;
+import org.cheetah.sword.wizard.SwordWizard;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Hibernate second-level cache for lookup tables.
+ *
+ * A table is a lookup table when its catalog row-count estimate is at most
+ * ConnectionConfig#lookupTableMaxRows; the naming YAML can force a strategy or
+ * opt out (tables.<table>.secondLevelCache). Its entity gets
+ *
+ * @Cacheable
+ * @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)   (READ_ONLY for read-only entities)
+ *
+ * and its inverse @OneToMany collections are cached too when the child entity is
+ * itself cached (a cached collection of uncached entities loads them one by one).
+ *
+ * Entities with LOB fields are never cached, whatever the YAML says: they are mapped
+ * to java.sql.Blob locators, which Hibernate refuses to put in the cache ("Blobs are
+ * not cacheable") on every insert and update.
+ *
+ * The regions are served by JCache/Caffeine: this writer emits sword-l2cache.conf
+ * (Caffeine JCache configuration, one bounded region per cached entity; collection
+ * regions use the "default" block) next to application-sword.yml, which points
+ * Hibernate to it.
+ */
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheWriter {
+
+	static final String REGION_CONFIG_FILE = "sword-l2cache.conf";
+
+	private final NamingConfigService namingConfigService;
+
+	/**
+	 * Returns the CacheConcurrencyStrategy constant for the entity of a table, or null
+	 * when the entity is not second-level cached.
+	 */
+	public String resolveStrategy(EntityModel model, ConnectionConfig cfg) {
+		boolean lob = model.columns().values().stream().anyMatch(c -> c.lob() && !model.pkCols().contains(c.name()));
+		if (lob) {
+			return null;
+		}
+		String forced = namingConfigService.resolveSecondLevelCache(model.table());
+		if (forced != null) {
+			return "NONE".equals(forced) ? null : forced;
+		}
+		// 0 rows usually means "never analyzed" (or a table not loaded yet), not a lookup table
+		if (cfg.getLookupTableMaxRows() <= 0 || model.rowCountEstimate() <= 0
+				|| model.rowCountEstimate() > cfg.getLookupTableMaxRows()) {
+			return null;
+		}
+		return model.readOnly() ? "READ_ONLY" : "READ_WRITE";
+	}
+
+	/**
+	 * Writes the Caffeine JCache region configuration. Returns false (and writes
+	 * nothing) when no entity is second-level cached.
+	 */
+	public boolean writeRegionConfig(Path rootPath, List<EntityModel> models, ConnectionConfig cfg)
+			throws IOException {
+		StringBuilder regions = new StringBuilder();
+		int cachedEntities = 0;
+
+		for (EntityModel model : models) {
+			if (resolveStrategy(model, cfg) == null) {
+				continue;
+			}
+			cachedEntities++;
+			CacheSettings settings = namingConfigService.resolveCacheSettings(model.table());
+			String entityRegion = SwordWizard.ENTITY_PKG + "." + namingConfigService.resolveEntityName(model.table());
+			appendRegion(regions, entityRegion, settings);
+		}
+		if (cachedEntities == 0) {
+			return false;
+		}
+
+		String conf = "# Generated by S.W.O.R.D. on " + OffsetDateTime.now() + "\n"
+				+ "# Hibernate second-level cache regions (Caffeine JCache), see application-sword.yml\n"
+				+ "caffeine.jcache {\n"
+				+ "  default {\n"
+				+ "    monitoring.statistics = true\n"
+				+ "    policy.maximum.size = " + CacheSettings.DEFAULT.maximumSize() + "\n"
+				+ "  }\n"
+				+ regions
+				+ "}\n";
+
+		Path out = ApplicationConfigWriter.resourcesRoot(rootPath).resolve(REGION_CONFIG_FILE);
+		Files.createDirectories(out.getParent());
+		Files.writeString(out, conf, StandardCharsets.UTF_8);
+		System.out.printf("   L2 cache regions   : %s (%d entit%s)%n", out.toAbsolutePath(), cachedEntities,
+				cachedEntities == 1 ? "y" : "ies");
+		return true;
+	}
+
+	/**
+	 * Region names are written as unquoted HOCON paths: Caffeine looks a cache up with
+	 * hasPath("caffeine.jcache." + name), so "com.acme.entities.Country" must be nested.
+	 */
+	private static void appendRegion(StringBuilder regions, String region, CacheSettings settings) {
+		regions.append("  ").append(region).append(" {\n")
+				.append("    monitoring.statistics = true\n")
+				.append("    policy.maximum.size = ").append(settings.maximumSize()).append("\n")
+				.append("    policy.eager-expiration.after-write = ").append(settings.ttlSeconds()).append("s\n")
+				.append("  }\n");
+	}
+}
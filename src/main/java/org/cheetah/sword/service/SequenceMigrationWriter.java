@@ -0,0 +1,61 @@
+package org.cheetah.sword.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cheetah.sword.service.records.ColumnModel;
+import org.cheetah.sword.service.records.EntityModel;
+import org.cheetah.sword.service.records.SequenceModel;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes an SQL migration raising the INCREMENT BY of PK sequences to the
+ * allocation size used by the generated pooled-lo generators.
+ *
+ * The file is only written when at least one sequence has an allocationSize
+ * larger than its catalog increment (see ConnectionConfig#sequenceIncrement).
+ * ALTER SEQUENCE ... INCREMENT BY is accepted by PostgreSQL, SQL Server, DB2 and H2.
+ * The file goes under db/migration in the resources root (Flyway's default location).
+ */
+@Component
+public class SequenceMigrationWriter {
+
+	static final String MIGRATION_FILE = "db/migration/sword_sequence_increments.sql";
+
+	public void writeMigrationIfNeeded(Path rootPath, List<EntityModel> models) throws IOException {
+		// the same sequence may back more than one table
+		Map<String, SequenceModel> toRaise = new LinkedHashMap<>();
+		for (EntityModel model : models) {
+			for (ColumnModel col : model.columns().values()) {
+				SequenceModel seq = col.sequence();
+				if (seq != null && seq.allocationSize() > seq.incrementBy()) {
+					toRaise.putIfAbsent(seq.name(), seq);
+				}
+			}
+		}
+		if (toRaise.isEmpty()) {
+			return;
+		}
+
+		StringBuilder sql = new StringBuilder();
+		sql.append("-- Generated by S.W.O.R.D. on ").append(OffsetDateTime.now()).append('\n');
+		sql.append("-- Raises sequence increments to match the pooled-lo allocationSize of the generated entities,\n");
+		sql.append("-- so that Hibernate can assign ids in memory and batch inserts.\n\n");
+		for (SequenceModel seq : toRaise.values()) {
+			sql.append("-- was INCREMENT BY ").append(seq.incrementBy()).append('\n');
+			sql.append("ALTER SEQUENCE ").append(seq.name()).append(" INCREMENT BY ").append(seq.allocationSize())
+					.append(";\n");
+		}
+
+		Path out = ApplicationConfigWriter.resourcesRoot(rootPath).resolve(MIGRATION_FILE);
+		Files.createDirectories(out.getParent());
+		Files.writeString(out, sql.toString(), StandardCharsets.UTF_8);
+		System.out.printf("   Sequence migration : %s (%d sequence(s))%n", out.toAbsolutePath(), toRaise.size());
+	}
+}
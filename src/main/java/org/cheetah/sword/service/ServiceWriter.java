@@ -4,10 +4,13 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import javax.lang.model.element.Modifier;
 
+import org.cheetah.sword.service.records.CacheSettings;
 import org.cheetah.sword.service.records.ScalarFieldInfo;
+import org.cheetah.sword.service.records.UpsertModel;
 import org.cheetah.sword.util.NamingUtils;
 import org.cheetah.sword.wizard.SwordWizard;
 import org.springframework.stereotype.Component;
@@ -17,18 +20,68 @@ import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
 import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.TypeVariableName;
+import com.squareup.javapoet.WildcardTypeName;
 
 /**
  * Generates Spring @Service classes for entities. Extracted from
  * GenerationService#writeService.
+ *
+ * When cache settings are given, the service is read-through cached with two
+ * caches per entity (configured by CacheConfigWriter):
+ * - "<Entity>.byId"    findById results, kept in sync by save/update/patch/delete
+ * - "<Entity>.queries" page/finder results, evicted on every write
+ *
+ * Read-only entities (views, read-only reference data) get a query-only service:
+ * findAll/findById/finders/exportAll in a class-level @Transactional(readOnly = true),
+ * no save/update/delete, bulk or import methods.
+ *
+ * LOB fields are never part of the DTO; each gets a streaming pair instead:
+ * - boolean read<Field>(id, OutputStream out)     copies the Blob to out inside a read-only transaction
+ * - boolean write<Field>(id, InputStream in, len) binds the stream as a Blob in an UPDATE (not for read-only)
+ * Both return false when the row (or, for read, the LOB) does not exist.
+ *
+ * Range fields (indexed temporal/numeric columns) add findBy<Field>Range(from, to, page...), ordered
+ * by the field, and - with a simple id - scanBy<Field>(from, to, after, afterId, limit), a keyset
+ * scan that seeks past the last (field, id) seen instead of counting and skipping rows. Both take
+ * either bound or both; the scan takes after and afterId together (IllegalArgumentException otherwise).
+ *
+ * findAllById(ids) loads many rows by id with IN lists of at most sword.batch-get.in-chunk-size
+ * bind parameters (divided by the key columns of a composite id) and returns them in request order.
+ *
+ * search(filter, sort, pageNumber, maxRecordsPerPage) runs the Specification built by the
+ * generated <Entities>Specifications in one query; it is never cached (unbounded keys).
+ *
+ * upsertAll(dtos) - when the repository has a native upsert fragment (UpsertWriter) - sends the
+ * rows as JDBC batches of bulkChunkSize INSERT ... ON CONFLICT / MERGE statements: no entity is
+ * loaded, a row without its primary key is an IllegalArgumentException.
+ *
+ * delete(id) returns false when no row has the id. Without inverse relations it is one JPQL
+ * DELETE (repository.deleteRowById) instead of deleteById, which loads the entity first; indexed
+ * finder fields then also get int deleteBy<Field>(value), a bulk DELETE returning the row count.
+ * existsById(id) checks the key without loading the entity (HEAD /{id}).
+ *
+ * With projections (direct resource mapping, never on cached services), findAll and the
+ * findBy<Field> finders also take a Function<? super Entity, ? extends R> applied to each row
+ * inside the read-only transaction: the controller maps entities straight to resources and no
+ * DTO is allocated.
+ *
+ * Versioned entities (@Version): update/patch/updateAll flush before mapping so the returned
+ * DTOs carry the new version, and a stale version fails with ObjectOptimisticLockingFailureException
+ * (412 in the controller). A DTO without version is applied to the current row.
  */
 @Component
 public class ServiceWriter {
-	public void writeService(Path rootPath, String entitySimpleName, TypeName idTypeForRepository,
-			List<ScalarFieldInfo> scalarFields, AnnotationSpec generatedAnn) throws IOException {
+	public void writeService(Path rootPath, String entitySimpleName, TypeName idTypeForRepository, String idFieldName,
+			int idColumnCount, List<ScalarFieldInfo> scalarFields, List<ScalarFieldInfo> lobFields, ScalarFieldInfo versionField,
+			boolean directDelete, UpsertModel upsert, AnnotationSpec generatedAnn, CacheSettings cache, boolean readOnly,
+			boolean projections, boolean records) throws IOException {
+
+		boolean cached = cache != null && cache.enabled();
 
 		// types
 		ClassName entityClass = ClassName.get(SwordWizard.ENTITY_PKG, entitySimpleName);
@@ -43,14 +96,57 @@ public class ServiceWriter {
 
 		TypeName idType = (idTypeForRepository != null) ? idTypeForRepository : ClassName.get(Long.class);
 
-		// fields: repository + mapper
+		ClassName entityManagerClass = ClassName.get("jakarta.persistence", "EntityManager");
+		ClassName transactionalAnn = ClassName.get("org.springframework.transaction.annotation", "Transactional");
+
+		// fields: repository + mapper + entity manager (bulk chunks) + chunk size
 		FieldSpec repoField = FieldSpec.builder(repoClass, "repository", Modifier.PRIVATE, Modifier.FINAL).build();
 		FieldSpec mapperField = FieldSpec.builder(mapperClass, "mapper", Modifier.PRIVATE, Modifier.FINAL).build();
+		FieldSpec entityManagerField = FieldSpec
+				.builder(entityManagerClass, "entityManager", Modifier.PRIVATE, Modifier.FINAL).build();
+		FieldSpec chunkSizeField = FieldSpec.builder(TypeName.INT, "bulkChunkSize", Modifier.PRIVATE, Modifier.FINAL)
+				.build();
+		FieldSpec idChunkSizeField = FieldSpec.builder(TypeName.INT, "idChunkSize", Modifier.PRIVATE, Modifier.FINAL)
+				.build();
+		ClassName transactionTemplateClass = ClassName.get("org.springframework.transaction.support",
+				"TransactionTemplate");
+		FieldSpec transactionTemplateField = FieldSpec
+				.builder(transactionTemplateClass, "transactionTemplate", Modifier.PRIVATE, Modifier.FINAL).build();
 
 		// constructor
-		MethodSpec ctor = MethodSpec.constructorBuilder().addModifiers(Modifier.PUBLIC)
+		ParameterSpec chunkSizeParam = ParameterSpec.builder(TypeName.INT, "bulkChunkSize")
+				.addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.beans.factory.annotation", "Value"))
+						.addMember("value", "$S", "${" + ApplicationConfigWriter.BULK_CHUNK_SIZE_KEY + ":"
+								+ ApplicationConfigWriter.DEFAULT_BULK_CHUNK_SIZE + "}")
+						.build())
+				.build();
+
+		ParameterSpec inChunkSizeParam = ParameterSpec.builder(TypeName.INT, "inChunkSize")
+				.addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.beans.factory.annotation", "Value"))
+						.addMember("value", "$S", "${" + ApplicationConfigWriter.IN_CHUNK_SIZE_KEY + ":"
+								+ ApplicationConfigWriter.DEFAULT_IN_CHUNK_SIZE + "}")
+						.build())
+				.build();
+
+		MethodSpec.Builder ctorBuilder = MethodSpec.constructorBuilder().addModifiers(Modifier.PUBLIC)
 				.addParameter(repoClass, "repository").addParameter(mapperClass, "mapper")
-				.addStatement("this.repository = repository").addStatement("this.mapper = mapper").build();
+				.addParameter(entityManagerClass, "entityManager").addParameter(inChunkSizeParam);
+		if (!readOnly) {
+			ctorBuilder.addParameter(chunkSizeParam).addParameter(transactionTemplateClass, "transactionTemplate");
+		}
+		ctorBuilder.addStatement("this.repository = repository").addStatement("this.mapper = mapper")
+				.addStatement("this.entityManager = entityManager");
+		if (idColumnCount > 1) {
+			// each composite id binds one parameter per key column
+			ctorBuilder.addStatement("this.idChunkSize = Math.max(1, inChunkSize / $L)", idColumnCount);
+		} else {
+			ctorBuilder.addStatement("this.idChunkSize = inChunkSize");
+		}
+		if (!readOnly) {
+			ctorBuilder.addStatement("this.bulkChunkSize = bulkChunkSize")
+					.addStatement("this.transactionTemplate = transactionTemplate");
+		}
+		MethodSpec ctor = ctorBuilder.build();
 
 		/*
 		 * Helper: build PageDto<DTO> from Page<Entity>
@@ -69,9 +165,7 @@ public class ServiceWriter {
 				.returns(ParameterizedTypeName.get(pageDtoClass, dtoClass)).addParameter(pageOfEntity, "page")
 				.addStatement("$T<$T> dtoList = page.getContent().stream().map(mapper::toDto).toList()",
 						listClass,dtoClass)
-				.addStatement("return $T.<$T>builder()" + ".content(dtoList)" + ".pageNumber(page.getNumber())"
-						+ ".pageSize(page.getSize())" + ".totalElements(page.getTotalElements())"
-						+ ".totalPages(page.getTotalPages())" + ".build()", pageDtoClass, dtoClass)
+				.addStatement("return $L", PageObjectWriter.fromSpringPage(pageDtoClass, dtoClass, "dtoList", records))
 				.build();
 
 		/*
@@ -140,16 +234,283 @@ public class ServiceWriter {
 			updateBuilder.addStatement("e.setId(id)");
 		}
 
-		updateBuilder.addStatement("e = repository.save(e)").addStatement("return mapper.toDto(e)");
+		/*
+		 * Versioned entity: a DTO without version updates whatever is current (last writer wins,
+		 * as before); a stale one makes the merge fail with ObjectOptimisticLockingFailureException.
+		 * saveAndFlush so the returned DTO carries the incremented version.
+		 *
+		 * if (e.getVersion() == null) {
+		 *     e.setVersion(repository.findById(id).map(User::getVersion).orElse(null));
+		 * }
+		 * return mapper.toDto(repository.saveAndFlush(e));
+		 */
+		if (versionField != null) {
+			String getter = NamingUtils.getterName(versionField.javaFieldName(), versionField.javaType());
+			String setter = "set" + NamingUtils.upperFirst(versionField.javaFieldName());
+			updateBuilder.beginControlFlow("if (e.$L() == null)", getter)
+					.addStatement("e.$L(repository.findById(id).map($T::$L).orElse(null))", setter, entityClass, getter)
+					.endControlFlow()
+					.addStatement("return mapper.toDto(repository.saveAndFlush(e))");
+		} else {
+			updateBuilder.addStatement("e = repository.save(e)").addStatement("return mapper.toDto(e)");
+		}
 		MethodSpec updateMethod = updateBuilder.build();
 
 		/*
-		 * delete(ID id)
+		 * patch(ID id, UserDto dto, Set<String> fields)
+		 *
+		 * User e = repository.findById(id).orElse(null);
+		 * if (e == null) return null;
+		 * mapper.patchEntity(dto, e, fields);   // copies only the named properties
+		 * return mapper.toDto(e);               // flushed on commit, @DynamicUpdate sets only the changed columns
+		 *
+		 * The entity is loaded (not getReferenceById): the proxy would be initialized by the
+		 * first setter anyway, and a missing row must answer 404 rather than fail on flush.
+		 */
+		MethodSpec.Builder patchBuilder = MethodSpec.methodBuilder("patch").addModifiers(Modifier.PUBLIC)
+				.returns(dtoClass).addParameter(idType, "id").addParameter(dtoClass, "dto")
+				.addParameter(ParameterizedTypeName.get(ClassName.get("java.util", "Set"), ClassName.get(String.class)),
+						"fields")
+				.addStatement("$T e = repository.findById(id).orElse(null)", entityClass)
+				.beginControlFlow("if (e == null)").addStatement("return null").endControlFlow();
+
+		/*
+		 * Versioned entity: the version of the DTO (If-Match, or the body) must be the loaded one;
+		 * a concurrent write between load and flush is caught by Hibernate's version check.
+		 *
+		 * if (dto.getVersion() != null && !Objects.deepEquals(dto.getVersion(), e.getVersion())) {
+		 *     throw new ObjectOptimisticLockingFailureException(User.class, id);
+		 * }
+		 * mapper.patchEntity(dto, e, fields);
+		 * repository.flush();
+		 */
+		if (versionField != null) {
+			String getter = NamingUtils.getterName(versionField.javaFieldName(), versionField.javaType());
+			String dtoGetter = NamingUtils.accessorName(versionField.javaFieldName(), versionField.javaType(), records);
+			patchBuilder.beginControlFlow("if (dto.$L() != null && !$T.deepEquals(dto.$L(), e.$L()))", dtoGetter,
+					ClassName.get("java.util", "Objects"), dtoGetter, getter)
+					.addStatement("throw new $T($T.class, id)",
+							ClassName.get("org.springframework.orm", "ObjectOptimisticLockingFailureException"),
+							entityClass)
+					.endControlFlow()
+					.addStatement("mapper.patchEntity(dto, e, fields)").addStatement("repository.flush()");
+		} else {
+			patchBuilder.addStatement("mapper.patchEntity(dto, e, fields)");
+		}
+		MethodSpec patchMethod = patchBuilder.addStatement("return mapper.toDto(e)").build();
+
+		/*
+		 * boolean delete(ID id), false when no row has the id
+		 *
+		 * return repository.deleteRowById(id) > 0;        // one DELETE, no entity loaded
+		 *
+		 * or, with inverse relations, through the persistence context:
+		 *
+		 * Optional<User> e = repository.findById(id); e.ifPresent(repository::delete); return e.isPresent();
+		 */
+		MethodSpec.Builder deleteBuilder = MethodSpec.methodBuilder("delete").addModifiers(Modifier.PUBLIC)
+				.returns(TypeName.BOOLEAN).addParameter(idType, "id");
+		if (directDelete) {
+			deleteBuilder.addStatement("return repository.deleteRowById(id) > 0");
+		} else {
+			deleteBuilder.addStatement("$T<$T> e = repository.findById(id)", ClassName.get("java.util", "Optional"), entityClass)
+					.addStatement("e.ifPresent(repository::delete)").addStatement("return e.isPresent()");
+		}
+		MethodSpec deleteMethod = deleteBuilder.build();
+
+		/*
+		 * existsById(ID id): one "select ... fetch first 1 rows" on the key, no entity loaded
+		 */
+		MethodSpec existsByIdMethod = MethodSpec.methodBuilder("existsById").addModifiers(Modifier.PUBLIC)
+				.returns(TypeName.BOOLEAN).addParameter(idType, "id").addStatement("return repository.existsById(id)")
+				.build();
+
+		/*
+		 * Bulk delete by indexed finder field (one JPQL DELETE, affected row count):
+		 *
+		 * public int deleteByStatus(String status) { return repository.deleteByStatus(status); }
+		 */
+		List<MethodSpec> deleteByMethods = new ArrayList<>();
+		if (directDelete && !readOnly) {
+			for (ScalarFieldInfo sf : scalarFields) {
+				if (!sf.indexed()) {
+					continue;
+				}
+				String methodName = "deleteBy" + NamingUtils.upperFirst(sf.javaFieldName());
+				deleteByMethods.add(MethodSpec.methodBuilder(methodName).addModifiers(Modifier.PUBLIC)
+						.addAnnotation(transactionalAnn).returns(TypeName.INT)
+						.addParameter(sf.javaType(), sf.javaFieldName())
+						.addStatement("return repository.$L($L)", methodName, sf.javaFieldName()).build());
+			}
+		}
+
+		/*
+		 * Bulk operations. Each runs in one transaction and works in chunks of
+		 * bulkChunkSize rows: the chunk is flushed (JDBC batched, see
+		 * hibernate.jdbc.batch_size) and the persistence context cleared, so memory
+		 * does not grow with the request size.
+		 *
+		 * saveAll(List<UserDto> dtos) -> repository.saveAll(chunk)
+		 * updateAll(List<UserDto> dtos) -> preload chunk with findAllById (one IN query
+		 *     instead of one SELECT per merge), then repository.saveAll(chunk)
+		 * deleteAll(List<ID> ids) -> repository.deleteAllByIdInBatch(chunk)
+		 *     (single DELETE ... WHERE id IN, no entity loading, no cascades)
+		 */
+		ClassName arrayListClass = ClassName.get("java.util", "ArrayList");
+		TypeName listOfDto = ParameterizedTypeName.get(listClass, dtoClass);
+		TypeName listOfEntity = ParameterizedTypeName.get(listClass, entityClass);
+		TypeName listOfId = ParameterizedTypeName.get(listClass, idType.box());
+
+		MethodSpec saveAllMethod = MethodSpec.methodBuilder("saveAll").addModifiers(Modifier.PUBLIC)
+				.addAnnotation(transactionalAnn).returns(listOfDto).addParameter(listOfDto, "dtos")
+				.addStatement("$T out = new $T<>(dtos.size())", listOfDto, arrayListClass)
+				.beginControlFlow("for (int from = 0; from < dtos.size(); from += bulkChunkSize)")
+				.addStatement("$T chunk = dtos.subList(from, $T.min(from + bulkChunkSize, dtos.size()))"
+						+ ".stream().map(mapper::toEntity).toList()", listOfEntity, Math.class)
+				.addStatement("repository.saveAll(chunk).forEach(e -> out.add(mapper.toDto(e)))")
+				.addStatement("repository.flush()").addStatement("entityManager.clear()").endControlFlow()
+				.addStatement("return out").build();
+
+		MethodSpec.Builder updateAllBuilder = MethodSpec.methodBuilder("updateAll").addModifiers(Modifier.PUBLIC)
+				.addAnnotation(transactionalAnn).returns(listOfDto).addParameter(listOfDto, "dtos")
+				.addStatement("$T out = new $T<>(dtos.size())", listOfDto, arrayListClass)
+				.beginControlFlow("for (int from = 0; from < dtos.size(); from += bulkChunkSize)")
+				.addStatement("$T chunk = dtos.subList(from, $T.min(from + bulkChunkSize, dtos.size()))"
+						+ ".stream().map(mapper::toEntity).toList()", listOfEntity, Math.class);
+		if (versionField != null) {
+			// rows sent without a version take the current one (last writer wins, like update)
+			String versionGetter = NamingUtils.getterName(versionField.javaFieldName(), versionField.javaType());
+			String versionSetter = "set" + NamingUtils.upperFirst(versionField.javaFieldName());
+			String idGetter = "get" + NamingUtils.upperFirst(idFieldName);
+			updateAllBuilder
+					.addStatement("$T<$T, $T> current = new $T<>()", ClassName.get("java.util", "Map"), idType.box(),
+							entityClass, ClassName.get("java.util", "HashMap"))
+					.addStatement("repository.findAllById(chunk.stream().map($T::$L).toList()).forEach(c -> current.put(c.$L(), c))",
+							entityClass, idGetter, idGetter)
+					.addStatement("chunk.stream().filter(e -> e.$L() == null && current.containsKey(e.$L()))"
+							+ ".forEach(e -> e.$L(current.get(e.$L()).$L()))", versionGetter, idGetter, versionSetter,
+							idGetter, versionGetter);
+		} else {
+			updateAllBuilder.addStatement("repository.findAllById(chunk.stream().map($T::get$L).toList())", entityClass,
+					NamingUtils.upperFirst(idFieldName));
+		}
+		// flushed before mapping, so the DTOs carry the incremented versions
+		MethodSpec updateAllMethod = updateAllBuilder
+				.addStatement("$T saved = repository.saveAll(chunk)", listOfEntity)
+				.addStatement("repository.flush()")
+				.addStatement("saved.forEach(e -> out.add(mapper.toDto(e)))")
+				.addStatement("entityManager.clear()").endControlFlow()
+				.addStatement("return out").build();
+
+		MethodSpec deleteAllMethod = MethodSpec.methodBuilder("deleteAll").addModifiers(Modifier.PUBLIC)
+				.addAnnotation(transactionalAnn).returns(TypeName.VOID).addParameter(listOfId, "ids")
+				.beginControlFlow("for (int from = 0; from < ids.size(); from += bulkChunkSize)")
+				.addStatement("repository.deleteAllByIdInBatch(ids.subList(from, $T.min(from + bulkChunkSize, ids.size())))",
+						Math.class)
+				.endControlFlow().build();
+
+		/*
+		 * upsertAll(List<UserDto> dtos)
 		 *
-		 * repository.deleteById(id);
+		 * List<Object[]> rows = ... one Object[] per DTO, in the statement's column order
+		 * for (chunk of bulkChunkSize rows) repository.upsertAll(chunk);
 		 */
-		MethodSpec deleteMethod = MethodSpec.methodBuilder("delete").addModifiers(Modifier.PUBLIC)
-				.returns(TypeName.VOID).addParameter(idType, "id").addStatement("repository.deleteById(id)").build();
+		MethodSpec upsertAllMethod = null;
+		if (upsert != null && !readOnly) {
+			String keyCheck = upsert.getters().subList(0, upsert.keyCount()).stream()
+					.map(g -> "dto." + g + "() == null").collect(Collectors.joining(" || "));
+			String row = upsert.getters().stream().map(g -> "dto." + g + "()")
+					.collect(Collectors.joining(", "));
+			upsertAllMethod = MethodSpec.methodBuilder("upsertAll").addModifiers(Modifier.PUBLIC)
+					.addAnnotation(transactionalAnn).returns(TypeName.VOID).addParameter(listOfDto, "dtos")
+					.addStatement("$T<Object[]> rows = new $T<>(dtos.size())", listClass, arrayListClass)
+					.beginControlFlow("for ($T dto : dtos)", dtoClass)
+					.beginControlFlow("if ($L)", keyCheck)
+					.addStatement("throw new $T($S)", IllegalArgumentException.class, "upsert rows need the primary key")
+					.endControlFlow()
+					.addStatement("rows.add(new Object[] { $L })", row)
+					.endControlFlow()
+					.beginControlFlow("for (int from = 0; from < rows.size(); from += bulkChunkSize)")
+					.addStatement("repository.upsertAll(rows.subList(from, $T.min(from + bulkChunkSize, rows.size())))",
+							Math.class)
+					.endControlFlow()
+					// the statements bypass Hibernate: drop second-level cache entries of the entity
+					.addStatement("entityManager.getEntityManagerFactory().getCache().evict($T.class)", entityClass)
+					.build();
+		}
+
+		/*
+		 * exportAll(Consumer<UserDto> sink)
+		 *
+		 * Streams every row through the sink inside a read-only transaction (keeps the
+		 * cursor open). Each entity is detached once mapped, so the persistence context
+		 * stays empty and heap usage does not depend on the table size.
+		 *
+		 * try (Stream<User> stream = repository.streamAll()) { stream.forEach(e -> {
+		 * sink.accept(mapper.toDto(e)); entityManager.detach(e); }); }
+		 */
+		TypeName streamOfEntity = ParameterizedTypeName.get(ClassName.get("java.util.stream", "Stream"), entityClass);
+		TypeName consumerOfDto = ParameterizedTypeName.get(ClassName.get("java.util.function", "Consumer"), dtoClass);
+
+		MethodSpec exportAllMethod = MethodSpec.methodBuilder("exportAll").addModifiers(Modifier.PUBLIC)
+				.addAnnotation(AnnotationSpec.builder(transactionalAnn).addMember("readOnly", "$L", true).build())
+				.returns(TypeName.VOID).addParameter(consumerOfDto, "sink")
+				.beginControlFlow("try ($T stream = repository.streamAll())", streamOfEntity)
+				.beginControlFlow("stream.forEach(e ->")
+				.addStatement("sink.accept(mapper.toDto(e))")
+				.addStatement("entityManager.detach(e)")
+				.endControlFlow(")")
+				.endControlFlow().build();
+
+		/*
+		 * importAll(Iterator<UserDto> rows)
+		 *
+		 * Pulls rows from a lazily parsed source and commits every bulkChunkSize rows
+		 * in its own transaction (TransactionTemplate), so a failing chunk is rolled back
+		 * alone and reported, and memory holds at most one chunk. A row that cannot be
+		 * parsed stops the import: rows read before it are still imported.
+		 */
+		ClassName importReportClass = ClassName.get(SwordWizard.DTO_PKG, ImportReportWriter.IMPORT_REPORT);
+		ClassName chunkErrorClass = importReportClass.nestedClass("ChunkError");
+		TypeName iteratorOfDto = ParameterizedTypeName.get(ClassName.get("java.util", "Iterator"), dtoClass);
+
+		MethodSpec importAllMethod = MethodSpec.methodBuilder("importAll").addModifiers(Modifier.PUBLIC)
+				.returns(importReportClass).addParameter(iteratorOfDto, "rows")
+				.addStatement("$T report = new $T()", importReportClass, importReportClass)
+				.addStatement("$T chunk = new $T<>(bulkChunkSize)", listOfDto, arrayListClass)
+				.beginControlFlow("try")
+				.beginControlFlow("while (rows.hasNext())")
+				.addStatement("chunk.add(rows.next())")
+				.addStatement("report.setRowsRead(report.getRowsRead() + 1)")
+				.beginControlFlow("if (chunk.size() == bulkChunkSize)")
+				.addStatement("importChunk(chunk, report)")
+				.addStatement("chunk.clear()")
+				.endControlFlow()
+				.endControlFlow()
+				.nextControlFlow("catch ($T e)", RuntimeException.class)
+				.addStatement("long badRow = report.getRowsRead() + 1")
+				.addStatement("report.getErrors().add(new $T(0, badRow, badRow, e.getMessage()))", chunkErrorClass)
+				.endControlFlow()
+				.addStatement("importChunk(chunk, report)")
+				.addStatement("return report").build();
+
+		MethodSpec importChunkMethod = MethodSpec.methodBuilder("importChunk").addModifiers(Modifier.PRIVATE)
+				.returns(TypeName.VOID).addParameter(listOfDto, "chunk").addParameter(importReportClass, "report")
+				.beginControlFlow("if (chunk.isEmpty())").addStatement("return").endControlFlow()
+				.addStatement("int chunkNo = report.getChunks() + 1")
+				.addStatement("long firstRow = report.getRowsRead() - chunk.size() + 1")
+				.addStatement("report.setChunks(chunkNo)")
+				.beginControlFlow("try")
+				.beginControlFlow("transactionTemplate.executeWithoutResult(status ->")
+				.addStatement("repository.saveAll(chunk.stream().map(mapper::toEntity).toList())")
+				.addStatement("repository.flush()")
+				.addStatement("entityManager.clear()")
+				.endControlFlow(")")
+				.addStatement("report.setRowsImported(report.getRowsImported() + chunk.size())")
+				.nextControlFlow("catch ($T e)", RuntimeException.class)
+				.addStatement("report.getErrors().add(new $T(chunkNo, firstRow, firstRow + chunk.size() - 1, e.getMessage()))",
+						chunkErrorClass)
+				.endControlFlow().build();
 
 		/*
 		 * Finder wrappers for each scalar field:
@@ -160,6 +521,9 @@ public class ServiceWriter {
 		 */
 		List<MethodSpec> finderWrapperMethods = new ArrayList<>();
 		for (ScalarFieldInfo sf : scalarFields) {
+			if (!sf.finder()) {
+				continue;
+			}
 			String fieldName = sf.javaFieldName();
 			TypeName fieldType = sf.javaType();
 			String repoMethodName = "findBy" + NamingUtils.upperFirst(fieldName);
@@ -174,18 +538,390 @@ public class ServiceWriter {
 			finderWrapperMethods.add(finderWrapper);
 		}
 
+		/*
+		 * Projections of the paged reads (direct resource mapping):
+		 *
+		 * public <R> PageDto<R> findAll(int pageNumber, int maxRecordsPerPage, Function<? super User, ? extends R> projection) {
+		 *     return toPageDto(repository.findAll(PageRequest.of(pageNumber, maxRecordsPerPage)), projection);
+		 * }
+		 * public <R> PageDto<R> findByStatus(String status, int pageNumber, int maxRecordsPerPage, Function<...> projection)
+		 */
+		List<MethodSpec> projectionMethods = new ArrayList<>();
+		if (projections) {
+			TypeVariableName r = TypeVariableName.get("R");
+			TypeName pageDtoOfR = ParameterizedTypeName.get(pageDtoClass, r);
+			ParameterSpec projectionParam = ParameterSpec.builder(ParameterizedTypeName.get(
+					ClassName.get("java.util.function", "Function"), WildcardTypeName.supertypeOf(entityClass),
+					WildcardTypeName.subtypeOf(r)), "projection").build();
+
+			projectionMethods.add(MethodSpec.methodBuilder("toPageDto").addModifiers(Modifier.PRIVATE)
+					.addTypeVariable(r).returns(pageDtoOfR).addParameter(pageOfEntity, "page")
+					.addParameter(projectionParam)
+					.addStatement("$T<$T> content = page.getContent().stream().<$T>map(projection).toList()", listClass, r, r)
+					.addStatement("return $L", PageObjectWriter.fromSpringPage(pageDtoClass, r, "content", records))
+					.build());
+			projectionMethods.add(MethodSpec.methodBuilder("findAll").addModifiers(Modifier.PUBLIC)
+					.addTypeVariable(r).returns(pageDtoOfR).addParameter(TypeName.INT, "pageNumber")
+					.addParameter(TypeName.INT, "maxRecordsPerPage").addParameter(projectionParam)
+					.addStatement("return toPageDto(repository.findAll($T.of(pageNumber, maxRecordsPerPage)), projection)",
+							pageRequestClass)
+					.build());
+			for (ScalarFieldInfo sf : scalarFields) {
+				if (!sf.finder()) {
+					continue;
+				}
+				String repoMethodName = "findBy" + NamingUtils.upperFirst(sf.javaFieldName());
+				projectionMethods.add(MethodSpec.methodBuilder(repoMethodName).addModifiers(Modifier.PUBLIC)
+						.addTypeVariable(r).returns(pageDtoOfR).addParameter(sf.javaType(), sf.javaFieldName())
+						.addParameter(TypeName.INT, "pageNumber").addParameter(TypeName.INT, "maxRecordsPerPage")
+						.addParameter(projectionParam)
+						.addStatement("return toPageDto(repository.$L($L, $T.of(pageNumber, maxRecordsPerPage)), projection)",
+								repoMethodName, sf.javaFieldName(), pageRequestClass)
+						.build());
+			}
+		}
+
+		/*
+		 * Batch fetch by ids, one query per chunk, results in request order (missing ids skipped):
+		 *
+		 * public List<UserDto> findAllById(List<Long> ids) {
+		 *     List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+		 *     Map<Long, User> found = new HashMap<>();
+		 *     for (int from = 0; from < distinct.size(); from += idChunkSize) {
+		 *         for (User e : repository.findAllById(distinct.subList(from, Math.min(from + idChunkSize, distinct.size())))) {
+		 *             found.put(e.getId(), e);
+		 *         }
+		 *     }
+		 *     return ids.stream().map(found::get).filter(Objects::nonNull).map(mapper::toDto).toList();
+		 * }
+		 */
+		ClassName objectsClass = ClassName.get("java.util", "Objects");
+		MethodSpec findAllByIdMethod = MethodSpec.methodBuilder("findAllById").addModifiers(Modifier.PUBLIC)
+				.returns(ParameterizedTypeName.get(listClass, dtoClass))
+				.addParameter(ParameterizedTypeName.get(listClass, idType), "ids")
+				.addStatement("$T<$T> distinct = ids.stream().filter($T::nonNull).distinct().toList()", listClass, idType,
+						objectsClass)
+				.addStatement("$T<$T, $T> found = new $T<>()", ClassName.get("java.util", "Map"), idType, entityClass,
+						ClassName.get("java.util", "HashMap"))
+				.beginControlFlow("for (int from = 0; from < distinct.size(); from += idChunkSize)")
+				.beginControlFlow(
+						"for ($T e : repository.findAllById(distinct.subList(from, Math.min(from + idChunkSize, distinct.size()))))",
+						entityClass)
+				.addStatement("found.put(e.$L(), e)", NamingUtils.getterName(idFieldName, idType))
+				.endControlFlow()
+				.endControlFlow()
+				.addStatement("return ids.stream().map(found::get).filter($T::nonNull).map(mapper::toDto).toList()",
+						objectsClass)
+				.build();
+
+		/*
+		 * Range wrappers for indexed temporal/numeric fields:
+		 *
+		 * public PageDto<OrderDto> findByOrderedAtRange(OffsetDateTime from, OffsetDateTime to, int pageNumber,
+		 *         int maxRecordsPerPage) {
+		 *     PageRequest pageable = PageRequest.of(pageNumber, maxRecordsPerPage, Sort.by("orderedAt", "id"));
+		 *     Page<Order> p;
+		 *     if (from != null && to != null) p = repository.findByOrderedAtBetween(from, to, pageable);
+		 *     else if (from != null) p = repository.findByOrderedAtGreaterThanEqual(from, pageable);
+		 *     else if (to != null) p = repository.findByOrderedAtLessThanEqual(to, pageable);
+		 *     else throw new IllegalArgumentException("from or to is required");
+		 *     return toPageDto(p);
+		 * }
+		 *
+		 * public List<OrderDto> scanByOrderedAt(OffsetDateTime from, OffsetDateTime to, OffsetDateTime after,
+		 *         Long afterId, int limit) {
+		 *     if ((after == null) != (afterId == null)) throw new IllegalArgumentException("after and afterId go together");
+		 *     ScrollPosition position = after == null ? ScrollPosition.keyset()
+		 *             : ScrollPosition.forward(Map.of("orderedAt", after, "id", afterId));
+		 *     Window<Order> w;
+		 *     if (from != null && to != null) w = repository.findByOrderedAtBetweenOrderByOrderedAtAscIdAsc(from, to, position, Limit.of(limit));
+		 *     else if (from != null) w = repository.findByOrderedAtGreaterThanEqualOrderByOrderedAtAscIdAsc(from, position, Limit.of(limit));
+		 *     else if (to != null) w = repository.findByOrderedAtLessThanEqualOrderByOrderedAtAscIdAsc(to, position, Limit.of(limit));
+		 *     else throw new IllegalArgumentException("from or to is required");
+		 *     return w.getContent().stream().map(mapper::toDto).toList();
+		 * }
+		 */
+		ClassName sortClass = ClassName.get("org.springframework.data.domain", "Sort");
+		ClassName scrollPositionClass = ClassName.get("org.springframework.data.domain", "ScrollPosition");
+		ClassName windowClass = ClassName.get("org.springframework.data.domain", "Window");
+		ClassName limitClass = ClassName.get("org.springframework.data.domain", "Limit");
+		boolean keyset = SpecificationWriter.parser(idType) != null;
+		for (ScalarFieldInfo sf : scalarFields) {
+			if (!sf.range()) {
+				continue;
+			}
+			String fieldName = sf.javaFieldName();
+			String field = NamingUtils.upperFirst(fieldName);
+			TypeName boundType = sf.javaType().isPrimitive() ? sf.javaType().box() : sf.javaType();
+
+			finderWrapperMethods.add(MethodSpec.methodBuilder("findBy" + field + "Range").addModifiers(Modifier.PUBLIC)
+					.returns(ParameterizedTypeName.get(pageDtoClass, dtoClass))
+					.addParameter(boundType, "from").addParameter(boundType, "to")
+					.addParameter(TypeName.INT, "pageNumber").addParameter(TypeName.INT, "maxRecordsPerPage")
+					.addStatement(keyset
+							? "$T pageable = $T.of(pageNumber, maxRecordsPerPage, $T.by($S, $S))"
+							: "$T pageable = $T.of(pageNumber, maxRecordsPerPage, $T.by($S))",
+							pageRequestClass, pageRequestClass, sortClass, fieldName, idFieldName)
+					.addStatement("$T p", pageOfEntity)
+					.beginControlFlow("if (from != null && to != null)")
+					.addStatement("p = repository.findBy$LBetween(from, to, pageable)", field)
+					.nextControlFlow("else if (from != null)")
+					.addStatement("p = repository.findBy$LGreaterThanEqual(from, pageable)", field)
+					.nextControlFlow("else if (to != null)")
+					.addStatement("p = repository.findBy$LLessThanEqual(to, pageable)", field)
+					.nextControlFlow("else")
+					.addStatement("throw new $T($S)", IllegalArgumentException.class, "from or to is required")
+					.endControlFlow()
+					.addStatement("return toPageDto(p)").build());
+
+			if (keyset) {
+				String orderBy = "OrderBy" + field + "Asc" + NamingUtils.upperFirst(idFieldName) + "Asc";
+				finderWrapperMethods.add(MethodSpec.methodBuilder("scanBy" + field).addModifiers(Modifier.PUBLIC)
+						.returns(ParameterizedTypeName.get(listClass, dtoClass))
+						.addParameter(boundType, "from").addParameter(boundType, "to")
+						.addParameter(boundType, "after").addParameter(idType, "afterId")
+						.addParameter(TypeName.INT, "limit")
+						.beginControlFlow("if ((after == null) != (afterId == null))")
+						.addStatement("throw new $T($S)", IllegalArgumentException.class, "after and afterId go together")
+						.endControlFlow()
+						.addStatement("$T position = after == null ? $T.keyset()\n"
+								+ ": $T.forward($T.of($S, after, $S, afterId))", scrollPositionClass, scrollPositionClass,
+								scrollPositionClass, ClassName.get("java.util", "Map"), fieldName, idFieldName)
+						.addStatement("$T w", ParameterizedTypeName.get(windowClass, entityClass))
+						.beginControlFlow("if (from != null && to != null)")
+						.addStatement("w = repository.findBy$LBetween$L(from, to, position, $T.of(limit))", field, orderBy,
+								limitClass)
+						.nextControlFlow("else if (from != null)")
+						.addStatement("w = repository.findBy$LGreaterThanEqual$L(from, position, $T.of(limit))", field,
+								orderBy, limitClass)
+						.nextControlFlow("else if (to != null)")
+						.addStatement("w = repository.findBy$LLessThanEqual$L(to, position, $T.of(limit))", field,
+								orderBy, limitClass)
+						.nextControlFlow("else")
+						.addStatement("throw new $T($S)", IllegalArgumentException.class, "from or to is required")
+						.endControlFlow()
+						.addStatement("return w.getContent().stream().map(mapper::toDto).toList()")
+						.build());
+			}
+		}
+
+		/*
+		 * Multi-column filter (GET /search):
+		 *
+		 * public PageDto<UserDto> search(Map<String, List<String>> filter, List<String> sort, int pageNumber,
+		 *         int maxRecordsPerPage) {
+		 *     Specification<User> spec = UsersSpecifications.of(filter);
+		 *     Page<User> p = repository.findAll(spec, PageRequest.of(pageNumber, maxRecordsPerPage, UsersSpecifications.sort(sort)));
+		 *     return toPageDto(p);
+		 * }
+		 */
+		ClassName specificationsClass = ClassName.get(SwordWizard.REPOSITORY_PKG,
+				NamingUtils.pluralizeSimpleName(entitySimpleName) + "Specifications");
+		TypeName listOfString = ParameterizedTypeName.get(listClass, ClassName.get(String.class));
+		MethodSpec searchMethod = MethodSpec.methodBuilder("search").addModifiers(Modifier.PUBLIC)
+				.returns(ParameterizedTypeName.get(pageDtoClass, dtoClass))
+				.addParameter(ParameterizedTypeName.get(ClassName.get("java.util", "Map"), ClassName.get(String.class),
+						listOfString), "filter")
+				.addParameter(listOfString, "sort")
+				.addParameter(TypeName.INT, "pageNumber").addParameter(TypeName.INT, "maxRecordsPerPage")
+				.addStatement("$T spec = $T.of(filter)",
+						ParameterizedTypeName.get(ClassName.get("org.springframework.data.jpa.domain", "Specification"),
+								entityClass),
+						specificationsClass)
+				.addStatement("$T p = repository.findAll(spec, $T.of(pageNumber, maxRecordsPerPage, $T.sort(sort)))",
+						pageOfEntity, pageRequestClass, specificationsClass)
+				.addStatement("return toPageDto(p)").build();
+
+		/*
+		 * LOB streaming, per LOB field:
+		 *
+		 * public boolean readContent(Long id, OutputStream out) throws IOException {
+		 *     Blob blob = repository.findContentById(id).orElse(null);
+		 *     if (blob == null) return false;
+		 *     try (InputStream in = blob.getBinaryStream()) { in.transferTo(out); }
+		 *     catch (SQLException e) { throw new IOException(e); }
+		 *     return true;
+		 * }
+		 *
+		 * public boolean writeContent(Long id, InputStream in, long length) {
+		 *     return repository.updateContent(id, BlobProxy.generateProxy(in, length)) > 0;
+		 * }
+		 */
+		ClassName blobClass = ClassName.get("java.sql", "Blob");
+		ClassName inputStreamClass = ClassName.get("java.io", "InputStream");
+		List<MethodSpec> lobReadMethods = new ArrayList<>();
+		List<MethodSpec> lobWriteMethods = new ArrayList<>();
+		for (ScalarFieldInfo lob : lobFields) {
+			String field = NamingUtils.upperFirst(lob.javaFieldName());
+			lobReadMethods.add(MethodSpec.methodBuilder("read" + field).addModifiers(Modifier.PUBLIC)
+					.returns(TypeName.BOOLEAN).addParameter(idType, "id")
+					.addParameter(ClassName.get("java.io", "OutputStream"), "out")
+					.addException(IOException.class)
+					.addStatement("$T blob = repository.find$LById(id).orElse(null)", blobClass, field)
+					.beginControlFlow("if (blob == null)").addStatement("return false").endControlFlow()
+					.beginControlFlow("try ($T in = blob.getBinaryStream())", inputStreamClass)
+					.addStatement("in.transferTo(out)")
+					.nextControlFlow("catch ($T e)", ClassName.get("java.sql", "SQLException"))
+					.addStatement("throw new $T(e)", IOException.class)
+					.endControlFlow()
+					.addStatement("return true").build());
+			lobWriteMethods.add(MethodSpec.methodBuilder("write" + field).addModifiers(Modifier.PUBLIC)
+					.returns(TypeName.BOOLEAN).addParameter(idType, "id").addParameter(inputStreamClass, "in")
+					.addParameter(TypeName.LONG, "length")
+					.addStatement("return repository.update$L(id, $T.generateProxy(in, length)) > 0", field,
+							ClassName.get("org.hibernate.engine.jdbc", "BlobProxy"))
+					.build());
+		}
+
+		/*
+		 * Transaction boundaries (read-only services use one class-level
+		 * @Transactional(readOnly = true) instead):
+		 *
+		 * @Transactional(readOnly = true) findAll / findById / findAllById / findBy<Field> / search
+		 *     Hibernate skips dirty checking and flushes, the JDBC connection is marked
+		 *     read-only (and routed to the replica when ReadReplicaConfig is generated)
+		 * @Transactional save / update / patch / delete (bulk methods already have it)
+		 *
+		 * importAll stays non-transactional: each chunk commits in its own transaction.
+		 */
+		if (!readOnly) {
+			AnnotationSpec readOnlyTx = AnnotationSpec.builder(transactionalAnn).addMember("readOnly", "$L", true)
+					.build();
+			findAllMethod = findAllMethod.toBuilder().addAnnotation(readOnlyTx).build();
+			findByIdMethod = findByIdMethod.toBuilder().addAnnotation(readOnlyTx).build();
+			findAllByIdMethod = findAllByIdMethod.toBuilder().addAnnotation(readOnlyTx).build();
+			existsByIdMethod = existsByIdMethod.toBuilder().addAnnotation(readOnlyTx).build();
+			finderWrapperMethods.replaceAll(m -> m.toBuilder().addAnnotation(readOnlyTx).build());
+			projectionMethods.replaceAll(m -> m.modifiers.contains(Modifier.PUBLIC)
+					? m.toBuilder().addAnnotation(readOnlyTx).build()
+					: m);
+			searchMethod = searchMethod.toBuilder().addAnnotation(readOnlyTx).build();
+			lobReadMethods.replaceAll(m -> m.toBuilder().addAnnotation(readOnlyTx).build());
+			lobWriteMethods.replaceAll(m -> m.toBuilder().addAnnotation(transactionalAnn).build());
+
+			saveMethod = saveMethod.toBuilder().addAnnotation(transactionalAnn).build();
+			updateMethod = updateMethod.toBuilder().addAnnotation(transactionalAnn).build();
+			patchMethod = patchMethod.toBuilder().addAnnotation(transactionalAnn).build();
+			deleteMethod = deleteMethod.toBuilder().addAnnotation(transactionalAnn).build();
+		}
+
+		/*
+		 * Read-through caching:
+		 *
+		 * @Cacheable(cacheNames = "User.byId", unless = "#result == null") findById
+		 * @Cacheable(cacheNames = "User.queries", keyGenerator = "queryKeyGenerator") findAll / findBy<Field>
+		 *     (the finders share the cache: the key generator of CacheConfig adds the method name)
+		 * @Caching(put = @CachePut(cacheNames = "User.byId", key = "#result.getId()"), evict = ...) save
+		 *     (composite ids: evict both caches, as saveAll / importAll do)
+		 * @Caching(put = @CachePut(cacheNames = "User.byId", key = "#id"), evict = ...) update
+		 * @Caching(put = @CachePut(cacheNames = "User.byId", key = "#id", unless = "#result == null"), evict = ...) patch
+		 * @Caching(evict = { @CacheEvict(cacheNames = "User.byId", key = "#id"), ... }) delete
+		 * updateAll / deleteAll evict both caches (they bypass the per-id paths).
+		 */
+		if (cached) {
+			ClassName cacheableAnn = ClassName.get("org.springframework.cache.annotation", "Cacheable");
+			ClassName cachePutAnn = ClassName.get("org.springframework.cache.annotation", "CachePut");
+			ClassName cacheEvictAnn = ClassName.get("org.springframework.cache.annotation", "CacheEvict");
+			ClassName cachingAnn = ClassName.get("org.springframework.cache.annotation", "Caching");
+
+			String byIdCache = CacheConfigWriter.byIdCache(entitySimpleName);
+			String queriesCache = CacheConfigWriter.queriesCache(entitySimpleName);
+
+			AnnotationSpec cacheQueries = AnnotationSpec.builder(cacheableAnn).addMember("cacheNames", "$S", queriesCache)
+					.addMember("keyGenerator", "$S", CacheConfigWriter.QUERY_KEY_GENERATOR).build();
+			AnnotationSpec evictQueries = AnnotationSpec.builder(cacheEvictAnn)
+					.addMember("cacheNames", "$S", queriesCache).addMember("allEntries", "$L", true).build();
+			AnnotationSpec evictAllById = AnnotationSpec.builder(cacheEvictAnn)
+					.addMember("cacheNames", "$S", byIdCache).addMember("allEntries", "$L", true).build();
+
+			findByIdMethod = findByIdMethod.toBuilder()
+					.addAnnotation(AnnotationSpec.builder(cacheableAnn).addMember("cacheNames", "$S", byIdCache)
+							.addMember("unless", "$S", "#result == null").build())
+					.build();
+			findAllMethod = findAllMethod.toBuilder().addAnnotation(cacheQueries).build();
+			finderWrapperMethods.replaceAll(m -> m.toBuilder().addAnnotation(cacheQueries).build());
+
+			AnnotationSpec evictBoth = AnnotationSpec.builder(cachingAnn).addMember("evict", "$L", evictAllById)
+					.addMember("evict", "$L", evictQueries).build();
+
+			// save may overwrite an existing row (POST with a known id): refresh its byId entry
+			if (idColumnCount > 1) {
+				// the DTO carries the key columns, not the embedded id the entries are keyed by
+				saveMethod = saveMethod.toBuilder().addAnnotation(evictBoth).build();
+			} else {
+				String resultId = "#result." + NamingUtils.accessorName(idFieldName, idType, records) + "()";
+				saveMethod = saveMethod.toBuilder()
+						.addAnnotation(AnnotationSpec.builder(cachingAnn)
+								.addMember("put", "$L", AnnotationSpec.builder(cachePutAnn)
+										.addMember("cacheNames", "$S", byIdCache).addMember("key", "$S", resultId)
+										.build())
+								.addMember("evict", "$L", evictQueries).build())
+						.build();
+			}
+			saveAllMethod = saveAllMethod.toBuilder().addAnnotation(evictBoth).build();
+			importAllMethod = importAllMethod.toBuilder().addAnnotation(evictBoth).build();
+
+			updateMethod = updateMethod.toBuilder()
+					.addAnnotation(AnnotationSpec.builder(cachingAnn)
+							.addMember("put", "$L", AnnotationSpec.builder(cachePutAnn)
+									.addMember("cacheNames", "$S", byIdCache).addMember("key", "$S", "#id").build())
+							.addMember("evict", "$L", evictQueries).build())
+					.build();
+			patchMethod = patchMethod.toBuilder()
+					.addAnnotation(AnnotationSpec.builder(cachingAnn)
+							.addMember("put", "$L", AnnotationSpec.builder(cachePutAnn)
+									.addMember("cacheNames", "$S", byIdCache).addMember("key", "$S", "#id")
+									.addMember("unless", "$S", "#result == null").build())
+							.addMember("evict", "$L", evictQueries).build())
+					.build();
+			deleteMethod = deleteMethod.toBuilder()
+					.addAnnotation(AnnotationSpec.builder(cachingAnn)
+							.addMember("evict", "$L", AnnotationSpec.builder(cacheEvictAnn)
+									.addMember("cacheNames", "$S", byIdCache).addMember("key", "$S", "#id").build())
+							.addMember("evict", "$L", evictQueries).build())
+					.build();
+
+			updateAllMethod = updateAllMethod.toBuilder().addAnnotation(evictBoth).build();
+			deleteAllMethod = deleteAllMethod.toBuilder().addAnnotation(evictBoth).build();
+			if (upsertAllMethod != null) {
+				upsertAllMethod = upsertAllMethod.toBuilder().addAnnotation(evictBoth).build();
+			}
+			deleteByMethods.replaceAll(m -> m.toBuilder().addAnnotation(evictBoth).build());
+		}
+
 		// build the service class
 		String serviceSimpleName = NamingUtils.pluralizeSimpleName(entitySimpleName) + "Service";
 
 		TypeSpec.Builder serviceType = TypeSpec.classBuilder(serviceSimpleName).addModifiers(Modifier.PUBLIC)
 				.addAnnotation(ClassName.get("org.springframework.stereotype", "Service")).addAnnotation(generatedAnn)
-				.addField(repoField).addField(mapperField).addMethod(ctor).addMethod(toPageDtoMethod)
-				.addMethod(findAllMethod).addMethod(findByIdMethod).addMethod(saveMethod).addMethod(updateMethod)
-				.addMethod(deleteMethod);
+				.addField(repoField).addField(mapperField).addField(entityManagerField).addField(idChunkSizeField);
+
+		if (readOnly) {
+			serviceType.addAnnotation(AnnotationSpec.builder(transactionalAnn).addMember("readOnly", "$L", true).build())
+					.addMethod(ctor).addMethod(toPageDtoMethod).addMethod(findAllMethod).addMethod(findByIdMethod)
+					.addMethod(findAllByIdMethod).addMethod(existsByIdMethod).addMethod(exportAllMethod);
+		} else {
+			serviceType.addField(chunkSizeField).addField(transactionTemplateField)
+					.addMethod(ctor).addMethod(toPageDtoMethod).addMethod(findAllMethod).addMethod(findByIdMethod)
+					.addMethod(findAllByIdMethod).addMethod(existsByIdMethod).addMethod(saveMethod).addMethod(updateMethod).addMethod(patchMethod).addMethod(deleteMethod).addMethod(saveAllMethod)
+					.addMethod(updateAllMethod).addMethod(deleteAllMethod).addMethod(exportAllMethod)
+					.addMethod(importAllMethod).addMethod(importChunkMethod);
+			if (upsertAllMethod != null) {
+				serviceType.addMethod(upsertAllMethod);
+			}
+			serviceType.addMethods(deleteByMethods);
+		}
+
+		serviceType.addMethods(lobReadMethods);
+		if (!readOnly) {
+			serviceType.addMethods(lobWriteMethods);
+		}
 
 		for (MethodSpec m : finderWrapperMethods) {
 			serviceType.addMethod(m);
 		}
+		serviceType.addMethods(projectionMethods);
+		serviceType.addMethod(searchMethod);
 
 		JavaFile.builder(SwordWizard.SERVICE_PKG, serviceType.build()).build().writeTo(rootPath);
 	}
@@ -0,0 +1,152 @@
+package org.cheetah.sword.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Locale;
+
+import javax.lang.model.element.Modifier;
+
+import org.cheetah.sword.wizard.SwordWizard;
+import org.springframework.stereotype.Component;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+/**
+ * Generates SwordSmokeLoadTest, a JUnit 5 test of the bootstrapped application (see
+ * ApplicationConfigWriter): the application starts on a random port against its
+ * configured database, then targetConcurrency clients, one thread each, read the
+ * first page of every generated controller and every response must be a 200. The
+ * throughput of each endpoint is printed.
+ *
+ * @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+ * class SwordSmokeLoadTest {
+ *     @ParameterizedTest
+ *     @ValueSource(strings = {"/customer", "/order"})
+ *     void pagedListUnderLoad(String path) throws Exception { ... }
+ * }
+ *
+ * The test goes to src/test/java when the output root is src/main/java (skipped for
+ * other layouts), in the parent package of the entities, which must be the package of
+ * the @SpringBootApplication class or below it. It needs spring-boot-starter-test and
+ * runs on Java 17 too (the server then stays on platform threads); it only reads, so it
+ * can run against any environment.
+ */
+@Component
+public class SmokeLoadTestWriter {
+
+	static final String TEST_CLASS = "SwordSmokeLoadTest";
+	static final int REQUESTS_PER_CLIENT = 5;
+
+	public void writeSmokeLoadTest(Path rootPath, List<String> entitySimpleNames, int concurrency)
+			throws IOException {
+		Path testRoot = testRoot(rootPath);
+		if (testRoot == null) {
+			System.out.printf("   Skipped %s: output root is not a src/main/java folder%n", TEST_CLASS);
+			return;
+		}
+		if (entitySimpleNames.isEmpty()) {
+			return;
+		}
+
+		ClassName httpClient = ClassName.get("java.net.http", "HttpClient");
+		ClassName httpRequest = ClassName.get("java.net.http", "HttpRequest");
+		ClassName httpResponse = ClassName.get("java.net.http", "HttpResponse");
+		ClassName atomicInteger = ClassName.get("java.util.concurrent.atomic", "AtomicInteger");
+		ClassName executorService = ClassName.get("java.util.concurrent", "ExecutorService");
+		ClassName executors = ClassName.get("java.util.concurrent", "Executors");
+		ClassName assertions = ClassName.get("org.junit.jupiter.api", "Assertions");
+
+		CodeBlock.Builder paths = CodeBlock.builder();
+		for (int i = 0; i < entitySimpleNames.size(); i++) {
+			paths.add(i == 0 ? "$S" : ", $S", "/" + entitySimpleNames.get(i).toLowerCase(Locale.ROOT));
+		}
+
+		MethodSpec pagedListUnderLoad = MethodSpec.methodBuilder("pagedListUnderLoad")
+				.addJavadoc("CONCURRENCY clients x REQUESTS_PER_CLIENT first-page reads of one controller.\n")
+				.addAnnotation(ClassName.get("org.junit.jupiter.params", "ParameterizedTest"))
+				.addAnnotation(AnnotationSpec.builder(ClassName.get("org.junit.jupiter.params.provider", "ValueSource"))
+						.addMember("strings", "{$L}", paths.build()).build())
+				.addParameter(String.class, "path").addException(Exception.class)
+				.addStatement("$T uri = $T.create(\"http://localhost:\" + port + path + \"?pageNumber=0&pageSize=20\")",
+						ClassName.get("java.net", "URI"), ClassName.get("java.net", "URI"))
+				.addStatement("$T client = $T.newBuilder().version($T.Version.HTTP_1_1).build()", httpClient,
+						httpClient, httpClient)
+				.addStatement("$T failures = new $T()", atomicInteger, atomicInteger)
+				.addStatement("long start = System.nanoTime()")
+				.addStatement("$T clients = $T.newFixedThreadPool(CONCURRENCY)", executorService, executors)
+				.beginControlFlow("for (int i = 0; i < CONCURRENCY; i++)")
+				.addCode("clients.submit(() -> {\n$>")
+				.beginControlFlow("for (int r = 0; r < REQUESTS_PER_CLIENT; r++)")
+				.beginControlFlow("try")
+				.addStatement("$T<Void> response = client.send($T.newBuilder(uri).build(), $T.BodyHandlers.discarding())",
+						httpResponse, httpRequest, httpResponse)
+				.beginControlFlow("if (response.statusCode() != 200)")
+				.addStatement("failures.incrementAndGet()")
+				.endControlFlow()
+				.nextControlFlow("catch ($T | $T e)", ClassName.get("java.io", "IOException"), InterruptedException.class)
+				.addStatement("failures.incrementAndGet()")
+				.endControlFlow()
+				.endControlFlow()
+				.addCode("$<});\n")
+				.endControlFlow()
+				.addStatement("clients.shutdown()")
+				.addStatement("$T.assertTrue(clients.awaitTermination(2, $T.MINUTES), path + $S)", assertions,
+						ClassName.get("java.util.concurrent", "TimeUnit"), ": clients still running")
+				.addStatement("long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000)")
+				.addStatement("int requests = CONCURRENCY * REQUESTS_PER_CLIENT")
+				.addStatement("System.out.printf($S, path, requests, CONCURRENCY, millis, requests * 1000L / millis)",
+						"%s: %d requests from %d clients in %d ms (%d req/s)%n")
+				.addStatement("$T.assertEquals(0, failures.get(), path + $S)", assertions, ": failed requests")
+				.build();
+
+		ClassName springBootTest = ClassName.get("org.springframework.boot.test.context", "SpringBootTest");
+		AnnotationSpec generatedAnn = AnnotationSpec.builder(ClassName.get("jakarta.annotation", "Generated"))
+				.addMember("value", "$S", "S.W.O.R.D.").addMember("date", "$S", OffsetDateTime.now().toString())
+				.build();
+
+		TypeSpec test = TypeSpec.classBuilder(TEST_CLASS)
+				.addJavadoc("Every generated controller under $L concurrent clients.\n", concurrency)
+				.addAnnotation(AnnotationSpec.builder(springBootTest)
+						.addMember("webEnvironment", "$T.WebEnvironment.RANDOM_PORT", springBootTest).build())
+				.addAnnotation(generatedAnn)
+				.addField(FieldSpec.builder(TypeName.INT, "CONCURRENCY", Modifier.STATIC, Modifier.FINAL)
+						.initializer("$L", concurrency).build())
+				.addField(FieldSpec.builder(TypeName.INT, "REQUESTS_PER_CLIENT", Modifier.STATIC, Modifier.FINAL)
+						.initializer("$L", REQUESTS_PER_CLIENT).build())
+				.addField(FieldSpec.builder(TypeName.INT, "port")
+						.addAnnotation(ClassName.get("org.springframework.boot.test.web.server", "LocalServerPort")).build())
+				.addMethod(pagedListUnderLoad).build();
+
+		JavaFile.builder(applicationPackage(), test).build().writeTo(testRoot);
+		System.out.printf("   Smoke load test    : %s%n",
+				testRoot.resolve(applicationPackage().replace('.', '/')).resolve(TEST_CLASS + ".java"));
+	}
+
+	/** "src/test/java" next to a "src/main/java" output root, null for any other layout. */
+	static Path testRoot(Path rootPath) {
+		Path abs = rootPath.toAbsolutePath().normalize();
+		Path main = abs.getParent();
+		if (abs.getFileName() == null || !"java".equals(abs.getFileName().toString()) || main == null
+				|| main.getFileName() == null || !"main".equals(main.getFileName().toString())
+				|| main.getParent() == null) {
+			return null;
+		}
+		return main.getParent().resolve("test").resolve("java");
+	}
+
+	/** Parent of the entity package: com.acme.entities -> com.acme. */
+	private static String applicationPackage() {
+		String entityPkg = SwordWizard.ENTITY_PKG;
+		int idx = entityPkg.lastIndexOf('.');
+		return idx <= 0 ? entityPkg : entityPkg.substring(0, idx);
+	}
+}
@@ -0,0 +1,235 @@
+package org.cheetah.sword.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.lang.model.element.Modifier;
+
+import org.cheetah.sword.service.records.ScalarFieldInfo;
+import org.cheetah.sword.util.NamingUtils;
+import org.cheetah.sword.wizard.SwordWizard;
+import org.springframework.stereotype.Component;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.TypeVariableName;
+import com.squareup.javapoet.WildcardTypeName;
+
+/**
+ * Generates the JPA Specification factory behind GET /search, next to the repository
+ * (which extends JpaSpecificationExecutor).
+ *
+ * Query parameters are turned into one Specification, so the whole filter runs as a
+ * single query on the database:
+ * - <field>=v            equality; a repeated parameter means IN (status=NEW&status=PAID)
+ * - <field>.gt|gte|lt|lte=v  range
+ * - <field>.prefix=v     LIKE 'v%' (String fields only, wildcards in v are escaped)
+ *
+ * public final class OrdersSpecifications {
+ *     public static final Set<String> SORTABLE = Set.of("id", "status", "amount");
+ *     public static Specification<Order> of(Map<String, List<String>> filter) { ... }
+ *     public static Sort sort(List<String> sort) { ... }   // "-amount" sorts descending
+ * }
+ *
+ * Values are parsed eagerly: an unknown field or operator, or a value that does not
+ * parse, is an IllegalArgumentException before any query runs (400 in the controller).
+ * Filterable fields are the simple id and the scalar fields with a finder, when their type
+ * can be parsed from text (strings, numbers, booleans, UUID, java.time). Sortable fields are
+ * the filterable ones that lead an index (EntityModel.indexedCols): sorting a large table on
+ * any other column is a full sort of every matching row.
+ */
+@Component
+public class SpecificationWriter {
+
+	public void writeSpecifications(Path rootPath, String entitySimpleName, TypeName idType, String idFieldName,
+			List<ScalarFieldInfo> scalarFields, AnnotationSpec generatedAnn) throws IOException {
+
+		ClassName entityClass = ClassName.get(SwordWizard.ENTITY_PKG, entitySimpleName);
+		ClassName specificationClass = ClassName.get("org.springframework.data.jpa.domain", "Specification");
+		ClassName sortClass = ClassName.get("org.springframework.data.domain", "Sort");
+		ClassName listClass = ClassName.get("java.util", "List");
+		ClassName mapClass = ClassName.get("java.util", "Map");
+		ClassName setClass = ClassName.get("java.util", "Set");
+		ClassName arrayListClass = ClassName.get("java.util", "ArrayList");
+		TypeName specOfEntity = ParameterizedTypeName.get(specificationClass, entityClass);
+		TypeName listOfString = ParameterizedTypeName.get(listClass, ClassName.get(String.class));
+
+		// filterable fields: simple id first, then the scalar fields with an equality finder
+		List<ScalarFieldInfo> fields = new ArrayList<>();
+		if (idType != null && parser(idType) != null) {
+			fields.add(new ScalarFieldInfo(idFieldName, idType));
+		}
+		for (ScalarFieldInfo sf : scalarFields) {
+			if (sf.finder() && parser(sf.javaType()) != null && !sf.javaFieldName().equals(idFieldName)) {
+				fields.add(sf);
+			}
+		}
+
+		// sortable fields: the id and the filterable fields leading an index, so ORDER BY can walk it
+		List<String> sortableFields = fields.stream()
+				.filter(f -> f.javaFieldName().equals(idFieldName) || f.indexed())
+				.map(ScalarFieldInfo::javaFieldName).toList();
+		CodeBlock.Builder sortable = CodeBlock.builder().add("$T.of(", setClass);
+		for (int i = 0; i < sortableFields.size(); i++) {
+			sortable.add(i == 0 ? "$S" : ", $S", sortableFields.get(i));
+		}
+		FieldSpec sortableField = FieldSpec
+				.builder(ParameterizedTypeName.get(setClass, ClassName.get(String.class)), "SORTABLE",
+						Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+				.addJavadoc("Properties accepted by {@link #sort(List)}.\n").initializer(sortable.add(")").build())
+				.build();
+
+		/*
+		 * for (Map.Entry<String, List<String>> param : filter.entrySet()) {
+		 *     String key = param.getKey();
+		 *     int dot = key.indexOf('.');
+		 *     String field = dot < 0 ? key : key.substring(0, dot);
+		 *     String op = dot < 0 ? "eq" : key.substring(dot + 1);
+		 *     specs.add(switch (field) {
+		 *         case "amount" -> predicate(field, op, param.getValue(), BigDecimal::new);
+		 *         ...
+		 *         default -> throw new IllegalArgumentException("Unknown filter: " + key);
+		 *     });
+		 * }
+		 * return Specification.allOf(specs);
+		 */
+		CodeBlock.Builder cases = CodeBlock.builder();
+		for (ScalarFieldInfo f : fields) {
+			cases.add("case $S -> predicate(field, op, param.getValue(), $L);\n", f.javaFieldName(),
+					parser(f.javaType()));
+		}
+		MethodSpec of = MethodSpec.methodBuilder("of")
+				.addJavadoc("Builds the filter from query parameters (page and sort parameters removed).\n")
+				.addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.returns(specOfEntity)
+				.addParameter(ParameterizedTypeName.get(mapClass, ClassName.get(String.class), listOfString), "filter")
+				.addStatement("$T<$T> specs = new $T<>()", listClass, specOfEntity, arrayListClass)
+				.beginControlFlow("for ($T.Entry<$T, $T> param : filter.entrySet())", mapClass, String.class, listOfString)
+				.addStatement("$T key = param.getKey()", String.class)
+				.addStatement("int dot = key.indexOf('.')")
+				.addStatement("$T field = dot < 0 ? key : key.substring(0, dot)", String.class)
+				.addStatement("$T op = dot < 0 ? $S : key.substring(dot + 1)", String.class, "eq")
+				.addCode("specs.add(switch (field) {\n$>")
+				.addCode(cases.build())
+				.addStatement("default -> throw new $T($S + key)", IllegalArgumentException.class, "Unknown filter: ")
+				.addCode("$<});\n")
+				.endControlFlow()
+				.addStatement("return $T.allOf(specs)", specificationClass)
+				.build();
+
+		/*
+		 * One predicate; the values are parsed here, the lambdas only build criteria.
+		 */
+		TypeVariableName t = TypeVariableName.get("T", ParameterizedTypeName.get(ClassName.get(Comparable.class),
+				WildcardTypeName.supertypeOf(TypeVariableName.get("T"))));
+		ClassName functionClass = ClassName.get("java.util.function", "Function");
+		MethodSpec predicate = MethodSpec.methodBuilder("predicate")
+				.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.addTypeVariable(t)
+				.returns(specOfEntity)
+				.addParameter(String.class, "field")
+				.addParameter(String.class, "op")
+				.addParameter(listOfString, "values")
+				.addParameter(ParameterizedTypeName.get(functionClass, ClassName.get(String.class), TypeVariableName.get("T")),
+						"parse")
+				.addStatement("$T<T> args = new $T<>()", listClass, arrayListClass)
+				.beginControlFlow("for ($T value : values)", String.class)
+				.beginControlFlow("try")
+				.addStatement("args.add(parse.apply(value))")
+				.nextControlFlow("catch ($T e)", RuntimeException.class)
+				.addStatement("throw new $T($S + field + $S + value, e)", IllegalArgumentException.class, "Invalid ",
+						": ")
+				.endControlFlow()
+				.endControlFlow()
+				.beginControlFlow("if (!op.equals($S) && args.size() != 1)", "eq")
+				.addStatement("throw new $T(field + $S + op + $S)", IllegalArgumentException.class, ".",
+						" takes exactly one value")
+				.endControlFlow()
+				.addStatement("T arg = args.get(0)")
+				.addCode("return switch (op) {\n$>")
+				.addCode("case $S -> args.size() == 1\n$>? (root, query, cb) -> cb.equal(root.get(field), arg)\n"
+						+ ": (root, query, cb) -> root.get(field).in(args);\n$<", "eq")
+				.addCode("case $S -> (root, query, cb) -> cb.greaterThan(root.<T>get(field), arg);\n", "gt")
+				.addCode("case $S -> (root, query, cb) -> cb.greaterThanOrEqualTo(root.<T>get(field), arg);\n", "gte")
+				.addCode("case $S -> (root, query, cb) -> cb.lessThan(root.<T>get(field), arg);\n", "lt")
+				.addCode("case $S -> (root, query, cb) -> cb.lessThanOrEqualTo(root.<T>get(field), arg);\n", "lte")
+				.addCode("case $S -> {\n$>", "prefix")
+				.beginControlFlow("if (!(arg instanceof $T text))", String.class)
+				.addStatement("throw new $T(field + $S)", IllegalArgumentException.class, " is not text")
+				.endControlFlow()
+				.addStatement("$T pattern = text.replace($S, $S).replace($S, $S).replace($S, $S) + $S", String.class,
+						"\\", "\\\\", "%", "\\%", "_", "\\_", "%")
+				.addStatement("yield (root, query, cb) -> cb.like(root.<$T>get(field), pattern, '\\\\')", String.class)
+				.addCode("$<}\n")
+				.addStatement("default -> throw new $T($S + op)", IllegalArgumentException.class, "Unknown operator: ")
+				.addCode("$<};\n")
+				.build();
+
+		/*
+		 * sort=-orderedAt,id  ->  Sort.by(desc("orderedAt"), asc("id"))
+		 */
+		MethodSpec sort = MethodSpec.methodBuilder("sort")
+				.addJavadoc("Sort from property names, \"-\" prefix for descending; only {@link #SORTABLE} properties.\n")
+				.addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.returns(sortClass)
+				.addParameter(listOfString, "sort")
+				.beginControlFlow("if (sort == null || sort.isEmpty())")
+				.addStatement("return $T.unsorted()", sortClass)
+				.endControlFlow()
+				.addStatement("$T<$T.Order> orders = new $T<>()", listClass, sortClass, arrayListClass)
+				.beginControlFlow("for ($T s : sort)", String.class)
+				.addStatement("boolean desc = s.startsWith($S)", "-")
+				.addStatement("$T property = desc ? s.substring(1) : s", String.class)
+				.beginControlFlow("if (!SORTABLE.contains(property))")
+				.addStatement("throw new $T($S + property)", IllegalArgumentException.class, "Not sortable: ")
+				.endControlFlow()
+				.addStatement("orders.add(desc ? $T.Order.desc(property) : $T.Order.asc(property))", sortClass, sortClass)
+				.endControlFlow()
+				.addStatement("return $T.by(orders)", sortClass)
+				.build();
+
+		String simpleName = NamingUtils.pluralizeSimpleName(entitySimpleName) + "Specifications";
+		TypeSpec type = TypeSpec.classBuilder(simpleName).addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+				.addAnnotation(generatedAnn)
+				.addJavadoc("Filter and sort of GET /search for {@link $T}.\n", entityClass)
+				.addField(sortableField)
+				.addMethod(MethodSpec.constructorBuilder().addModifiers(Modifier.PRIVATE).build())
+				.addMethod(of)
+				.addMethod(sort)
+				.addMethod(predicate)
+				.build();
+
+		JavaFile.builder(SwordWizard.REPOSITORY_PKG, type).build().writeTo(rootPath);
+	}
+
+	/**
+	 * Text-to-value function for a filterable type, or null when the type cannot be
+	 * filtered (byte[], JSON documents, arrays, embedded ids...).
+	 */
+	static CodeBlock parser(TypeName type) {
+		TypeName boxed = type.isPrimitive() ? type.box() : type;
+		if (!(boxed instanceof ClassName cn)) {
+			return null;
+		}
+		return switch (cn.canonicalName()) {
+			case "java.lang.String" -> CodeBlock.of("value -> value");
+			case "java.lang.Long", "java.lang.Integer", "java.lang.Short", "java.lang.Byte", "java.lang.Double",
+					"java.lang.Float", "java.lang.Boolean" -> CodeBlock.of("$T::valueOf", cn);
+			case "java.math.BigDecimal", "java.math.BigInteger" -> CodeBlock.of("$T::new", cn);
+			case "java.util.UUID" -> CodeBlock.of("$T::fromString", cn);
+			case "java.time.LocalDate", "java.time.LocalDateTime", "java.time.LocalTime", "java.time.OffsetDateTime",
+					"java.time.OffsetTime", "java.time.ZonedDateTime", "java.time.Instant", "java.time.Duration" ->
+				CodeBlock.of("$T::parse", cn);
+			default -> null;
+		};
+	}
+}
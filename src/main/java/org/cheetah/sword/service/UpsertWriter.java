@@ -0,0 +1,243 @@
+package org.cheetah.sword.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.lang.model.element.Modifier;
+
+import org.cheetah.sword.model.DbType;
+import org.cheetah.sword.model.FkMode;
+import org.cheetah.sword.service.records.ColumnModel;
+import org.cheetah.sword.service.records.EntityModel;
+import org.cheetah.sword.service.records.UpsertModel;
+import org.cheetah.sword.util.NamingUtils;
+import org.cheetah.sword.wizard.SwordWizard;
+import org.springframework.stereotype.Component;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+/**
+ * Generates the native upsert fragment of a repository: an interface the repository
+ * extends and its Spring Data implementation (found by the "Impl" suffix).
+ *
+ * public interface OrderLinesUpsertRepository {
+ *     int[] upsertAll(List<Object[]> rows);
+ * }
+ *
+ * public class OrderLinesUpsertRepositoryImpl implements OrderLinesUpsertRepository {
+ *     static final String UPSERT_SQL = "INSERT INTO \"order_lines\" AS target (...) VALUES (?, ?, ?)
+ *             ON CONFLICT (\"order_id\", \"line_no\") DO UPDATE SET \"qty\" = EXCLUDED.\"qty\"";
+ *     public int[] upsertAll(List<Object[]> rows) { return jdbcTemplate.batchUpdate(UPSERT_SQL, rows); }
+ * }
+ *
+ * The statement is chosen from the DbType, so an insert-or-update is one round trip
+ * instead of a SELECT followed by an INSERT or UPDATE:
+ * - PostgreSQL        INSERT ... ON CONFLICT (pk) DO UPDATE SET c = EXCLUDED.c
+ * - MySQL, MariaDB    INSERT ... ON DUPLICATE KEY UPDATE c = VALUES(c)
+ * - SQL Server, DB2, H2  MERGE INTO ... USING (VALUES (...)) ... WHEN MATCHED / WHEN NOT MATCHED
+ *   (WITH (HOLDLOCK) on SQL Server, whose MERGE is not atomic otherwise)
+ * Rows go through JdbcTemplate.batchUpdate, one JDBC batch per call, inside the caller's transaction.
+ *
+ * A version column is set by the statement (0 / CURRENT_TIMESTAMP on insert, incremented on
+ * update): an upsert is last-writer-wins, the version sent by the client is ignored.
+ *
+ * Only writable tables whose key is assigned by the client (no identity or sequence) and
+ * whose DTO fields bind as plain JDBC values (strings, numbers, booleans, UUID, dates and
+ * times, byte[]) get an upsert; writeUpsert returns null for the others.
+ */
+@Component
+public class UpsertWriter {
+
+	private final NamingConfigService namingConfigService;
+
+	private final DtoAndMapperWriter dtoAndMapperWriter;
+
+	public UpsertWriter(NamingConfigService namingConfigService, DtoAndMapperWriter dtoAndMapperWriter) {
+		this.namingConfigService = namingConfigService;
+		this.dtoAndMapperWriter = dtoAndMapperWriter;
+	}
+
+	public UpsertModel writeUpsert(Path rootPath, EntityModel model, String entitySimpleName, DbType dbType,
+			String dbProduct, FkMode fkMode, boolean primitiveTypes, boolean records, AnnotationSpec generatedAnn)
+			throws IOException {
+
+		if (dbType == null || model.readOnly() || model.pkCols().isEmpty()) {
+			return null;
+		}
+
+		List<String> keys = new ArrayList<>();
+		List<String> values = new ArrayList<>();
+		List<String> getters = new ArrayList<>();
+		ColumnModel version = null;
+		for (String pk : model.pkCols()) {
+			ColumnModel col = model.columns().get(pk);
+			if (col == null || col.autoIncrement() || col.sequence() != null) {
+				return null;
+			}
+		}
+		// key columns first, then the others in table order
+		List<ColumnModel> ordered = new ArrayList<>();
+		model.pkCols().forEach(pk -> ordered.add(model.columns().get(pk)));
+		model.columns().values().stream().filter(c -> !model.pkCols().contains(c.name())).forEach(ordered::add);
+
+		for (ColumnModel col : ordered) {
+			if (col.lob() || col.versionByDatabase() || col.autoIncrement()) {
+				continue;
+			}
+			if (col.version()) {
+				version = col;
+				continue;
+			}
+			TypeName javaType = dtoAndMapperWriter.resolveDtoType(model, col, dbProduct, fkMode, primitiveTypes);
+			if (!bindable(javaType)) {
+				return null;
+			}
+			String fieldName = namingConfigService.resolveColumnName(model.table(), col.name());
+			getters.add(NamingUtils.accessorName(fieldName, javaType, records));
+			(model.pkCols().contains(col.name()) ? keys : values).add(col.name());
+		}
+
+		String sql = upsertSql(dbType, model.table(), keys, values, version);
+
+		String fragmentSimpleName = NamingUtils.pluralizeSimpleName(entitySimpleName) + "UpsertRepository";
+		ClassName fragmentClass = ClassName.get(SwordWizard.REPOSITORY_PKG, fragmentSimpleName);
+		TypeName rowsType = ParameterizedTypeName.get(ClassName.get("java.util", "List"),
+				ArrayTypeName.of(ClassName.get(Object.class)));
+		TypeName countsType = ArrayTypeName.of(TypeName.INT);
+
+		TypeSpec fragment = TypeSpec.interfaceBuilder(fragmentSimpleName).addModifiers(Modifier.PUBLIC)
+				.addAnnotation(generatedAnn)
+				.addMethod(MethodSpec.methodBuilder("upsertAll").addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+						.addJavadoc("Inserts or updates each row by primary key, in one JDBC batch.\n\n")
+						.addJavadoc("@param rows one value per column, in the order $L\n",
+								String.join(", ", concat(keys, values)))
+						.addJavadoc("@return update counts as reported by the driver\n")
+						.returns(countsType).addParameter(rowsType, "rows").build())
+				.build();
+		JavaFile.builder(SwordWizard.REPOSITORY_PKG, fragment).build().writeTo(rootPath);
+
+		ClassName jdbcTemplateClass = ClassName.get("org.springframework.jdbc.core", "JdbcTemplate");
+		TypeSpec impl = TypeSpec.classBuilder(fragmentSimpleName + "Impl").addModifiers(Modifier.PUBLIC)
+				.addSuperinterface(fragmentClass).addAnnotation(generatedAnn)
+				.addField(FieldSpec.builder(String.class, "UPSERT_SQL", Modifier.STATIC, Modifier.FINAL)
+						.initializer("$S", sql).build())
+				.addField(FieldSpec.builder(jdbcTemplateClass, "jdbcTemplate", Modifier.PRIVATE, Modifier.FINAL).build())
+				.addMethod(MethodSpec.constructorBuilder().addModifiers(Modifier.PUBLIC)
+						.addParameter(jdbcTemplateClass, "jdbcTemplate")
+						.addStatement("this.jdbcTemplate = jdbcTemplate").build())
+				.addMethod(MethodSpec.methodBuilder("upsertAll").addModifiers(Modifier.PUBLIC)
+						.addAnnotation(Override.class).returns(countsType).addParameter(rowsType, "rows")
+						.addStatement("return jdbcTemplate.batchUpdate(UPSERT_SQL, rows)").build())
+				.build();
+		JavaFile.builder(SwordWizard.REPOSITORY_PKG, impl).build().writeTo(rootPath);
+
+		return new UpsertModel(getters, keys.size());
+	}
+
+	/**
+	 * Types every supported driver binds with setObject (JDBC 4.2 java.time included).
+	 */
+	private static boolean bindable(TypeName type) {
+		if (type.isPrimitive()) {
+			return true;
+		}
+		if (type instanceof ArrayTypeName array) {
+			return TypeName.BYTE.equals(array.componentType);
+		}
+		if (!(type instanceof ClassName cn)) {
+			return false;
+		}
+		return switch (cn.canonicalName()) {
+			case "java.lang.String", "java.lang.Long", "java.lang.Integer", "java.lang.Short", "java.lang.Byte",
+					"java.lang.Double", "java.lang.Float", "java.lang.Boolean", "java.math.BigDecimal",
+					"java.math.BigInteger", "java.util.UUID", "java.time.LocalDate", "java.time.LocalDateTime",
+					"java.time.LocalTime", "java.time.OffsetDateTime", "java.time.OffsetTime" -> true;
+			default -> false;
+		};
+	}
+
+	/**
+	 * Vendor upsert statement with one JDBC parameter per key and value column, in that order.
+	 */
+	static String upsertSql(DbType dbType, String table, List<String> keys, List<String> values,
+			ColumnModel version) {
+		List<String> cols = concat(keys, values);
+		String versionCol = version != null ? dbType.quote(version.name()) : null;
+		boolean timestampVersion = version != null && (version.dataType() == Types.TIMESTAMP
+				|| version.dataType() == Types.TIMESTAMP_WITH_TIMEZONE);
+		String versionInsert = timestampVersion ? "CURRENT_TIMESTAMP" : "0";
+
+		List<String> insertCols = cols.stream().map(c -> dbType.quote(c)).collect(Collectors.toCollection(ArrayList::new));
+		List<String> params = cols.stream().map(c -> "?").collect(Collectors.toCollection(ArrayList::new));
+		if (versionCol != null) {
+			insertCols.add(versionCol);
+			params.add(versionInsert);
+		}
+		String qTable = dbType.quote(table);
+
+		return switch (dbType) {
+			case POSTGRES -> {
+				List<String> set = values.stream().map(c -> dbType.quote(c) + " = EXCLUDED." + dbType.quote(c))
+						.collect(Collectors.toCollection(ArrayList::new));
+				if (versionCol != null) {
+					set.add(versionCol + " = " + (timestampVersion ? "CURRENT_TIMESTAMP" : "target." + versionCol + " + 1"));
+				}
+				yield "INSERT INTO " + qTable + " AS target (" + String.join(", ", insertCols) + ") VALUES ("
+						+ String.join(", ", params) + ") ON CONFLICT ("
+						+ keys.stream().map(c -> dbType.quote(c)).collect(Collectors.joining(", ")) + ") "
+						+ (set.isEmpty() ? "DO NOTHING" : "DO UPDATE SET " + String.join(", ", set));
+			}
+			case MYSQL, MARIADB -> {
+				List<String> set = values.stream().map(c -> dbType.quote(c) + " = VALUES(" + dbType.quote(c) + ")")
+						.collect(Collectors.toCollection(ArrayList::new));
+				if (versionCol != null) {
+					set.add(versionCol + " = " + (timestampVersion ? "CURRENT_TIMESTAMP" : versionCol + " + 1"));
+				}
+				if (set.isEmpty()) {
+					// nothing to update: a no-op assignment keeps the existing row
+					set.add(dbType.quote(keys.get(0)) + " = " + dbType.quote(keys.get(0)));
+				}
+				yield "INSERT INTO " + qTable + " (" + String.join(", ", insertCols) + ") VALUES ("
+						+ String.join(", ", params) + ") ON DUPLICATE KEY UPDATE " + String.join(", ", set);
+			}
+			case MSSQL, DB2, H2 -> {
+				List<String> set = values.stream().map(c -> dbType.quote(c) + " = source." + dbType.quote(c))
+						.collect(Collectors.toCollection(ArrayList::new));
+				if (versionCol != null) {
+					set.add(versionCol + " = " + (timestampVersion ? "CURRENT_TIMESTAMP" : "target." + versionCol + " + 1"));
+				}
+				List<String> sourceValues = cols.stream().map(c -> "source." + dbType.quote(c))
+						.collect(Collectors.toCollection(ArrayList::new));
+				if (versionCol != null) {
+					sourceValues.add(versionInsert);
+				}
+				yield "MERGE INTO " + qTable + (dbType == DbType.MSSQL ? " WITH (HOLDLOCK)" : "") + " AS target USING (VALUES ("
+						+ cols.stream().map(c -> "?").collect(Collectors.joining(", ")) + ")) AS source ("
+						+ cols.stream().map(c -> dbType.quote(c)).collect(Collectors.joining(", ")) + ") ON "
+						+ keys.stream().map(c -> "target." + dbType.quote(c) + " = source." + dbType.quote(c))
+								.collect(Collectors.joining(" AND "))
+						+ (set.isEmpty() ? "" : " WHEN MATCHED THEN UPDATE SET " + String.join(", ", set))
+						+ " WHEN NOT MATCHED THEN INSERT (" + String.join(", ", insertCols) + ") VALUES ("
+						+ String.join(", ", sourceValues) + ")" + (dbType == DbType.MSSQL ? ";" : "");
+			}
+		};
+	}
+
+	private static List<String> concat(List<String> a, List<String> b) {
+		List<String> out = new ArrayList<>(a);
+		out.addAll(b);
+		return out;
+	}
+}
@@ -0,0 +1,15 @@
+package org.cheetah.sword.service.records;
+
+/**
+ * Read-through cache settings of one entity (Caffeine).
+ *
+ * enabled     false excludes the entity from caching even when caching is generated.
+ * maximumSize maximum number of entries per cache.
+ * ttlSeconds  expire-after-write, in seconds.
+ */
+public record CacheSettings(boolean enabled,
+        long maximumSize,
+        long ttlSeconds) {
+
+    public static final CacheSettings DEFAULT = new CacheSettings(true, 10_000, 600);
+}
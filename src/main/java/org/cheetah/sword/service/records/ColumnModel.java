@@ -1,9 +1,35 @@
 package org.cheetah.sword.service.records;
 
+/**
+ * lob:               large binary column (BLOB, bytea, varbinary(max), ...) generated as a lazily
+ *                    fetched java.sql.Blob, left out of DTOs/resources and streamed by dedicated endpoints.
+ * version:           optimistic-lock column of the table, generated as @Version (at most one per table).
+ * versionByDatabase: the database maintains the version itself (SQL Server rowversion, DB2
+ *                    ROW CHANGE TIMESTAMP): Hibernate never writes it and reads it back after each write.
+ * lastModified:      audit timestamp of the row, sent as Last-Modified by the generated GET endpoint
+ *                    (at most one per table).
+ */
 public record ColumnModel(String name,
         int dataType,
         String typeName,
         boolean nullable,
         String columnDef,
-        boolean autoIncrement) {
-}
\ No newline at end of file
+        boolean autoIncrement,
+        SequenceModel sequence,
+        boolean lob,
+        boolean version,
+        boolean versionByDatabase,
+        boolean lastModified) {
+
+    /** Copy of this column marked as the table's version column. */
+    public ColumnModel asVersion(boolean byDatabase) {
+        return new ColumnModel(name, dataType, typeName, nullable, columnDef, autoIncrement, sequence, lob, true,
+                byDatabase, lastModified);
+    }
+
+    /** Copy of this column marked as the table's last-modified timestamp. */
+    public ColumnModel asLastModified() {
+        return new ColumnModel(name, dataType, typeName, nullable, columnDef, autoIncrement, sequence, lob, version,
+                versionByDatabase, true);
+    }
+}
@@ -4,10 +4,43 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+/**
+ * Table metadata used by the writers.
+ *
+ * indexedCols      leading columns of the table's indexes (a range or order on them can use the index).
+ * rowCountEstimate rows according to the catalog statistics, -1 when unknown.
+ * readOnly         view, materialized view or table marked readOnly in the naming YAML:
+ *                  generated as an @Immutable entity with query-only repository/service/controller.
+ */
 public record EntityModel(String catalog,
         String schema,
         String table,
         Map<String, ColumnModel> columns,
         Set<String> pkCols,
-        List<SimpleFkModel> simpleFks) {
+        List<SimpleFkModel> simpleFks,
+        Set<String> indexedCols,
+        long rowCountEstimate,
+        boolean readOnly) {
+
+    /**
+     * True for columns whose Java type must stay boxed even when primitive types are
+     * enabled: PK columns (null before insert), the version column (null marks a new
+     * entity, or a request that does not carry a version) and, in RELATION mode, FK
+     * columns (null when the relation is not set).
+     */
+    public boolean keepsBoxedType(String column, boolean relationMode) {
+        if (pkCols.contains(column)) {
+            return true;
+        }
+        ColumnModel col = columns.get(column);
+        if (col != null && col.version()) {
+            return true;
+        }
+        return relationMode && simpleFks.stream().anyMatch(fk -> fk.localColumn().equals(column));
+    }
+
+    /** The @Version column, or null when the table is not versioned. */
+    public ColumnModel versionColumn() {
+        return columns.values().stream().filter(ColumnModel::version).findFirst().orElse(null);
+    }
 }
@@ -0,0 +1,18 @@
+package org.cheetah.sword.service.records;
+
+import java.util.Map;
+
+/**
+ * Java mapping of a json/jsonb column.
+ *
+ * mode   RAW   String holding the JSON text, passed through without parsing
+ *        NODE  Jackson JsonNode
+ *        MAP   Map<String, Object>
+ *        TYPED generated class whose fields are inferred from sample
+ * sample example document (TYPED only, null otherwise).
+ */
+public record JsonMapping(Mode mode,
+        Map<String, Object> sample) {
+
+    public enum Mode { RAW, NODE, MAP, TYPED }
+}
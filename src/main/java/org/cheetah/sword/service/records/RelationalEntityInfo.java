@@ -0,0 +1,20 @@
+package org.cheetah.sword.service.records;
+
+import java.util.List;
+
+import com.squareup.javapoet.TypeName;
+
+/**
+ * Spring Data Relational entity written by RelationalEntityWriter (R2DBC and JDBC targets).
+ *
+ * idType        boxed Java type of the single key column.
+ * scalarFields  every mapped column except the key, in table order.
+ * versionField  the numeric @Version field, or null when the table has none.
+ */
+public record RelationalEntityInfo(String entitySimpleName,
+        TypeName idType,
+        String idFieldName,
+        String pkColumn,
+        List<ScalarFieldInfo> scalarFields,
+        ScalarFieldInfo versionField) {
+}
@@ -2,4 +2,36 @@ package org.cheetah.sword.service.records;
 
 import com.squareup.javapoet.TypeName;
 
-public  record ScalarFieldInfo(String javaFieldName, TypeName javaType) { }
\ No newline at end of file
+/**
+ * finder: false for fields that cannot be matched by equality (json documents), which get
+ * no findBy<Field> repository/service/controller method.
+ * range:  indexed temporal or numeric field, which also gets Between/GreaterThanEqual/LessThanEqual
+ *         queries and a keyset scan ordered by it.
+ * indexed: finder field whose column leads an index, which also gets a bulk deleteBy<Field>.
+ * resourceFieldName: property name in the REST resource (YAML "resource:" rename), else javaFieldName.
+ */
+public  record ScalarFieldInfo(String javaFieldName, TypeName javaType, boolean finder, boolean range,
+        boolean indexed, String resourceFieldName) {
+
+    public ScalarFieldInfo(String javaFieldName, TypeName javaType, boolean finder, boolean range,
+            boolean indexed) {
+        this(javaFieldName, javaType, finder, range, indexed, javaFieldName);
+    }
+
+    public ScalarFieldInfo(String javaFieldName, TypeName javaType, boolean finder, boolean range) {
+        this(javaFieldName, javaType, finder, range, range);
+    }
+
+    public ScalarFieldInfo(String javaFieldName, TypeName javaType, boolean finder) {
+        this(javaFieldName, javaType, finder, false);
+    }
+
+    public ScalarFieldInfo(String javaFieldName, TypeName javaType) {
+        this(javaFieldName, javaType, true);
+    }
+
+    /** true when the resource exposes the field under another name than the DTO. */
+    public boolean renamedInResource() {
+        return !javaFieldName.equals(resourceFieldName);
+    }
+}
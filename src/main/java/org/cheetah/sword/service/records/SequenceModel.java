@@ -0,0 +1,13 @@
+package org.cheetah.sword.service.records;
+
+/**
+ * Database sequence backing a PK column.
+ *
+ * incrementBy    INCREMENT BY read from the vendor catalog (1 when unknown).
+ * allocationSize value used for the generated @SequenceGenerator; it is larger
+ *                than incrementBy only when a migration raising the increment is emitted.
+ */
+public record SequenceModel(String name,
+        long incrementBy,
+        long allocationSize) {
+}
@@ -0,0 +1,12 @@
+package org.cheetah.sword.service.records;
+
+import java.util.List;
+
+/**
+ * Parameters of the generated native upsert, in statement order.
+ *
+ * getters   DTO getter of each bound column ("getOrderId", "isActive", ..., "orderId" for records).
+ * keyCount  the first keyCount getters read the primary key columns.
+ */
+public record UpsertModel(List<String> getters, int keyCount) {
+}
@@ -0,0 +1,119 @@
+package org.cheetah.sword.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.TypeSpec;
+
+/**
+ * Writes Java records with JavaPoet 1.13, which has no record support.
+ *
+ * The record is described as a class whose fields, in order, are the record components
+ * (field annotations become component annotations, modifiers are ignored); the class is
+ * rendered by JavaFile, which resolves the imports, and its declaration is then rewritten:
+ *
+ *     @Generated(...)                      @Generated(...)
+ *     public class PageDto<T> {            public record PageDto<T>(
+ *       private List<T> content;      ->       List<T> content,
+ *                                              int pageNumber) {
+ *       private int pageNumber;            }
+ *     }
+ *
+ * The class must have fields only: no methods, initializers, nested types or interfaces,
+ * and no field named after a no-argument method of Object ("wait", "hashCode", ...), which
+ * javac rejects as a record component (see NamingUtils#recordComponentName).
+ */
+public final class JavaRecords {
+
+    private JavaRecords() {}
+
+    public static void writeTo(String packageName, TypeSpec classSpec, Path rootPath) throws IOException {
+        if (!classSpec.methodSpecs.isEmpty() || !classSpec.typeSpecs.isEmpty()
+                || !classSpec.initializerBlock.isEmpty() || !classSpec.staticBlock.isEmpty()
+                || !classSpec.superinterfaces.isEmpty() || classSpec.fieldSpecs.isEmpty()) {
+            throw new IllegalArgumentException(classSpec.name + ": a record carrier only has fields");
+        }
+        for (FieldSpec field : classSpec.fieldSpecs) {
+            if (!NamingUtils.isRecordComponentName(field.name)) {
+                throw new IllegalArgumentException(classSpec.name + ": illegal record component name " + field.name);
+            }
+        }
+        String source = toSource(JavaFile.builder(packageName, classSpec).build().toString(), classSpec);
+
+        Path dir = rootPath;
+        for (String part : packageName.split("\\.")) {
+            dir = dir.resolve(part);
+        }
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve(classSpec.name + ".java"), source, StandardCharsets.UTF_8);
+    }
+
+    /** Rewrites the rendered class declaration and fields of classSpec into a record header. */
+    static String toSource(String classSource, TypeSpec classSpec) {
+        String[] lines = classSource.split("\n", -1);
+        int decl = -1;
+        for (int i = 0; i < lines.length; i++) {
+            if (lines[i].matches("(public )?(final )?class " + classSpec.name + "\\b.*\\{")) {
+                decl = i;
+                break;
+            }
+        }
+        if (decl < 0) {
+            throw new IllegalStateException(classSpec.name + ": class declaration not found");
+        }
+
+        // one component per field: pending annotation lines (members wrapped by JavaPoet are
+        // joined back on one line), then the declaration line
+        List<String> components = new ArrayList<>();
+        StringBuilder annotations = new StringBuilder();
+        int depth = 0;
+        int end = decl + 1;
+        for (; end < lines.length; end++) {
+            String line = lines[end].trim();
+            if (depth == 0 && line.equals("}")) {
+                break;
+            }
+            if (line.isEmpty()) {
+                continue;
+            }
+            if (depth > 0 || line.startsWith("@")) {
+                if (line.startsWith(")") && annotations.charAt(annotations.length() - 1) == ' ') {
+                    annotations.setLength(annotations.length() - 1);
+                }
+                annotations.append(line);
+                depth += line.chars().filter(c -> c == '(').count() - line.chars().filter(c -> c == ')').count();
+                if (depth == 0 || !line.endsWith("(")) {
+                    annotations.append(' ');
+                }
+                continue;
+            }
+            String declaration = line.replaceFirst("^((private|protected|public|final|transient|volatile) )+", "");
+            components.add(annotations + declaration.substring(0, declaration.length() - 1));
+            annotations.setLength(0);
+        }
+        if (components.size() != classSpec.fieldSpecs.size()) {
+            throw new IllegalStateException(classSpec.name + ": " + components.size() + " components for "
+                    + classSpec.fieldSpecs.size() + " fields");
+        }
+
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < decl; i++) {
+            out.append(lines[i]).append('\n');
+        }
+        String header = lines[decl].replaceFirst("(final )?class ", "record ");
+        out.append(header, 0, header.length() - 2).append("(\n");
+        for (int i = 0; i < components.size(); i++) {
+            out.append("    ").append(components.get(i)).append(i < components.size() - 1 ? ",\n" : ") {\n");
+        }
+        for (int i = end; i < lines.length; i++) {
+            out.append(lines[i]).append(i < lines.length - 1 ? "\n" : "");
+        }
+        return out.toString();
+    }
+}
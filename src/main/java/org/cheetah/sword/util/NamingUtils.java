@@ -1,11 +1,18 @@
 package org.cheetah.sword.util;
 
 import java.util.Locale;
+import java.util.Set;
+
+import com.squareup.javapoet.TypeName;
 
 public final class NamingUtils {
 
     private NamingUtils() {}
 
+    /** No-argument methods of Object, which javac rejects as record component names. */
+    private static final Set<String> OBJECT_METHODS = Set.of("clone", "finalize", "getClass", "hashCode",
+            "notify", "notifyAll", "toString", "wait");
+
     /**
      * Convert a SQL column name (snake_case etc.) into a Java field name lowerCamelCase.
      *
@@ -126,4 +133,48 @@ public final class NamingUtils {
         if (fieldName == null || fieldName.isBlank()) return fieldName;
         return Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Lombok getter name for a field: "isActive" for a primitive boolean, "getActive" otherwise.
+	 * A primitive boolean already named is<Upper> keeps its name: boolean isActive -> isActive().
+	 */
+	public static String getterName(String fieldName, TypeName type) {
+		if (TypeName.BOOLEAN.equals(type)) {
+			return hasIsPrefix(fieldName) ? fieldName : "is" + upperFirst(fieldName);
+		}
+		return "get" + upperFirst(fieldName);
+	}
+
+	/**
+	 * Type of a generated property: a primitive boolean named is<Upper> is boxed. Lombok
+	 * would generate isActive() for boolean isActive, so MapStruct would read a property
+	 * "active" while the @Mapping sources and the other carriers use "isActive".
+	 */
+	public static TypeName propertyType(String fieldName, TypeName type) {
+		return TypeName.BOOLEAN.equals(type) && hasIsPrefix(fieldName) ? type.box() : type;
+	}
+
+	static boolean hasIsPrefix(String fieldName) {
+		return fieldName.length() > 2 && fieldName.startsWith("is") && Character.isUpperCase(fieldName.charAt(2));
+	}
+
+	/**
+	 * Accessor of a generated DTO/resource property: the record accessor ("active") when
+	 * records are generated, the Lombok getter otherwise.
+	 */
+	public static String accessorName(String fieldName, TypeName type, boolean records) {
+		return records ? fieldName : getterName(fieldName, type);
+	}
+
+	/**
+	 * Property name usable as a record component: "wait", "hashCode", ... (the no-argument
+	 * methods of Object) get a "Value" suffix, other names are returned as is.
+	 */
+	public static String recordComponentName(String fieldName) {
+		return OBJECT_METHODS.contains(fieldName) ? fieldName + "Value" : fieldName;
+	}
+
+	public static boolean isRecordComponentName(String fieldName) {
+		return !OBJECT_METHODS.contains(fieldName);
+	}
+}
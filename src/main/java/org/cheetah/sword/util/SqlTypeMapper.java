@@ -1,36 +1,152 @@
 package org.cheetah.sword.util;
 
 import java.sql.Types;
+import java.util.Locale;
 
 import com.squareup.javapoet.ArrayTypeName;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 
+/**
+ * Maps JDBC column metadata (DATA_TYPE + TYPE_NAME + database product) to Java types.
+ *
+ * Vendor types reported as OTHER/BINARY/CHAR are resolved by TYPE_NAME first:
+ * - uuid (PostgreSQL, H2, MariaDB), uniqueidentifier (SQL Server) -> UUID
+ * - interval (PostgreSQL, H2 "INTERVAL DAY TO SECOND")          -> Duration (year-month intervals stay Object)
+ * - arrays (PostgreSQL "_int4", H2 "INTEGER ARRAY")              -> int[], long[], String[], ...
+ * - json/jsonb (PostgreSQL, MySQL, H2, see isJson)              -> Map<String, Object>
+ *
+ * Types that need an explicit Hibernate JDBC binding are reported by {@link #jdbcTypeCode}.
+ */
 public final class SqlTypeMapper {
     private SqlTypeMapper() {}
 
+    /**
+     * Maps a NOT NULL column to its primitive type (int, long, boolean, double, ...) when
+     * primitives is true and the mapped type is a boxed primitive; otherwise same as
+     * {@link #map(int, String, boolean, String)}. Callers pass primitives = false for
+     * columns that must accept null before insert (PKs, relation FKs).
+     */
+    public static TypeName map(int sqlType, String typeName, boolean nullable, String dbProductName,
+            boolean primitives) {
+        TypeName type = map(sqlType, typeName, nullable, dbProductName);
+        return primitives && !nullable && type.isBoxedPrimitive() ? type.unbox() : type;
+    }
+
     public static TypeName map(int sqlType, String typeName, boolean nullable, String dbProductName) {
-        String tn = typeName == null ? "" : typeName.trim().toLowerCase();
-        String db = dbProductName == null ? "" : dbProductName.toLowerCase();
+        String tn = typeName == null ? "" : typeName.trim().toLowerCase(Locale.ROOT);
 
-        // PostgreSQL json/jsonb
-        if ((db.contains("postgres")) && (tn.equals("jsonb") || tn.equals("json"))) {
+        // json/jsonb, whatever DATA_TYPE the driver reports (OTHER on PostgreSQL and H2, LONGVARCHAR on MySQL)
+        if (isJson(tn)) {
             return ParameterizedTypeName.get(ClassName.get(java.util.Map.class),
                     ClassName.get(String.class), ClassName.get(Object.class));
         }
 
+        // vendor types identified by name (reported as OTHER, BINARY or CHAR)
+        if (isUuid(tn)) {
+            return ClassName.get(java.util.UUID.class);
+        }
+        if (isInterval(tn)) {
+            return ClassName.get(java.time.Duration.class);
+        }
+        if (sqlType == Types.ARRAY || isArrayTypeName(tn)) {
+            TypeName element = arrayElementType(tn);
+            return ArrayTypeName.of(element != null ? element : ClassName.get(Object.class));
+        }
+
         return switch (sqlType) {
-            case Types.VARCHAR, Types.LONGVARCHAR, Types.CHAR, Types.CLOB -> ClassName.get(String.class);
+            case Types.VARCHAR, Types.LONGVARCHAR, Types.CHAR, Types.CLOB,
+                 Types.NVARCHAR, Types.LONGNVARCHAR, Types.NCHAR, Types.NCLOB -> ClassName.get(String.class);
             case Types.INTEGER, Types.SMALLINT -> ClassName.get(Integer.class);
+            case Types.TINYINT -> ClassName.get(Short.class); // MySQL TINYINT UNSIGNED goes up to 255
             case Types.BIGINT -> ClassName.get(Long.class);
+            case Types.REAL -> ClassName.get(Float.class);
+            case Types.FLOAT, Types.DOUBLE -> ClassName.get(Double.class); // JDBC FLOAT is double precision
             case Types.DECIMAL, Types.NUMERIC -> ClassName.get(java.math.BigDecimal.class);
             case Types.BIT, Types.BOOLEAN -> ClassName.get(Boolean.class);
             case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE -> ClassName.get(java.time.OffsetDateTime.class);
             case Types.DATE -> ClassName.get(java.time.LocalDate.class);
             case Types.TIME -> ClassName.get(java.time.LocalTime.class);
-            case Types.BINARY, Types.VARBINARY, Types.BLOB -> ArrayTypeName.of(TypeName.BYTE);
+            case Types.TIME_WITH_TIMEZONE -> ClassName.get(java.time.OffsetTime.class);
+            case Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY, Types.BLOB -> ArrayTypeName.of(TypeName.BYTE);
             default -> ClassName.get(Object.class);
         };
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the org.hibernate.type.SqlTypes constant to put in @JdbcTypeCode for columns
+     * whose Java type alone does not select the right JDBC binding, or null:
+     * - UUID     -> UUID (native uuid/uniqueidentifier, binary(16) where there is none)
+     * - arrays   -> ARRAY (instead of serialized VARBINARY)
+     * - interval -> INTERVAL_SECOND (Hibernate maps Duration to NUMERIC nanoseconds by default)
+     */
+    public static String jdbcTypeCode(int sqlType, String typeName) {
+        String tn = typeName == null ? "" : typeName.trim().toLowerCase(Locale.ROOT);
+        if (isUuid(tn)) {
+            return "UUID";
+        }
+        if (isInterval(tn)) {
+            return "INTERVAL_SECOND";
+        }
+        if (sqlType == Types.ARRAY || isArrayTypeName(tn)) {
+            return "ARRAY";
+        }
+        return null;
+    }
+
+    /**
+     * json/jsonb columns (PostgreSQL, MySQL, H2, Oracle 21+): Map<String, Object> unless JsonTypeWriter
+     * has a configured mapping, bound with @JdbcTypeCode(SqlTypes.JSON) in both cases.
+     */
+    public static boolean isJson(String typeName) {
+        String tn = typeName == null ? "" : typeName.trim().toLowerCase(Locale.ROOT);
+        return tn.equals("json") || tn.equals("jsonb");
+    }
+
+    private static boolean isUuid(String tn) {
+        return tn.equals("uuid") || tn.equals("uniqueidentifier");
+    }
+
+    /** Day-time intervals; year-month ones count calendar months, which a Duration cannot hold. */
+    private static boolean isInterval(String tn) {
+        return tn.startsWith("interval") && !tn.contains("year") && !tn.contains("month");
+    }
+
+    /** PostgreSQL names array types "_<element>", H2 "<element> ARRAY". */
+    private static boolean isArrayTypeName(String tn) {
+        return tn.startsWith("_") || tn.endsWith(" array");
+    }
+
+    /**
+     * Element type of an array column, from its TYPE_NAME ("_int4", "INTEGER ARRAY",
+     * "CHARACTER VARYING(20) ARRAY"); null when unknown.
+     */
+    private static TypeName arrayElementType(String tn) {
+        String element = tn;
+        if (element.startsWith("_")) {
+            element = element.substring(1);
+        }
+        if (element.endsWith(" array")) {
+            element = element.substring(0, element.length() - " array".length());
+        }
+        int paren = element.indexOf('(');
+        if (paren >= 0) {
+            element = element.substring(0, paren);
+        }
+        return switch (element.trim()) {
+            case "int2", "smallint" -> TypeName.SHORT;
+            case "int4", "int", "integer" -> TypeName.INT;
+            case "int8", "bigint" -> TypeName.LONG;
+            case "float4", "real" -> TypeName.FLOAT;
+            case "float8", "double precision", "double" -> TypeName.DOUBLE;
+            case "bool", "boolean" -> TypeName.BOOLEAN;
+            case "text", "varchar", "character varying", "bpchar", "char", "character" -> ClassName.get(String.class);
+            case "numeric", "decimal" -> ClassName.get(java.math.BigDecimal.class);
+            case "uuid" -> ClassName.get(java.util.UUID.class);
+            case "date" -> ClassName.get(java.time.LocalDate.class);
+            case "timestamptz", "timestamp with time zone", "timestamp" -> ClassName.get(java.time.OffsetDateTime.class);
+            default -> null;
+        };
+    }
+}
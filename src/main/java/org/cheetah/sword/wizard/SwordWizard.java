@@ -11,6 +11,7 @@ import org.cheetah.sword.events.Events.StartWizardEvent;
 import org.cheetah.sword.model.ConnectionConfig;
 import org.cheetah.sword.model.DbType;
 import org.cheetah.sword.model.FkMode;
+import org.cheetah.sword.model.GenerationTarget;
 import org.cheetah.sword.model.RelationFetch;
 import org.cheetah.sword.model.SchemaSelection;
 import org.cheetah.sword.service.MetadataService;
@@ -30,8 +31,9 @@ import org.springframework.stereotype.Component;
  * Workflow: 1. Ask DB vendor (DbType). 2. Ask host / port / username / password
  * / dbName. 3. Test the connection and emit ConnectionReadyEvent. 4. Ask user
  * to choose catalog and/or schema from metadata, then emit SchemaChosenEvent.
- * 5. Ask code generation settings: - base package - output path - FK mode
- * (SCALAR vs RELATION) - relation fetch mode (LAZY vs EAGER) ONLY IF fkMode ==
+ * 5. Ask code generation settings: - base package - output path - target
+ * (JPA + MVC, R2DBC + WebFlux or JDBC + MVC) - FK mode (SCALAR vs RELATION, JPA only) -
+ * relation fetch mode (LAZY vs EAGER) ONLY IF fkMode ==
  * RELATION - DTO/mapping generation (yes/no) - Repository generation (yes/no) -
  * Service generation (yes/no) 6. Emit GenerateRequestedEvent to start entity
  * generation.
@@ -50,6 +52,8 @@ public class SwordWizard {
 	public static String CONTROLLER_PKG;
 	public static String RESOURCES_PKG;
 	public static String RESOURCE_MAPPERS_PKG;
+	public static String CONFIG_PKG;
+	public static String JSON_PKG;
 
 	private final ApplicationEventPublisher publisher;
 	private final MetadataService metadata;
@@ -186,15 +190,34 @@ public class SwordWizard {
 			CONTROLLER_PKG = PackageUtils.siblingPackage(ENTITY_PKG, "controllers");
 			RESOURCES_PKG = PackageUtils.siblingPackage(ENTITY_PKG, "resources");
 			RESOURCE_MAPPERS_PKG = PackageUtils.siblingPackage(ENTITY_PKG, "resourceMappers");
+			CONFIG_PKG = PackageUtils.siblingPackage(ENTITY_PKG, "config");
+			JSON_PKG = PackageUtils.siblingPackage(ENTITY_PKG, "json");
 
 			cfg.setOutputPath(Path.of(outPath));
 
-			// FK mapping mode
-			println(terminal, "\nForeign key mapping mode:");
-			println(terminal, "  [1] Scalar FK fields  (Long customerId)  <-- default (no lazy issues)");
-			println(terminal, "  [2] Relations         (@ManyToOne / @OneToOne)");
-			String fkChoice = readDefault(reader, "Choose [1-2]", "1");
-			FkMode fkMode = "2".equals(fkChoice.trim()) ? FkMode.RELATION : FkMode.SCALAR;
+			// Persistence / web stack
+			println(terminal, "\nPersistence / web stack:");
+			println(terminal, "  [1] JPA + Spring MVC (default)");
+			println(terminal, "  [2] R2DBC + WebFlux  (reactive repositories, Mono/Flux services and controllers)");
+			println(terminal, "  [3] Spring Data JDBC + Spring MVC (aggregates without persistence context)");
+			String targetChoice = readDefault(reader, "Choose [1-3]", "1");
+			GenerationTarget target = switch (targetChoice.trim()) {
+			case "2" -> GenerationTarget.R2DBC;
+			case "3" -> GenerationTarget.JDBC;
+			default -> GenerationTarget.JPA;
+			};
+			cfg.setTarget(target);
+			boolean jpa = target == GenerationTarget.JPA;
+
+			// FK mapping mode (R2DBC and JDBC have no relations: FKs stay scalar)
+			FkMode fkMode = FkMode.SCALAR;
+			if (jpa) {
+				println(terminal, "\nForeign key mapping mode:");
+				println(terminal, "  [1] Scalar FK fields  (Long customerId)  <-- default (no lazy issues)");
+				println(terminal, "  [2] Relations         (@ManyToOne / @OneToOne)");
+				String fkChoice = readDefault(reader, "Choose [1-2]", "1");
+				fkMode = "2".equals(fkChoice.trim()) ? FkMode.RELATION : FkMode.SCALAR;
+			}
 			cfg.setFkMode(fkMode);
 
 			// Relation fetch mode only if we are generating relations
@@ -241,6 +264,79 @@ public class SwordWizard {
 			boolean generateControllers = cntChoice.equalsIgnoreCase("y") || cntChoice.equalsIgnoreCase("yes");
 			cfg.setGenerateControllers(generateControllers);
 
+			// Direct entity -> resource mapping for paged reads (blocking targets with services)
+			if (generateControllers && generateServices && target != GenerationTarget.R2DBC) {
+				println(terminal, "\nPaged GET mapping:");
+				println(terminal, "  [y] Map entities straight to resources (EntityResourceMapper, no DTO per row)");
+				println(terminal, "  [n] Entity -> DTO -> resource (default)");
+				String directChoice = readDefault(reader, "Direct resource mapping? [y/N]", "n");
+				cfg.setDirectResourceMapping(directChoice.equalsIgnoreCase("y") || directChoice.equalsIgnoreCase("yes"));
+			}
+
+			// Sequence increment (pooled-lo allocation size, JPA only)
+			if (jpa) {
+				println(terminal, "\nSequence allocation size for PK sequences:");
+				println(terminal, "  [0]  Keep INCREMENT BY read from the catalog (default)");
+				println(terminal, "  [N]  Raise increments to N and write an ALTER SEQUENCE migration");
+				String seqChoice = readDefault(reader, "Sequence increment", "0");
+				cfg.setSequenceIncrement(Math.max(0, Integer.parseInt(seqChoice.trim())));
+			}
+
+			// Read-through caching (only meaningful with JPA services)
+			if (generateServices && jpa) {
+				println(terminal, "\nRead-through caching:");
+				println(terminal, "  [y] Cache findById/finder results in services (Caffeine)");
+				println(terminal, "  [n] Do not generate caching (default)");
+				String cacheChoice = readDefault(reader, "Generate caching? [y/N]", "n");
+				cfg.setGenerateCaching(cacheChoice.equalsIgnoreCase("y") || cacheChoice.equalsIgnoreCase("yes"));
+
+				println(terminal, "\nRead replica:");
+				println(terminal, "  [y] Route read-only transactions to a replica pool (sword.datasource.replica)");
+				println(terminal, "  [n] Single data source (default)");
+				String replicaChoice = readDefault(reader, "Generate read-replica routing? [y/N]", "n");
+				cfg.setGenerateReadReplica(replicaChoice.equalsIgnoreCase("y") || replicaChoice.equalsIgnoreCase("yes"));
+			}
+
+			// Second-level cache for small lookup tables (row counts from catalog statistics, JPA only)
+			if (jpa) {
+				println(terminal, "\nSecond-level cache for lookup tables:");
+				println(terminal, "  [0]  No second-level cache (default)");
+				println(terminal, "  [N]  Cache entities of tables with at most N rows (catalog statistics)");
+				String l2Choice = readDefault(reader, "Lookup table max rows", "0");
+				cfg.setLookupTableMaxRows(Math.max(0, Long.parseLong(l2Choice.trim())));
+			}
+
+			// Views / materialized views (read-only entities)
+			println(terminal, "\nViews:");
+			println(terminal, "  [y] Also generate views and materialized views (read-only @Immutable entities)");
+			println(terminal, "  [n] Tables only (default)");
+			String viewsChoice = readDefault(reader, "Include views? [y/N]", "n");
+			cfg.setIncludeViews(viewsChoice.equalsIgnoreCase("y") || viewsChoice.equalsIgnoreCase("yes"));
+
+			// Primitive types for NOT NULL columns
+			println(terminal, "\nNOT NULL numeric/boolean columns:");
+			println(terminal, "  [y] Use primitive types (int, long, boolean, ...); PKs stay boxed");
+			println(terminal, "  [n] Use wrapper types (default)");
+			String primChoice = readDefault(reader, "Use primitive types? [y/N]", "n");
+			cfg.setPrimitiveTypes(primChoice.equalsIgnoreCase("y") || primChoice.equalsIgnoreCase("yes"));
+
+			// DTO / resource carriers
+			println(terminal, "\nDTOs and resources:");
+			println(terminal, "  [y] Java records (immutable, constructor mapping)");
+			println(terminal, "  [n] Lombok @Data/@Builder classes (default)");
+			String recordsChoice = readDefault(reader, "Generate records? [y/N]", "n");
+			cfg.setRecordCarriers(recordsChoice.equalsIgnoreCase("y") || recordsChoice.equalsIgnoreCase("yes"));
+
+			// Application bootstrap (virtual threads, pool sizing; blocking targets only)
+			if (target != GenerationTarget.R2DBC) {
+				println(terminal, "\nApplication bootstrap:");
+				println(terminal, "  [0]  Entity layers only (default)");
+				println(terminal, "  [N]  Size the application for N concurrent requests (virtual threads, Hikari pool,");
+				println(terminal, "       fetch sizes, statement caching, application.yml, smoke load test)");
+				String concurrencyChoice = readDefault(reader, "Target concurrency", "0");
+				cfg.setTargetConcurrency(Math.max(0, Integer.parseInt(concurrencyChoice.trim())));
+			}
+
 			// Summary
 			println(terminal, "\nGeneration plan:");
 			println(terminal, "  DB Vendor         : " + db.displayName());
@@ -250,12 +346,22 @@ public class SwordWizard {
 			println(terminal, "  Schema            : " + cfg.getSchema());
 			println(terminal, "  Base package      : " + BASE_PACKAGE);
 			println(terminal, "  Output path       : " + cfg.getOutputPath());
+			println(terminal, "  Target            : " + cfg.getTarget());
 			println(terminal, "  FK mode           : " + cfg.getFkMode());
 			println(terminal, "  Relation fetch    : " + cfg.getRelationFetch());
 			println(terminal, "  Generate DTOs      : " + cfg.isGenerateDto());
 			println(terminal, "  Generate Repos     : " + cfg.isGenerateRepositories());
 			println(terminal, "  Generate Services  : " + cfg.isGenerateServices());
 			println(terminal, "  Generate Controllers  : " + cfg.isGenerateControllers());
+			println(terminal, "  Direct resources   : " + cfg.isDirectResourceMapping());
+			println(terminal, "  Sequence increment : " + cfg.getSequenceIncrement());
+			println(terminal, "  Generate Caching   : " + cfg.isGenerateCaching());
+			println(terminal, "  Read replica       : " + cfg.isGenerateReadReplica());
+			println(terminal, "  Lookup max rows    : " + cfg.getLookupTableMaxRows());
+			println(terminal, "  Include views      : " + cfg.isIncludeViews());
+			println(terminal, "  Primitive types    : " + cfg.isPrimitiveTypes());
+			println(terminal, "  Record carriers    : " + cfg.isRecordCarriers());
+			println(terminal, "  Target concurrency : " + cfg.getTargetConcurrency());
 
 			// Fire events
 			publisher.publishEvent(new SchemaChosenEvent(cfg, selection));
@@ -0,0 +1,83 @@
+package org.cheetah.sword.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.yaml.snakeyaml.Yaml;
+
+class ApplicationConfigWriterTest {
+
+	private static final String TASKS = """
+			create table "task" ("id" bigint primary key, "name" varchar(20))
+			""";
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void targetConcurrencyBootstrapsTheApplicationAndItsSmokeTest() throws Exception {
+		// a Maven layout, so that the bootstrap and the smoke test have their own roots
+		Path app = dir.resolve("app");
+		Path main = app.resolve("src/main/java");
+		GeneratedProject.generate(dir, TASKS, cfg -> cfg.outputPath(main).generateDto(true)
+				.generateRepositories(true).generateServices(true).generateControllers(true).targetConcurrency(200));
+		Path resources = app.resolve("src/main/resources");
+
+		Map<String, Object> config = new Yaml().load(Files.readString(resources.resolve("application-sword.yml")));
+		assertEquals(true, path(config, "spring", "threads", "virtual", "enabled"));
+		assertEquals(50, path(config, "spring", "datasource", "hikari", "maximum-pool-size"));
+		assertEquals(50, path(config, "spring", "datasource", "hikari", "minimum-idle"));
+		assertEquals(false, path(config, "spring", "jpa", "open-in-view"));
+		// H2 caches parsed statements itself
+		assertEquals(null, path(config, "spring", "datasource", "hikari", "data-source-properties"));
+
+		Map<String, Object> bootstrap = new Yaml().load(Files.readString(resources.resolve("application.yml")));
+		assertEquals("sword", path(bootstrap, "spring", "profiles", "include"));
+		assertTrue(String.valueOf(path(bootstrap, "spring", "datasource", "url")).startsWith("jdbc:h2:tcp://"),
+				String.valueOf(bootstrap));
+
+		String smokeTest = Files.readString(app.resolve("src/test/java/com/acme/SwordSmokeLoadTest.java"));
+		assertTrue(smokeTest.contains("@SpringBootTest"), smokeTest);
+		// the smoke test reads the path the controller is mapped to
+		String controller = GeneratedProject.source(main, "controllers", "TasksController");
+		assertTrue(controller.contains("@RequestMapping(\"/task\")"), controller);
+		assertTrue(smokeTest.contains("strings = {\"/task\"}"), smokeTest);
+		// the main and test sources compile together, as in the generated application
+		GeneratedProject.assertCompiles(app.resolve("src"), dir.resolve("classes"));
+	}
+
+	@Test
+	void existingApplicationPropertiesAreKept() throws Exception {
+		Path resources = Files.createDirectories(dir.resolve("app/src/main/resources"));
+		Files.writeString(resources.resolve("application.properties"), "spring.application.name=tasks\n");
+		GeneratedProject.generate(dir, TASKS, cfg -> cfg.outputPath(dir.resolve("app/src/main/java"))
+				.generateDto(true).generateRepositories(true).generateServices(true).targetConcurrency(200));
+
+		assertFalse(Files.exists(resources.resolve("application.yml")));
+		assertEquals("spring.application.name=tasks\n", Files.readString(resources.resolve("application.properties")));
+		assertTrue(Files.exists(resources.resolve("application-sword.yml")));
+	}
+
+	@Test
+	void poolSizeIsAQuarterOfTheConcurrencyBetweenTenAndOneHundred() {
+		assertEquals(10, ApplicationConfigWriter.poolSize(20));
+		assertEquals(50, ApplicationConfigWriter.poolSize(200));
+		assertEquals(100, ApplicationConfigWriter.poolSize(1000));
+	}
+
+	/** The value at the given keys of a parsed YAML document. */
+	private static Object path(Map<String, Object> yaml, String... keys) {
+		Object value = yaml;
+		for (String key : keys) {
+			value = ((Map<?, ?>) value).get(key);
+		}
+		return value;
+	}
+}
@@ -0,0 +1,250 @@
+package org.cheetah.sword.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ControllerWriterTest {
+
+	private static final String ITEMS = """
+			create table "item" ("id" bigint primary key, "name" varchar(80), "tags" varchar(20) array,
+			    "nums" int array, "doc" json, "photo" varbinary(100))
+			""";
+
+	private static final String DOCS = """
+			create table "doc" ("id" bigint primary key, "title" varchar(80), "version" int not null)
+			""";
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void csvExportWritesArraysAndJsonAsJsonText() throws Exception {
+		Path src = GeneratedProject.generate(dir, ITEMS, cfg -> cfg.generateDto(true).generateRepositories(true)
+				.generateServices(true).generateControllers(true));
+		Path classes = dir.resolve("classes");
+		GeneratedProject.assertCompiles(src, classes);
+
+		ObjectMapper objectMapper = new ObjectMapper();
+		try (URLClassLoader loader = GeneratedProject.load(classes)) {
+			Object controller = GeneratedProject.newBean(loader.loadClass("com.acme.controllers.ItemsController"),
+					objectMapper);
+			Object resource = objectMapper.readValue("""
+					{"id":1,"name":"a, \\"b\\"","tags":["x","y"],"nums":[1,2],"doc":{"k":"v"},"photo":"AQI="}
+					""", loader.loadClass("com.acme.resources.ItemResource"));
+
+			assertEquals("id,name,tags,nums,doc,photo", readStatic(controller, "CSV_HEADER"));
+			assertEquals("1,\"a, \"\"b\"\"\",\"[\"\"x\"\",\"\"y\"\"]\",\"[1,2]\",\"{\"\"k\"\":\"\"v\"\"}\",AQI=",
+					GeneratedProject.invoke(controller, "toCsvLine", resource));
+		}
+	}
+
+	@Test
+	void csvExportedRowIsImportedAgain() throws Exception {
+		Path src = GeneratedProject.generate(dir, ITEMS, cfg -> cfg.generateDto(true).generateRepositories(true)
+				.generateServices(true).generateControllers(true));
+		Path classes = dir.resolve("classes");
+		GeneratedProject.assertCompiles(src, classes);
+
+		ObjectMapper objectMapper = new ObjectMapper();
+		try (URLClassLoader loader = GeneratedProject.load(classes)) {
+			Object controller = GeneratedProject.newBean(loader.loadClass("com.acme.controllers.ItemsController"),
+					objectMapper);
+			String json = """
+					{"id":1,"name":"a, \\"b\\"\\nc","tags":["x","y,z"],"nums":[1,2],"doc":{"k":["v",1]},"photo":"AQI="}\
+					""";
+			Object resource = objectMapper.readValue(json, loader.loadClass("com.acme.resources.ItemResource"));
+			String csv = readStatic(controller, "CSV_HEADER") + "\n" + GeneratedProject.invoke(controller, "toCsvLine", resource)
+					+ "\n";
+
+			Class<?> csvSupport = loader.loadClass("com.acme.resources.CsvSupport");
+			List<?> rows = ((Stream<?>) csvSupport.getMethod("records", BufferedReader.class)
+					.invoke(null, new BufferedReader(new StringReader(csv)))).toList();
+			assertEquals(1, rows.size());
+			Object imported = GeneratedProject.invoke(controller, "fromCsvRow", rows.get(0));
+
+			assertEquals(json, objectMapper.writeValueAsString(imported));
+		}
+	}
+
+	@Test
+	void patchWritesOnlyThePropertiesOfTheBody() throws Exception {
+		Path src = GeneratedProject.generate(dir, """
+				create table "member" ("id" bigint primary key, "first_name" varchar(80), "nick" varchar(40),
+				    "age" int not null)
+				""", """
+				tables:
+				  member:
+				    columns:
+				      first_name:
+				        resource: givenName
+				""", cfg -> cfg.generateDto(true).generateRepositories(true).generateServices(true)
+				.generateControllers(true).primitiveTypes(true));
+		Path classes = dir.resolve("classes");
+		GeneratedProject.assertCompiles(src, classes);
+
+		ObjectMapper objectMapper = new ObjectMapper();
+		try (URLClassLoader loader = GeneratedProject.load(classes)) {
+			Class<?> entityType = loader.loadClass("com.acme.entities.Member");
+			Object stored = objectMapper.convertValue(Map.of("id", 1, "firstName", "Ada", "nick", "ada", "age", 36),
+					entityType);
+			Object repository = Proxy.newProxyInstance(loader,
+					new Class<?>[] { loader.loadClass("com.acme.repositories.MembersRepository") },
+					(proxy, method, args) -> switch (method.getName()) {
+					case "findById" -> Optional.ofNullable(Long.valueOf(1).equals(args[0]) ? stored : null);
+					default -> throw new UnsupportedOperationException(method.getName());
+					});
+			Object service = GeneratedProject.newBean(loader.loadClass("com.acme.services.MembersService"), repository,
+					loader.loadClass("com.acme.mappers.MemberMapperImpl").getConstructor().newInstance());
+			Object controller = GeneratedProject.newBean(loader.loadClass("com.acme.controllers.MembersController"),
+					service, objectMapper,
+					loader.loadClass("com.acme.resourceMappers.MemberResourceMapperImpl").getConstructor().newInstance());
+
+			// a renamed property is written under its DTO name, an explicit null clears the column
+			GeneratedProject.invoke(controller, "patch", 1L, objectMapper.readTree("{\"givenName\":\"Grace\",\"nick\":null}"));
+			assertEquals("{\"id\":1,\"firstName\":\"Grace\",\"nick\":null,\"age\":36}",
+					objectMapper.writeValueAsString(stored));
+			// a primitive is written even with its default value
+			GeneratedProject.invoke(controller, "patch", 1L, objectMapper.readTree("{\"age\":0}"));
+			assertEquals("{\"id\":1,\"firstName\":\"Grace\",\"nick\":null,\"age\":0}",
+					objectMapper.writeValueAsString(stored));
+
+			ResponseEntity<?> missing = (ResponseEntity<?>) GeneratedProject.invoke(controller, "patch", 2L,
+					objectMapper.readTree("{\"age\":1}"));
+			assertEquals(404, missing.getStatusCode().value());
+		}
+	}
+
+	@Test
+	void listETagsComeFromIdsAndVersionsNotFromJson() throws Exception {
+		Path src = GeneratedProject.generate(dir, DOCS + ";" + ITEMS, cfg -> cfg.generateDto(true).generateRepositories(true).generateServices(true)
+				.generateControllers(true));
+		String controller = GeneratedProject.source(src, "controllers", "DocsController");
+		assertTrue(controller.contains("Objects.hash(dto.getId(), dto.getVersion())"), controller);
+		assertFalse(controller.contains("writeValueAsBytes"), controller);
+		assertFalse(controller.contains("DigestUtils"), controller);
+		Path classes = dir.resolve("classes");
+		GeneratedProject.assertCompiles(src, classes);
+
+		ObjectMapper objectMapper = new ObjectMapper();
+		try (URLClassLoader loader = GeneratedProject.load(classes)) {
+			Class<?> docs = loader.loadClass("com.acme.controllers.DocsController");
+			Class<?> docDto = loader.loadClass("com.acme.dtos.DocDto");
+			String current = listETag(docs, objectMapper, docDto, "{\"id\":1,\"title\":\"a\",\"version\":1}");
+			// same id and version: the row did not change
+			assertEquals(current, listETag(docs, objectMapper, docDto, "{\"id\":1,\"title\":\"b\",\"version\":1}"));
+			assertNotEquals(current, listETag(docs, objectMapper, docDto, "{\"id\":1,\"title\":\"a\",\"version\":2}"));
+			assertNotEquals(current, listETag(docs, objectMapper, docDto, "{\"id\":2,\"title\":\"a\",\"version\":1}"));
+
+			// no version: every column counts, arrays by content
+			Class<?> items = loader.loadClass("com.acme.controllers.ItemsController");
+			Class<?> itemDto = loader.loadClass("com.acme.dtos.ItemDto");
+			String item = listETag(items, objectMapper, itemDto, "{\"id\":1,\"tags\":[\"x\"]}");
+			assertEquals(item, listETag(items, objectMapper, itemDto, "{\"id\":1,\"tags\":[\"x\"]}"));
+			assertNotEquals(item, listETag(items, objectMapper, itemDto, "{\"id\":1,\"tags\":[\"y\"]}"));
+		}
+	}
+
+	@Test
+	void ifMatchUsesStrongComparison() throws Exception {
+		Path src = GeneratedProject.generate(dir, DOCS, cfg -> cfg.generateDto(true).generateRepositories(true)
+				.generateServices(true).generateControllers(true));
+		Path classes = dir.resolve("classes");
+		GeneratedProject.assertCompiles(src, classes);
+
+		ObjectMapper objectMapper = new ObjectMapper();
+		try (URLClassLoader loader = GeneratedProject.load(classes)) {
+			Class<?> entityType = loader.loadClass("com.acme.entities.Doc");
+			Object stored = objectMapper.convertValue(Map.of("id", 1, "title", "a", "version", 3), entityType);
+			Object repository = Proxy.newProxyInstance(loader,
+					new Class<?>[] { loader.loadClass("com.acme.repositories.DocsRepository") },
+					(proxy, method, args) -> switch (method.getName()) {
+					case "findById" -> Optional.of(stored);
+					default -> throw new UnsupportedOperationException(method.getName());
+					});
+			Object service = GeneratedProject.newBean(loader.loadClass("com.acme.services.DocsService"), repository,
+					loader.loadClass("com.acme.mappers.DocMapperImpl").getConstructor().newInstance());
+			Object controller = GeneratedProject.newBean(loader.loadClass("com.acme.controllers.DocsController"),
+					service, objectMapper);
+			Class<?> resourceType = loader.loadClass("com.acme.resources.DocResource");
+
+			assertEquals(3, ifMatchVersion(controller, objectMapper, resourceType, "\"3\""));
+			assertEquals(2, ifMatchVersion(controller, objectMapper, resourceType, "\"2\""));
+			// a weak tag never matches, a tag list goes on with the current version
+			assertNull(ifMatchResource(controller, objectMapper, resourceType, "W/\"3\""));
+			assertEquals(3, ifMatchVersion(controller, objectMapper, resourceType, "\"2\", \"3\""));
+			assertNull(ifMatchResource(controller, objectMapper, resourceType, "\"1\", \"2\""));
+			assertNull(ifMatchResource(controller, objectMapper, resourceType, "\"x\""));
+			// * and no header keep the body's version
+			assertEquals(7, ifMatchVersion(controller, objectMapper, resourceType, "*"));
+			assertEquals(7, ifMatchVersion(controller, objectMapper, resourceType, null));
+
+			Field required = controller.getClass().getDeclaredField("ifMatchRequired");
+			required.setAccessible(true);
+			required.setBoolean(controller, true);
+			ResponseEntity<?> response = (ResponseEntity<?>) GeneratedProject.invoke(controller, "update", 1L, null,
+					body(objectMapper, resourceType));
+			assertEquals(428, response.getStatusCode().value());
+		}
+	}
+
+	private static Object body(ObjectMapper objectMapper, Class<?> resourceType) {
+		return objectMapper.convertValue(Map.of("id", 1, "title", "b", "version", 7), resourceType);
+	}
+
+	private static Object ifMatchResource(Object controller, ObjectMapper objectMapper, Class<?> resourceType,
+			String ifMatch) throws ReflectiveOperationException {
+		return GeneratedProject.invoke(controller, "applyIfMatch", 1L, ifMatch, body(objectMapper, resourceType));
+	}
+
+	private static Object ifMatchVersion(Object controller, ObjectMapper objectMapper, Class<?> resourceType,
+			String ifMatch) throws ReflectiveOperationException {
+		Object resource = ifMatchResource(controller, objectMapper, resourceType, ifMatch);
+		return resourceType.getMethod("getVersion").invoke(resource);
+	}
+
+	/** ETag of the first page (of one) holding the row. */
+	private static String listETag(Class<?> controller, ObjectMapper objectMapper, Class<?> dtoType, String row)
+			throws Exception {
+		Method rowTag = controller.getDeclaredMethod("rowTag", dtoType);
+		rowTag.setAccessible(true);
+		ToIntFunction<Object> tag = dto -> {
+			try {
+				return (int) rowTag.invoke(null, dto);
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalStateException(e);
+			}
+		};
+		Method listETag = controller.getDeclaredMethod("listETag", List.class, ToIntFunction.class, long[].class);
+		listETag.setAccessible(true);
+		return (String) listETag.invoke(null, List.of(objectMapper.readValue(row, dtoType)), tag,
+				new long[] { 0, 20, 1 });
+	}
+
+	private static Object readStatic(Object target, String field) throws ReflectiveOperationException {
+		java.lang.reflect.Field f = target.getClass().getDeclaredField(field);
+		f.setAccessible(true);
+		return f.get(null);
+	}
+}
@@ -0,0 +1,55 @@
+package org.cheetah.sword.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class DtoAndMapperWriterTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void primitiveBooleanWithIsPrefixMapsThroughMapStruct() throws Exception {
+		Path src = GeneratedProject.generate(dir, """
+				create table "account" ("id" bigint primary key, "is_active" boolean not null,
+				    "verified" boolean not null, "logins" int not null)
+				""", cfg -> cfg.generateDto(true).generateRepositories(true).generateServices(true)
+				.generateControllers(true).primitiveTypes(true));
+
+		String entity = GeneratedProject.source(src, "", "Account");
+		assertTrue(entity.contains("private Boolean isActive;"), entity);
+		assertTrue(entity.contains("private boolean verified;"), entity);
+		assertTrue(entity.contains("private int logins;"), entity);
+		String dto = GeneratedProject.source(src, "dtos", "AccountDto");
+		assertTrue(dto.contains("private Boolean isActive;"), dto);
+
+		Path classes = dir.resolve("classes");
+		GeneratedProject.assertCompiles(src, classes);
+
+		ObjectMapper objectMapper = new ObjectMapper();
+		try (URLClassLoader loader = GeneratedProject.load(classes)) {
+			Class<?> entityType = loader.loadClass("com.acme.entities.Account");
+			Object account = objectMapper.convertValue(Map.of("id", 1, "isActive", true, "verified", true,
+					"logins", 3), entityType);
+			Object mapper = loader.loadClass("com.acme.mappers.AccountMapperImpl").getConstructor().newInstance();
+
+			Object accountDto = GeneratedProject.invoke(mapper, "toDto", account);
+			assertEquals(true, GeneratedProject.invoke(accountDto, "getIsActive"));
+			assertEquals(true, GeneratedProject.invoke(accountDto, "isVerified"));
+			assertEquals(3, GeneratedProject.invoke(accountDto, "getLogins"));
+			Object back = GeneratedProject.invoke(mapper, "toEntity", accountDto);
+			assertEquals(true, entityType.getMethod("getIsActive").invoke(back));
+			assertEquals(true, entityType.getMethod("isVerified").invoke(back));
+			assertEquals(3, entityType.getMethod("getLogins").invoke(back));
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package org.cheetah.sword.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class EntityFilesWriterTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void uuidArrayAndIntervalColumnsRoundTripThroughHibernate() throws Exception {
+		// unquoted, as the JPA entities name their table and columns
+		String ddl = """
+				create table probe (probe_id bigint primary key, probe_uuid uuid, probe_tags varchar(20) array,
+				    probe_nums int array, probe_wait interval day to second, probe_ratio double precision,
+				    probe_score real, probe_span interval year to month)
+				""";
+		Path src = GeneratedProject.generate(dir, ddl, cfg -> cfg.generateRepositories(true));
+		String entity = GeneratedProject.source(src, "", "Probe");
+		assertTrue(entity.contains("private UUID probeUuid;"), entity);
+		assertTrue(entity.contains("private String[] probeTags;"), entity);
+		assertTrue(entity.contains("private int[] probeNums;"), entity);
+		assertTrue(entity.contains("private Duration probeWait;"), entity);
+		assertTrue(entity.contains("private Double probeRatio;"), entity);
+		assertTrue(entity.contains("private Float probeScore;"), entity);
+		assertTrue(entity.contains("private Object probeSpan;"), entity);
+		Path classes = dir.resolve("classes");
+		GeneratedProject.assertCompiles(src, classes);
+
+		DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:native-types;DB_CLOSE_DELAY=-1", "sa", "");
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute(ddl);
+		UUID uuid = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+		jdbcTemplate.update("insert into probe values (1, ?, array['a', 'b'], array[1, 2],"
+				+ " interval '1 02:03:04' day to second, 0.5, 1.5, interval '1-2' year to month)", uuid);
+		try (URLClassLoader loader = GeneratedProject.load(classes);
+				AnnotationConfigApplicationContext context = GeneratedProject.jpaContext(loader, dataSource)) {
+			Class<?> entityType = loader.loadClass("com.acme.entities.Probe");
+			Object repository = context.getBean(loader.loadClass("com.acme.repositories.ProbesRepository"));
+
+			Object probe = ((Optional<?>) GeneratedProject.invoke(repository, "findById", 1L)).orElseThrow();
+			assertEquals(uuid, entityType.getMethod("getProbeUuid").invoke(probe));
+			assertArrayEquals(new String[] { "a", "b" }, (String[]) entityType.getMethod("getProbeTags").invoke(probe));
+			assertArrayEquals(new int[] { 1, 2 }, (int[]) entityType.getMethod("getProbeNums").invoke(probe));
+			assertEquals(Duration.parse("P1DT2H3M4S"), entityType.getMethod("getProbeWait").invoke(probe));
+			assertEquals(0.5, entityType.getMethod("getProbeRatio").invoke(probe));
+			assertEquals(1.5f, entityType.getMethod("getProbeScore").invoke(probe));
+			// a year-month interval counts months, which a Duration cannot hold
+			assertEquals("INTERVAL '1-2' YEAR TO MONTH", entityType.getMethod("getProbeSpan").invoke(probe).toString());
+
+			entityType.getMethod("setProbeNums", int[].class).invoke(probe, new int[] { 3 });
+			entityType.getMethod("setProbeWait", Duration.class).invoke(probe, Duration.ofMinutes(5));
+			GeneratedProject.invoke(repository, "save", probe);
+			assertArrayEquals(new Object[] { 3 }, jdbcTemplate.queryForObject("select probe_nums from probe",
+					(rs, row) -> (Object[]) rs.getArray(1).getArray()));
+			assertEquals(Duration.ofMinutes(5), jdbcTemplate.queryForObject("select probe_wait from probe",
+					Duration.class));
+		}
+	}
+
+	@Test
+	void viewsAndReadOnlyTablesAreServedButNeverWritten() throws Exception {
+		String ddl = """
+				create table country (country_id bigint primary key, country_name varchar(40) not null);
+				create view country_label as select country_id, upper(country_name) as country_label from country
+				""";
+		String naming = """
+				tables:
+				  country:
+				    readOnly: true
+				""";
+		Path src = GeneratedProject.generate(dir, ddl, naming, cfg -> cfg.generateDto(true)
+				.generateRepositories(true).generateServices(true).generateControllers(true).includeViews(true));
+		for (String name : List.of("Country", "CountryLabel")) {
+			String entity = GeneratedProject.source(src, "", name);
+			assertTrue(entity.contains("@Immutable"), entity);
+			assertFalse(entity.contains("@GeneratedValue"), entity);
+		}
+		Path classes = dir.resolve("classes");
+		GeneratedProject.assertCompiles(src, classes);
+
+		DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:read-only;DB_CLOSE_DELAY=-1", "sa", "");
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.batchUpdate(ddl.split(";"));
+		jdbcTemplate.update("insert into country values (1, 'Italy')");
+		try (URLClassLoader loader = GeneratedProject.load(classes);
+				AnnotationConfigApplicationContext context = GeneratedProject.jpaContext(loader, dataSource,
+						loader.loadClass("com.acme.mappers.CountryLabelMapperImpl"),
+						loader.loadClass("com.acme.services.CountryLabelsService"))) {
+			Class<?> labelService = loader.loadClass("com.acme.services.CountryLabelsService");
+			for (String write : List.of("save", "update", "patch", "delete", "saveAll", "importAll")) {
+				assertTrue(Arrays.stream(labelService.getMethods()).noneMatch(m -> m.getName().equals(write)), write);
+			}
+			Object label = GeneratedProject.invoke(context.getBean(labelService), "findById", 1L);
+			assertEquals("ITALY", GeneratedProject.invoke(label, "getCountryLabel"));
+
+			// changes to a loaded immutable entity are not flushed
+			Object countries = context.getBean(loader.loadClass("com.acme.repositories.CountrysRepository"));
+			context.getBean(TransactionTemplate.class).executeWithoutResult(status -> {
+				try {
+					Object country = ((Optional<?>) GeneratedProject.invoke(countries, "findById", 1L)).orElseThrow();
+					country.getClass().getMethod("setCountryName", String.class).invoke(country, "Italia");
+				} catch (ReflectiveOperationException e) {
+					throw new IllegalStateException(e);
+				}
+			});
+			assertEquals("Italy", jdbcTemplate.queryForObject("select country_name from country", String.class));
+		}
+	}
+}
@@ -0,0 +1,250 @@
+package org.cheetah.sword.service;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.cheetah.sword.events.Events.GenerateRequestedEvent;
+import org.cheetah.sword.model.ConnectionConfig;
+import org.cheetah.sword.model.DbType;
+import org.cheetah.sword.model.SchemaSelection;
+import org.cheetah.sword.util.PackageUtils;
+import org.cheetah.sword.wizard.SwordWizard;
+import org.h2.tools.Server;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs the JPA generation against an in-memory H2 schema, served over TCP like the
+ * database the wizard connects to, and compiles the generated sources against the
+ * test classpath (Spring Data JPA, Hibernate, Lombok, MapStruct).
+ *
+ * Path src = GeneratedProject.generate(dir, "create table ...", cfg -> cfg.generateServices(true));
+ * GeneratedProject.assertCompiles(src, dir.resolve("classes"));
+ */
+final class GeneratedProject {
+
+	static final String BASE_PACKAGE = "com.acme.entities";
+
+	private static final AtomicInteger DATABASES = new AtomicInteger();
+
+	private GeneratedProject() {}
+
+	/** Generates into dir/src the code of the tables created by ddl (statements separated by ';'). */
+	static Path generate(Path dir, String ddl, UnaryOperator<ConnectionConfig.ConnectionConfigBuilder> options)
+			throws SQLException, IOException {
+		return generate(dir, ddl, null, options);
+	}
+
+	/** Same, with the naming YAML (section 4 of the README) given as --naming-file when not null. */
+	static Path generate(Path dir, String ddl, String namingYaml,
+			UnaryOperator<ConnectionConfig.ConnectionConfigBuilder> options) throws SQLException, IOException {
+		String[] args = {};
+		if (namingYaml != null) {
+			Path namingFile = Files.writeString(dir.resolve("naming.yml"), namingYaml);
+			args = new String[] { "--naming-file=" + namingFile };
+		}
+		Server server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+		String dbName = "mem:sword" + DATABASES.incrementAndGet();
+		// the in-memory database lives as long as this connection
+		try (Connection keepAlive = DriverManager.getConnection(
+				DbType.H2.buildJdbcUrl("localhost", server.getPort(), dbName), "sa", "");
+				Statement st = keepAlive.createStatement();
+				AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+			for (String sql : ddl.split(";")) {
+				if (!sql.isBlank()) {
+					st.execute(sql);
+				}
+			}
+
+			String[] arguments = args;
+			context.registerBean(ApplicationArguments.class, () -> new DefaultApplicationArguments(arguments));
+			context.scan("org.cheetah.sword.service");
+			context.refresh();
+
+			usePackages(BASE_PACKAGE);
+			Path src = dir.resolve("src");
+			ConnectionConfig cfg = options.apply(ConnectionConfig.builder().dbType(DbType.H2).host("localhost")
+					.port(server.getPort()).username("sa").password("").dbName(dbName).outputPath(src)).build();
+			context.getBean(GenerationService.class)
+					.onGenerate(new GenerateRequestedEvent(cfg, new SchemaSelection(null, "PUBLIC")));
+			return src;
+		} finally {
+			server.stop();
+		}
+	}
+
+	/** The generated source of a class, e.g. source(src, "repositories", "ReportsRepository"). */
+	static String source(Path src, String sibling, String simpleName) throws IOException {
+		String pkg = sibling.isEmpty() ? BASE_PACKAGE : PackageUtils.siblingPackage(BASE_PACKAGE, sibling);
+		Path file = src.resolve(pkg.replace('.', '/')).resolve(simpleName + ".java");
+		assertTrue(Files.exists(file), () -> "not generated: " + file);
+		return Files.readString(file);
+	}
+
+	/** Compiles every generated source under src into classes, failing with the javac errors. */
+	static void assertCompiles(Path src, Path classes) throws IOException {
+		List<File> sources;
+		try (Stream<Path> files = Files.walk(src)) {
+			sources = files.filter(f -> f.toString().endsWith(".java")).map(Path::toFile).toList();
+		}
+		Files.createDirectories(classes);
+
+		JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		try (StandardJavaFileManager fileManager = javac.getStandardFileManager(diagnostics, Locale.ROOT, null)) {
+			// surefire may start the JVM with a manifest-only jar
+			String classpath = System.getProperty("surefire.test.class.path", System.getProperty("java.class.path"));
+			List<String> options = List.of("-classpath", classpath, "-d", classes.toString(),
+					"-Xlint:none", "-nowarn");
+			boolean ok = javac.getTask(null, fileManager, diagnostics, options, null,
+					fileManager.getJavaFileObjectsFromFiles(sources)).call();
+			if (!ok) {
+				fail(diagnostics.getDiagnostics().stream().filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+						.map(d -> d.getSource().getName() + ":" + d.getLineNumber() + ": " + d.getMessage(Locale.ROOT))
+						.collect(Collectors.joining("\n")));
+			}
+		}
+	}
+
+	/** Class loader of the compiled generated classes, on top of the test classpath. */
+	static URLClassLoader load(Path classes) throws IOException {
+		return new URLClassLoader(new URL[] { classes.toUri().toURL() }, GeneratedProject.class.getClassLoader());
+	}
+
+	/**
+	 * Spring context running the generated JPA layers with Hibernate on dataSource: the
+	 * entities, the repositories, a JdbcTemplate, transactions and the given bean classes.
+	 * Hibernate statistics are on, so tests can tell which statements a call ran.
+	 */
+	static AnnotationConfigApplicationContext jpaContext(ClassLoader loader, DataSource dataSource,
+			Class<?>... beans) {
+		return jpaContext(loader, dataSource, Map.of(), beans);
+	}
+
+	/** Same, with extra Hibernate properties, e.g. the hibernate.cache.* settings of application-sword.yml. */
+	static AnnotationConfigApplicationContext jpaContext(ClassLoader loader, DataSource dataSource,
+			Map<String, Object> properties, Class<?>... beans) {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.setClassLoader(loader);
+		context.registerBean(DataSource.class, () -> dataSource);
+		context.registerBean(JdbcTemplate.class, () -> new JdbcTemplate(dataSource));
+		context.registerBean("entityManagerFactory", LocalContainerEntityManagerFactoryBean.class, () -> {
+			LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+			factory.setDataSource(dataSource);
+			factory.setPackagesToScan(BASE_PACKAGE);
+			factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+			Map<String, Object> jpaProperties = new HashMap<>(properties);
+			jpaProperties.put("hibernate.generate_statistics", true);
+			factory.setJpaPropertyMap(jpaProperties);
+			return factory;
+		});
+		context.registerBean("transactionManager", JpaTransactionManager.class);
+		context.registerBean(TransactionTemplate.class,
+				() -> new TransactionTemplate(context.getBean(PlatformTransactionManager.class)));
+		context.register(JpaRepositories.class);
+		if (beans.length > 0) {
+			context.register(beans);
+		}
+		context.refresh();
+		return context;
+	}
+
+	/**
+	 * Instantiates a generated Spring bean through its (Lombok) constructor: each parameter
+	 * gets the matching value of dependencies, or null (0 / false for primitives).
+	 */
+	static Object newBean(Class<?> type, Object... dependencies) throws ReflectiveOperationException {
+		Constructor<?> constructor = type.getDeclaredConstructors()[0];
+		Object[] args = new Object[constructor.getParameterCount()];
+		for (int i = 0; i < args.length; i++) {
+			Class<?> parameterType = constructor.getParameterTypes()[i];
+			if (parameterType.isPrimitive()) {
+				args[i] = Array.get(Array.newInstance(parameterType, 1), 0);
+			}
+			for (Object dependency : dependencies) {
+				if (constructor.getParameterTypes()[i].isInstance(dependency)) {
+					args[i] = dependency;
+				}
+			}
+		}
+		constructor.setAccessible(true);
+		return constructor.newInstance(args);
+	}
+
+	/** Invokes a (possibly private) method of a generated object by name. */
+	static Object invoke(Object target, String method, Object... args) throws ReflectiveOperationException {
+		for (Method m : target.getClass().getDeclaredMethods()) {
+			if (m.getName().equals(method) && m.getParameterCount() == args.length) {
+				m.setAccessible(true);
+				try {
+					return m.invoke(target, args);
+				} catch (InvocationTargetException e) {
+					if (e.getCause() instanceof RuntimeException runtime) {
+						throw runtime;
+					}
+					throw e;
+				}
+			}
+		}
+		throw new NoSuchMethodException(target.getClass().getName() + "." + method);
+	}
+
+	@EnableJpaRepositories(basePackages = "com.acme.repositories")
+	@EnableTransactionManagement
+	static class JpaRepositories {
+	}
+
+	private static void usePackages(String basePackage) {
+		SwordWizard.BASE_PACKAGE = basePackage;
+		SwordWizard.ENTITY_PKG = PackageUtils.normalizePackage(basePackage);
+		SwordWizard.DTO_PKG = PackageUtils.siblingPackage(SwordWizard.ENTITY_PKG, "dtos");
+		SwordWizard.MAPPER_PKG = PackageUtils.siblingPackage(SwordWizard.ENTITY_PKG, "mappers");
+		SwordWizard.REPOSITORY_PKG = PackageUtils.siblingPackage(SwordWizard.ENTITY_PKG, "repositories");
+		SwordWizard.SERVICE_PKG = PackageUtils.siblingPackage(SwordWizard.ENTITY_PKG, "services");
+		SwordWizard.CONTROLLER_PKG = PackageUtils.siblingPackage(SwordWizard.ENTITY_PKG, "controllers");
+		SwordWizard.RESOURCES_PKG = PackageUtils.siblingPackage(SwordWizard.ENTITY_PKG, "resources");
+		SwordWizard.RESOURCE_MAPPERS_PKG = PackageUtils.siblingPackage(SwordWizard.ENTITY_PKG, "resourceMappers");
+		SwordWizard.CONFIG_PKG = PackageUtils.siblingPackage(SwordWizard.ENTITY_PKG, "config");
+		SwordWizard.JSON_PKG = PackageUtils.siblingPackage(SwordWizard.ENTITY_PKG, "json");
+	}
+}
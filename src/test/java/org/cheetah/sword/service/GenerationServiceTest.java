@@ -0,0 +1,58 @@
+package org.cheetah.sword.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.cheetah.sword.model.DbType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class GenerationServiceTest {
+
+	private static final String ORDERS = """
+			create sequence "orders_seq";
+			create table "orders" ("id" bigint default next value for "orders_seq" primary key, "note" varchar(20))
+			""";
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void sequenceIdentifierKeepsQuotedParts() {
+		assertEquals("\"PUBLIC\".\"orders_seq\"", GenerationService.sequenceIdentifier("\"PUBLIC\".\"orders_seq\"", DbType.H2));
+		assertEquals("\"dbo\".\"Orders Seq\"", GenerationService.sequenceIdentifier("[dbo].[Orders Seq]", DbType.MSSQL));
+		assertEquals("\"a\"\"b\"", GenerationService.sequenceIdentifier("\"a\"\"b\"", DbType.POSTGRES));
+		assertEquals("public.orders_id_seq", GenerationService.sequenceIdentifier("public.orders_id_seq", DbType.POSTGRES));
+	}
+
+	@Test
+	void quotedLowerCaseSequenceIsRaisedByTheMigration() throws Exception {
+		Path src = GeneratedProject.generate(dir, ORDERS, cfg -> cfg.sequenceIncrement(50));
+
+		String entity = GeneratedProject.source(src, "", "Order");
+		assertTrue(entity.contains("sequenceName = \"\\\"PUBLIC\\\".\\\"orders_seq\\\"\""), entity);
+		String migration = Files.readString(
+				ApplicationConfigWriter.resourcesRoot(src).resolve(SequenceMigrationWriter.MIGRATION_FILE));
+
+		try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:", "sa", "");
+				Statement st = connection.createStatement()) {
+			for (String sql : (ORDERS + ";" + migration.replaceAll("(?m)^--.*$", "")).split(";")) {
+				if (!sql.isBlank()) {
+					st.execute(sql);
+				}
+			}
+			try (ResultSet rs = st.executeQuery(
+					"select increment from information_schema.sequences where sequence_name = 'orders_seq'")) {
+				assertTrue(rs.next());
+				assertEquals(50, rs.getLong(1));
+			}
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package org.cheetah.sword.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.cheetah.sword.model.GenerationTarget;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.jdbc.repository.config.EnableJdbcRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class JdbcServiceWriterTest {
+
+	private static final String DOCS = """
+			create table "doc" ("id" bigint primary key, "title" varchar(80), "version" int not null);
+			create table "tag" ("id" bigint primary key, "name" varchar(40))
+			""";
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void generatedStackRunsOnSpringDataJdbc() throws Exception {
+		Path src = GeneratedProject.generate(dir, DOCS, cfg -> cfg.target(GenerationTarget.JDBC).generateDto(true)
+				.generateRepositories(true).generateServices(true).generateControllers(true));
+		Path classes = dir.resolve("classes");
+		GeneratedProject.assertCompiles(src, classes);
+
+		DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:jdbc-target;DB_CLOSE_DELAY=-1", "sa", "");
+		new JdbcTemplate(dataSource).batchUpdate(DOCS.split(";"));
+		ObjectMapper objectMapper = new ObjectMapper();
+		try (URLClassLoader loader = GeneratedProject.load(classes);
+				AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+			context.setClassLoader(loader);
+			context.registerBean(DataSource.class, () -> dataSource);
+			context.registerBean(NamedParameterJdbcOperations.class, () -> new NamedParameterJdbcTemplate(dataSource));
+			context.registerBean("transactionManager", PlatformTransactionManager.class,
+					() -> new DataSourceTransactionManager(dataSource));
+			context.register(Repositories.class, loader.loadClass("com.acme.config.JdbcConfig"),
+					loader.loadClass("com.acme.mappers.DocMapperImpl"), loader.loadClass("com.acme.services.DocService"),
+					loader.loadClass("com.acme.mappers.TagMapperImpl"), loader.loadClass("com.acme.services.TagService"));
+			context.refresh();
+			Class<?> dtoType = loader.loadClass("com.acme.dtos.DocDto");
+			Object service = context.getBean(loader.loadClass("com.acme.services.DocService"));
+
+			// save inserts the client-assigned key instead of updating a missing row
+			Object saved = GeneratedProject.invoke(service, "save",
+					objectMapper.convertValue(Map.of("id", 1, "title", "draft"), dtoType));
+			assertEquals(0, dtoType.getMethod("getVersion").invoke(saved));
+			RuntimeException duplicate = assertThrows(RuntimeException.class, () -> GeneratedProject.invoke(service,
+					"save", objectMapper.convertValue(Map.of("id", 1, "title", "copy"), dtoType)));
+			assertInstanceOf(DuplicateKeyException.class, duplicate.getCause());
+
+			// without a version to tell new rows apart, a client-assigned key is still inserted
+			Class<?> tagDtoType = loader.loadClass("com.acme.dtos.TagDto");
+			Object tags = context.getBean(loader.loadClass("com.acme.services.TagService"));
+			GeneratedProject.invoke(tags, "save", objectMapper.convertValue(Map.of("id", 7, "name", "jdbc"), tagDtoType));
+			assertEquals("jdbc", tagDtoType.getMethod("getName").invoke(GeneratedProject.invoke(tags, "findById", 7L)));
+
+			// an update without version applies to the current row, a stale one is rejected
+			Object updated = GeneratedProject.invoke(service, "update", 1L,
+					objectMapper.convertValue(Map.of("title", "final"), dtoType));
+			assertEquals(1, dtoType.getMethod("getVersion").invoke(updated));
+			assertThrows(OptimisticLockingFailureException.class, () -> GeneratedProject.invoke(service, "update",
+					1L, objectMapper.convertValue(Map.of("title", "stale", "version", 0), dtoType)));
+			assertNull(GeneratedProject.invoke(service, "update", 2L,
+					objectMapper.convertValue(Map.of("title", "none"), dtoType)));
+
+			Object page = GeneratedProject.invoke(service, "findAll", 0, 20);
+			assertEquals(1L, page.getClass().getMethod("getTotalElements").invoke(page));
+			assertEquals("final", dtoType.getMethod("getTitle").invoke(GeneratedProject.invoke(service, "findById", 1L)));
+
+			assertEquals(false, GeneratedProject.invoke(service, "delete", 2L));
+			assertEquals(true, GeneratedProject.invoke(service, "delete", 1L));
+			assertNull(GeneratedProject.invoke(service, "findById", 1L));
+		}
+	}
+
+	@EnableJdbcRepositories(basePackages = "com.acme.repositories")
+	static class Repositories {
+	}
+}
@@ -0,0 +1,96 @@
+package org.cheetah.sword.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class JsonColumnWriterTest {
+
+	// unquoted, as the JPA entities name their table and columns
+	private static final String EVENTS = """
+			create table event (event_id bigint primary key, event_raw json, event_node json, event_ship json,
+			    event_data json)
+			""";
+
+	private static final String NAMING = """
+			tables:
+			  event:
+			    json:
+			      EVENT_RAW: raw
+			      EVENT_NODE: node
+			      EVENT_SHIP:
+			        sample: '{"street": "Main St 1", "lines": [{"sku": "A1", "qty": 2}]}'
+			""";
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void eachJsonModeRoundTripsThroughHibernate() throws Exception {
+		Path src = GeneratedProject.generate(dir, EVENTS, NAMING, cfg -> cfg.generateDto(true)
+				.generateRepositories(true).generateServices(true).generateControllers(true));
+		String entity = GeneratedProject.source(src, "", "Event");
+		assertTrue(entity.contains("private String eventRaw;"), entity);
+		assertTrue(entity.contains("private JsonNode eventNode;"), entity);
+		assertTrue(entity.contains("private EventEventShip eventShip;"), entity);
+		assertTrue(entity.contains("private Map<String, Object> eventData;"), entity);
+		String repository = GeneratedProject.source(src, "repositories", "EventsRepository");
+		assertFalse(repository.contains("findByEventNode"), repository);
+		Path classes = dir.resolve("classes");
+		GeneratedProject.assertCompiles(src, classes);
+
+		DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:json-columns;DB_CLOSE_DELAY=-1", "sa", "");
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute(EVENTS);
+		jdbcTemplate.update("insert into event values (1, '{\"a\":1}' format json, '{\"b\":2}' format json,"
+				+ " '{\"street\":\"Elm St 2\",\"lines\":[{\"sku\":\"B2\",\"qty\":3}],\"extra\":true}' format json,"
+				+ " '{\"c\":3}' format json)");
+		ObjectMapper objectMapper = new ObjectMapper();
+		try (URLClassLoader loader = GeneratedProject.load(classes);
+				AnnotationConfigApplicationContext context = GeneratedProject.jpaContext(loader, dataSource)) {
+			Class<?> entityType = loader.loadClass("com.acme.entities.Event");
+			Object events = context.getBean(loader.loadClass("com.acme.repositories.EventsRepository"));
+
+			Object event = ((Optional<?>) GeneratedProject.invoke(events, "findById", 1L)).orElseThrow();
+			assertEquals("{\"a\":1}", entityType.getMethod("getEventRaw").invoke(event));
+			assertEquals(2, ((JsonNode) entityType.getMethod("getEventNode").invoke(event)).get("b").asInt());
+			// unknown properties of the stored document are ignored
+			Object ship = entityType.getMethod("getEventShip").invoke(event);
+			assertEquals("Elm St 2", GeneratedProject.invoke(ship, "getStreet"));
+			Object line = ((List<?>) GeneratedProject.invoke(ship, "getLines")).get(0);
+			assertEquals(3L, GeneratedProject.invoke(line, "getQty"));
+			assertEquals(Map.of("c", 3), entityType.getMethod("getEventData").invoke(event));
+
+			// raw text is stored as a JSON document, not as a JSON string
+			entityType.getMethod("setEventRaw", String.class).invoke(event, "{\"a\":[1,2]}");
+			GeneratedProject.invoke(events, "save", event);
+			assertEquals("{\"a\":[1,2]}", jdbcTemplate.queryForObject("select event_raw from event", String.class));
+		}
+
+		try (URLClassLoader loader = GeneratedProject.load(classes)) {
+			// the resource embeds raw JSON as is
+			String json = "{\"id\":1,\"eventRaw\":{\"a\":[1,2]},\"eventNode\":null,\"eventShip\":null,"
+					+ "\"eventData\":null}";
+			Object resource = objectMapper.readValue(json, loader.loadClass("com.acme.resources.EventResource"));
+			assertEquals("{\"a\":[1,2]}", GeneratedProject.invoke(resource, "getEventRaw"));
+			assertEquals(json, objectMapper.writeValueAsString(resource));
+		}
+	}
+}
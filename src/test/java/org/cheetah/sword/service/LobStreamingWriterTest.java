@@ -0,0 +1,77 @@
+package org.cheetah.sword.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class LobStreamingWriterTest {
+
+	// unquoted, as the JPA entities name their table and columns
+	private static final String FILES = """
+			create table file_doc (doc_id bigint primary key, doc_name varchar(40), doc_body blob)
+			""";
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void lobIsStreamedInAndOutAndKeptByDtoUpdates() throws Exception {
+		Path src = GeneratedProject.generate(dir, FILES, cfg -> cfg.generateDto(true).generateRepositories(true)
+				.generateServices(true).generateControllers(true));
+		String entity = GeneratedProject.source(src, "", "FileDoc");
+		assertTrue(entity.contains("fetch = FetchType.LAZY"), entity);
+		assertTrue(entity.contains("private Blob docBody;"), entity);
+		String dto = GeneratedProject.source(src, "dtos", "FileDocDto");
+		assertFalse(dto.contains("docBody"), dto);
+		Path classes = dir.resolve("classes");
+		GeneratedProject.assertCompiles(src, classes);
+
+		DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:lob-streaming;DB_CLOSE_DELAY=-1", "sa", "");
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute(FILES);
+		jdbcTemplate.update("insert into file_doc (doc_id, doc_name) values (1, 'report')");
+		ObjectMapper objectMapper = new ObjectMapper();
+		try (URLClassLoader loader = GeneratedProject.load(classes);
+				AnnotationConfigApplicationContext context = GeneratedProject.jpaContext(loader, dataSource,
+						loader.loadClass("com.acme.mappers.FileDocMapperImpl"),
+						loader.loadClass("com.acme.services.FileDocsService"))) {
+			Object service = context.getBean(loader.loadClass("com.acme.services.FileDocsService"));
+			Class<?> dtoType = loader.loadClass("com.acme.dtos.FileDocDto");
+			byte[] content = new byte[100_000];
+			new Random(1).nextBytes(content);
+
+			assertEquals(true, GeneratedProject.invoke(service, "writeDocBody", 1L, new ByteArrayInputStream(content),
+					(long) content.length));
+			assertEquals(content.length, jdbcTemplate.queryForObject("select octet_length(doc_body) from file_doc",
+					Integer.class));
+			// the DTO carries no LOB, so an update must not clear it
+			GeneratedProject.invoke(service, "update", 1L,
+					objectMapper.convertValue(Map.of("docId", 1, "docName", "renamed"), dtoType));
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			assertEquals(true, GeneratedProject.invoke(service, "readDocBody", 1L, out));
+			assertArrayEquals(content, out.toByteArray());
+
+			assertEquals(false, GeneratedProject.invoke(service, "readDocBody", 2L, new ByteArrayOutputStream()));
+			assertEquals(false, GeneratedProject.invoke(service, "writeDocBody", 2L, new ByteArrayInputStream(content),
+					(long) content.length));
+		}
+	}
+}
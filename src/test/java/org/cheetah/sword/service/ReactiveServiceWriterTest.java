@@ -0,0 +1,118 @@
+package org.cheetah.sword.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.cheetah.sword.model.GenerationTarget;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.r2dbc.convert.MappingR2dbcConverter;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.dialect.DialectResolver;
+import org.springframework.data.r2dbc.dialect.R2dbcDialect;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class ReactiveServiceWriterTest {
+
+	private static final String DOCS = """
+			create table "doc" ("id" bigint primary key, "title" varchar(80), "version" int not null);
+			create table "tag" ("id" bigint primary key, "name" varchar(40))
+			""";
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void generatedStackRunsOnSpringDataR2dbc() throws Exception {
+		Path src = GeneratedProject.generate(dir, DOCS, cfg -> cfg.target(GenerationTarget.R2DBC).generateDto(true)
+				.generateRepositories(true).generateServices(true).generateControllers(true));
+		Path classes = dir.resolve("classes");
+		GeneratedProject.assertCompiles(src, classes);
+
+		new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:r2dbc-target;DB_CLOSE_DELAY=-1", "sa", ""))
+				.batchUpdate(DOCS.split(";"));
+		ConnectionFactory connectionFactory = H2ConnectionFactory.inMemory("r2dbc-target");
+		R2dbcDialect dialect = DialectResolver.getDialect(connectionFactory);
+		ObjectMapper objectMapper = new ObjectMapper();
+		try (URLClassLoader loader = GeneratedProject.load(classes);
+				AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+			context.setClassLoader(loader);
+			context.registerBean(ConnectionFactory.class, () -> connectionFactory);
+			// what Spring Boot's R2dbcDataAutoConfiguration builds on the generated R2dbcConfig beans
+			context.registerBean("r2dbcEntityTemplate", R2dbcEntityTemplate.class, () -> new R2dbcEntityTemplate(
+					DatabaseClient.builder().connectionFactory(connectionFactory)
+							.bindMarkers(dialect.getBindMarkersFactory()).build(),
+					dialect, new MappingR2dbcConverter(context.getBean(R2dbcMappingContext.class),
+							context.getBean(R2dbcCustomConversions.class))));
+			context.register(Repositories.class, loader.loadClass("com.acme.config.R2dbcConfig"),
+					loader.loadClass("com.acme.mappers.DocMapperImpl"), loader.loadClass("com.acme.services.DocService"),
+					loader.loadClass("com.acme.mappers.TagMapperImpl"), loader.loadClass("com.acme.services.TagService"));
+			context.refresh();
+			Class<?> dtoType = loader.loadClass("com.acme.dtos.DocDto");
+			Object service = context.getBean(loader.loadClass("com.acme.services.DocService"));
+
+			// save inserts the client-assigned key instead of updating a missing row
+			Object saved = block(GeneratedProject.invoke(service, "save",
+					objectMapper.convertValue(Map.of("id", 1, "title", "draft"), dtoType)));
+			assertEquals(0, dtoType.getMethod("getVersion").invoke(saved));
+			RuntimeException duplicate = assertThrows(RuntimeException.class, () -> block(GeneratedProject
+					.invoke(service, "save", objectMapper.convertValue(Map.of("id", 1, "title", "copy"), dtoType))));
+			assertInstanceOf(DuplicateKeyException.class, duplicate);
+
+			// without a version to tell new rows apart, a client-assigned key is still inserted
+			Class<?> tagDtoType = loader.loadClass("com.acme.dtos.TagDto");
+			Object tags = context.getBean(loader.loadClass("com.acme.services.TagService"));
+			block(GeneratedProject.invoke(tags, "save", objectMapper.convertValue(Map.of("id", 7, "name", "r2dbc"),
+					tagDtoType)));
+			assertEquals("r2dbc", tagDtoType.getMethod("getName").invoke(block(GeneratedProject.invoke(tags,
+					"findById", 7L))));
+
+			// an update without version applies to the current row, a stale one is rejected
+			Object updated = block(GeneratedProject.invoke(service, "update", 1L,
+					objectMapper.convertValue(Map.of("title", "final"), dtoType)));
+			assertEquals(1, dtoType.getMethod("getVersion").invoke(updated));
+			assertThrows(OptimisticLockingFailureException.class, () -> block(GeneratedProject.invoke(service,
+					"update", 1L, objectMapper.convertValue(Map.of("title", "stale", "version", 0), dtoType))));
+			assertNull(block(GeneratedProject.invoke(service, "update", 2L,
+					objectMapper.convertValue(Map.of("title", "none"), dtoType))));
+
+			List<?> page = ((Flux<?>) GeneratedProject.invoke(service, "findAll", 0, 20)).collectList().block();
+			assertEquals(1, page.size());
+			assertEquals("final", dtoType.getMethod("getTitle").invoke(page.get(0)));
+
+			assertEquals(false, block(GeneratedProject.invoke(service, "delete", 2L)));
+			assertEquals(true, block(GeneratedProject.invoke(service, "delete", 1L)));
+			assertNull(block(GeneratedProject.invoke(service, "findById", 1L)));
+		}
+	}
+
+	private static Object block(Object mono) {
+		return ((Mono<?>) mono).block();
+	}
+
+	@EnableR2dbcRepositories(basePackages = "com.acme.repositories")
+	static class Repositories {
+	}
+}
@@ -0,0 +1,75 @@
+package org.cheetah.sword.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+
+class ReadReplicaConfigWriterTest {
+
+	// unquoted, as the JPA entities name their table and columns
+	private static final String TASKS = """
+			create table task (task_id bigint primary key, task_name varchar(20))
+			""";
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void readOnlyServiceMethodsRunOnTheReplica() throws Exception {
+		Path src = GeneratedProject.generate(dir, TASKS, cfg -> cfg.generateDto(true).generateRepositories(true)
+				.generateServices(true).generateReadReplica(true));
+		Path classes = dir.resolve("classes");
+		GeneratedProject.assertCompiles(src, classes);
+
+		ObjectMapper objectMapper = new ObjectMapper();
+		try (HikariDataSource primary = database("primary");
+				HikariDataSource replica = database("replica");
+				URLClassLoader loader = GeneratedProject.load(classes)) {
+			Object config = loader.loadClass("com.acme.config.ReadReplicaConfig").getConstructor().newInstance();
+			DataSource dataSource = (DataSource) GeneratedProject.invoke(config, "dataSource", primary, replica);
+			try (AnnotationConfigApplicationContext context = GeneratedProject.jpaContext(loader, dataSource,
+					loader.loadClass("com.acme.mappers.TaskMapperImpl"),
+					loader.loadClass("com.acme.services.TasksService"))) {
+				Object service = context.getBean(loader.loadClass("com.acme.services.TasksService"));
+				Class<?> dtoType = loader.loadClass("com.acme.dtos.TaskDto");
+
+				Object read = GeneratedProject.invoke(service, "findById", 1L);
+				assertEquals("replica", dtoType.getMethod("getTaskName").invoke(read));
+				Object page = GeneratedProject.invoke(service, "findAll", 0, 20);
+				assertEquals(1L, page.getClass().getMethod("getTotalElements").invoke(page));
+
+				GeneratedProject.invoke(service, "save",
+						objectMapper.convertValue(Map.of("taskId", 2, "taskName", "written"), dtoType));
+				assertEquals(2, count(primary));
+				assertEquals(1, count(replica));
+			}
+		}
+	}
+
+	/** A pool on its own in-memory database holding task 1 named after it. */
+	private static HikariDataSource database(String name) {
+		HikariDataSource dataSource = new HikariDataSource();
+		dataSource.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+		dataSource.setUsername("sa");
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute(TASKS);
+		jdbcTemplate.update("insert into task values (1, ?)", name);
+		return dataSource;
+	}
+
+	private static int count(DataSource dataSource) {
+		return new JdbcTemplate(dataSource).queryForObject("select count(*) from task", Integer.class);
+	}
+}
@@ -0,0 +1,67 @@
+package org.cheetah.sword.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class RecordCarriersTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void recordDtosAndResourcesMapWithObjectMethodColumns() throws Exception {
+		Path src = GeneratedProject.generate(dir, """
+				create table "job" ("id" bigint primary key, "wait" int not null, "hash_code" varchar(40),
+				    "name" varchar(80), "version" int not null)
+				""", cfg -> cfg.generateDto(true).generateRepositories(true).generateServices(true)
+				.generateControllers(true).recordCarriers(true));
+
+		String dto = GeneratedProject.source(src, "dtos", "JobDto");
+		assertTrue(dto.contains("public record JobDto("), dto);
+		assertTrue(dto.contains("Integer waitValue"), dto);
+		assertTrue(dto.contains("String hashCodeValue"), dto);
+		String entity = GeneratedProject.source(src, "", "Job");
+		assertTrue(entity.contains("private Integer waitValue;"), entity);
+		String resource = GeneratedProject.source(src, "resources", "JobResource");
+		assertTrue(resource.contains("public record JobResource("), resource);
+		assertTrue(GeneratedProject.source(src, "dtos", "PageDto").contains("public record PageDto<T>("));
+
+		Path classes = dir.resolve("classes");
+		GeneratedProject.assertCompiles(src, classes);
+
+		ObjectMapper objectMapper = new ObjectMapper();
+		try (URLClassLoader loader = GeneratedProject.load(classes)) {
+			Class<?> entityType = loader.loadClass("com.acme.entities.Job");
+			Object job = objectMapper.convertValue(Map.of("id", 1, "waitValue", 5, "hashCodeValue", "h",
+					"name", "nightly", "version", 2), entityType);
+			Object dtoMapper = loader.loadClass("com.acme.mappers.JobMapperImpl").getConstructor().newInstance();
+			Object resourceMapper = loader.loadClass("com.acme.resourceMappers.JobResourceMapperImpl")
+					.getConstructor().newInstance();
+
+			// MapStruct fills the records through their canonical constructors
+			Object jobDto = GeneratedProject.invoke(dtoMapper, "toDto", job);
+			assertEquals(5, GeneratedProject.invoke(jobDto, "waitValue"));
+			Object jobResource = GeneratedProject.invoke(resourceMapper, "toResource", jobDto);
+			String json = "{\"id\":1,\"waitValue\":5,\"hashCodeValue\":\"h\",\"name\":\"nightly\",\"version\":2}";
+			assertEquals(json, objectMapper.writeValueAsString(jobResource));
+			assertEquals(jobResource, objectMapper.readValue(json, jobResource.getClass()));
+			Object copy = GeneratedProject.invoke(resourceMapper, "withVersion", jobResource, 3);
+			assertEquals(3, GeneratedProject.invoke(copy, "version"));
+			assertEquals("nightly", GeneratedProject.invoke(copy, "name"));
+
+			Object back = GeneratedProject.invoke(dtoMapper, "toEntity",
+					GeneratedProject.invoke(resourceMapper, "toDto", jobResource));
+			assertEquals(5, entityType.getMethod("getWaitValue").invoke(back));
+			assertEquals("h", entityType.getMethod("getHashCodeValue").invoke(back));
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package org.cheetah.sword.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+
+import javax.sql.DataSource;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import jakarta.persistence.EntityManagerFactory;
+
+class RepositoryWriterTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void readOnlyRepositoryDeclaresEveryQueryOfItsService() throws Exception {
+		Path src = GeneratedProject.generate(dir, """
+				create table "report" ("id" bigint primary key, "title" varchar(80) not null);
+				create view "report_title" as select "id", "title" from "report"
+				""", cfg -> cfg.generateDto(true).generateRepositories(true).generateServices(true).includeViews(true));
+
+		String repository = GeneratedProject.source(src, "repositories", "ReportTitlesRepository");
+		assertTrue(repository.contains("repository.Repository<ReportTitle, Long>"), repository);
+		assertTrue(repository.contains("boolean existsById(Long id);"), repository);
+		String service = GeneratedProject.source(src, "services", "ReportTitlesService");
+		assertTrue(service.contains("repository.existsById(id)"), service);
+
+		GeneratedProject.assertCompiles(src, dir.resolve("classes"));
+	}
+
+	@Test
+	void deletesAndExistenceChecksLoadNoEntity() throws Exception {
+		// unquoted, as the JPA entities name their table and columns
+		String ddl = """
+				create table task (task_id bigint primary key, task_status varchar(20));
+				create index task_status on task (task_status)
+				""";
+		Path src = GeneratedProject.generate(dir, ddl, cfg -> cfg.generateDto(true).generateRepositories(true)
+				.generateServices(true));
+		Path classes = dir.resolve("classes");
+		GeneratedProject.assertCompiles(src, classes);
+
+		DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:direct-delete;DB_CLOSE_DELAY=-1", "sa", "");
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.batchUpdate(ddl.split(";"));
+		jdbcTemplate.update("insert into task values (1, 'open'), (2, 'open'), (3, 'done')");
+		try (URLClassLoader loader = GeneratedProject.load(classes);
+				AnnotationConfigApplicationContext context = GeneratedProject.jpaContext(loader, dataSource,
+						loader.loadClass("com.acme.mappers.TaskMapperImpl"),
+						loader.loadClass("com.acme.services.TasksService"))) {
+			Object service = context.getBean(loader.loadClass("com.acme.services.TasksService"));
+
+			assertEquals(true, GeneratedProject.invoke(service, "existsById", 1L));
+			assertEquals(false, GeneratedProject.invoke(service, "existsById", 9L));
+			assertEquals(false, GeneratedProject.invoke(service, "delete", 9L));
+			assertEquals(true, GeneratedProject.invoke(service, "delete", 3L));
+			assertEquals(2, GeneratedProject.invoke(service, "deleteByTaskStatus", "open"));
+			assertEquals(0, jdbcTemplate.queryForObject("select count(*) from task", Integer.class));
+
+			Statistics statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class)
+					.getStatistics();
+			assertEquals(0, statistics.getEntityLoadCount());
+		}
+	}
+}
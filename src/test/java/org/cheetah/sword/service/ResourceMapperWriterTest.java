@@ -0,0 +1,90 @@
+package org.cheetah.sword.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.reflect.Proxy;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.cheetah.sword.model.GenerationTarget;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ResourceMapperWriterTest {
+
+	private static final String NAMING = """
+			tables:
+			  customer:
+			    columns:
+			      first_name:
+			        dto: firstName
+			        resource: givenName
+			""";
+
+	@TempDir
+	Path dir;
+
+	@ParameterizedTest
+	@EnumSource(value = GenerationTarget.class, names = { "JPA", "JDBC" })
+	void pagesAreMappedFromEntitiesToResourcesDirectly(GenerationTarget target) throws Exception {
+		Path src = GeneratedProject.generate(dir, """
+				create table "customer" ("id" bigint primary key, "first_name" varchar(80))
+				""", NAMING, cfg -> cfg.target(target).generateDto(true).generateRepositories(true)
+				.generateServices(true).generateControllers(true).directResourceMapping(true));
+		Path classes = dir.resolve("classes");
+		GeneratedProject.assertCompiles(src, classes);
+
+		// JPA services and controllers are named after the table, JDBC ones after the entity
+		String prefix = target == GenerationTarget.JPA ? "Customers" : "Customer";
+		ObjectMapper objectMapper = new ObjectMapper();
+		try (URLClassLoader loader = GeneratedProject.load(classes)) {
+			Object entity = objectMapper.convertValue(Map.of("id", 1, "firstName", "Ada"),
+					loader.loadClass("com.acme.entities.Customer"));
+			Object dtoMapper = loader.loadClass("com.acme.mappers.CustomerMapperImpl").getConstructor().newInstance();
+			Object resourceMapper = loader.loadClass("com.acme.resourceMappers.CustomerResourceMapperImpl")
+					.getConstructor().newInstance();
+			Object entityMapper = loader.loadClass("com.acme.resourceMappers.CustomerEntityResourceMapperImpl")
+					.getConstructor().newInstance();
+
+			// one step gives the resource of the entity -> DTO -> resource path, renames included
+			Object direct = GeneratedProject.invoke(entityMapper, "toResource", entity);
+			assertEquals(GeneratedProject.invoke(resourceMapper, "toResource",
+					GeneratedProject.invoke(dtoMapper, "toDto", entity)), direct);
+			assertEquals("Ada", direct.getClass().getMethod("getGivenName").invoke(direct));
+
+			Object repository = Proxy.newProxyInstance(loader,
+					new Class<?>[] { loader.loadClass("com.acme.repositories.CustomersRepository") },
+					(proxy, method, args) -> switch (method.getName()) {
+					case "findAll" -> new PageImpl<>(List.of(entity), (Pageable) args[0], 1);
+					default -> throw new UnsupportedOperationException(method.getName());
+					});
+			WebRequest request = (WebRequest) Proxy.newProxyInstance(loader, new Class<?>[] { WebRequest.class },
+					(proxy, method, args) -> switch (method.getName()) {
+					case "checkNotModified" -> false;
+					default -> throw new UnsupportedOperationException(method.getName());
+					});
+			Object service = GeneratedProject.newBean(loader.loadClass("com.acme.services." + prefix + "Service"),
+					repository, dtoMapper);
+			// no DTO -> resource mapper: the list endpoint must not need it
+			Object controller = GeneratedProject.newBean(
+					loader.loadClass("com.acme.controllers." + prefix + "Controller"), service, objectMapper,
+					entityMapper);
+
+			// the JDBC controller has no conditional GETs
+			ResponseEntity<?> response = (ResponseEntity<?>) (target == GenerationTarget.JPA
+					? GeneratedProject.invoke(controller, "getAll", 0, 20, request)
+					: GeneratedProject.invoke(controller, "getAll", 0, 20));
+			Object page = response.getBody();
+			assertEquals(List.of(direct), page.getClass().getMethod("getContent").invoke(page));
+		}
+	}
+}
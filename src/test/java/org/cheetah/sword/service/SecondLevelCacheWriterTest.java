@@ -0,0 +1,106 @@
+package org.cheetah.sword.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.sql.DataSource;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.yaml.snakeyaml.Yaml;
+
+import jakarta.persistence.EntityManagerFactory;
+
+class SecondLevelCacheWriterTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void lookupTableWithLobIsNotCached() throws Exception {
+		Path src = GeneratedProject.generate(dir, """
+				create table "country" ("id" bigint primary key, "name" varchar(80) not null);
+				insert into "country" values (1, 'Italy'), (2, 'France');
+				create table "template" ("id" bigint primary key, "name" varchar(80) not null, "body" blob);
+				insert into "template" values (1, 'welcome', null), (2, 'reset', null)
+				""", cfg -> cfg.generateDto(true).generateRepositories(true).generateServices(true)
+				.lookupTableMaxRows(10));
+
+		String country = GeneratedProject.source(src, "", "Country");
+		assertTrue(country.contains("@Cacheable"), country);
+		assertTrue(country.contains("usage = CacheConcurrencyStrategy.READ_WRITE"), country);
+		String template = GeneratedProject.source(src, "", "Template");
+		assertTrue(template.contains("private Blob body;"), template);
+		assertFalse(template.contains("@Cacheable"), template);
+		assertFalse(template.contains("CacheConcurrencyStrategy"), template);
+
+		GeneratedProject.assertCompiles(src, dir.resolve("classes"));
+	}
+
+	@Test
+	void lookupRowsAreReadFromTheSecondLevelCache() throws Exception {
+		// unquoted, as the JPA entities name their table and columns
+		String ddl = """
+				create table country (country_id bigint primary key, country_name varchar(80) not null);
+				insert into country values (1, 'Italy'), (2, 'France')
+				""";
+		Path src = GeneratedProject.generate(dir, ddl, cfg -> cfg.generateDto(true).generateRepositories(true)
+				.generateServices(true).lookupTableMaxRows(10));
+		Path classes = dir.resolve("classes");
+		GeneratedProject.assertCompiles(src, classes);
+		// the region file is a resource of the generated application
+		Files.copy(src.resolve(SecondLevelCacheWriter.REGION_CONFIG_FILE),
+				classes.resolve(SecondLevelCacheWriter.REGION_CONFIG_FILE));
+
+		Map<String, Object> config = new Yaml().load(Files.readString(src.resolve("application-sword.yml")));
+		Map<String, Object> properties = new HashMap<>();
+		flatten("hibernate", path(config, "spring", "jpa", "properties", "hibernate"), properties);
+		DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:l2cache;DB_CLOSE_DELAY=-1", "sa", "");
+		new JdbcTemplate(dataSource).batchUpdate(ddl.split(";"));
+		try (URLClassLoader loader = GeneratedProject.load(classes);
+				AnnotationConfigApplicationContext context = GeneratedProject.jpaContext(loader, dataSource,
+						properties)) {
+			Object countries = context.getBean(loader.loadClass("com.acme.repositories.CountrysRepository"));
+			Statistics statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class)
+					.getStatistics();
+
+			for (int i = 0; i < 3; i++) {
+				Object country = ((Optional<?>) GeneratedProject.invoke(countries, "findById", 1L)).orElseThrow();
+				assertEquals("Italy", GeneratedProject.invoke(country, "getCountryName"));
+			}
+			assertEquals(1, statistics.getPrepareStatementCount());
+			assertEquals(2, statistics.getSecondLevelCacheHitCount());
+		}
+	}
+
+	/** The value at the given keys of a parsed YAML document. */
+	private static Object path(Map<String, Object> yaml, String... keys) {
+		Object value = yaml;
+		for (String key : keys) {
+			value = ((Map<?, ?>) value).get(key);
+		}
+		return value;
+	}
+
+	/** Nested YAML maps as the dotted properties Spring Boot hands to Hibernate. */
+	private static void flatten(String prefix, Object value, Map<String, Object> properties) {
+		if (value instanceof Map<?, ?> map) {
+			map.forEach((key, nested) -> flatten(prefix + "." + key, nested, properties));
+		} else {
+			properties.put(prefix, value);
+		}
+	}
+}
@@ -0,0 +1,247 @@
+package org.cheetah.sword.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.http.ResponseEntity;
+import org.yaml.snakeyaml.Yaml;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ServiceWriterTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void saveOfAnExistingIdRefreshesTheCachedRow() throws Exception {
+		Path src = GeneratedProject.generate(dir, """
+				create table "customer" ("id" bigint primary key, "name" varchar(80))
+				""", cfg -> cfg.generateDto(true).generateRepositories(true).generateServices(true)
+				.generateCaching(true));
+		Path classes = dir.resolve("classes");
+		GeneratedProject.assertCompiles(src, classes);
+
+		ObjectMapper objectMapper = new ObjectMapper();
+		try (URLClassLoader loader = GeneratedProject.load(classes);
+				AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+			Class<?> repositoryType = loader.loadClass("com.acme.repositories.CustomersRepository");
+			Class<?> entityType = loader.loadClass("com.acme.entities.Customer");
+			Class<?> dtoType = loader.loadClass("com.acme.dtos.CustomerDto");
+			// the rows of an in-memory repository, by id
+			Map<Object, Object> rows = new HashMap<>();
+			Object repository = Proxy.newProxyInstance(loader, new Class<?>[] { repositoryType },
+					(proxy, method, args) -> switch (method.getName()) {
+					case "findById" -> Optional.ofNullable(rows.get(args[0]));
+					case "save" -> {
+						rows.put(entityType.getMethod("getId").invoke(args[0]), args[0]);
+						yield args[0];
+					}
+					default -> throw new UnsupportedOperationException(method.getName());
+					});
+			Object mapper = loader.loadClass("com.acme.mappers.CustomerMapperImpl").getConstructor().newInstance();
+			Class<?> serviceType = loader.loadClass("com.acme.services.CustomersService");
+
+			context.setClassLoader(loader);
+			context.register(loader.loadClass("com.acme.config.CacheConfig"));
+			registerBean(context, serviceType, repository, mapper);
+			context.refresh();
+			Object service = context.getBean(serviceType);
+
+			GeneratedProject.invoke(service, "save", objectMapper.convertValue(Map.of("id", 1, "name", "old"), dtoType));
+			assertEquals("old", dtoType.getMethod("getName").invoke(GeneratedProject.invoke(service, "findById", 1L)));
+
+			GeneratedProject.invoke(service, "save", objectMapper.convertValue(Map.of("id", 1, "name", "new"), dtoType));
+			assertEquals("new", dtoType.getMethod("getName").invoke(GeneratedProject.invoke(service, "findById", 1L)));
+		}
+	}
+
+	@Test
+	void scanTakesEitherBoundAndTheKeysetTogether() throws Exception {
+		Path src = GeneratedProject.generate(dir, """
+				create table "event" ("id" bigint primary key, "at" timestamp with time zone not null);
+				create index "event_at" on "event" ("at")
+				""", cfg -> cfg.generateDto(true).generateRepositories(true).generateServices(true)
+				.generateControllers(true));
+		Path classes = dir.resolve("classes");
+		GeneratedProject.assertCompiles(src, classes);
+
+		try (URLClassLoader loader = GeneratedProject.load(classes)) {
+			List<String> queries = new ArrayList<>();
+			Object repository = Proxy.newProxyInstance(loader,
+					new Class<?>[] { loader.loadClass("com.acme.repositories.EventsRepository") },
+					(proxy, method, args) -> {
+						queries.add(method.getName());
+						return Window.from(List.of(), i -> ScrollPosition.keyset());
+					});
+			Object service = GeneratedProject.newBean(loader.loadClass("com.acme.services.EventsService"), repository,
+					loader.loadClass("com.acme.mappers.EventMapperImpl").getConstructor().newInstance());
+			OffsetDateTime at = OffsetDateTime.parse("2024-01-01T00:00Z");
+
+			GeneratedProject.invoke(service, "scanByAt", at, null, null, null, 10);
+			GeneratedProject.invoke(service, "scanByAt", null, at, at, 1L, 10);
+			GeneratedProject.invoke(service, "scanByAt", at, at, null, null, 10);
+			assertEquals(List.of("findByAtGreaterThanEqualOrderByAtAscIdAsc", "findByAtLessThanEqualOrderByAtAscIdAsc",
+					"findByAtBetweenOrderByAtAscIdAsc"), queries);
+			// after without afterId used to restart from the first row
+			assertThrows(IllegalArgumentException.class,
+					() -> GeneratedProject.invoke(service, "scanByAt", at, null, at, null, 10));
+			assertThrows(IllegalArgumentException.class,
+					() -> GeneratedProject.invoke(service, "scanByAt", null, null, null, null, 10));
+
+			Object controller = GeneratedProject.newBean(loader.loadClass("com.acme.controllers.EventsController"),
+					service, new ObjectMapper(),
+					loader.loadClass("com.acme.resourceMappers.EventResourceMapperImpl").getConstructor().newInstance());
+			ResponseEntity<?> response = (ResponseEntity<?>) GeneratedProject.invoke(controller, "scanByAt", at, null,
+					at, null, 10);
+			assertEquals(400, response.getStatusCode().value());
+			response = (ResponseEntity<?>) GeneratedProject.invoke(controller, "scanByAt", at, null, null, null, 10);
+			assertEquals(200, response.getStatusCode().value());
+		}
+	}
+
+	@Test
+	void bulkWritesFlushAndClearEachChunk() throws Exception {
+		Path src = GeneratedProject.generate(dir, """
+				create table "customer" ("id" bigint primary key, "name" varchar(80))
+				""", cfg -> cfg.generateDto(true).generateRepositories(true).generateServices(true)
+				.generateControllers(true));
+		Path classes = dir.resolve("classes");
+		GeneratedProject.assertCompiles(src, classes);
+
+		// the chunks go to the database as JDBC batches
+		Map<String, Object> config = new Yaml().load(Files.readString(src.resolve("application-sword.yml")));
+		assertEquals("{jdbc={batch_size=50, batch_versioned_data=true}, order_inserts=true, order_updates=true, "
+				+ "id.optimizer.pooled.preferred=pooled-lo}", String.valueOf(path(config,
+						"spring", "jpa", "properties", "hibernate")));
+		assertEquals(500, path(config, "sword", "bulk", "chunk-size"));
+
+		ObjectMapper objectMapper = new ObjectMapper();
+		try (URLClassLoader loader = GeneratedProject.load(classes)) {
+			List<String> calls = new ArrayList<>();
+			Object repository = Proxy.newProxyInstance(loader,
+					new Class<?>[] { loader.loadClass("com.acme.repositories.CustomersRepository") },
+					(proxy, method, args) -> {
+						calls.add(method.getName() + (args == null ? "" : args[0]));
+						return method.getName().equals("saveAll") ? new ArrayList<>((List<?>) args[0]) : null;
+					});
+			Object entityManager = Proxy.newProxyInstance(loader,
+					new Class<?>[] { loader.loadClass("jakarta.persistence.EntityManager") }, (proxy, method, args) -> {
+						calls.add(method.getName());
+						return null;
+					});
+			Object service = GeneratedProject.newBean(loader.loadClass("com.acme.services.CustomersService"),
+					repository, entityManager,
+					loader.loadClass("com.acme.mappers.CustomerMapperImpl").getConstructor().newInstance());
+			Field chunkSize = service.getClass().getDeclaredField("bulkChunkSize");
+			chunkSize.setAccessible(true);
+			chunkSize.setInt(service, 2);
+			Class<?> dtoType = loader.loadClass("com.acme.dtos.CustomerDto");
+			List<Object> dtos = new ArrayList<>();
+			for (int id = 1; id <= 3; id++) {
+				dtos.add(objectMapper.convertValue(Map.of("id", id, "name", "c" + id), dtoType));
+			}
+
+			List<?> saved = (List<?>) GeneratedProject.invoke(service, "saveAll", dtos);
+			assertEquals(3, saved.size());
+			assertEquals(List.of("saveAll[Customer(id=1, name=c1), Customer(id=2, name=c2)]", "flush", "clear",
+					"saveAll[Customer(id=3, name=c3)]", "flush", "clear"), calls);
+
+			calls.clear();
+			GeneratedProject.invoke(service, "deleteAll", List.of(1L, 2L, 3L));
+			assertEquals(List.of("deleteAllByIdInBatch[1, 2]", "deleteAllByIdInBatch[3]"), calls);
+		}
+	}
+
+	@Test
+	void findAllByIdQueriesDistinctIdsInChunksAndKeepsRequestOrder() throws Exception {
+		Path src = GeneratedProject.generate(dir, """
+				create table "customer" ("id" bigint primary key, "name" varchar(80))
+				""", cfg -> cfg.generateDto(true).generateRepositories(true).generateServices(true)
+				.generateControllers(true));
+		Path classes = dir.resolve("classes");
+		GeneratedProject.assertCompiles(src, classes);
+
+		ObjectMapper objectMapper = new ObjectMapper();
+		try (URLClassLoader loader = GeneratedProject.load(classes)) {
+			Class<?> entityType = loader.loadClass("com.acme.entities.Customer");
+			List<Object> queries = new ArrayList<>();
+			Object repository = Proxy.newProxyInstance(loader,
+					new Class<?>[] { loader.loadClass("com.acme.repositories.CustomersRepository") },
+					(proxy, method, args) -> {
+						if (!method.getName().equals("findAllById")) {
+							throw new UnsupportedOperationException(method.getName());
+						}
+						List<Object> ids = new ArrayList<>();
+						((Iterable<?>) args[0]).forEach(ids::add);
+						queries.add(ids);
+						// rows come back in no particular order, unknown ids are missing
+						List<Object> rows = new ArrayList<>();
+						for (Object id : ids) {
+							if (!id.equals(9L)) {
+								rows.add(0, objectMapper.convertValue(Map.of("id", id, "name", "c" + id), entityType));
+							}
+						}
+						return rows;
+					});
+			Object service = GeneratedProject.newBean(loader.loadClass("com.acme.services.CustomersService"),
+					repository, loader.loadClass("com.acme.mappers.CustomerMapperImpl").getConstructor().newInstance());
+			Field chunkSize = service.getClass().getDeclaredField("idChunkSize");
+			chunkSize.setAccessible(true);
+			chunkSize.setInt(service, 2);
+
+			List<?> dtos = (List<?>) GeneratedProject.invoke(service, "findAllById",
+					Arrays.asList(3L, 1L, 3L, null, 9L, 2L));
+			assertEquals(List.of(List.of(3L, 1L), List.of(9L, 2L)), queries);
+			assertEquals("[{\"id\":3,\"name\":\"c3\"},{\"id\":1,\"name\":\"c1\"},{\"id\":3,\"name\":\"c3\"},"
+					+ "{\"id\":2,\"name\":\"c2\"}]", objectMapper.writeValueAsString(dtos));
+
+			Object controller = GeneratedProject.newBean(loader.loadClass("com.acme.controllers.CustomersController"),
+					service, objectMapper);
+			List<Long> tooMany = LongStream.rangeClosed(1, 5001).boxed().toList();
+			ResponseEntity<?> response = (ResponseEntity<?>) GeneratedProject.invoke(controller, "batchGet", tooMany);
+			assertEquals(400, response.getStatusCode().value());
+			assertEquals(2, queries.size());
+		}
+	}
+
+	/** The value at the given keys of a parsed YAML document. */
+	private static Object path(Map<String, Object> yaml, String... keys) {
+		Object value = yaml;
+		for (String key : keys) {
+			value = ((Map<?, ?>) value).get(key);
+		}
+		return value;
+	}
+
+	/** Registers a generated bean built by GeneratedProject#newBean, so that Spring proxies it. */
+	private static <T> void registerBean(AnnotationConfigApplicationContext context, Class<T> type,
+			Object... dependencies) {
+		context.registerBean(type, () -> {
+			try {
+				return type.cast(GeneratedProject.newBean(type, dependencies));
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+	}
+}
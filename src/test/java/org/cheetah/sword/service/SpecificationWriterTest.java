@@ -0,0 +1,45 @@
+package org.cheetah.sword.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Sort;
+
+class SpecificationWriterTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void onlyIndexedPropertiesAreSortable() throws Exception {
+		Path src = GeneratedProject.generate(dir, """
+				create table "ticket" ("id" bigint primary key, "status" varchar(10), "note" varchar(80));
+				create index "ticket_status" on "ticket" ("status")
+				""", cfg -> cfg.generateDto(true).generateRepositories(true).generateServices(true));
+		Path classes = dir.resolve("classes");
+		GeneratedProject.assertCompiles(src, classes);
+
+		try (URLClassLoader loader = GeneratedProject.load(classes)) {
+			Class<?> specifications = loader.loadClass("com.acme.repositories.TicketsSpecifications");
+			assertEquals(Set.of("id", "status"), specifications.getField("SORTABLE").get(null));
+
+			Method sort = specifications.getMethod("sort", List.class);
+			assertEquals(Sort.by(Sort.Order.desc("status")), sort.invoke(null, List.of("-status")));
+			// still filterable, no longer sortable
+			InvocationTargetException e = assertThrows(InvocationTargetException.class,
+					() -> sort.invoke(null, List.of("note")));
+			assertEquals(IllegalArgumentException.class, e.getCause().getClass());
+			specifications.getMethod("of", Map.class).invoke(null, Map.of("note", List.of("x")));
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package org.cheetah.sword.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class UpsertWriterTest {
+
+	private static final String ORDER_LINES = """
+			create table "order_line" ("order_id" bigint, "line_no" int, "qty" int, "version" int not null,
+			    primary key ("order_id", "line_no"))
+			""";
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void upsertInsertsThenUpdatesAndOwnsTheVersion() throws Exception {
+		Path src = GeneratedProject.generate(dir, ORDER_LINES, cfg -> cfg.generateDto(true)
+				.generateRepositories(true).generateServices(true));
+		Path classes = dir.resolve("classes");
+		GeneratedProject.assertCompiles(src, classes);
+
+		DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:upsert;DB_CLOSE_DELAY=-1", "sa", "");
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute(ORDER_LINES);
+		ObjectMapper objectMapper = new ObjectMapper();
+		try (URLClassLoader loader = GeneratedProject.load(classes)) {
+			Object upsertRepository = loader.loadClass("com.acme.repositories.OrderLinesUpsertRepositoryImpl")
+					.getConstructor(JdbcTemplate.class).newInstance(jdbcTemplate);
+			Object repository = Proxy.newProxyInstance(loader,
+					new Class<?>[] { loader.loadClass("com.acme.repositories.OrderLinesRepository") },
+					(proxy, method, args) -> switch (method.getName()) {
+					case "upsertAll" -> GeneratedProject.invoke(upsertRepository, "upsertAll", args[0]);
+					default -> throw new UnsupportedOperationException(method.getName());
+					});
+			// the second-level cache eviction after the native statement
+			Object entityManager = noOp(loader, loader.loadClass("jakarta.persistence.EntityManager"));
+			Object service = GeneratedProject.newBean(loader.loadClass("com.acme.services.OrderLinesService"),
+					repository, entityManager,
+					loader.loadClass("com.acme.mappers.OrderLineMapperImpl").getConstructor().newInstance());
+			Field chunkSize = service.getClass().getDeclaredField("bulkChunkSize");
+			chunkSize.setAccessible(true);
+			chunkSize.setInt(service, 1);
+			Class<?> dtoType = loader.loadClass("com.acme.dtos.OrderLineDto");
+
+			GeneratedProject.invoke(service, "upsertAll", List.of(
+					objectMapper.convertValue(Map.of("orderId", 1, "lineNo", 1, "qty", 5), dtoType),
+					objectMapper.convertValue(Map.of("orderId", 1, "lineNo", 2, "qty", 7), dtoType)));
+			// last writer wins: the version sent by the client is ignored
+			GeneratedProject.invoke(service, "upsertAll", List.of(
+					objectMapper.convertValue(Map.of("orderId", 1, "lineNo", 1, "qty", 6, "version", 9), dtoType)));
+			assertEquals(List.of(Map.of("line_no", 1, "qty", 6, "version", 1),
+					Map.of("line_no", 2, "qty", 7, "version", 0)),
+					jdbcTemplate.queryForList("select \"line_no\", \"qty\", \"version\" from \"order_line\" order by 1"));
+
+			assertThrows(IllegalArgumentException.class, () -> GeneratedProject.invoke(service, "upsertAll",
+					List.of(objectMapper.convertValue(Map.of("orderId", 1, "qty", 1), dtoType))));
+		}
+	}
+
+	/** An interface implementation whose methods do nothing and return no-op implementations. */
+	private static Object noOp(ClassLoader loader, Class<?> type) {
+		return Proxy.newProxyInstance(loader, new Class<?>[] { type },
+				(proxy, method, args) -> method.getReturnType().isInterface() ? noOp(loader, method.getReturnType())
+						: null);
+	}
+}
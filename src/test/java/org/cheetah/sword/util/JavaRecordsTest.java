@@ -0,0 +1,91 @@
+package org.cheetah.sword.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import javax.lang.model.element.Modifier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.TypeVariableName;
+
+class JavaRecordsTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void classFieldsBecomeRecordComponents() {
+		TypeVariableName t = TypeVariableName.get("T");
+		TypeSpec page = TypeSpec.classBuilder("PageDto").addModifiers(Modifier.PUBLIC).addTypeVariable(t)
+				.addField(ParameterizedTypeName.get(ClassName.get(List.class), t), "content", Modifier.PRIVATE)
+				.addField(TypeName.INT, "pageNumber", Modifier.PRIVATE).build();
+
+		String source = JavaRecords.toSource(JavaFile.builder("com.acme.dtos", page).build().toString(), page);
+
+		assertTrue(source.contains("public record PageDto<T>(\n    List<T> content,\n    int pageNumber) {\n}"), source);
+		assertTrue(source.contains("import java.util.List;"), source);
+	}
+
+	@Test
+	void wrappedAnnotationsAreJoinedOnTheirComponent() {
+		ClassName deserialize = ClassName.get("com.fasterxml.jackson.databind.annotation", "JsonDeserialize");
+		ClassName rawJson = ClassName.get("com.acme.json", "RawJsonDeserializerWithAVeryLongNameThatWraps");
+		TypeSpec resource = TypeSpec.classBuilder("EventResource").addModifiers(Modifier.PUBLIC)
+				.addField(ClassName.get(Long.class), "id", Modifier.PRIVATE)
+				.addField(FieldSpec.builder(String.class, "rawDoc", Modifier.PRIVATE)
+						.addAnnotation(ClassName.get("com.fasterxml.jackson.annotation", "JsonRawValue"))
+						.addAnnotation(AnnotationSpec.builder(deserialize).addMember("using", "$T.class", rawJson)
+								.addMember("contentAs", "$T.class", rawJson).build())
+						.build())
+				.build();
+
+		String source = JavaRecords.toSource(JavaFile.builder("com.acme.resources", resource).build().toString(),
+				resource);
+
+		String header = source.substring(source.indexOf("public record"));
+		assertEquals(3, header.split("\n").length - 1, header);
+		assertTrue(header.contains("@JsonRawValue @JsonDeserialize(using = RawJsonDeserializerWithAVeryLongNameThatWraps.class"),
+				header);
+		assertTrue(header.endsWith("String rawDoc) {\n}\n") || header.endsWith("String rawDoc) {\n}"), header);
+	}
+
+	@Test
+	void onlyPlainFieldClassesAreAccepted() {
+		TypeSpec withMethod = TypeSpec.classBuilder("UserDto").addField(String.class, "name", Modifier.PRIVATE)
+				.addMethod(MethodSpec.methodBuilder("name").returns(String.class).addStatement("return name").build())
+				.build();
+		assertThrows(IllegalArgumentException.class, () -> JavaRecords.writeTo("com.acme.dtos", withMethod, dir));
+
+		TypeSpec objectMethodName = TypeSpec.classBuilder("JobDto").addField(String.class, "wait", Modifier.PRIVATE)
+				.build();
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+				() -> JavaRecords.writeTo("com.acme.dtos", objectMethodName, dir));
+		assertTrue(e.getMessage().contains("wait"), e.getMessage());
+	}
+
+	@Test
+	void recordIsWrittenUnderItsPackage() throws Exception {
+		TypeSpec dto = TypeSpec.classBuilder("UserDto").addModifiers(Modifier.PUBLIC)
+				.addField(String.class, "name", Modifier.PRIVATE).build();
+
+		JavaRecords.writeTo("com.acme.dtos", dto, dir);
+
+		String source = Files.readString(dir.resolve("com/acme/dtos/UserDto.java"));
+		assertTrue(source.contains("public record UserDto(\n    String name) {"), source);
+	}
+}
@@ -0,0 +1,30 @@
+package org.cheetah.sword.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.TypeName;
+
+class NamingUtilsTest {
+
+	@Test
+	void getterNameFollowsLombok() {
+		assertEquals("getName", NamingUtils.getterName("name", ClassName.get(String.class)));
+		assertEquals("getActive", NamingUtils.getterName("active", TypeName.BOOLEAN.box()));
+		assertEquals("getIsActive", NamingUtils.getterName("isActive", TypeName.BOOLEAN.box()));
+		assertEquals("isActive", NamingUtils.getterName("active", TypeName.BOOLEAN));
+		assertEquals("isActive", NamingUtils.getterName("isActive", TypeName.BOOLEAN));
+		assertEquals("isIsolated", NamingUtils.getterName("isolated", TypeName.BOOLEAN));
+	}
+
+	@Test
+	void primitiveBooleanWithIsPrefixIsBoxed() {
+		assertEquals(TypeName.BOOLEAN.box(), NamingUtils.propertyType("isActive", TypeName.BOOLEAN));
+		assertEquals(TypeName.BOOLEAN, NamingUtils.propertyType("active", TypeName.BOOLEAN));
+		assertEquals(TypeName.BOOLEAN, NamingUtils.propertyType("isolated", TypeName.BOOLEAN));
+		assertEquals(TypeName.INT, NamingUtils.propertyType("isoCode", TypeName.INT));
+		assertEquals(TypeName.INT, NamingUtils.propertyType("isCount", TypeName.INT));
+	}
+}
@@ -0,0 +1,47 @@
+package org.cheetah.sword.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Types;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+
+class SqlTypeMapperTest {
+
+	private static final TypeName JSON_MAP = ParameterizedTypeName.get(ClassName.get(Map.class),
+			ClassName.get(String.class), ClassName.get(Object.class));
+
+	@Test
+	void jsonColumnsAreMapsOnEveryVendor() {
+		// H2 2.x reports JSON as its own vendor code (1111 = OTHER), MySQL as LONGVARCHAR
+		assertEquals(JSON_MAP, SqlTypeMapper.map(Types.OTHER, "JSON", true, "H2"));
+		assertEquals(JSON_MAP, SqlTypeMapper.map(Types.LONGVARCHAR, "JSON", true, "MySQL"));
+		assertEquals(JSON_MAP, SqlTypeMapper.map(Types.OTHER, "jsonb", true, "PostgreSQL"));
+		assertEquals(JSON_MAP, SqlTypeMapper.map(Types.OTHER, "json", false, "PostgreSQL", true));
+		assertTrue(SqlTypeMapper.isJson("JSON"));
+	}
+
+	@Test
+	void vendorTypesAreResolvedByName() {
+		assertEquals(ClassName.get(java.util.UUID.class), SqlTypeMapper.map(Types.BINARY, "UUID", true, "H2"));
+		assertEquals(ClassName.get(java.time.Duration.class),
+				SqlTypeMapper.map(Types.OTHER, "INTERVAL DAY TO SECOND", true, "H2"));
+		assertEquals(ArrayTypeName.of(TypeName.INT), SqlTypeMapper.map(Types.ARRAY, "INTEGER ARRAY", true, "H2"));
+		assertEquals(ArrayTypeName.of(ClassName.get(String.class)),
+				SqlTypeMapper.map(Types.ARRAY, "_text", true, "PostgreSQL"));
+	}
+
+	@Test
+	void notNullColumnsArePrimitiveOnlyWhenRequested() {
+		assertEquals(TypeName.INT, SqlTypeMapper.map(Types.INTEGER, "INTEGER", false, "H2", true));
+		assertEquals(ClassName.get(Integer.class), SqlTypeMapper.map(Types.INTEGER, "INTEGER", true, "H2", true));
+		assertEquals(ClassName.get(Integer.class), SqlTypeMapper.map(Types.INTEGER, "INTEGER", false, "H2", false));
+	}
+}